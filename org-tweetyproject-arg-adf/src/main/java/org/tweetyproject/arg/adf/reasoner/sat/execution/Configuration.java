@@ -4,6 +4,7 @@ import java.util.Objects;
 
 import org.tweetyproject.arg.adf.sat.IncrementalSatSolver;
 import org.tweetyproject.arg.adf.sat.solver.NativeMinisatSolver;
+import org.tweetyproject.arg.adf.sat.solver.Sat4jIncrementalSolver;
 
 /**
  * 
@@ -53,7 +54,7 @@ public final class Configuration {
 	 */
 	public static final class Builder {
 		
-		private IncrementalSatSolver satSolver = new NativeMinisatSolver();
+		private IncrementalSatSolver satSolver;
 		
 		private int parallelism = Runtime.getRuntime().availableProcessors();
 			
@@ -84,8 +85,25 @@ public final class Configuration {
 		 * @return Configuration build
 		 */
 		public Configuration build() {
+			if (satSolver == null) {
+				satSolver = defaultSatSolver();
+			}
 			return new Configuration(this);
 		}
+		
+		/**
+		 * Uses the native minisat solver if its library can be loaded, otherwise
+		 * falls back to the in-process {@link Sat4jIncrementalSolver}.
+		 * 
+		 * @return the default sat solver
+		 */
+		private static IncrementalSatSolver defaultSatSolver() {
+			try {
+				return new NativeMinisatSolver();
+			} catch (LinkageError | RuntimeException e) {
+				return new Sat4jIncrementalSolver();
+			}
+		}
 	}
 	
 }
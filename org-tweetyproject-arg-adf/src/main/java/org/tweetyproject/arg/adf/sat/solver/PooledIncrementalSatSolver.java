@@ -117,7 +117,7 @@ public final class PooledIncrementalSatSolver implements IncrementalSatSolver {
 		
 		private final IncrementalSatSolver satSolver;
 		
-		private int poolSize;
+		private int poolSize = 1;
 		
 		private Executor executor = Executors.newSingleThreadExecutor();
 		
@@ -0,0 +1,162 @@
+/*
+ *  This file is part of "TweetyProject", a collection of Java libraries for
+ *  logical aspects of artificial intelligence and knowledge representation.
+ *
+ *  TweetyProject is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  Copyright 2024 The TweetyProject Team <http://tweetyproject.org/contact/>
+ */
+package org.tweetyproject.arg.adf.sat.solver;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.sat4j.core.VecInt;
+import org.sat4j.minisat.SolverFactory;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.ISolver;
+import org.sat4j.specs.TimeoutException;
+import org.tweetyproject.arg.adf.sat.IncrementalSatSolver;
+import org.tweetyproject.arg.adf.sat.SatSolverState;
+import org.tweetyproject.arg.adf.syntax.pl.Clause;
+import org.tweetyproject.arg.adf.syntax.pl.Literal;
+
+/**
+ * An incremental sat solver which runs in-process on top of the pure Java
+ * library Sat4j. In contrast to the native solvers it does not require any
+ * native libraries, so it works on every JVM. Each state owns its own Sat4j
+ * instance, hence states can be used concurrently (e.g. by a
+ * {@link org.tweetyproject.arg.adf.reasoner.sat.execution.ParallelExecution})
+ * and can be pooled by a {@link PooledIncrementalSatSolver}.
+ *
+ * @author agent
+ *
+ */
+public final class Sat4jIncrementalSolver implements IncrementalSatSolver {
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.tweetyproject.arg.adf.sat.IncrementalSatSolver#createState()
+	 */
+	@Override
+	public SatSolverState createState() {
+		return new Sat4jSolverState(SolverFactory.newDefault());
+	}
+
+	private static final class Sat4jSolverState implements SatSolverState {
+
+		private final ISolver solver;
+
+		private VecInt assumptions = new VecInt();
+
+		/**
+		 * Set to true as soon as an added clause made the state unsatisfiable,
+		 * since Sat4j rejects such clauses.
+		 */
+		private boolean contradiction = false;
+
+		/**
+		 * Maps the propositions to their Sat4j representation.
+		 */
+		private final Map<Literal, Integer> nonTransientMapping = new HashMap<Literal, Integer>();
+
+		private Map<Literal, Integer> transientMapping = new HashMap<Literal, Integer>();
+
+		private Sat4jSolverState(ISolver solver) {
+			this.solver = solver;
+		}
+
+		@Override
+		public void close() {
+			solver.reset();
+		}
+
+		@Override
+		public Set<Literal> witness() {
+			return witness(nonTransientMapping.keySet());
+		}
+
+		@Override
+		public Set<Literal> witness(Collection<? extends Literal> filter) {
+			if (satisfiable()) {
+				Set<Literal> witness = new HashSet<>();
+				for (Literal atom : filter) {
+					Integer mapping = nonTransientMapping.get(atom);
+					if (mapping != null && solver.model(mapping)) {
+						witness.add(atom);
+					}
+				}
+				return witness;
+			}
+
+			return null;
+		}
+
+		@Override
+		public boolean satisfiable() {
+			transientMapping = new HashMap<>();
+			VecInt assumptions = this.assumptions;
+			this.assumptions = new VecInt();
+			if (contradiction) {
+				return false;
+			}
+			try {
+				return solver.isSatisfiable(assumptions);
+			} catch (TimeoutException e) {
+				throw new RuntimeException(e);
+			}
+		}
+
+		@Override
+		public void assume(Literal literal) {
+			int mapped = mapToSat4j(literal.getAtom());
+			assumptions.push(literal.isPositive() ? mapped : -mapped);
+		}
+
+		@Override
+		public boolean add(Clause clause) {
+			if (contradiction) {
+				return false;
+			}
+			VecInt sclause = new VecInt(clause.size());
+			for (Literal literal : clause) {
+				int mapped = mapToSat4j(literal.getAtom());
+				sclause.push(literal.isPositive() ? mapped : -mapped);
+			}
+			try {
+				solver.addClause(sclause);
+				return true;
+			} catch (ContradictionException e) {
+				contradiction = true;
+				return false;
+			}
+		}
+
+		private int mapToSat4j(Literal atom) {
+			Map<Literal, Integer> map = atom.isTransient() ? transientMapping : nonTransientMapping;
+
+			Integer mapping = map.get(atom);
+			if (mapping == null) {
+				mapping = solver.nextFreeVarId(true);
+				map.put(atom, mapping);
+			}
+			return mapping;
+		}
+
+	}
+
+}
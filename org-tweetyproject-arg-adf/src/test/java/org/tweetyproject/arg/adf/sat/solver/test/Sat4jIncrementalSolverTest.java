@@ -0,0 +1,162 @@
+/*
+ *  This file is part of "TweetyProject", a collection of Java libraries for
+ *  logical aspects of artificial intelligence and knowledge representation.
+ *
+ *  TweetyProject is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  Copyright 2024 The TweetyProject Team <http://tweetyproject.org/contact/>
+ */
+package org.tweetyproject.arg.adf.sat.solver.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+import org.tweetyproject.arg.adf.sat.SatSolverState;
+import org.tweetyproject.arg.adf.sat.solver.Sat4jIncrementalSolver;
+import org.tweetyproject.arg.adf.syntax.pl.Clause;
+import org.tweetyproject.arg.adf.syntax.pl.Literal;
+
+/**
+ * Compares a single incremental state, to which clauses are added between queries
+ * under changing assumptions, with a fresh state and with a truth table.
+ * 
+ * @author agent
+ *
+ */
+public class Sat4jIncrementalSolverTest {
+
+	/** The number of atoms of the random clauses. */
+	private static final int ATOMS = 8;
+
+	private final Sat4jIncrementalSolver solver = new Sat4jIncrementalSolver();
+
+	@Test
+	public void testIncrementalEqualsFresh() throws Exception {
+		Random random = new Random(1);
+		for (int run = 0; run < 20; run++) {
+			List<Literal> atoms = new ArrayList<>();
+			for (int i = 0; i < ATOMS; i++) {
+				atoms.add(Literal.create("a" + i));
+			}
+			List<Clause> clauses = new ArrayList<>();
+			try (SatSolverState state = solver.createState()) {
+				for (int step = 0; step < 15; step++) {
+					for (int i = 0; i < 3; i++) {
+						Clause clause = Clause.of(literal(random, atoms), literal(random, atoms), literal(random, atoms));
+						clauses.add(clause);
+						assertTrue(state.add(clause) || !satisfiable(clauses, List.of(), atoms));
+					}
+					List<Literal> assumptions = new ArrayList<>();
+					for (int i = random.nextInt(3); i > 0; i--) {
+						assumptions.add(literal(random, atoms));
+					}
+					for (Literal assumption : assumptions) {
+						state.assume(assumption);
+					}
+					boolean expected = satisfiable(clauses, assumptions, atoms);
+					assertEquals(expected, state.satisfiable());
+					assertEquals(expected, fresh(clauses, assumptions));
+					// the assumptions only hold for a single query
+					Set<Literal> witness = state.witness();
+					if (satisfiable(clauses, List.of(), atoms)) {
+						for (Clause clause : clauses) {
+							assertTrue(satisfies(witness, clause));
+						}
+					} else {
+						assertNull(witness);
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testContradiction() throws Exception {
+		Literal a = Literal.create("a");
+		try (SatSolverState state = solver.createState()) {
+			assertTrue(state.add(Clause.of(a)));
+			state.assume(a.neg());
+			assertFalse(state.satisfiable());
+			assertTrue(state.satisfiable());
+			// a clause contradicting the state is rejected and the state stays unsatisfiable
+			assertFalse(state.add(Clause.of(a.neg())));
+			assertFalse(state.satisfiable());
+			assertFalse(state.add(Clause.of(Literal.create("b"))));
+		}
+	}
+
+	/**
+	 * Decides the given clauses under the given assumptions with a fresh state, in which the
+	 * assumptions are added as unit clauses.
+	 */
+	private boolean fresh(List<Clause> clauses, List<Literal> assumptions) throws Exception {
+		try (SatSolverState state = solver.createState()) {
+			for (Clause clause : clauses) {
+				state.add(clause);
+			}
+			for (Literal assumption : assumptions) {
+				state.add(Clause.of(assumption));
+			}
+			return state.satisfiable();
+		}
+	}
+
+	/**
+	 * Decides the given clauses under the given assumptions with a truth table.
+	 */
+	private static boolean satisfiable(List<Clause> clauses, List<Literal> assumptions, List<Literal> atoms) {
+		for (int w = 0; w < (1 << atoms.size()); w++) {
+			Set<Literal> world = new HashSet<>();
+			for (int i = 0; i < atoms.size(); i++) {
+				if ((w & (1 << i)) != 0) {
+					world.add(atoms.get(i));
+				}
+			}
+			boolean sat = true;
+			for (Literal assumption : assumptions) {
+				sat &= satisfies(world, Clause.of(assumption));
+			}
+			for (Clause clause : clauses) {
+				sat &= satisfies(world, clause);
+			}
+			if (sat) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean satisfies(Set<Literal> world, Clause clause) {
+		for (Literal literal : clause) {
+			if (world.contains(literal.getAtom()) == literal.isPositive()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static Literal literal(Random random, List<Literal> atoms) {
+		Literal atom = atoms.get(random.nextInt(atoms.size()));
+		return random.nextBoolean() ? atom : atom.neg();
+	}
+
+}
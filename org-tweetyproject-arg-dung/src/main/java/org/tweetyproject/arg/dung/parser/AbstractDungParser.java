@@ -61,6 +61,8 @@ public abstract class AbstractDungParser extends Parser<DungTheory,Formula> {
 			return new ApxParser();
 		if (f.equals(FileFormat.CNF))
 			return new CnfParser();
+		if (f.equals(FileFormat.I23))
+			return new Iccma23Parser();
 		return null;
 	}
 
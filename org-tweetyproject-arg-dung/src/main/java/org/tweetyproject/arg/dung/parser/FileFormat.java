@@ -32,7 +32,9 @@ public enum FileFormat {
 	/**apx*/
 	APX ("apx", "Aspartix format"),
 	/**cnf*/
-	CNF ("cnf", "Conjunctive Normal Form format");
+	CNF ("cnf", "Conjunctive Normal Form format"),
+	/**af (the ICCMA 2023 format, "i23" is accepted as an alias)*/
+	I23 ("af", "ICCMA 2023 format");
 	//LPG ("lpg", "Logic Programming format"),
 	//AIF ("aif", "Argument Interchange format"),	
 	//UAI ("uai", "UAI 2010 format");
@@ -89,6 +91,8 @@ public enum FileFormat {
 			return APX;
 		if(s.toLowerCase().equals("trivial"))
 			return TGF;
+		if(s.toLowerCase().equals("iccma23") || s.toLowerCase().equals("i23"))
+			return I23;
 		return null;
 	}
 	
@@ -21,15 +21,19 @@ package org.tweetyproject.arg.dung.reasoner;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
 import org.tweetyproject.arg.dung.semantics.Extension;
 import org.tweetyproject.arg.dung.syntax.Argument;
 import org.tweetyproject.arg.dung.syntax.DungTheory;
 import org.tweetyproject.logics.pl.sat.SatSolver;
+import org.tweetyproject.logics.pl.sat.SatSolverState;
 import org.tweetyproject.logics.pl.semantics.PossibleWorld;
 import org.tweetyproject.logics.pl.syntax.Disjunction;
+import org.tweetyproject.logics.pl.syntax.Negation;
 import org.tweetyproject.logics.pl.syntax.PlBeliefSet;
 import org.tweetyproject.logics.pl.syntax.Proposition;
 import org.tweetyproject.logics.pl.syntax.PlFormula;
@@ -57,31 +61,82 @@ public abstract class AbstractSatExtensionReasoner extends AbstractExtensionReas
 	 * @see org.tweetyproject.arg.dung.reasoner.AbstractExtensionReasoner#getModels(org.tweetyproject.arg.dung.syntax.DungTheory)
 	 */
 	@Override
-	public Collection<Extension<DungTheory>> getModels(DungTheory bbase) {		
-		PlBeliefSet prop = this.getPropositionalCharacterisation((DungTheory) bbase);
-		// get some labeling from the solver, then add the negation of this to the program and repeat
-		// to obtain all labelings
+	public Collection<Extension<DungTheory>> getModels(DungTheory bbase) {
 		Set<Extension<DungTheory>> result = new HashSet<Extension<DungTheory>>();
-		Extension<DungTheory> ext;
-		do{
-			PossibleWorld w = (PossibleWorld) this.solver.getWitness(prop);
-			if(w == null)
-				break;
-			ext = new Extension<DungTheory>();
-			for(Proposition p: w){
-				if(p.getName().startsWith("in_"))
-					ext.add(new Argument(p.getName().substring(3)));				
-			}
-			result.add(ext);
-			// add the newly found extension in negative form to prop
-			// so the next witness cannot be the same
-			Collection<PlFormula> f = new HashSet<PlFormula>();
-			for(Proposition p: w)
-				f.add((PlFormula)p.complement());
-			prop.add(new Disjunction(f));
-		}while(true);
+		Iterator<Extension<DungTheory>> it = this.modelIterator(bbase);
+		while(it.hasNext())
+			result.add(it.next());
 		return result;
 	}
+
+	/**
+	 * Returns an iterator over all extensions of the given theory. The extensions are
+	 * computed lazily: the propositional characterisation is passed to a single
+	 * solver state (see {@link SatSolver#createState()}) and after each extension has been
+	 * returned a clause excluding it is added to that state, so for solvers with native
+	 * support for incremental solving the characterisation is encoded only once.
+	 * The solver state is closed as soon as the iterator is exhausted.
+	 * @param bbase a Dung theory
+	 * @return an iterator over all extensions of the given theory.
+	 */
+	public Iterator<Extension<DungTheory>> modelIterator(DungTheory bbase) {
+		SatSolverState state = this.solver.createState();
+		for(PlFormula f: this.getPropositionalCharacterisation(bbase))
+			state.add(f);
+		return new Iterator<Extension<DungTheory>>() {
+			private Extension<DungTheory> next = null;
+			private boolean done = false;
+
+			@Override
+			public boolean hasNext() {
+				if(this.next == null && !this.done) {
+					PossibleWorld w = state.witness();
+					if(w == null) {
+						this.done = true;
+						state.close();
+					}else {
+						this.next = AbstractSatExtensionReasoner.this.toExtension(w);
+						// add the newly found extension in negative form to the state
+						// so the next witness cannot be the same
+						Collection<PlFormula> f = new HashSet<PlFormula>();
+						for(Argument a: bbase)
+							if(this.next.contains(a))
+								f.add(new Negation(new Proposition("in_" + a.getName())));
+							else f.add(new Proposition("in_" + a.getName()));
+						if(f.isEmpty() || !state.add(new Disjunction(f))) {
+							this.done = true;
+							state.close();
+						}
+					}
+				}
+				return this.next != null;
+			}
+
+			@Override
+			public Extension<DungTheory> next() {
+				if(!this.hasNext())
+					throw new NoSuchElementException();
+				Extension<DungTheory> ext = this.next;
+				this.next = null;
+				return ext;
+			}
+		};
+	}
+
+	/**
+	 * Extracts the extension, i.e. the set of arguments labelled "in", from the
+	 * given model of the propositional characterisation.
+	 * @param w some model of the propositional characterisation
+	 * @return the corresponding extension.
+	 */
+	protected Extension<DungTheory> toExtension(PossibleWorld w) {
+		Extension<DungTheory> ext = new Extension<DungTheory>();
+		for(Proposition p: w){
+			if(p.getName().startsWith("in_"))
+				ext.add(new Argument(p.getName().substring(3)));
+		}
+		return ext;
+	}
 	
 	/**
 	 * Creates a propositional representation of the set of labelings of the given
@@ -132,15 +187,13 @@ public abstract class AbstractSatExtensionReasoner extends AbstractExtensionReas
 	@Override
 	public Extension<DungTheory> getModel(DungTheory bbase) {
 		// returns the first found model
-		PlBeliefSet prop = this.getPropositionalCharacterisation((DungTheory) bbase);
-		PossibleWorld w = (PossibleWorld) this.solver.getWitness(prop);
+		SatSolverState state = this.solver.createState();
+		for(PlFormula f: this.getPropositionalCharacterisation(bbase))
+			state.add(f);
+		PossibleWorld w = state.witness();
+		state.close();
 		if(w == null)
 			return null;
-		Extension<DungTheory> ext = new Extension<DungTheory>();
-		for(Proposition p: w){
-			if(p.getName().startsWith("in_"))
-				ext.add(new Argument(p.getName().substring(3)));				
-		}
-		return ext;
+		return this.toExtension(w);
 	}
 }
@@ -0,0 +1,161 @@
+/*
+ *  This file is part of "TweetyProject", a collection of Java libraries for
+ *  logical aspects of artificial intelligence and knowledge representation.
+ *
+ *  TweetyProject is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  Copyright 2024 The TweetyProject Team <http://tweetyproject.org/contact/>
+ */
+package org.tweetyproject.arg.dung.reasoner;
+
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.tweetyproject.arg.dung.semantics.ArgumentStatus;
+import org.tweetyproject.arg.dung.semantics.Labeling;
+import org.tweetyproject.arg.dung.syntax.Argument;
+import org.tweetyproject.arg.dung.syntax.CompactDungTheory;
+import org.tweetyproject.arg.dung.syntax.DungTheory;
+
+/**
+ * Computes the grounded labeling of an abstract argumentation framework in time
+ * O(|A|+|R|). Every argument keeps a counter of its attackers that are not labeled OUT yet;
+ * arguments whose counter drops to zero are labeled IN and all arguments they attack
+ * are labeled OUT, which in turn decreases the counters of the arguments attacked by those.
+ * Newly labeled arguments are processed via a work queue, so every attack is considered at
+ * most twice. All arguments that are not labeled at the end are UNDECIDED.
+ * <br>
+ * Besides the whole framework, the labeling can be computed for a part of a framework
+ * (e.g. a strongly connected component) given the labels of the arguments outside of that part,
+ * see {@link #getLabeling(DungTheory, Collection, Collection, Collection)}. This is used by the
+ * SCC-based reasoners.
+ *
+ * @author agent
+ */
+public final class GroundedCore {
+
+	private GroundedCore() {
+	}
+
+	/**
+	 * Computes the grounded labeling of the given theory.
+	 * @param theory some Dung theory
+	 * @return the grounded labeling.
+	 */
+	public static Labeling getLabeling(DungTheory theory) {
+		return GroundedCore.getLabeling(theory, theory, Collections.<Argument>emptySet(), Collections.<Argument>emptySet());
+	}
+
+	/**
+	 * Computes the grounded labeling of the given part of the given theory, assuming that
+	 * the arguments outside of the part are labeled IN if they are in <code>in</code>, UNDECIDED
+	 * if they are in <code>undec</code>, and OUT otherwise. Only the arguments of the part are labeled.
+	 * @param theory some Dung theory
+	 * @param scope the arguments to be labeled
+	 * @param in arguments outside of the scope that are IN
+	 * @param undec arguments outside of the scope that are UNDECIDED
+	 * @return the grounded labeling of the arguments in the scope.
+	 */
+	public static Labeling getLabeling(DungTheory theory, Collection<Argument> scope, Collection<Argument> in, Collection<Argument> undec) {
+		Map<Argument,Integer> counters = new HashMap<Argument,Integer>();
+		for(Argument a: scope)
+			counters.put(a, 0);
+		Labeling labeling = new Labeling();
+		Deque<Argument> queue = new ArrayDeque<Argument>();
+		for(Argument a: scope) {
+			int counter = 0;
+			boolean attackedByIn = false;
+			for(Argument b: theory.getAttackers(a)) {
+				if(counters.containsKey(b) || undec.contains(b))
+					counter++;
+				else if(in.contains(b))
+					attackedByIn = true;
+			}
+			counters.put(a, counter);
+			if(attackedByIn)
+				labeling.put(a, ArgumentStatus.OUT);
+			else if(counter == 0)
+				labeling.put(a, ArgumentStatus.IN);
+			else continue;
+			queue.add(a);
+		}
+		while(!queue.isEmpty()) {
+			Argument a = queue.poll();
+			boolean isIn = labeling.get(a) == ArgumentStatus.IN;
+			for(Argument b: theory.getAttacked(a)) {
+				Integer counter = counters.get(b);
+				if(counter == null || labeling.containsKey(b))
+					continue;
+				if(isIn) {
+					labeling.put(b, ArgumentStatus.OUT);
+					queue.add(b);
+				}else if(counter == 1) {
+					labeling.put(b, ArgumentStatus.IN);
+					queue.add(b);
+				}else
+					counters.put(b, counter - 1);
+			}
+		}
+		for(Argument a: scope)
+			if(!labeling.containsKey(a))
+				labeling.put(a, ArgumentStatus.UNDECIDED);
+		return labeling;
+	}
+
+	/**
+	 * Computes the grounded extension of the given compact theory.
+	 * @param theory some compact Dung theory
+	 * @return the grounded extension as a set of argument ids.
+	 */
+	public static BitSet getExtension(CompactDungTheory theory) {
+		int n = theory.getNumberOfArguments();
+		int[] counters = new int[n];
+		// 0: unlabeled, 1: IN, -1: OUT
+		byte[] labels = new byte[n];
+		int[] queue = new int[n];
+		int head = 0, tail = 0;
+		for(int a = 0; a < n; a++) {
+			counters[a] = theory.getNumberOfAttackers(a);
+			if(counters[a] == 0) {
+				labels[a] = 1;
+				queue[tail++] = a;
+			}
+		}
+		while(head < tail) {
+			int a = queue[head++];
+			boolean isIn = labels[a] == 1;
+			for(int k = 0; k < theory.getNumberOfAttacked(a); k++) {
+				int b = theory.getAttacked(a, k);
+				if(labels[b] != 0)
+					continue;
+				if(isIn) {
+					labels[b] = -1;
+					queue[tail++] = b;
+				}else if(--counters[b] == 0) {
+					labels[b] = 1;
+					queue[tail++] = b;
+				}
+			}
+		}
+		BitSet result = new BitSet(n);
+		for(int a = 0; a < n; a++)
+			if(labels[a] == 1)
+				result.set(a);
+		return result;
+	}
+}
@@ -0,0 +1,300 @@
+/*
+ *  This file is part of "TweetyProject", a collection of Java libraries for
+ *  logical aspects of artificial intelligence and knowledge representation.
+ *
+ *  TweetyProject is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  Copyright 2024 The TweetyProject Team <http://tweetyproject.org/contact/>
+ */
+package org.tweetyproject.arg.dung.reasoner;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.RecursiveTask;
+
+import org.tweetyproject.arg.dung.semantics.Extension;
+import org.tweetyproject.arg.dung.syntax.Argument;
+import org.tweetyproject.arg.dung.syntax.DungTheory;
+import org.tweetyproject.commons.util.ForkJoinTools;
+
+/**
+ * Evaluates SCC-recursive semantics level by level along the DAG of the strongly
+ * connected components (SCCs) of a theory. The level of an SCC is the length of the longest
+ * path from an initial SCC to it, so SCCs of the same level do not attack each other and only
+ * depend on the labels of the SCCs of lower levels. For every partial extension of the lower levels,
+ * all SCCs of the current level are solved independently (and concurrently, if the parallelism
+ * is larger than one) and their local extensions are combined afterwards.
+ * <br>
+ * The order of the returned extensions does not depend on the scheduling of the tasks: it is
+ * the order in which a sequential evaluation processing the SCCs of each level in the
+ * order of {@link DungTheory#getStronglyConnectedComponents()} would find them.
+ * <br>
+ * The tasks are scheduled by {@link ForkJoinTools}: a nested evaluation of a sub theory with the
+ * same parallelism forks its tasks into the pool of the enclosing evaluation, otherwise a new pool with
+ * the given parallelism is used for each evaluation. Pools of the caller are never used.
+ *
+ * @author agent
+ */
+public class ParallelSccEvaluator {
+
+	/**
+	 * Computes the local extensions of a single SCC given the labels of the
+	 * SCCs it depends on. If the parallelism of the evaluator is larger than one, several SCCs
+	 * are solved concurrently, so implementations have to be thread-safe.
+	 */
+	public interface SccSolver {
+		/**
+		 * Computes the local extensions of the given SCC. The given label sets must not be modified.
+		 * @param theory the whole theory
+		 * @param scc some SCC of the theory
+		 * @param in all arguments of preceding SCCs that are in
+		 * @param out all arguments that are out, i.e., attacked by some argument that is in
+		 * @param undec all arguments of preceding SCCs that are undecided
+		 * @return the local extensions, i.e., subsets of the arguments of the SCC that are not out.
+		 */
+		Collection<? extends Collection<Argument>> solve(DungTheory theory, Collection<Argument> scc, Collection<Argument> in, Collection<Argument> out, Collection<Argument> undec);
+	}
+
+	/** The maximal number of SCCs solved concurrently. */
+	private final int parallelism;
+
+	/**
+	 * Creates a new evaluator that processes the SCCs sequentially.
+	 */
+	public ParallelSccEvaluator() {
+		this(1);
+	}
+
+	/**
+	 * Creates a new evaluator.
+	 * @param parallelism the maximal number of SCCs solved concurrently, "1"
+	 * 	for a sequential evaluation
+	 */
+	public ParallelSccEvaluator(int parallelism) {
+		if(parallelism < 1)
+			throw new IllegalArgumentException("The parallelism must be positive.");
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Returns the maximal number of SCCs solved concurrently.
+	 * @return the parallelism of this evaluator.
+	 */
+	public int getParallelism() {
+		return this.parallelism;
+	}
+
+	/**
+	 * Computes all extensions of the given theory by solving its SCCs with the given solver.
+	 * @param theory some Dung theory
+	 * @param solver a solver for single SCCs
+	 * @return the extensions of the theory.
+	 */
+	public Collection<Extension<DungTheory>> getModels(DungTheory theory, SccSolver solver) {
+		return ForkJoinTools.invoke(this.parallelism, () -> this.evaluate(theory, solver));
+	}
+
+	/**
+	 * Processes the levels of the SCC DAG one after another.
+	 * @param theory some Dung theory
+	 * @param solver a solver for single SCCs
+	 * @return the extensions of the theory.
+	 */
+	private Collection<Extension<DungTheory>> evaluate(DungTheory theory, SccSolver solver) {
+		List<State> states = new ArrayList<State>();
+		states.add(new State());
+		for(List<Collection<Argument>> level: ParallelSccEvaluator.getLevels(theory)) {
+			// solve every SCC of the level wrt. every partial extension
+			List<SccTask> tasks = new ArrayList<SccTask>();
+			for(State state: states)
+				for(Collection<Argument> scc: level)
+					tasks.add(new SccTask(theory, solver, scc, state));
+			ForkJoinTools.invokeAll(this.parallelism, tasks);
+			// combine the local extensions
+			List<State> next = new ArrayList<State>();
+			int k = 0;
+			for(State state: states) {
+				List<List<Delta>> local = new ArrayList<List<Delta>>();
+				for(int i = 0; i < level.size(); i++)
+					local.add(tasks.get(k++).join());
+				ParallelSccEvaluator.combine(state, local, next);
+			}
+			states = next;
+			if(states.isEmpty())
+				break;
+		}
+		Set<Extension<DungTheory>> result = new LinkedHashSet<Extension<DungTheory>>();
+		for(State state: states)
+			result.add(new Extension<DungTheory>(state.in));
+		return result;
+	}
+
+	/**
+	 * Adds all combinations of one local extension for each SCC to the given partial extension.
+	 * @param state some partial extension
+	 * @param local the local extensions of each SCC of the current level
+	 * @param result the list the resulting partial extensions are added to
+	 */
+	private static void combine(State state, List<List<Delta>> local, List<State> result) {
+		for(List<Delta> deltas: local)
+			if(deltas.isEmpty())
+				return;
+		int[] idx = new int[local.size()];
+		while(true) {
+			State next = new State(state);
+			for(int i = 0; i < idx.length; i++)
+				next.add(local.get(i).get(idx[i]));
+			result.add(next);
+			int i = idx.length - 1;
+			while(i >= 0 && ++idx[i] == local.get(i).size()) {
+				idx[i] = 0;
+				i--;
+			}
+			if(i < 0)
+				break;
+		}
+	}
+
+	/**
+	 * Partitions the SCCs of the given theory wrt. their level in the SCC DAG.
+	 * @param theory some Dung theory
+	 * @return the SCCs of each level.
+	 */
+	private static List<List<Collection<Argument>>> getLevels(DungTheory theory) {
+		List<Collection<Argument>> sccs = new ArrayList<Collection<Argument>>(theory.getStronglyConnectedComponents());
+		Map<Argument,Integer> index = new HashMap<Argument,Integer>();
+		for(int i = 0; i < sccs.size(); i++)
+			for(Argument a: sccs.get(i))
+				index.put(a, i);
+		List<Set<Integer>> successors = new ArrayList<Set<Integer>>();
+		int[] indegree = new int[sccs.size()];
+		for(int i = 0; i < sccs.size(); i++) {
+			Set<Integer> succ = new HashSet<Integer>();
+			for(Argument a: sccs.get(i))
+				for(Argument b: theory.getAttacked(a)) {
+					int j = index.get(b);
+					if(j != i && succ.add(j))
+						indegree[j]++;
+				}
+			successors.add(succ);
+		}
+		// longest path from an initial SCC, computed in topological order
+		int[] depth = new int[sccs.size()];
+		int maxDepth = 0;
+		Queue<Integer> queue = new ArrayDeque<Integer>();
+		for(int i = 0; i < sccs.size(); i++)
+			if(indegree[i] == 0)
+				queue.add(i);
+		while(!queue.isEmpty()) {
+			int i = queue.poll();
+			maxDepth = Math.max(maxDepth, depth[i]);
+			for(int j: successors.get(i)) {
+				depth[j] = Math.max(depth[j], depth[i] + 1);
+				if(--indegree[j] == 0)
+					queue.add(j);
+			}
+		}
+		List<List<Collection<Argument>>> levels = new ArrayList<List<Collection<Argument>>>();
+		if(sccs.isEmpty())
+			return levels;
+		for(int d = 0; d <= maxDepth; d++)
+			levels.add(new ArrayList<Collection<Argument>>());
+		for(int i = 0; i < sccs.size(); i++)
+			levels.get(depth[i]).add(sccs.get(i));
+		return levels;
+	}
+
+	/**
+	 * A partial extension given by the labels of the arguments processed so far.
+	 */
+	private static final class State {
+		private final Set<Argument> in, out, undec;
+
+		private State() {
+			this.in = new HashSet<Argument>();
+			this.out = new HashSet<Argument>();
+			this.undec = new HashSet<Argument>();
+		}
+
+		private State(State other) {
+			this.in = new HashSet<Argument>(other.in);
+			this.out = new HashSet<Argument>(other.out);
+			this.undec = new HashSet<Argument>(other.undec);
+		}
+
+		private void add(Delta delta) {
+			this.in.addAll(delta.in);
+			this.out.addAll(delta.out);
+			this.undec.addAll(delta.undec);
+		}
+	}
+
+	/**
+	 * The labels resulting from a local extension of a single SCC.
+	 */
+	private static final class Delta {
+		private final Collection<Argument> in, out, undec;
+
+		private Delta(Collection<Argument> in, Collection<Argument> out, Collection<Argument> undec) {
+			this.in = in;
+			this.out = out;
+			this.undec = undec;
+		}
+	}
+
+	/**
+	 * Solves a single SCC wrt. a single partial extension.
+	 */
+	private static final class SccTask extends RecursiveTask<List<Delta>> {
+		private static final long serialVersionUID = 1L;
+
+		private final DungTheory theory;
+		private final SccSolver solver;
+		private final Collection<Argument> scc;
+		private final State state;
+
+		private SccTask(DungTheory theory, SccSolver solver, Collection<Argument> scc, State state) {
+			this.theory = theory;
+			this.solver = solver;
+			this.scc = scc;
+			this.state = state;
+		}
+
+		/* (non-Javadoc)
+		 * @see java.util.concurrent.RecursiveTask#compute()
+		 */
+		@Override
+		protected List<Delta> compute() {
+			List<Delta> result = new ArrayList<Delta>();
+			for(Collection<Argument> ext: this.solver.solve(this.theory, this.scc, this.state.in, this.state.out, this.state.undec)) {
+				Set<Argument> attacked = new HashSet<Argument>();
+				for(Argument a: ext)
+					attacked.addAll(this.theory.getAttacked(a));
+				Set<Argument> undec = new HashSet<Argument>();
+				for(Argument a: this.scc)
+					if(!this.state.out.contains(a) && !ext.contains(a) && !attacked.contains(a))
+						undec.add(a);
+				result.add(new Delta(ext, attacked, undec));
+			}
+			return result;
+		}
+	}
+}
@@ -26,9 +26,8 @@ import org.tweetyproject.arg.dung.syntax.Argument;
 import org.tweetyproject.arg.dung.syntax.DungTheory;
 import org.tweetyproject.commons.InferenceMode;
 import org.tweetyproject.logics.pl.sat.SatSolver;
-import org.tweetyproject.logics.pl.semantics.PossibleWorld;
+import org.tweetyproject.logics.pl.sat.SatSolverState;
 import org.tweetyproject.logics.pl.syntax.Disjunction;
-import org.tweetyproject.logics.pl.syntax.Negation;
 import org.tweetyproject.logics.pl.syntax.PlBeliefSet;
 import org.tweetyproject.logics.pl.syntax.Proposition;
 import org.tweetyproject.logics.pl.syntax.PlFormula;
@@ -66,6 +65,8 @@ public class SatCompleteReasoner  extends AbstractSatExtensionReasoner {
 					attackersOr.add(in.get(b));
 					attackersNotOr.add((PlFormula)out.get(b).complement());					
 					beliefSet.add(((PlFormula)in.get(a).complement()).combineWithOr((PlFormula)out.get(b)));
+					// an argument is out if some attacker is in
+					beliefSet.add(((PlFormula)in.get(b).complement()).combineWithOr((PlFormula)out.get(a)));
 				}
 				beliefSet.add(new Disjunction(attackersOr).combineWithOr((PlFormula)out.get(a).complement()));
 				beliefSet.add(new Disjunction(attackersNotOr).combineWithOr((PlFormula)in.get(a)));				
@@ -79,21 +80,16 @@ public class SatCompleteReasoner  extends AbstractSatExtensionReasoner {
 	 */
 	@Override
 	public Boolean query(DungTheory beliefbase, Argument formula, InferenceMode inferenceMode) {
-		if(inferenceMode.equals(InferenceMode.SKEPTICAL)){
-			PlBeliefSet prop = this.getPropositionalCharacterisation(beliefbase);
-			prop.add(new Negation(new Proposition("in_" + formula.getName())));
-			PossibleWorld w = (PossibleWorld) super.solver.getWitness(prop);
-			if(w == null)
-				return true;
-			return false;
-		}
-		// so its credulous semantics
-		PlBeliefSet prop = this.getPropositionalCharacterisation(beliefbase);
-		prop.add(new Proposition("in_" + formula.getName()));
-		PossibleWorld w = (PossibleWorld) super.solver.getWitness(prop);
-		if(w == null)
-			return false;
-		return true;
+		SatSolverState state = super.solver.createState();
+		for(PlFormula f: this.getPropositionalCharacterisation(beliefbase))
+			state.add(f);
+		// skeptical: there is no complete extension without the argument,
+		// credulous: there is some complete extension with the argument
+		boolean skeptical = inferenceMode.equals(InferenceMode.SKEPTICAL);
+		state.assume(new Proposition("in_" + formula.getName()), !skeptical);
+		boolean sat = state.satisfiable();
+		state.close();
+		return skeptical ? !sat : sat;
 	}
     /**
      * this method always returns true because the solver is native
@@ -0,0 +1,237 @@
+/*
+ *  This file is part of "TweetyProject", a collection of Java libraries for
+ *  logical aspects of artificial intelligence and knowledge representation.
+ *
+ *  TweetyProject is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  Copyright 2024 The TweetyProject Team <http://tweetyproject.org/contact/>
+ */
+package org.tweetyproject.arg.dung.reasoner;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.tweetyproject.arg.dung.semantics.Extension;
+import org.tweetyproject.arg.dung.syntax.Argument;
+import org.tweetyproject.arg.dung.syntax.DungTheory;
+import org.tweetyproject.commons.InferenceMode;
+import org.tweetyproject.logics.pl.sat.SatSolver;
+import org.tweetyproject.logics.pl.sat.SatSolverState;
+import org.tweetyproject.logics.pl.semantics.PossibleWorld;
+import org.tweetyproject.logics.pl.syntax.Disjunction;
+import org.tweetyproject.logics.pl.syntax.Negation;
+import org.tweetyproject.logics.pl.syntax.PlBeliefSet;
+import org.tweetyproject.logics.pl.syntax.PlFormula;
+import org.tweetyproject.logics.pl.syntax.Proposition;
+
+/**
+ * Uses a SAT solver to determine preferred extensions. Instead of enumerating all
+ * complete extensions and filtering the maximal ones, a complete extension found by the
+ * SAT solver is grown by asking for a strict superset that is complete as well, until no
+ * such superset exists. The resulting preferred extension is then excluded by requiring
+ * every further extension to contain some argument outside of it. All calls are made
+ * to a single solver state (see {@link SatSolver#createState()}), the temporary "strict superset"
+ * constraints are guarded by fresh activation propositions that are only assumed
+ * for a single call.
+ * <br>
+ * Preferred extensions are computed lazily, so {@link #getModel(DungTheory)} stops after
+ * the first one. Credulous queries need a single SAT call, skeptical queries
+ * only compute preferred extensions until one without the argument is found.
+ *
+ * @author agent
+ */
+public class SatPreferredReasoner extends AbstractSatExtensionReasoner {
+
+	/** Prefix of the activation propositions. */
+	private static final String ACTIVATION_PREFIX = "_act_";
+
+	/**
+	 * Constructs a new preferred reasoner.
+	 * @param solver the SAT solver this reasoner uses.
+	 */
+	public SatPreferredReasoner(SatSolver solver) {
+		super(solver);
+	}
+
+	/**
+	 * Returns the characterisation of complete labelings, see {@link SatCompleteReasoner}. The models
+	 * of the characterisation are maximised during the search for preferred extensions.
+	 * @see org.tweetyproject.arg.dung.reasoner.AbstractSatExtensionReasoner#getPropositionalCharacterisationBySemantics(org.tweetyproject.arg.dung.syntax.DungTheory, java.util.Map, java.util.Map, java.util.Map)
+	 */
+	@Override
+	protected PlBeliefSet getPropositionalCharacterisationBySemantics(DungTheory aaf, Map<Argument, Proposition> in, Map<Argument, Proposition> out, Map<Argument, Proposition> undec) {
+		return new SatCompleteReasoner(this.solver).getPropositionalCharacterisationBySemantics(aaf, in, out, undec);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.arg.dung.reasoner.AbstractSatExtensionReasoner#modelIterator(org.tweetyproject.arg.dung.syntax.DungTheory)
+	 */
+	@Override
+	public Iterator<Extension<DungTheory>> modelIterator(DungTheory bbase) {
+		Search search = new Search(bbase);
+		return new Iterator<Extension<DungTheory>>() {
+			private Extension<DungTheory> next = null;
+			private boolean done = false;
+
+			@Override
+			public boolean hasNext() {
+				if(this.next == null && !this.done) {
+					this.next = search.nextPreferred(null);
+					if(this.next == null || !search.exclude(this.next)) {
+						this.done = true;
+						search.close();
+					}
+				}
+				return this.next != null;
+			}
+
+			@Override
+			public Extension<DungTheory> next() {
+				if(!this.hasNext())
+					throw new NoSuchElementException();
+				Extension<DungTheory> ext = this.next;
+				this.next = null;
+				return ext;
+			}
+		};
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.arg.dung.reasoner.AbstractSatExtensionReasoner#getModel(org.tweetyproject.arg.dung.syntax.DungTheory)
+	 */
+	@Override
+	public Extension<DungTheory> getModel(DungTheory bbase) {
+		Search search = new Search(bbase);
+		Extension<DungTheory> ext = search.nextPreferred(null);
+		search.close();
+		return ext;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.arg.dung.reasoner.AbstractExtensionReasoner#query(org.tweetyproject.arg.dung.syntax.DungTheory,org.tweetyproject.arg.dung.syntax.Argument,org.tweetyproject.commons.InferenceMode)
+	 */
+	@Override
+	public Boolean query(DungTheory beliefbase, Argument formula, InferenceMode inferenceMode) {
+		Search search = new Search(beliefbase);
+		try {
+			// credulous: the argument is in some complete extension (and therefore in some preferred one)
+			if(inferenceMode.equals(InferenceMode.CREDULOUS)) {
+				search.state.assume(search.in(formula), true);
+				return search.state.satisfiable();
+			}
+			// skeptical: look for a preferred extension without the argument, every
+			// preferred extension with the argument found on the way is excluded
+			while(true) {
+				Extension<DungTheory> ext = search.nextPreferred(formula);
+				if(ext == null)
+					return true;
+				if(!ext.contains(formula))
+					return false;
+				if(!search.exclude(ext))
+					return true;
+			}
+		} finally {
+			search.close();
+		}
+	}
+
+	/**
+	 * this method always returns true because the solver is native
+	 */
+	@Override
+	public boolean isInstalled() {
+		return true;
+	}
+
+	/**
+	 * The state of the search for preferred extensions of a single theory.
+	 */
+	private class Search {
+		/** The theory. */
+		private final DungTheory theory;
+		/** The solver state containing the complete characterisation and all exclusions. */
+		private final SatSolverState state;
+		/** The number of activation propositions used so far. */
+		private int activations = 0;
+
+		private Search(DungTheory theory) {
+			this.theory = theory;
+			this.state = SatPreferredReasoner.this.solver.createState();
+			for(PlFormula f: SatPreferredReasoner.this.getPropositionalCharacterisation(theory))
+				this.state.add(f);
+		}
+
+		/**
+		 * Returns the proposition representing that the given argument is in.
+		 * @param a some argument
+		 * @return the proposition "in_a".
+		 */
+		private Proposition in(Argument a) {
+			return new Proposition("in_" + a.getName());
+		}
+
+		/**
+		 * Computes a preferred extension that has not been excluded yet.
+		 * @param without if not null, the search starts from a complete extension
+		 * 	not containing this argument (the preferred extension may contain it nevertheless)
+		 * @return some preferred extension or null if there is none.
+		 */
+		private Extension<DungTheory> nextPreferred(Argument without) {
+			if(without != null)
+				this.state.assume(this.in(without), false);
+			PossibleWorld w = this.state.witness();
+			if(w == null)
+				return null;
+			Extension<DungTheory> ext = SatPreferredReasoner.this.toExtension(w);
+			// grow the extension until there is no complete strict superset
+			while(true) {
+				Collection<PlFormula> larger = new HashSet<PlFormula>();
+				for(Argument a: this.theory)
+					if(!ext.contains(a))
+						larger.add(this.in(a));
+				if(larger.isEmpty())
+					return ext;
+				Proposition act = new Proposition(SatPreferredReasoner.ACTIVATION_PREFIX + this.activations++);
+				larger.add(new Negation(act));
+				this.state.add(new Disjunction(larger));
+				this.state.assume(act, true);
+				for(Argument a: ext)
+					this.state.assume(this.in(a), true);
+				w = this.state.witness();
+				if(w == null)
+					return ext;
+				ext = SatPreferredReasoner.this.toExtension(w);
+			}
+		}
+
+		/**
+		 * Excludes the given preferred extension (and all its subsets) from further search.
+		 * @param ext some preferred extension
+		 * @return "false" if there cannot be any further extension.
+		 */
+		private boolean exclude(Extension<DungTheory> ext) {
+			Collection<PlFormula> f = new HashSet<PlFormula>();
+			for(Argument a: this.theory)
+				if(!ext.contains(a))
+					f.add(this.in(a));
+			return !f.isEmpty() && this.state.add(new Disjunction(f));
+		}
+
+		private void close() {
+			this.state.close();
+		}
+	}
+}
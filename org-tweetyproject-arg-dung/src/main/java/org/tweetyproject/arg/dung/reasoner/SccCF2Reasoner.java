@@ -28,6 +28,7 @@ import java.util.*;
 
 /**
  * Reasoner for CF2 extensions using scc-recursiveness.
+ * SCCs of the same depth in the SCC DAG can be evaluated concurrently.
  *
  * definition see:
  * Baroni, Giacomin, Guida: Scc-recursiveness: A general schema for argumentation semantics 2005
@@ -35,40 +36,28 @@ import java.util.*;
  * @author Lars Bengel
  */
 public class SccCF2Reasoner extends AbstractExtensionReasoner {
+
+    /** The evaluator processing the SCCs level by level */
+    private ParallelSccEvaluator evaluator;
+
+    /**
+     * Creates a new reasoner that evaluates the SCCs sequentially.
+     */
+    public SccCF2Reasoner() {
+        this(1);
+    }
+
+    /**
+     * Creates a new reasoner that evaluates independent SCCs concurrently.
+     * @param parallelism the maximal number of SCCs evaluated concurrently
+     */
+    public SccCF2Reasoner(int parallelism) {
+        this.evaluator = new ParallelSccEvaluator(parallelism);
+    }
+
     @Override
     public Collection<Extension<DungTheory>> getModels(DungTheory bbase) {
-        List<Collection<Argument>> sccs = new ArrayList<Collection<Argument>>(((DungTheory) bbase).getStronglyConnectedComponents());
-        // order SCCs in a DAG
-        boolean[][] dag = new boolean[sccs.size()][sccs.size()];
-        for(int i = 0; i < sccs.size(); i++){
-            dag[i] = new boolean[sccs.size()];
-            Arrays.fill(dag[i], false);
-        }
-        for(int i = 0; i < sccs.size(); i++)
-            for(int j = 0; j < sccs.size(); j++)
-                if(i != j)
-                    if(((DungTheory) bbase).isAttacked(new Extension<DungTheory>(sccs.get(i)), new Extension<DungTheory>(sccs.get(j))))
-                        dag[i][j] = true;
-        // order SCCs topologically
-        List<Collection<Argument>> sccs_ordered = new ArrayList<Collection<Argument>>();
-        while(sccs_ordered.size() < sccs.size()){
-            for(int i = 0; i < sccs.size();i++){
-                if(sccs_ordered.contains(sccs.get(i)))
-                    continue;
-                boolean isNull = true;
-                for(int j = 0; j < sccs.size(); j++)
-                    if(dag[i][j]){
-                        isNull = false;
-                        break;
-                    }
-                if(isNull){
-                    sccs_ordered.add(sccs.get(i));
-                    for(int j = 0; j < sccs.size(); j++)
-                        dag[j][i] = false;
-                }
-            }
-        }
-        return this.computeExtensionsViaSccs((DungTheory) bbase, sccs_ordered, 0, new HashSet<Argument>(), new HashSet<Argument>(), new HashSet<Argument>());
+        return this.evaluator.getModels(bbase, this::computeExtensionsOfScc);
     }
 
     @Override
@@ -78,54 +67,26 @@ public class SccCF2Reasoner extends AbstractExtensionReasoner {
     }
 
     /**
-     * Computes extensions recursively following the SCC structure.
+     * Computes the extensions of a single SCC wrt. the labels of the preceding SCCs.
      * @param theory the theory
-     * @param sccs all SCCs topologically sorted
-     * @param idx the current SCC to be processed
+     * @param scc the current SCC to be processed
      * @param in all arguments currently in
      * @param out all arguments currently out
      * @param undec all arguments currently undecided
-     * @return the set of extensions
+     * @return the set of extensions of the SCC
      */
-    private Set<Extension<DungTheory>> computeExtensionsViaSccs(DungTheory theory, List<Collection<Argument>> sccs, int idx, Collection<Argument> in, Collection<Argument> out, Collection<Argument> undec) {
-        if (idx >= sccs.size()) {
-            Set<Extension<DungTheory>> result = new HashSet<Extension<DungTheory>>();
-            result.add(new Extension<DungTheory>(in));
-            return result;
-        }
-
+    private Collection<? extends Collection<Argument>> computeExtensionsOfScc(DungTheory theory, Collection<Argument> scc, Collection<Argument> in, Collection<Argument> out, Collection<Argument> undec) {
         // construct theory
-        DungTheory subTheory = (DungTheory) theory.getRestriction(sccs.get(idx));
+        DungTheory subTheory = (DungTheory) theory.getRestriction(scc);
         // remove all out arguments
         subTheory.removeAll(out);
 
         Collection<Collection<Argument>> subSccs = subTheory.getStronglyConnectedComponents();
-        Collection<Extension<DungTheory>> subExts;
         if (!out.isEmpty() && subSccs.size() > 1) {
-            subExts = this.getModels(subTheory);
-        } else {
-            // compute naive extensions of sub theory(scc)
-            subExts = new SimpleNaiveReasoner().getModels(subTheory);
-        }
-
-        Set<Extension<DungTheory>> result = new HashSet<Extension<DungTheory>>();
-        Collection<Argument> new_in, new_out, new_undec, attacked;
-        for(Extension<DungTheory> ext: subExts){
-            new_in = new HashSet<Argument>(in);
-            new_out = new HashSet<Argument>(out);
-            new_undec = new HashSet<Argument>(undec);
-            attacked= new HashSet<Argument>();
-            new_in.addAll(ext);
-            for(Argument a: ext)
-                attacked.addAll(theory.getAttacked(a));
-            new_out.addAll(attacked);
-            for(Argument a: subTheory)
-                if(!ext.contains(a) && !attacked.contains(a))
-                    new_undec.add(a);
-
-            result.addAll(this.computeExtensionsViaSccs(theory, sccs, idx+1, new_in, new_out, new_undec));
+            return this.getModels(subTheory);
         }
-        return result;
+        // compute naive extensions of sub theory(scc)
+        return new SimpleNaiveReasoner().getModels(subTheory);
     }
 	/**
 	 * the solver is natively installed and is therefore always installed
@@ -47,6 +47,57 @@ public class SimpleCompleteReasoner extends AbstractExtensionReasoner {
 		// as the grounded extension is also complete, we return that one
 		return new SimpleGroundedReasoner().getModel(bbase);
 	}
+
+	/**
+	 * Computes all complete extensions of the given compact theory.
+	 * @param bbase a compact Dung theory
+	 * @return all complete extensions as sets of argument ids.
+	 */
+	public Collection<BitSet> getModels(CompactDungTheory bbase) {
+		BitSet groundedExtension = new SimpleGroundedReasoner().getModel(bbase);
+		// every complete extension contains the grounded extension, so arguments
+		// attacked by it can be skipped
+		BitSet excluded = bbase.getAttacked(groundedExtension);
+		excluded.or(groundedExtension);
+		int[] remaining = new int[bbase.getNumberOfArguments() - excluded.cardinality()];
+		for(int i = excluded.nextClearBit(0), k = 0; i < bbase.getNumberOfArguments(); i = excluded.nextClearBit(i + 1))
+			remaining[k++] = i;
+		Collection<BitSet> extensions = new ArrayList<BitSet>();
+		this.getCompleteExtensions(bbase, groundedExtension, remaining, 0, extensions);
+		return extensions;
+	}
+
+	/**
+	 * Returns the grounded extension of the given compact theory, which is also complete.
+	 * @param bbase a compact Dung theory
+	 * @return the grounded extension as a set of argument ids.
+	 */
+	public BitSet getModel(CompactDungTheory bbase) {
+		return new SimpleGroundedReasoner().getModel(bbase);
+	}
+
+	/**
+	 * Auxiliary method to compute all complete extensions of a compact theory
+	 * @param theory a compact Dung theory
+	 * @param ext some conflict-free set of arguments, it is modified during the search but restored afterwards
+	 * @param remaining arguments that still have to be considered to be part of an extension
+	 * @param next the position in <code>remaining</code> of the next argument to be considered
+	 * @param extensions the complete supersets of <code>ext</code> with arguments from <code>remaining</code> are added here
+	 */
+	private void getCompleteExtensions(CompactDungTheory theory, BitSet ext, int[] remaining, int next, Collection<BitSet> extensions){
+		if(next == remaining.length){
+			if(theory.faf(ext).equals(ext))
+				extensions.add((BitSet) ext.clone());
+			return;
+		}
+		int arg = remaining[next];
+		this.getCompleteExtensions(theory, ext, remaining, next + 1, extensions);
+		if(!theory.isInConflict(arg, ext)){
+			ext.set(arg);
+			this.getCompleteExtensions(theory, ext, remaining, next + 1, extensions);
+			ext.clear(arg);
+		}
+	}
 		
 	/**
 	 * Auxiliary method to compute all complete extensions
@@ -21,12 +21,15 @@ package org.tweetyproject.arg.dung.reasoner;
 import java.util.*;
 
 import org.tweetyproject.arg.dung.semantics.*;
+import org.tweetyproject.arg.dung.syntax.Argument;
+import org.tweetyproject.arg.dung.syntax.CompactDungTheory;
 import org.tweetyproject.arg.dung.syntax.DungTheory;
 
 
 /**
  * This reasoner for Dung theories performs inference on the grounded extension.
  * Computes the (unique) grounded extension, i.e., the least fixpoint of the characteristic function faf.
+ * The extension is computed in linear time by {@link GroundedCore}.
  * 
  * @author Sebastian Franke
  *
@@ -50,13 +53,20 @@ public class SimpleGroundedReasoner extends AbstractExtensionReasoner {
 	@Override
 	public Extension<DungTheory> getModel(DungTheory bbase) {
 		Extension<DungTheory> ext = new Extension<DungTheory>();
-		int size;
-		do{
-			size = ext.size();			
-			ext = ((DungTheory)bbase).faf(ext);			
-		}while(size!=ext.size());		
+		for(Map.Entry<Argument,ArgumentStatus> entry: GroundedCore.getLabeling(bbase).entrySet())
+			if(entry.getValue() == ArgumentStatus.IN)
+				ext.add(entry.getKey());
 		return ext;
 	}
 
+	/**
+	 * Computes the grounded extension of the given compact theory.
+	 * @param bbase a compact Dung theory
+	 * @return the grounded extension as a set of argument ids.
+	 */
+	public BitSet getModel(CompactDungTheory bbase) {
+		return GroundedCore.getExtension(bbase);
+	}
+
 
 }
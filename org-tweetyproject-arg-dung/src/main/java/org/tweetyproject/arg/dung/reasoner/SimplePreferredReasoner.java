@@ -28,7 +28,8 @@ import org.tweetyproject.arg.dung.syntax.*;
  * This reasoner for Dung theories performs inference on the preferred extensions.
  * Computes the set of all preferred extensions, i.e., all maximal admissable sets.
  * It does so by first computing all complete extensions and then check for
- * set maximality.
+ * set maximality. See {@link SatPreferredReasoner} for a reasoner that searches
+ * for preferred extensions directly.
  * 
  * @author Matthias Thimm
  *
@@ -40,19 +41,23 @@ public class SimplePreferredReasoner extends AbstractExtensionReasoner {
 	 */
 	@Override
 	public Collection<Extension<DungTheory>> getModels(DungTheory bbase) {
-		Collection<Extension<DungTheory>> completeExtensions = new SimpleSccCompleteReasoner().getModels(bbase);
+		List<Extension<DungTheory>> completeExtensions = new ArrayList<Extension<DungTheory>>(new SimpleSccCompleteReasoner().getModels(bbase));
+		// a complete extension is preferred iff it is not a proper subset of some
+		// larger preferred extension, so it suffices to process the extensions by
+		// decreasing size and to compare them with the preferred ones found so far
+		completeExtensions.sort((e1,e2) -> Integer.compare(e2.size(), e1.size()));
 		Set<Extension<DungTheory>> result = new HashSet<Extension<DungTheory>>();
 		boolean maximal;
 		for(Extension<DungTheory> e1: completeExtensions){
 			maximal = true;
-			for(Extension<DungTheory> e2: completeExtensions)
-				if(e1 != e2 && e2.containsAll(e1)){
+			for(Extension<DungTheory> e2: result)
+				if(e2.size() > e1.size() && e2.containsAll(e1)){
 					maximal = false;
 					break;
 				}
 			if(maximal)
-				result.add(e1);			
-		}		
+				result.add(e1);
+		}
 		return result;
 	}
 
@@ -61,20 +66,14 @@ public class SimplePreferredReasoner extends AbstractExtensionReasoner {
 	 */
 	@Override
 	public Extension<DungTheory> getModel(DungTheory bbase) {
-		// just return the first found preferred extension
-		Collection<Extension<DungTheory>> completeExtensions = new SimpleSccCompleteReasoner().getModels(bbase);
-		boolean maximal;
-		for(Extension<DungTheory> e1: completeExtensions){
-			maximal = true;
-			for(Extension<DungTheory> e2: completeExtensions)
-				if(e1 != e2 && e2.containsAll(e1)){
-					maximal = false;
-					break;
-				}
-			if(maximal)
-				return e1;			
-		}		
-		// this should not happen
-		throw new RuntimeException("Hmm, did not find a maximal set in a finite number of sets. Should not happen.");
+		// a complete extension of maximal cardinality is preferred
+		Extension<DungTheory> result = null;
+		for(Extension<DungTheory> e: new SimpleSccCompleteReasoner().getModels(bbase))
+			if(result == null || e.size() > result.size())
+				result = e;
+		if(result == null)
+			// this should not happen
+			throw new RuntimeException("Hmm, did not find a maximal set in a finite number of sets. Should not happen.");
+		return result;
 	}
 }
@@ -26,49 +26,37 @@ import org.tweetyproject.arg.dung.syntax.*;
 /**
  * This reasoner for Dung theories performs inference on the complete extensions.
  * Computes the set of all complete extensions, i.e., all admissible sets that contain all their acceptable arguments.
- * Exploits the structure of the strongly-connected components (SCCs) to determine extensions.
+ * Exploits the structure of the strongly-connected components (SCCs) to determine extensions,
+ * SCCs of the same depth in the SCC DAG can be evaluated concurrently.
  * @author Matthias Thimm
  *
  */
 public class SimpleSccCompleteReasoner extends AbstractExtensionReasoner {
 
+	/** The evaluator processing the SCCs level by level */
+	private ParallelSccEvaluator evaluator;
+
+	/**
+	 * Creates a new reasoner that evaluates the SCCs sequentially.
+	 */
+	public SimpleSccCompleteReasoner() {
+		this(1);
+	}
+
+	/**
+	 * Creates a new reasoner that evaluates independent SCCs concurrently.
+	 * @param parallelism the maximal number of SCCs evaluated concurrently
+	 */
+	public SimpleSccCompleteReasoner(int parallelism) {
+		this.evaluator = new ParallelSccEvaluator(parallelism);
+	}
+
 	/* (non-Javadoc)
 	 * @see org.tweetyproject.arg.dung.reasoner.AbstractExtensionReasoner#getModels(org.tweetyproject.arg.dung.syntax.DungTheory)
 	 */
 	@Override
 	public Collection<Extension<DungTheory>> getModels(DungTheory bbase) {
-		List<Collection<Argument>> sccs = new ArrayList<Collection<Argument>>(((DungTheory)bbase).getStronglyConnectedComponents());		
-		// order SCCs in a DAG
-		boolean[][] dag = new boolean[sccs.size()][sccs.size()];
-		for(int i = 0; i < sccs.size(); i++){
-			dag[i] = new boolean[sccs.size()];
-			Arrays.fill(dag[i], false);
-		}		
-		for(int i = 0; i < sccs.size(); i++)
-			for(int j = 0; j < sccs.size(); j++)
-				if(i != j)
-					if(((DungTheory)bbase).isAttacked(new Extension<DungTheory>(sccs.get(i)), new Extension<DungTheory>(sccs.get(j))))
-						dag[i][j] = true;						
-		// order SCCs topologically
-		List<Collection<Argument>> sccs_ordered = new ArrayList<Collection<Argument>>();
-		while(sccs_ordered.size() < sccs.size()){
-			for(int i = 0; i < sccs.size();i++){
-				if(sccs_ordered.contains(sccs.get(i)))
-					continue;
-				boolean isNull = true;
-				for(int j = 0; j < sccs.size(); j++)
-					if(dag[i][j]){
-						isNull = false;
-						break;
-					}
-				if(isNull){
-					sccs_ordered.add(sccs.get(i));
-					for(int j = 0; j < sccs.size(); j++)
-						dag[j][i] = false;
-				}
-			}
-		}		
-		return this.computeExtensionsViaSccs((DungTheory)bbase, sccs_ordered, 0, new HashSet<Argument>(), new HashSet<Argument>(), new HashSet<Argument>());
+		return this.evaluator.getModels(bbase, this::computeExtensionsOfScc);
 	}
 
 	/* (non-Javadoc)
@@ -84,23 +72,29 @@ public class SimpleSccCompleteReasoner extends AbstractExtensionReasoner {
 	}
 
 	/**
-	 * Computes extensions recursively following the SCC structure.
+	 * Computes the complete extensions of a single SCC wrt. the labels of the preceding SCCs.
 	 * @param theory the theory
-	 * @param sccs all SCCs topologically sorted
-	 * @param idx the current SCC to be processed
+	 * @param scc the current SCC to be processed
 	 * @param in all arguments currently in
 	 * @param out all arguments currently out
 	 * @param undec all arguments currently undecided
-	 * @return the set of extensions
+	 * @return the set of extensions of the SCC
 	 */
-	private Set<Extension<DungTheory>> computeExtensionsViaSccs(DungTheory theory, List<Collection<Argument>> sccs, int idx, Collection<Argument> in, Collection<Argument> out, Collection<Argument> undec){
-		if(idx >= sccs.size()){
-			Set<Extension<DungTheory>> result = new HashSet<Extension<DungTheory>>();
-			result.add(new Extension<DungTheory>(in));
-			return result;
+	private Collection<? extends Collection<Argument>> computeExtensionsOfScc(DungTheory theory, Collection<Argument> scc, Collection<Argument> in, Collection<Argument> out, Collection<Argument> undec){
+		// if the grounded labeling of the SCC (wrt. the labels of the previous SCCs) 
+		// decides all arguments, it is the only complete labeling of the SCC
+		Collection<Argument> scope = new HashSet<Argument>(scc);
+		scope.removeAll(out);
+		Labeling labeling = GroundedCore.getLabeling(theory, scope, in, undec);
+		if(!labeling.containsValue(ArgumentStatus.UNDECIDED)){
+			Collection<Argument> ext = new HashSet<Argument>();
+			for(Argument a: scope)
+				if(labeling.get(a) == ArgumentStatus.IN)
+					ext.add(a);
+			return Collections.singleton(ext);
 		}
 		// construct theory
-		DungTheory subTheory = (DungTheory) theory.getRestriction(sccs.get(idx));
+		DungTheory subTheory = (DungTheory) theory.getRestriction(scc);
 		// remove all out arguments
 		subTheory.removeAll(out);
 		// for all arguments that are attacked by an already undecided argument outside the scc, add attack
@@ -112,23 +106,6 @@ public class SimpleSccCompleteReasoner extends AbstractExtensionReasoner {
 			if(theory.isAttacked(a, new Extension<DungTheory>(undec)))				
 				subTheory.add(new Attack(aux,a));
 		// compute complete extensions of sub theory
-		Collection<Extension<DungTheory>> subExt = new SimpleCompleteReasoner().getModels(subTheory);
-		Set<Extension<DungTheory>> result = new HashSet<Extension<DungTheory>>();
-		Collection<Argument> new_in, new_out, new_undec, attacked;
-		for(Extension<DungTheory> ext: subExt){
-			new_in = new HashSet<Argument>(in);
-			new_out = new HashSet<Argument>(out);
-			new_undec = new HashSet<Argument>(undec);
-			attacked= new HashSet<Argument>();
-			new_in.addAll(ext);			
-			for(Argument a: ext)
-				attacked.addAll(theory.getAttacked(a));
-			new_out.addAll(attacked);
-			for(Argument a: subTheory)
-				if(a != aux && !ext.contains(a) && !attacked.contains(a))
-					new_undec.add(a);			
-			result.addAll(this.computeExtensionsViaSccs(theory, sccs, idx+1, new_in, new_out, new_undec));
-		}		
-		return result;
+		return new SimpleCompleteReasoner().getModels(subTheory);
 	}	
 }
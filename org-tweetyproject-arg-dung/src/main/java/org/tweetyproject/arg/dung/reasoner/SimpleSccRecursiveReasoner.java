@@ -19,7 +19,9 @@
 
 package org.tweetyproject.arg.dung.reasoner;
 
+import org.tweetyproject.arg.dung.semantics.ArgumentStatus;
 import org.tweetyproject.arg.dung.semantics.Extension;
+import org.tweetyproject.arg.dung.semantics.Labeling;
 import org.tweetyproject.arg.dung.syntax.Argument;
 import org.tweetyproject.arg.dung.syntax.ArgumentationFramework;
 import org.tweetyproject.arg.dung.syntax.Attack;
@@ -30,6 +32,7 @@ import java.util.*;
 /**
  * Universal scc-recursive reasoner
  * initialize with any reasoner for a scc-recursive semantics
+ * SCCs of the same depth in the SCC DAG can be evaluated concurrently, see {@link ParallelSccEvaluator}
  *
  * @author Lars Bengel
  */
@@ -38,12 +41,26 @@ public class SimpleSccRecursiveReasoner extends AbstractExtensionReasoner {
     /** The base reasoner applied on each SCC individually*/
     private AbstractExtensionReasoner baseReasoner;
 
+    /** The evaluator processing the SCCs level by level */
+    private ParallelSccEvaluator evaluator;
+
     /**
      * initialize the scc-recursive reasoner with the given reasoner as base function
      * @param reasoner a reasoner for any scc-recursive semantics
      */
     public SimpleSccRecursiveReasoner(AbstractExtensionReasoner reasoner) {
+        this(reasoner, 1);
+    }
+
+    /**
+     * initialize the scc-recursive reasoner with the given reasoner as base function,
+     * independent SCCs are evaluated concurrently
+     * @param reasoner a thread-safe reasoner for any scc-recursive semantics
+     * @param parallelism the maximal number of SCCs evaluated concurrently
+     */
+    public SimpleSccRecursiveReasoner(AbstractExtensionReasoner reasoner, int parallelism) {
         this.baseReasoner = reasoner;
+        this.evaluator = new ParallelSccEvaluator(parallelism);
     }
 
     /* (non-Javadoc)
@@ -51,38 +68,7 @@ public class SimpleSccRecursiveReasoner extends AbstractExtensionReasoner {
      */
     @Override
     public Collection<Extension<DungTheory>> getModels(DungTheory bbase) {
-        List<Collection<Argument>> sccs = new ArrayList<Collection<Argument>>(((DungTheory)bbase).getStronglyConnectedComponents());
-        // order SCCs in a DAG
-        boolean[][] dag = new boolean[sccs.size()][sccs.size()];
-        for(int i = 0; i < sccs.size(); i++){
-            dag[i] = new boolean[sccs.size()];
-            Arrays.fill(dag[i], false);
-        }
-        for(int i = 0; i < sccs.size(); i++)
-            for(int j = 0; j < sccs.size(); j++)
-                if(i != j)
-                    if(((DungTheory)bbase).isAttacked(new Extension<DungTheory>(sccs.get(i)), new Extension<DungTheory>(sccs.get(j))))
-                        dag[i][j] = true;
-        // order SCCs topologically
-        List<Collection<Argument>> sccs_ordered = new ArrayList<Collection<Argument>>();
-        while(sccs_ordered.size() < sccs.size()){
-            for(int i = 0; i < sccs.size();i++){
-                if(sccs_ordered.contains(sccs.get(i)))
-                    continue;
-                boolean isNull = true;
-                for(int j = 0; j < sccs.size(); j++)
-                    if(dag[i][j]){
-                        isNull = false;
-                        break;
-                    }
-                if(isNull){
-                    sccs_ordered.add(sccs.get(i));
-                    for(int j = 0; j < sccs.size(); j++)
-                        dag[j][i] = false;
-                }
-            }
-        }
-        return this.computeExtensionsViaSccs((DungTheory)bbase, sccs_ordered, 0, new HashSet<Argument>(), new HashSet<Argument>(), new HashSet<Argument>());
+        return this.evaluator.getModels(bbase, this::computeExtensionsOfScc);
     }
 
     /* (non-Javadoc)
@@ -94,23 +80,29 @@ public class SimpleSccRecursiveReasoner extends AbstractExtensionReasoner {
     }
 
     /**
-     * Computes extensions recursively following the SCC structure.
+     * Computes the extensions of a single SCC wrt. the labels of the preceding SCCs.
      * @param theory the theory
-     * @param sccs all SCCs topologically sorted
-     * @param idx the current SCC to be processed
+     * @param scc the current SCC to be processed
      * @param in all arguments currently in
      * @param out all arguments currently out
      * @param undec all arguments currently undecided
-     * @return the set of extensions
+     * @return the set of extensions of the SCC
      */
-    private Set<Extension<DungTheory>> computeExtensionsViaSccs(DungTheory theory, List<Collection<Argument>> sccs, int idx, Collection<Argument> in, Collection<Argument> out, Collection<Argument> undec){
-        if(idx >= sccs.size()){
-            Set<Extension<DungTheory>> result = new HashSet<Extension<DungTheory>>();
-            result.add(new Extension<DungTheory>(in));
-            return result;
+    private Collection<? extends Collection<Argument>> computeExtensionsOfScc(DungTheory theory, Collection<Argument> scc, Collection<Argument> in, Collection<Argument> out, Collection<Argument> undec){
+        // use the grounded labeling of the SCC (wrt. the labels of the previous SCCs) directly
+        // if it is known to be the only labeling of the SCC wrt. the base semantics
+        Collection<Argument> scope = new HashSet<Argument>(scc);
+        scope.removeAll(out);
+        Labeling labeling = GroundedCore.getLabeling(theory, scope, in, undec);
+        if(this.isDecidedByGroundedLabeling(labeling)){
+            Collection<Argument> ext = new HashSet<Argument>();
+            for(Argument a: scope)
+                if(labeling.get(a) == ArgumentStatus.IN)
+                    ext.add(a);
+            return Collections.singleton(ext);
         }
         // construct theory
-        DungTheory subTheory = (DungTheory) theory.getRestriction(sccs.get(idx));
+        DungTheory subTheory = (DungTheory) theory.getRestriction(scc);
         // remove all out arguments
         subTheory.removeAll(out);
         // for all arguments that are attacked by an already undecided argument outside the scc, add attack
@@ -121,24 +113,25 @@ public class SimpleSccRecursiveReasoner extends AbstractExtensionReasoner {
         for(Argument a: subTheory)
             if(theory.isAttacked(a, new Extension<DungTheory>(undec)))
                 subTheory.add(new Attack(aux,a));
-        // compute complete extensions of sub theory
-        Collection<Extension<DungTheory>> subExt = baseReasoner.getModels(subTheory);
-        Set<Extension<DungTheory>> result = new HashSet<Extension<DungTheory>>();
-        Collection<Argument> new_in, new_out, new_undec, attacked;
-        for(Extension<DungTheory> ext: subExt){
-            new_in = new HashSet<Argument>(in);
-            new_out = new HashSet<Argument>(out);
-            new_undec = new HashSet<Argument>(undec);
-            attacked= new HashSet<Argument>();
-            new_in.addAll(ext);
-            for(Argument a: ext)
-                attacked.addAll(theory.getAttacked(a));
-            new_out.addAll(attacked);
-            for(Argument a: subTheory)
-                if(a != aux && !ext.contains(a) && !attacked.contains(a))
-                    new_undec.add(a);
-            result.addAll(this.computeExtensionsViaSccs(theory, sccs, idx+1, new_in, new_out, new_undec));
-        }
-        return result;
+        // compute extensions of sub theory
+        return baseReasoner.getModels(subTheory);
+    }
+
+    /**
+     * Checks whether the grounded labeling of an SCC is the only labeling of that SCC
+     * wrt. the base semantics. This is the case for grounded semantics and, if the grounded
+     * labeling does not leave any argument undecided, for all semantics whose extensions
+     * are complete and exist for every framework.
+     * @param labeling the grounded labeling of some SCC
+     * @return "true" if the SCC needs not be passed to the base reasoner.
+     */
+    private boolean isDecidedByGroundedLabeling(Labeling labeling) {
+        if(this.baseReasoner instanceof SimpleGroundedReasoner)
+            return true;
+        if(labeling.containsValue(ArgumentStatus.UNDECIDED))
+            return false;
+        return this.baseReasoner instanceof SimpleCompleteReasoner
+                || this.baseReasoner instanceof SimpleSccCompleteReasoner
+                || this.baseReasoner instanceof SimplePreferredReasoner;
     }
 }
@@ -58,5 +58,30 @@ public class SimpleStableReasoner extends AbstractExtensionReasoner {
 			if(((DungTheory)bbase).isAttackingAllOtherArguments(e))
 				return e;
 		return null;	
-	}		
+	}
+
+	/**
+	 * Computes all stable extensions of the given compact theory.
+	 * @param bbase a compact Dung theory
+	 * @return all stable extensions as sets of argument ids.
+	 */
+	public Collection<BitSet> getModels(CompactDungTheory bbase) {
+		Collection<BitSet> result = new ArrayList<BitSet>();
+		for(BitSet e: new SimpleCompleteReasoner().getModels(bbase))
+			if(bbase.isStable(e))
+				result.add(e);
+		return result;
+	}
+
+	/**
+	 * Returns some stable extension of the given compact theory.
+	 * @param bbase a compact Dung theory
+	 * @return some stable extension as a set of argument ids or null if there is none.
+	 */
+	public BitSet getModel(CompactDungTheory bbase) {
+		for(BitSet e: new SimpleCompleteReasoner().getModels(bbase))
+			if(bbase.isStable(e))
+				return e;
+		return null;
+	}
 }
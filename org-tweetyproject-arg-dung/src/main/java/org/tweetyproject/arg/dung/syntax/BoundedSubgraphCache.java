@@ -0,0 +1,254 @@
+/*
+ *  This file is part of "TweetyProject", a collection of Java libraries for
+ *  logical aspects of artificial intelligence and knowledge representation.
+ *
+ *  TweetyProject is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  Copyright 2024 The TweetyProject Team <http://tweetyproject.org/contact/>
+ */
+package org.tweetyproject.arg.dung.syntax;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.tweetyproject.graphs.DefaultGraph;
+import org.tweetyproject.graphs.Graph;
+
+/**
+ * A sub graph cache with bounded size. Theories are identified by object identity
+ * and only weakly referenced, so caching the sub graphs of a theory does not
+ * prevent the theory from being garbage collected. A cached entry is only used as long
+ * as the theory has not been modified since the entry was computed.
+ * <br>
+ * The cache is bounded both in the number of theories and in its total weight, where the
+ * weight of an entry is the number of sub graphs. If one of the bounds is exceeded, the least
+ * recently used entries are evicted. Sets of sub graphs that are heavier than the maximal
+ * weight on their own are not cached at all.
+ * <br>
+ * This class is thread-safe.
+ *
+ * @author agent
+ */
+public class BoundedSubgraphCache implements SubgraphCache {
+
+	/** The default maximal number of theories. */
+	public static final int DEFAULT_MAX_ENTRIES = 64;
+	/** The default maximal total number of cached sub graphs. */
+	public static final long DEFAULT_MAX_WEIGHT = 100000;
+
+	/** The maximal number of theories. */
+	private final int maxEntries;
+	/** The maximal total number of cached sub graphs. */
+	private final long maxWeight;
+
+	/** The cached entries in access order. */
+	private final Map<TheoryKey, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+	/** Keys whose theories have been garbage collected. */
+	private final ReferenceQueue<DungTheory> collected = new ReferenceQueue<>();
+	/** The total weight of all entries. */
+	private long weight = 0;
+
+	/** The number of cache hits. */
+	private long hits = 0;
+	/** The number of cache misses. */
+	private long misses = 0;
+	/** The number of evicted entries. */
+	private long evictions = 0;
+
+	/**
+	 * Creates a new cache with the default bounds.
+	 */
+	public BoundedSubgraphCache() {
+		this(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_WEIGHT);
+	}
+
+	/**
+	 * Creates a new cache with the given bounds.
+	 * @param maxEntries the maximal number of theories
+	 * @param maxWeight the maximal total number of cached sub graphs
+	 */
+	public BoundedSubgraphCache(int maxEntries, long maxWeight) {
+		if (maxEntries < 0 || maxWeight < 0)
+			throw new IllegalArgumentException("The bounds of the cache must not be negative.");
+		this.maxEntries = maxEntries;
+		this.maxWeight = maxWeight;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.arg.dung.syntax.SubgraphCache#getSubgraphs(org.tweetyproject.arg.dung.syntax.DungTheory)
+	 */
+	@Override
+	public Collection<Graph<Argument>> getSubgraphs(DungTheory theory) {
+		TheoryKey key = new TheoryKey(theory, null);
+		long modCount = theory.getModificationCount();
+		synchronized (this) {
+			this.expungeCollected();
+			Entry entry = this.entries.get(key);
+			if (entry != null && entry.modCount == modCount) {
+				this.hits++;
+				return entry.subgraphs;
+			}
+			this.misses++;
+			if (entry != null)
+				this.remove(key);
+		}
+		// compute outside the lock, concurrent misses on the same theory may compute it twice
+		Collection<Graph<Argument>> subgraphs = Collections.unmodifiableCollection(DefaultGraph.<Argument>getSubgraphs(theory));
+		if (subgraphs.size() > this.maxWeight || this.maxEntries == 0)
+			return subgraphs;
+		synchronized (this) {
+			if (theory.getModificationCount() != modCount)
+				// the theory was modified in the meantime
+				return subgraphs;
+			TheoryKey storedKey = new TheoryKey(theory, this.collected);
+			this.remove(storedKey);
+			this.entries.put(storedKey, new Entry(modCount, subgraphs));
+			this.weight += subgraphs.size();
+			Iterator<Map.Entry<TheoryKey, Entry>> it = this.entries.entrySet().iterator();
+			while ((this.entries.size() > this.maxEntries || this.weight > this.maxWeight) && it.hasNext()) {
+				Map.Entry<TheoryKey, Entry> eldest = it.next();
+				this.weight -= eldest.getValue().subgraphs.size();
+				it.remove();
+				this.evictions++;
+			}
+		}
+		return subgraphs;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.arg.dung.syntax.SubgraphCache#invalidate(org.tweetyproject.arg.dung.syntax.DungTheory)
+	 */
+	@Override
+	public synchronized void invalidate(DungTheory theory) {
+		this.remove(new TheoryKey(theory, null));
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.arg.dung.syntax.SubgraphCache#clear()
+	 */
+	@Override
+	public synchronized void clear() {
+		this.entries.clear();
+		this.weight = 0;
+	}
+
+	/**
+	 * Removes the entry with the given key (if any).
+	 * @param key some key
+	 */
+	private void remove(TheoryKey key) {
+		Entry entry = this.entries.remove(key);
+		if (entry != null)
+			this.weight -= entry.subgraphs.size();
+	}
+
+	/**
+	 * Removes all entries whose theories have been garbage collected.
+	 */
+	private void expungeCollected() {
+		Reference<? extends DungTheory> ref;
+		while ((ref = this.collected.poll()) != null)
+			this.remove((TheoryKey) ref);
+	}
+
+	/**
+	 * Returns the number of cache hits so far.
+	 * @return the number of cache hits.
+	 */
+	public synchronized long getHitCount() {
+		return this.hits;
+	}
+
+	/**
+	 * Returns the number of cache misses so far.
+	 * @return the number of cache misses.
+	 */
+	public synchronized long getMissCount() {
+		return this.misses;
+	}
+
+	/**
+	 * Returns the number of entries evicted so far due to the bounds of the cache.
+	 * @return the number of evictions.
+	 */
+	public synchronized long getEvictionCount() {
+		return this.evictions;
+	}
+
+	/**
+	 * Returns the number of theories currently in the cache.
+	 * @return the number of cached theories.
+	 */
+	public synchronized int size() {
+		this.expungeCollected();
+		return this.entries.size();
+	}
+
+	/**
+	 * Returns the total number of sub graphs currently in the cache.
+	 * @return the weight of the cache.
+	 */
+	public synchronized long getWeight() {
+		this.expungeCollected();
+		return this.weight;
+	}
+
+	/**
+	 * A cached set of sub graphs.
+	 */
+	private static final class Entry {
+		/** The modification count of the theory when the sub graphs were computed. */
+		private final long modCount;
+		/** The sub graphs. */
+		private final Collection<Graph<Argument>> subgraphs;
+
+		private Entry(long modCount, Collection<Graph<Argument>> subgraphs) {
+			this.modCount = modCount;
+			this.subgraphs = subgraphs;
+		}
+	}
+
+	/**
+	 * A weak reference to a theory that uses object identity for equality.
+	 */
+	private static final class TheoryKey extends WeakReference<DungTheory> {
+		/** The identity hash code of the theory. */
+		private final int hash;
+
+		private TheoryKey(DungTheory theory, ReferenceQueue<DungTheory> queue) {
+			super(theory, queue);
+			this.hash = System.identityHashCode(theory);
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof TheoryKey))
+				return false;
+			DungTheory theory = this.get();
+			return theory != null && theory == ((TheoryKey) obj).get();
+		}
+	}
+}
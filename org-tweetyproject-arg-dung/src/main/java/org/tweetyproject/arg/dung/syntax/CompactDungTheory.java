@@ -0,0 +1,485 @@
+/*
+ *  This file is part of "TweetyProject", a collection of Java libraries for
+ *  logical aspects of artificial intelligence and knowledge representation.
+ *
+ *  TweetyProject is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  Copyright 2024 The TweetyProject Team <http://tweetyproject.org/contact/>
+ */
+package org.tweetyproject.arg.dung.syntax;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.tweetyproject.arg.dung.semantics.Extension;
+import org.tweetyproject.commons.Signature;
+
+/**
+ * An immutable, index-based representation of an abstract argumentation framework
+ * that is meant for large frameworks (e.g. ICCMA instances). Every argument is identified
+ * by an integer id between 0 and n-1, attackers and attacked arguments are stored in compressed
+ * sparse row (CSR) format, i.e., as two flat integer arrays per direction, and sets of
+ * arguments are represented by bitsets where bit i corresponds to the argument with id i.
+ * In contrast to {@link DungTheory}, neither sets of arguments nor attacks are represented
+ * by objects, so the basic operations (e.g. the characteristic function) do not need to box
+ * anything.
+ * <br>
+ * A compact theory can be created from a {@link DungTheory} and converted back via
+ * {@link #toDungTheory()}.
+ *
+ * @author agent
+ */
+public class CompactDungTheory implements ArgumentationFramework<Argument> {
+
+	/** The arguments, indexed by their id. */
+	private final Argument[] arguments;
+	/** Maps every argument to its id. */
+	private final Map<Argument,Integer> ids;
+	/** The attackers of argument i are attackers[attackerOffsets[i]] to attackers[attackerOffsets[i+1]-1]. */
+	private final int[] attackerOffsets;
+	/** The attackers of all arguments. */
+	private final int[] attackers;
+	/** The arguments attacked by argument i are attacked[attackedOffsets[i]] to attacked[attackedOffsets[i+1]-1]. */
+	private final int[] attackedOffsets;
+	/** The attacked arguments of all arguments. */
+	private final int[] attacked;
+
+	/**
+	 * Creates a new compact theory with the arguments and attacks of the given theory.
+	 * @param theory some Dung theory
+	 */
+	public CompactDungTheory(DungTheory theory) {
+		this.arguments = theory.toArray(new Argument[theory.size()]);
+		this.ids = CompactDungTheory.index(this.arguments);
+		int[] outDegree = new int[this.arguments.length];
+		int[] inDegree = new int[this.arguments.length];
+		int numAttacks = 0;
+		for (int i = 0; i < this.arguments.length; i++)
+			for (Argument b : theory.getAttacked(this.arguments[i])) {
+				outDegree[i]++;
+				inDegree[this.ids.get(b)]++;
+				numAttacks++;
+			}
+		int[] sources = new int[numAttacks];
+		int[] targets = new int[numAttacks];
+		int k = 0;
+		for (int i = 0; i < this.arguments.length; i++)
+			for (Argument b : theory.getAttacked(this.arguments[i])) {
+				sources[k] = i;
+				targets[k++] = this.ids.get(b);
+			}
+		this.attackedOffsets = CompactDungTheory.offsets(outDegree);
+		this.attacked = CompactDungTheory.adjacency(this.attackedOffsets, sources, targets);
+		this.attackerOffsets = CompactDungTheory.offsets(inDegree);
+		this.attackers = CompactDungTheory.adjacency(this.attackerOffsets, targets, sources);
+	}
+
+	/**
+	 * Creates a new compact theory from the given arguments and attacks. The i-th attack
+	 * is from argument <code>sources[i]</code> to argument <code>targets[i]</code> where
+	 * an argument is given by its position in <code>arguments</code>. Duplicate attacks are
+	 * not removed.
+	 * @param arguments some list of pairwise different arguments, the position of an argument
+	 * 	in the list is its id.
+	 * @param sources the attacking arguments
+	 * @param targets the attacked arguments
+	 */
+	public CompactDungTheory(List<Argument> arguments, int[] sources, int[] targets) {
+		if (sources.length != targets.length)
+			throw new IllegalArgumentException("The number of sources and targets of attacks must be the same.");
+		this.arguments = arguments.toArray(new Argument[arguments.size()]);
+		this.ids = CompactDungTheory.index(this.arguments);
+		if (this.ids.size() != this.arguments.length)
+			throw new IllegalArgumentException("The arguments must be pairwise different.");
+		int[] outDegree = new int[this.arguments.length];
+		int[] inDegree = new int[this.arguments.length];
+		for (int i = 0; i < sources.length; i++) {
+			outDegree[sources[i]]++;
+			inDegree[targets[i]]++;
+		}
+		this.attackedOffsets = CompactDungTheory.offsets(outDegree);
+		this.attacked = CompactDungTheory.adjacency(this.attackedOffsets, sources, targets);
+		this.attackerOffsets = CompactDungTheory.offsets(inDegree);
+		this.attackers = CompactDungTheory.adjacency(this.attackerOffsets, targets, sources);
+	}
+
+	/**
+	 * Maps the given arguments to their positions.
+	 * @param arguments some arguments
+	 * @return the map from arguments to their positions.
+	 */
+	private static Map<Argument,Integer> index(Argument[] arguments) {
+		Map<Argument,Integer> ids = new HashMap<>(2 * arguments.length);
+		for (int i = 0; i < arguments.length; i++)
+			ids.put(arguments[i], i);
+		return ids;
+	}
+
+	/**
+	 * Computes the row offsets of a CSR representation.
+	 * @param degree the number of entries of every row
+	 * @return the row offsets, with an additional last entry for the total number of entries.
+	 */
+	private static int[] offsets(int[] degree) {
+		int[] offsets = new int[degree.length + 1];
+		for (int i = 0; i < degree.length; i++)
+			offsets[i + 1] = offsets[i] + degree[i];
+		return offsets;
+	}
+
+	/**
+	 * Computes the entries of a CSR representation.
+	 * @param offsets the row offsets
+	 * @param rows the row of every entry
+	 * @param columns the column of every entry
+	 * @return the columns sorted by rows.
+	 */
+	private static int[] adjacency(int[] offsets, int[] rows, int[] columns) {
+		int[] next = Arrays.copyOf(offsets, offsets.length - 1);
+		int[] result = new int[rows.length];
+		for (int i = 0; i < rows.length; i++)
+			result[next[rows[i]]++] = columns[i];
+		return result;
+	}
+
+	/**
+	 * Converts this theory into a {@link DungTheory}.
+	 * @return a Dung theory with the same arguments and attacks.
+	 */
+	public DungTheory toDungTheory() {
+		DungTheory theory = new DungTheory();
+		theory.addAll(Arrays.asList(this.arguments));
+		for (int i = 0; i < this.arguments.length; i++)
+			for (int k = this.attackedOffsets[i]; k < this.attackedOffsets[i + 1]; k++)
+				theory.addAttack(this.arguments[i], this.arguments[this.attacked[k]]);
+		return theory;
+	}
+
+	/**
+	 * Returns the number of arguments of this theory.
+	 * @return the number of arguments.
+	 */
+	public int getNumberOfArguments() {
+		return this.arguments.length;
+	}
+
+	/**
+	 * Returns the number of attacks of this theory.
+	 * @return the number of attacks.
+	 */
+	public int getNumberOfAttacks() {
+		return this.attacked.length;
+	}
+
+	/**
+	 * Returns the argument with the given id.
+	 * @param id some id
+	 * @return the argument with the given id.
+	 */
+	public Argument getArgument(int id) {
+		return this.arguments[id];
+	}
+
+	/**
+	 * Returns the id of the given argument.
+	 * @param argument some argument
+	 * @return the id of the argument or -1 if it is not contained in this theory.
+	 */
+	public int getId(Argument argument) {
+		Integer id = this.ids.get(argument);
+		return id == null ? -1 : id;
+	}
+
+	/**
+	 * Returns the number of attackers of the given argument.
+	 * @param id the id of some argument
+	 * @return the number of attackers.
+	 */
+	public int getNumberOfAttackers(int id) {
+		return this.attackerOffsets[id + 1] - this.attackerOffsets[id];
+	}
+
+	/**
+	 * Returns the k-th attacker of the given argument.
+	 * @param id the id of some argument
+	 * @param k some index between 0 and {@link #getNumberOfAttackers(int)}-1
+	 * @return the id of the k-th attacker.
+	 */
+	public int getAttacker(int id, int k) {
+		return this.attackers[this.attackerOffsets[id] + k];
+	}
+
+	/**
+	 * Returns the number of arguments attacked by the given argument.
+	 * @param id the id of some argument
+	 * @return the number of attacked arguments.
+	 */
+	public int getNumberOfAttacked(int id) {
+		return this.attackedOffsets[id + 1] - this.attackedOffsets[id];
+	}
+
+	/**
+	 * Returns the k-th argument attacked by the given argument.
+	 * @param id the id of some argument
+	 * @param k some index between 0 and {@link #getNumberOfAttacked(int)}-1
+	 * @return the id of the k-th attacked argument.
+	 */
+	public int getAttacked(int id, int k) {
+		return this.attacked[this.attackedOffsets[id] + k];
+	}
+
+	/**
+	 * Checks whether the first argument is attacked by the second one.
+	 * @param id1 the id of some argument
+	 * @param id2 the id of some argument
+	 * @return "true" if id1 is attacked by id2.
+	 */
+	public boolean isAttackedBy(int id1, int id2) {
+		for (int k = this.attackerOffsets[id1]; k < this.attackerOffsets[id1 + 1]; k++)
+			if (this.attackers[k] == id2)
+				return true;
+		return false;
+	}
+
+	/**
+	 * Checks whether the given argument is attacked by some argument of the given set.
+	 * @param id the id of some argument
+	 * @param ext a set of arguments
+	 * @return "true" if some argument of ext attacks the argument.
+	 */
+	public boolean isAttacked(int id, BitSet ext) {
+		for (int k = this.attackerOffsets[id]; k < this.attackerOffsets[id + 1]; k++)
+			if (ext.get(this.attackers[k]))
+				return true;
+		return false;
+	}
+
+	/**
+	 * Checks whether the given argument attacks some argument of the given set.
+	 * @param id the id of some argument
+	 * @param ext a set of arguments
+	 * @return "true" if the argument attacks some argument of ext.
+	 */
+	public boolean isAttacking(int id, BitSet ext) {
+		for (int k = this.attackedOffsets[id]; k < this.attackedOffsets[id + 1]; k++)
+			if (ext.get(this.attacked[k]))
+				return true;
+		return false;
+	}
+
+	/**
+	 * Checks whether adding the given argument to the given conflict-free set
+	 * results in a set that is not conflict-free, i.e., whether the argument attacks itself,
+	 * attacks some argument of the set, or is attacked by some argument of the set.
+	 * @param id the id of some argument
+	 * @param ext a conflict-free set of arguments
+	 * @return "true" if the argument is in conflict with ext.
+	 */
+	public boolean isInConflict(int id, BitSet ext) {
+		return this.isAttackedBy(id, id) || this.isAttacked(id, ext) || this.isAttacking(id, ext);
+	}
+
+	/**
+	 * Computes the set of arguments attacked by some argument of the given set.
+	 * @param ext a set of arguments
+	 * @return the set of arguments attacked by ext.
+	 */
+	public BitSet getAttacked(BitSet ext) {
+		BitSet result = new BitSet(this.arguments.length);
+		for (int i = ext.nextSetBit(0); i >= 0; i = ext.nextSetBit(i + 1))
+			for (int k = this.attackedOffsets[i]; k < this.attackedOffsets[i + 1]; k++)
+				result.set(this.attacked[k]);
+		return result;
+	}
+
+	/**
+	 * Checks whether the given argument is acceptable wrt. the given set of arguments
+	 * whose attacked arguments are already known, i.e., whether every attacker of the
+	 * argument is attacked.
+	 * @param id the id of some argument
+	 * @param attackedByExt the set of arguments attacked by some set of arguments
+	 * @return "true" if the argument is acceptable.
+	 */
+	private boolean isDefended(int id, BitSet attackedByExt) {
+		for (int k = this.attackerOffsets[id]; k < this.attackerOffsets[id + 1]; k++)
+			if (!attackedByExt.get(this.attackers[k]))
+				return false;
+		return true;
+	}
+
+	/**
+	 * Checks whether the given argument is acceptable wrt. the given set of arguments,
+	 * i.e., whether every attacker of the argument is attacked by some argument of the set.
+	 * @param id the id of some argument
+	 * @param ext a set of arguments
+	 * @return "true" if the argument is acceptable wrt. ext.
+	 */
+	public boolean isAcceptable(int id, BitSet ext) {
+		for (int k = this.attackerOffsets[id]; k < this.attackerOffsets[id + 1]; k++)
+			if (!this.isAttacked(this.attackers[k], ext))
+				return false;
+		return true;
+	}
+
+	/**
+	 * The characteristic function of an abstract argumentation framework: F_AF(S) = {A|A is acceptable wrt. S}.
+	 * @param ext a set of arguments
+	 * @return the set of arguments acceptable wrt. ext.
+	 */
+	public BitSet faf(BitSet ext) {
+		BitSet attackedByExt = this.getAttacked(ext);
+		BitSet result = new BitSet(this.arguments.length);
+		for (int i = 0; i < this.arguments.length; i++)
+			if (this.isDefended(i, attackedByExt))
+				result.set(i);
+		return result;
+	}
+
+	/**
+	 * Checks whether the given set of arguments is conflict-free.
+	 * @param ext a set of arguments
+	 * @return "true" if no argument of ext attacks an argument of ext.
+	 */
+	public boolean isConflictFree(BitSet ext) {
+		for (int i = ext.nextSetBit(0); i >= 0; i = ext.nextSetBit(i + 1))
+			if (this.isAttacking(i, ext))
+				return false;
+		return true;
+	}
+
+	/**
+	 * Checks whether the given set of arguments is admissible, i.e., conflict-free and
+	 * every argument of the set is acceptable wrt. the set.
+	 * @param ext a set of arguments
+	 * @return "true" if ext is admissible.
+	 */
+	public boolean isAdmissable(BitSet ext) {
+		if (!this.isConflictFree(ext))
+			return false;
+		BitSet attackedByExt = this.getAttacked(ext);
+		for (int i = ext.nextSetBit(0); i >= 0; i = ext.nextSetBit(i + 1))
+			if (!this.isDefended(i, attackedByExt))
+				return false;
+		return true;
+	}
+
+	/**
+	 * Checks whether the given set of arguments is complete, i.e., conflict-free and
+	 * a fixpoint of the characteristic function.
+	 * @param ext a set of arguments
+	 * @return "true" if ext is complete.
+	 */
+	public boolean isComplete(BitSet ext) {
+		return this.isConflictFree(ext) && this.faf(ext).equals(ext);
+	}
+
+	/**
+	 * Checks whether the given set of arguments is stable, i.e., conflict-free and
+	 * attacking every other argument.
+	 * @param ext a set of arguments
+	 * @return "true" if ext is stable.
+	 */
+	public boolean isStable(BitSet ext) {
+		if (!this.isConflictFree(ext))
+			return false;
+		BitSet covered = this.getAttacked(ext);
+		covered.or(ext);
+		return covered.cardinality() == this.arguments.length;
+	}
+
+	/**
+	 * Converts the given set of arguments to a bitset.
+	 * @param arguments some arguments of this theory
+	 * @return the bitset of the ids of the arguments.
+	 */
+	public BitSet toBitSet(Collection<? extends Argument> arguments) {
+		BitSet result = new BitSet(this.arguments.length);
+		for (Argument a : arguments) {
+			Integer id = this.ids.get(a);
+			if (id == null)
+				throw new IllegalArgumentException("Argument " + a + " is not contained in this theory.");
+			result.set(id);
+		}
+		return result;
+	}
+
+	/**
+	 * Converts the given bitset to an extension.
+	 * @param ext a set of arguments
+	 * @return the extension consisting of the arguments in ext.
+	 */
+	public Extension<DungTheory> toExtension(BitSet ext) {
+		Extension<DungTheory> result = new Extension<DungTheory>();
+		for (int i = ext.nextSetBit(0); i >= 0; i = ext.nextSetBit(i + 1))
+			result.add(this.arguments[i]);
+		return result;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.arg.dung.syntax.ArgumentationFramework#containsAll(java.util.Collection)
+	 */
+	@Override
+	public boolean containsAll(Collection<?> c) {
+		return this.ids.keySet().containsAll(c);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.arg.dung.syntax.ArgumentationFramework#isAttacked(java.lang.Object, org.tweetyproject.arg.dung.semantics.Extension)
+	 */
+	@Override
+	public boolean isAttacked(Argument a, Extension<? extends ArgumentationFramework> ext) {
+		Integer id = this.ids.get(a);
+		if (id == null)
+			return false;
+		for (int k = this.attackerOffsets[id]; k < this.attackerOffsets[id + 1]; k++)
+			if (ext.contains(this.arguments[this.attackers[k]]))
+				return true;
+		return false;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.arg.dung.syntax.ArgumentationFramework#getNodes()
+	 */
+	@Override
+	public Collection<Argument> getNodes() {
+		return Collections.unmodifiableList(Arrays.asList(this.arguments));
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.commons.BeliefBase#getMinimalSignature()
+	 */
+	@Override
+	public Signature getMinimalSignature() {
+		return new DungSignature(this.getNodes());
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		StringBuilder result = new StringBuilder("<{");
+		for (int i = 0; i < this.arguments.length; i++)
+			result.append(i > 0 ? ", " : "").append(this.arguments[i]);
+		result.append("},{");
+		for (int i = 0, n = 0; i < this.arguments.length; i++)
+			for (int k = this.attackedOffsets[i]; k < this.attackedOffsets[i + 1]; k++)
+				result.append(n++ > 0 ? ", " : "").append("(").append(this.arguments[i]).append(",").append(this.arguments[this.attacked[k]]).append(")");
+		return result.append("}>").toString();
+	}
+}
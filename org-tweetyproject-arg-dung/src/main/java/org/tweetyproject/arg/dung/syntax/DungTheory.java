@@ -27,7 +27,7 @@ import org.tweetyproject.arg.dung.semantics.*;
 import org.tweetyproject.commons.*;
 import org.tweetyproject.graphs.*;
 import org.tweetyproject.math.matrix.Matrix;
-import org.tweetyproject.math.term.IntegerConstant;
+import org.tweetyproject.math.matrix.SparseMatrix;
 
 
 /**
@@ -45,9 +45,14 @@ import org.tweetyproject.math.term.IntegerConstant;
 public class DungTheory extends BeliefSet<Argument,DungSignature> implements Graph<Argument>, Comparable<DungTheory>, ArgumentationFramework<Argument> {
 
 	/**
-	 * For archiving sub graphs 
+	 * The cache for sub graphs, see getSubgraphs()
 	 */
-	private static Map<DungTheory, Collection<Graph<Argument>>> archivedSubgraphs = new HashMap<DungTheory, Collection<Graph<Argument>>>();
+	private static SubgraphCache subgraphCache = new BoundedSubgraphCache();
+
+	/**
+	 * The number of modifications of this theory (used for invalidating caches)
+	 */
+	private long modCount = 0;
 
 	/**
 	 * explicit listing of direct attackers and attackees (for efficiency reasons) 
@@ -578,6 +583,8 @@ public class DungTheory extends BeliefSet<Argument,DungSignature> implements Gra
 		if(!children.containsKey(attacker))
 			children.put(attacker, new HashSet<Argument>());
 		result |= children.get(attacker).add(attacked);		
+		if(result)
+			this.modCount++;
 		return result; 
 	}
 	
@@ -592,6 +599,8 @@ public class DungTheory extends BeliefSet<Argument,DungSignature> implements Gra
 			result |= parents.get(attack.getAttacked()).remove(attack.getAttacker());
 		if(children.containsKey(attack.getAttacker()))
 			result |= children.get(attack.getAttacker()).remove(attack.getAttacked());
+		if(result)
+			this.modCount++;
 		return result; 
 	}
 	
@@ -601,17 +610,107 @@ public class DungTheory extends BeliefSet<Argument,DungSignature> implements Gra
 	 * @return true if this structure has been changed
 	 */
 	public boolean remove(Argument a){
+		boolean attacksRemoved = this.removeAttacks(a);
+		boolean result = super.remove(a);
+		if(result || attacksRemoved)
+			this.modCount++;
+		return result;
+	}
+
+	/**
+	 * Removes all attacks from and to the given argument.
+	 * @param a some argument
+	 * @return "true" if some attack has been removed.
+	 */
+	private boolean removeAttacks(Argument a){
+		boolean result = false;
 		if(this.parents.get(a) != null){
 			for(Argument b: this.parents.get(a))
 				this.children.get(b).remove(a);
-			this.parents.remove(a);
+			result |= !this.parents.remove(a).isEmpty();
 		}
 		if(this.children.get(a) != null){
 			for(Argument b: this.children.get(a))
 				this.parents.get(b).remove(a);
-			this.children.remove(a);
-		}		
-		return super.remove(a);
+			result |= !this.children.remove(a).isEmpty();
+		}
+		return result;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.commons.BeliefSet#iterator()
+	 */
+	@Override
+	public Iterator<Argument> iterator(){
+		// removing an argument via the iterator also removes its attacks and counts as modification
+		Iterator<Argument> it = super.iterator();
+		return new Iterator<Argument>() {
+			private Argument last;
+
+			@Override
+			public boolean hasNext() {
+				return it.hasNext();
+			}
+
+			@Override
+			public Argument next() {
+				this.last = it.next();
+				return this.last;
+			}
+
+			@Override
+			public void remove() {
+				it.remove();
+				DungTheory.this.removeAttacks(this.last);
+				DungTheory.this.modCount++;
+			}
+		};
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.commons.BeliefSet#remove(java.lang.Object)
+	 */
+	@Override
+	public boolean remove(Object o){
+		if(o instanceof Argument)
+			return this.remove((Argument)o);
+		if(o instanceof Attack)
+			return this.remove((Attack)o);
+		return false;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.commons.BeliefSet#retainAll(java.util.Collection)
+	 */
+	@Override
+	public boolean retainAll(Collection<?> c){
+		// remove arguments one by one as BeliefSet.retainAll() would clear all attacks
+		boolean result = false;
+		for(Argument a: new HashSet<Argument>(this))
+			if(!c.contains(a))
+				result |= this.remove(a);
+		return result;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.commons.BeliefSet#clear()
+	 */
+	@Override
+	public void clear(){
+		super.clear();
+		this.parents.clear();
+		this.children.clear();
+		this.modCount++;
+	}
+
+	/**
+	 * Returns the number of modifications (of arguments or attacks) of this theory
+	 * so far. This number can be used to detect whether cached information about
+	 * this theory is still valid.
+	 * @return the number of modifications of this theory.
+	 */
+	public long getModificationCount(){
+		return this.modCount;
 	}
 	
 	/* (non-Javadoc)
@@ -687,7 +786,10 @@ public class DungTheory extends BeliefSet<Argument,DungSignature> implements Gra
 	}
 	
 	public boolean add(Argument argument) {
-		return super.add(argument);
+		if(!super.add(argument))
+			return false;
+		this.modCount++;
+		return true;
 	}
 	
 	/**
@@ -875,17 +977,21 @@ public class DungTheory extends BeliefSet<Argument,DungSignature> implements Gra
 	 */
 	@Override
 	public Matrix getAdjacencyMatrix() {
-		Matrix m = new Matrix(this.getNumberOfNodes(), this.getNumberOfNodes());
-		int i = 0, j;
-		for(Argument a: this){
-			j = 0;
-			for(Argument b : this){
-				m.setEntry(i, j, new IntegerConstant(this.areAdjacent(a, b) ? 1 : 0));				
-				j++;
-			}
-			i++;
+		// entry (i,j) is 1 iff the i-th argument attacks the j-th argument
+		Map<Argument,Integer> index = new HashMap<Argument,Integer>();
+		for(Argument a: this)
+			index.put(a, index.size());
+		Collection<Attack> attacks = this.getAttacks();
+		int[] xs = new int[attacks.size()];
+		int[] ys = new int[attacks.size()];
+		double[] values = new double[attacks.size()];
+		int k = 0;
+		for(Attack att: attacks){
+			xs[k] = index.get(att.getAttacker());
+			ys[k] = index.get(att.getAttacked());
+			values[k++] = 1;
 		}
-		return m;
+		return new SparseMatrix(index.size(), index.size(), xs, ys, values);
 	}
 
 	/* (non-Javadoc)
@@ -953,9 +1059,34 @@ public class DungTheory extends BeliefSet<Argument,DungSignature> implements Gra
 	 */
 	@Override
 	public Collection<Graph<Argument>> getSubgraphs() {	
-		if(!DungTheory.archivedSubgraphs.containsKey(this))			
-			DungTheory.archivedSubgraphs.put(this, DefaultGraph.<Argument>getSubgraphs(this));		
-		return DungTheory.archivedSubgraphs.get(this);
+		return DungTheory.subgraphCache.getSubgraphs(this);
+	}
+
+	/**
+	 * Sets the cache used by getSubgraphs() for all Dung theories.
+	 * @param cache some sub graph cache
+	 */
+	public static void setSubgraphCache(SubgraphCache cache) {
+		DungTheory.subgraphCache = cache;
+	}
+
+	/**
+	 * Returns the cache used by getSubgraphs() for all Dung theories.
+	 * @return the sub graph cache.
+	 */
+	public static SubgraphCache getSubgraphCache() {
+		return DungTheory.subgraphCache;
+	}
+
+	/**
+	 * Returns an iterator over all sub graphs of this theory, i.e., all theories 
+	 * consisting of a subset of the arguments and a subset of the attacks between them.
+	 * In contrast to getSubgraphs() the sub graphs are created lazily and not cached.
+	 * The theory must not be modified during the iteration.
+	 * @return an iterator over all sub graphs of this theory.
+	 */
+	public Iterator<DungTheory> subgraphIterator() {
+		return new SubgraphIterator(this);
 	}
 
 	/* (non-Javadoc)
@@ -1033,6 +1164,78 @@ public class DungTheory extends BeliefSet<Argument,DungSignature> implements Gra
 		return false;
 	}
 	
+	/**
+	 * Iterates over all sub graphs of a theory by enumerating the subsets of its
+	 * arguments and, for each of them, the subsets of the attacks between them.
+	 */
+	private static class SubgraphIterator implements Iterator<DungTheory> {
+		/** The arguments of the theory. */
+		private final Argument[] arguments;
+		/** The attacks of the theory. */
+		private final Attack[] attacks;
+		/** For each attack, the positions of attacker and attacked argument as a bit mask. */
+		private final long[] attackMasks;
+		/** The current subset of arguments. */
+		private long argumentSubset = 0;
+		/** The attacks between the arguments of the current subset. */
+		private Attack[] currentAttacks;
+		/** The next subset of currentAttacks. */
+		private long attackSubset = 0;
+
+		SubgraphIterator(DungTheory theory) {
+			if(theory.size() > 62)
+				throw new IllegalArgumentException("Sub graphs can only be enumerated for theories with at most 62 arguments.");
+			this.arguments = theory.toArray(new Argument[theory.size()]);
+			Map<Argument,Integer> positions = new HashMap<Argument,Integer>();
+			for(int i = 0; i < this.arguments.length; i++)
+				positions.put(this.arguments[i], i);
+			this.attacks = theory.getAttacks().toArray(new Attack[0]);
+			this.attackMasks = new long[this.attacks.length];
+			for(int i = 0; i < this.attacks.length; i++)
+				this.attackMasks[i] = (1L << positions.get(this.attacks[i].getAttacker())) | (1L << positions.get(this.attacks[i].getAttacked()));
+			this.currentAttacks = this.getAttacks(0);
+		}
+
+		/**
+		 * Returns the attacks between the arguments of the given subset.
+		 * @param subset a bit mask of arguments
+		 * @return the attacks between the arguments of the subset.
+		 */
+		private Attack[] getAttacks(long subset) {
+			List<Attack> result = new ArrayList<Attack>();
+			for(int i = 0; i < this.attacks.length; i++)
+				if((this.attackMasks[i] & subset) == this.attackMasks[i])
+					result.add(this.attacks[i]);
+			if(result.size() > 62)
+				throw new IllegalArgumentException("Sub graphs can only be enumerated for sets of at most 62 attacks.");
+			return result.toArray(new Attack[result.size()]);
+		}
+
+		@Override
+		public boolean hasNext() {
+			return this.argumentSubset < (1L << this.arguments.length);
+		}
+
+		@Override
+		public DungTheory next() {
+			if(!this.hasNext())
+				throw new NoSuchElementException();
+			DungTheory result = new DungTheory();
+			for(int i = 0; i < this.arguments.length; i++)
+				if((this.argumentSubset & (1L << i)) != 0)
+					result.add(this.arguments[i]);
+			for(int i = 0; i < this.currentAttacks.length; i++)
+				if((this.attackSubset & (1L << i)) != 0)
+					result.add(this.currentAttacks[i]);
+			if(++this.attackSubset == (1L << this.currentAttacks.length)) {
+				this.attackSubset = 0;
+				if(++this.argumentSubset < (1L << this.arguments.length))
+					this.currentAttacks = this.getAttacks(this.argumentSubset);
+			}
+			return result;
+		}
+	}
+
 	private void removeEmptyParents() {
 		cleanUpMap(parents);
 		cleanUpMap(children);
@@ -0,0 +1,54 @@
+/*
+ *  This file is part of "TweetyProject", a collection of Java libraries for
+ *  logical aspects of artificial intelligence and knowledge representation.
+ *
+ *  TweetyProject is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  Copyright 2024 The TweetyProject Team <http://tweetyproject.org/contact/>
+ */
+package org.tweetyproject.arg.dung.syntax;
+
+import java.util.Collection;
+
+import org.tweetyproject.graphs.Graph;
+
+/**
+ * A cache for the sub graphs of Dung theories, see {@link DungTheory#getSubgraphs()}
+ * and {@link DungTheory#setSubgraphCache(SubgraphCache)}. Implementations have to
+ * take care that modifications of a theory (see {@link DungTheory#getModificationCount()})
+ * invalidate the cached sub graphs of that theory.
+ *
+ * @author agent
+ */
+public interface SubgraphCache {
+
+	/**
+	 * Returns the set of sub graphs of the given theory, either from the cache
+	 * or by computing it. As cached collections are shared by all callers, the
+	 * returned collection should be unmodifiable.
+	 * @param theory some Dung theory
+	 * @return the set of sub graphs of the theory.
+	 */
+	Collection<Graph<Argument>> getSubgraphs(DungTheory theory);
+
+	/**
+	 * Removes the cached sub graphs of the given theory (if any).
+	 * @param theory some Dung theory
+	 */
+	void invalidate(DungTheory theory);
+
+	/**
+	 * Removes all cached sub graphs.
+	 */
+	void clear();
+}
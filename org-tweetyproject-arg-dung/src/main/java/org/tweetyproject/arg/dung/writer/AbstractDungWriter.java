@@ -48,6 +48,8 @@ public abstract class AbstractDungWriter {
 			return new ApxWriter();
 		if(f.equals(FileFormat.CNF))
 			return new CnfWriter();
+		if(f.equals(FileFormat.I23))
+			return new Iccma23Writer();
 		return null;
 	}
 	
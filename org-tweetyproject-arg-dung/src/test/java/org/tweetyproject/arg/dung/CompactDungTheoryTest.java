@@ -0,0 +1,132 @@
+/*
+ *  This file is part of "TweetyProject", a collection of Java libraries for
+ *  logical aspects of artificial intelligence and knowledge representation.
+ *
+ *  TweetyProject is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  Copyright 2024 The TweetyProject Team <http://tweetyproject.org/contact/>
+ */
+package org.tweetyproject.arg.dung;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import org.tweetyproject.arg.dung.reasoner.SimpleCompleteReasoner;
+import org.tweetyproject.arg.dung.reasoner.SimpleGroundedReasoner;
+import org.tweetyproject.arg.dung.reasoner.SimpleStableReasoner;
+import org.tweetyproject.arg.dung.semantics.Extension;
+import org.tweetyproject.arg.dung.syntax.Argument;
+import org.tweetyproject.arg.dung.syntax.Attack;
+import org.tweetyproject.arg.dung.syntax.CompactDungTheory;
+import org.tweetyproject.arg.dung.syntax.DungTheory;
+
+/**
+ * Compares the reasoners for compact theories with the reasoners for Dung theories
+ * on generated theories and on the empty theory.
+ *
+ * @author agent
+ */
+public class CompactDungTheoryTest {
+
+	@Test
+	public void GroundedTest() {
+		SimpleGroundedReasoner reasoner = new SimpleGroundedReasoner();
+		for(DungTheory theory: CompactDungTheoryTest.theories()) {
+			CompactDungTheory compact = new CompactDungTheory(theory);
+			assertEquals(reasoner.getModel(theory), compact.toExtension(reasoner.getModel(compact)));
+		}
+	}
+
+	@Test
+	public void CompleteTest() {
+		SimpleCompleteReasoner reasoner = new SimpleCompleteReasoner();
+		for(DungTheory theory: CompactDungTheoryTest.theories()) {
+			CompactDungTheory compact = new CompactDungTheory(theory);
+			assertEquals(new HashSet<Extension<DungTheory>>(reasoner.getModels(theory)), CompactDungTheoryTest.toExtensions(compact, reasoner.getModels(compact)));
+			// some complete extension, the grounded one
+			assertEquals(reasoner.getModel(theory), compact.toExtension(reasoner.getModel(compact)));
+		}
+	}
+
+	@Test
+	public void StableTest() {
+		SimpleStableReasoner reasoner = new SimpleStableReasoner();
+		for(DungTheory theory: CompactDungTheoryTest.theories()) {
+			CompactDungTheory compact = new CompactDungTheory(theory);
+			Set<Extension<DungTheory>> expected = new HashSet<Extension<DungTheory>>(reasoner.getModels(theory));
+			assertEquals(expected, CompactDungTheoryTest.toExtensions(compact, reasoner.getModels(compact)));
+			if(expected.isEmpty())
+				assertNull(reasoner.getModel(compact));
+			else assertTrue(expected.contains(compact.toExtension(reasoner.getModel(compact))));
+		}
+	}
+
+	@Test
+	public void ConversionTest() {
+		for(DungTheory theory: CompactDungTheoryTest.theories()) {
+			CompactDungTheory compact = new CompactDungTheory(theory);
+			assertEquals(theory.size(), compact.getNumberOfArguments());
+			assertEquals(theory.getAttacks().size(), compact.getNumberOfAttacks());
+			DungTheory converted = compact.toDungTheory();
+			assertEquals(new HashSet<Argument>(theory), new HashSet<Argument>(converted));
+			assertEquals(theory.getAttacks(), converted.getAttacks());
+			// from edge arrays, with all attacks given twice
+			List<Argument> arguments = new ArrayList<Argument>(theory);
+			int m = theory.getAttacks().size(), k = 0;
+			int[] sources = new int[2 * m], targets = new int[2 * m];
+			for(Attack att: theory.getAttacks())
+				for(int i = 0; i < 2; i++) {
+					sources[k] = arguments.indexOf(att.getAttacker());
+					targets[k++] = arguments.indexOf(att.getAttacked());
+				}
+			CompactDungTheory fromEdges = new CompactDungTheory(arguments, sources, targets);
+			assertEquals(theory.getAttacks(), fromEdges.toDungTheory().getAttacks());
+			assertEquals(new SimpleGroundedReasoner().getModel(theory), fromEdges.toExtension(new SimpleGroundedReasoner().getModel(fromEdges)));
+			assertEquals(new HashSet<Extension<DungTheory>>(new SimpleStableReasoner().getModels(theory)), CompactDungTheoryTest.toExtensions(fromEdges, new SimpleStableReasoner().getModels(fromEdges)));
+		}
+	}
+
+	/**
+	 * Converts the given sets of argument ids to extensions.
+	 * @param compact some compact theory
+	 * @param models some sets of argument ids of the theory
+	 * @return the set of extensions.
+	 */
+	private static Set<Extension<DungTheory>> toExtensions(CompactDungTheory compact, Collection<BitSet> models) {
+		Set<Extension<DungTheory>> result = new HashSet<Extension<DungTheory>>();
+		for(BitSet model: models)
+			result.add(compact.toExtension(model));
+		return result;
+	}
+
+	/**
+	 * Returns the empty theory and generated theories of different densities, with and without self-attacks.
+	 * @return some theories.
+	 */
+	private static List<DungTheory> theories() {
+		List<DungTheory> theories = new ArrayList<DungTheory>();
+		theories.add(new DungTheory());
+		theories.addAll(Utilities.theories(9, new double[] {0.1, 0.2, 0.3, 0.5}, 20));
+		return theories;
+	}
+}
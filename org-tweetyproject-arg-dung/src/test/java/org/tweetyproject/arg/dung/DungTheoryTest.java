@@ -0,0 +1,138 @@
+/*
+ *  This file is part of "TweetyProject", a collection of Java libraries for
+ *  logical aspects of artificial intelligence and knowledge representation.
+ *
+ *  TweetyProject is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  Copyright 2024 The TweetyProject Team <http://tweetyproject.org/contact/>
+ */
+package org.tweetyproject.arg.dung;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.tweetyproject.arg.dung.syntax.Argument;
+import org.tweetyproject.arg.dung.syntax.Attack;
+import org.tweetyproject.arg.dung.syntax.DungTheory;
+import org.tweetyproject.graphs.Graph;
+import org.tweetyproject.math.matrix.Matrix;
+
+public class DungTheoryTest {
+
+	private DungTheory theory;
+	private Argument a, b, c, d;
+
+	@Before
+	public void setUp() {
+		this.theory = new DungTheory();
+		this.a = new Argument("a");
+		this.b = new Argument("b");
+		this.c = new Argument("c");
+		this.d = new Argument("d");
+		this.theory.add(this.a);
+		this.theory.add(this.b);
+		this.theory.add(this.c);
+		this.theory.add(this.d);
+		this.theory.addAttack(this.a, this.b);
+		this.theory.addAttack(this.b, this.a);
+		this.theory.addAttack(this.b, this.c);
+		this.theory.addAttack(this.c, this.d);
+		this.theory.addAttack(this.d, this.d);
+	}
+
+	@Test
+	public void RetainAllKeepsAttacksTest() {
+		assertTrue(this.theory.retainAll(Arrays.asList(this.a, this.b, this.d)));
+		assertEquals(3, this.theory.size());
+		assertFalse(this.theory.contains(this.c));
+		assertEquals(3, this.theory.getAttacks().size());
+		assertTrue(this.theory.isAttackedBy(this.b, this.a));
+		assertTrue(this.theory.isAttackedBy(this.a, this.b));
+		assertTrue(this.theory.isAttackedBy(this.d, this.d));
+		assertFalse(this.theory.containsAttack(new Attack(this.b, this.c)));
+		assertFalse(this.theory.containsAttack(new Attack(this.c, this.d)));
+		assertFalse(this.theory.retainAll(Arrays.asList(this.a, this.b, this.c, this.d)));
+		assertEquals(3, this.theory.getAttacks().size());
+	}
+
+	@Test
+	public void RemoveTest() {
+		long count = this.theory.getModificationCount();
+		assertFalse(this.theory.remove(new Argument("e")));
+		assertEquals(count, this.theory.getModificationCount());
+		assertTrue(this.theory.remove(this.c));
+		assertTrue(this.theory.getModificationCount() > count);
+		assertEquals(3, this.theory.getAttacks().size());
+	}
+
+	@Test
+	public void IteratorRemoveTest() {
+		int subgraphs = this.theory.getSubgraphs().size();
+		long count = this.theory.getModificationCount();
+		Iterator<Argument> it = this.theory.iterator();
+		while(it.hasNext())
+			if(it.next().equals(this.c))
+				it.remove();
+		assertFalse(this.theory.contains(this.c));
+		assertTrue(this.theory.getModificationCount() > count);
+		assertEquals(3, this.theory.getAttacks().size());
+		assertTrue(this.theory.getAttackers(this.d).equals(Collections.singleton(this.d)));
+		// the cached sub graphs are recomputed
+		assertTrue(this.theory.getSubgraphs().size() < subgraphs);
+		for(Graph<Argument> g: this.theory.getSubgraphs())
+			assertFalse(g.contains(this.c));
+	}
+
+	@Test
+	public void AdjacencyMatrixTest() {
+		Matrix m = this.theory.getAdjacencyMatrix();
+		List<Argument> args = new ArrayList<Argument>(this.theory);
+		assertEquals(4, m.getXDimension());
+		assertEquals(4, m.getYDimension());
+		// entry (i,j) is 1 iff the i-th argument attacks the j-th argument
+		for(int i = 0; i < args.size(); i++)
+			for(int j = 0; j < args.size(); j++) {
+				double expected = this.theory.isAttackedBy(args.get(j), args.get(i)) ? 1 : 0;
+				assertEquals(expected, m.getDoubleEntry(i, j), 0);
+				assertEquals(expected, m.getEntry(i, j).doubleValue(), 0);
+			}
+		// the entries of the square count the paths of length two
+		Matrix square = m.mult(m);
+		for(int i = 0; i < args.size(); i++)
+			for(int j = 0; j < args.size(); j++) {
+				int paths = 0;
+				for(Argument arg: args)
+					if(this.theory.isAttackedBy(arg, args.get(i)) && this.theory.isAttackedBy(args.get(j), arg))
+						paths++;
+				assertEquals(paths, square.getDoubleEntry(i, j), 0);
+			}
+		assertEquals(0, new DungTheory().getAdjacencyMatrix().getXDimension());
+	}
+
+	@Test
+	public void ClearTest() {
+		this.theory.clear();
+		assertTrue(this.theory.isEmpty());
+		assertTrue(this.theory.getAttacks().isEmpty());
+	}
+}
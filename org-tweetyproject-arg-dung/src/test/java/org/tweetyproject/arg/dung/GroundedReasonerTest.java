@@ -0,0 +1,130 @@
+/*
+ *  This file is part of "TweetyProject", a collection of Java libraries for
+ *  logical aspects of artificial intelligence and knowledge representation.
+ *
+ *  TweetyProject is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  Copyright 2024 The TweetyProject Team <http://tweetyproject.org/contact/>
+ */
+package org.tweetyproject.arg.dung;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import org.tweetyproject.arg.dung.reasoner.GroundedCore;
+import org.tweetyproject.arg.dung.reasoner.SimpleGroundedReasoner;
+import org.tweetyproject.arg.dung.semantics.ArgumentStatus;
+import org.tweetyproject.arg.dung.semantics.Extension;
+import org.tweetyproject.arg.dung.semantics.Labeling;
+import org.tweetyproject.arg.dung.syntax.Argument;
+import org.tweetyproject.arg.dung.syntax.Attack;
+import org.tweetyproject.arg.dung.syntax.CompactDungTheory;
+import org.tweetyproject.arg.dung.syntax.DungTheory;
+
+/**
+ * Compares the grounded labeling computed with attacker counters with the least
+ * fixpoint of the characteristic function on generated theories.
+ *
+ * @author agent
+ */
+public class GroundedReasonerTest {
+
+	@Test
+	public void RandomTest() {
+		SimpleGroundedReasoner reasoner = new SimpleGroundedReasoner();
+		for(DungTheory theory: GroundedReasonerTest.theories()) {
+			Extension<DungTheory> expected = GroundedReasonerTest.leastFixpoint(theory);
+			assertEquals(expected, reasoner.getModel(theory));
+			assertEquals(1, reasoner.getModels(theory).size());
+			assertEquals(expected, reasoner.getModels(theory).iterator().next());
+			// the labeling
+			Labeling labeling = GroundedCore.getLabeling(theory);
+			assertEquals(theory.size(), labeling.size());
+			for(Argument a: theory) {
+				ArgumentStatus status = expected.contains(a) ? ArgumentStatus.IN : theory.isAttacked(a, expected) ? ArgumentStatus.OUT : ArgumentStatus.UNDECIDED;
+				assertEquals(status, labeling.get(a));
+			}
+			// the compact theory
+			CompactDungTheory compact = new CompactDungTheory(theory);
+			BitSet ext = reasoner.getModel(compact);
+			Extension<DungTheory> mapped = new Extension<DungTheory>();
+			for(int i = ext.nextSetBit(0); i >= 0; i = ext.nextSetBit(i + 1))
+				mapped.add(compact.getArgument(i));
+			assertEquals(expected, mapped);
+		}
+	}
+
+	@Test
+	public void ScopeTest() {
+		Random random = new Random(1);
+		for(DungTheory theory: GroundedReasonerTest.theories()) {
+			// label a random part, the other arguments are randomly IN, UNDECIDED or OUT
+			Set<Argument> scope = new HashSet<Argument>(), in = new HashSet<Argument>(), undec = new HashSet<Argument>();
+			for(Argument a: theory) {
+				int r = random.nextInt(4);
+				if(r < 2)
+					scope.add(a);
+				else if(r == 2)
+					in.add(a);
+				else if(random.nextBoolean())
+					undec.add(a);
+			}
+			// the same as the grounded labeling of the part where IN arguments outside are unattacked
+			// and UNDECIDED ones attack themselves
+			DungTheory part = new DungTheory();
+			part.addAll(scope);
+			part.addAll(in);
+			part.addAll(undec);
+			for(Attack att: theory.getAttacks())
+				if(scope.contains(att.getAttacked()) && part.contains(att.getAttacker()))
+					part.add(att);
+			for(Argument a: undec)
+				part.addAttack(a, a);
+			Labeling expected = GroundedCore.getLabeling(part);
+			Labeling labeling = GroundedCore.getLabeling(theory, scope, in, undec);
+			assertEquals(scope, labeling.keySet());
+			for(Argument a: scope)
+				assertEquals(expected.get(a), labeling.get(a));
+		}
+	}
+
+	/**
+	 * Returns generated theories of different densities, with and without self-attacks.
+	 * @return some theories.
+	 */
+	private static List<DungTheory> theories() {
+		return Utilities.theories(15, new double[] {0.05, 0.1, 0.2, 0.3, 0.5}, 40);
+	}
+
+	/**
+	 * Computes the grounded extension by iterating the characteristic function from the empty set.
+	 * @param theory some theory
+	 * @return the grounded extension.
+	 */
+	private static Extension<DungTheory> leastFixpoint(DungTheory theory) {
+		Extension<DungTheory> ext = new Extension<DungTheory>();
+		Extension<DungTheory> next = theory.faf(ext);
+		while(!next.equals(ext)) {
+			ext = next;
+			next = theory.faf(ext);
+		}
+		return ext;
+	}
+}
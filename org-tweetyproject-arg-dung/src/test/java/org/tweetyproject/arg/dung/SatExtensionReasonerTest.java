@@ -0,0 +1,106 @@
+/*
+ *  This file is part of "TweetyProject", a collection of Java libraries for
+ *  logical aspects of artificial intelligence and knowledge representation.
+ *
+ *  TweetyProject is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  Copyright 2024 The TweetyProject Team <http://tweetyproject.org/contact/>
+ */
+package org.tweetyproject.arg.dung;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import org.tweetyproject.arg.dung.reasoner.AbstractExtensionReasoner;
+import org.tweetyproject.arg.dung.reasoner.AbstractSatExtensionReasoner;
+import org.tweetyproject.arg.dung.reasoner.SatCompleteReasoner;
+import org.tweetyproject.arg.dung.reasoner.SatStableReasoner;
+import org.tweetyproject.arg.dung.reasoner.SimpleCompleteReasoner;
+import org.tweetyproject.arg.dung.reasoner.SimpleStableReasoner;
+import org.tweetyproject.arg.dung.semantics.Extension;
+import org.tweetyproject.arg.dung.syntax.DungTheory;
+import org.tweetyproject.logics.pl.sat.CdclSolver;
+import org.tweetyproject.logics.pl.sat.SatSolver;
+import org.tweetyproject.logics.pl.sat.SimpleDpllSolver;
+
+/**
+ * Compares the incremental enumeration of the SAT-based reasoners with the simple reasoners,
+ * both with a solver with incremental states and with a solver without.
+ *
+ * @author agent
+ */
+public class SatExtensionReasonerTest {
+
+	@Test
+	public void CompleteTest() {
+		for(SatSolver solver: SatExtensionReasonerTest.solvers())
+			SatExtensionReasonerTest.check(new SatCompleteReasoner(solver), new SimpleCompleteReasoner());
+	}
+
+	@Test
+	public void StableTest() {
+		for(SatSolver solver: SatExtensionReasonerTest.solvers())
+			SatExtensionReasonerTest.check(new SatStableReasoner(solver), new SimpleStableReasoner());
+	}
+
+	/**
+	 * Checks that the model iterator, the models and some model of the given reasoner
+	 * agree with the expected reasoner on generated theories.
+	 * @param reasoner some SAT-based reasoner
+	 * @param expected a reasoner for the same semantics
+	 */
+	private static void check(AbstractSatExtensionReasoner reasoner, AbstractExtensionReasoner expected) {
+		for(DungTheory theory: SatExtensionReasonerTest.theories()) {
+			Set<Extension<DungTheory>> models = new HashSet<Extension<DungTheory>>(expected.getModels(theory));
+			// every model is enumerated exactly once
+			List<Extension<DungTheory>> enumerated = new ArrayList<Extension<DungTheory>>();
+			Iterator<Extension<DungTheory>> it = reasoner.modelIterator(theory);
+			while(it.hasNext())
+				enumerated.add(it.next());
+			assertEquals(theory.toString(), enumerated.size(), new HashSet<Extension<DungTheory>>(enumerated).size());
+			assertEquals(theory.toString(), models, new HashSet<Extension<DungTheory>>(enumerated));
+			assertEquals(theory.toString(), models, new HashSet<Extension<DungTheory>>(reasoner.getModels(theory)));
+			if(models.isEmpty())
+				assertNull(reasoner.getModel(theory));
+			else assertTrue(models.contains(reasoner.getModel(theory)));
+		}
+	}
+
+	/**
+	 * Returns a solver with incremental states and a solver without.
+	 * @return some SAT solvers.
+	 */
+	private static List<SatSolver> solvers() {
+		return List.of(new CdclSolver(), new SimpleDpllSolver());
+	}
+
+	/**
+	 * Returns the empty theory and generated theories of different densities, with and without self-attacks.
+	 * @return some theories.
+	 */
+	private static List<DungTheory> theories() {
+		List<DungTheory> theories = new ArrayList<DungTheory>();
+		theories.add(new DungTheory());
+		theories.addAll(Utilities.theories(7, new double[] {0.1, 0.2, 0.3, 0.5}, 10));
+		return theories;
+	}
+}
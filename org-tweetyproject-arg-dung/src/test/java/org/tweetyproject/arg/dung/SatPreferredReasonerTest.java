@@ -0,0 +1,122 @@
+/*
+ *  This file is part of "TweetyProject", a collection of Java libraries for
+ *  logical aspects of artificial intelligence and knowledge representation.
+ *
+ *  TweetyProject is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  Copyright 2024 The TweetyProject Team <http://tweetyproject.org/contact/>
+ */
+package org.tweetyproject.arg.dung;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import org.tweetyproject.arg.dung.reasoner.SatPreferredReasoner;
+import org.tweetyproject.arg.dung.reasoner.SimpleCompleteReasoner;
+import org.tweetyproject.arg.dung.reasoner.SimplePreferredReasoner;
+import org.tweetyproject.arg.dung.semantics.Extension;
+import org.tweetyproject.arg.dung.syntax.Argument;
+import org.tweetyproject.arg.dung.syntax.DungTheory;
+import org.tweetyproject.commons.InferenceMode;
+import org.tweetyproject.logics.pl.sat.CdclSolver;
+
+/**
+ * Compares the SAT-based preferred reasoner with the maximal complete extensions
+ * and with the simple preferred reasoner on generated theories.
+ *
+ * @author agent
+ */
+public class SatPreferredReasonerTest {
+
+	@Test
+	public void RandomTest() {
+		SatPreferredReasoner sat = new SatPreferredReasoner(new CdclSolver());
+		SimplePreferredReasoner simple = new SimplePreferredReasoner();
+		for(DungTheory theory: SatPreferredReasonerTest.theories()) {
+			Set<Extension<DungTheory>> expected = Utilities.maximal(new SimpleCompleteReasoner().getModels(theory));
+			assertEquals(expected, new HashSet<Extension<DungTheory>>(simple.getModels(theory)));
+			Collection<Extension<DungTheory>> extensions = sat.getModels(theory);
+			assertEquals(expected.size(), extensions.size());
+			assertEquals(expected, new HashSet<Extension<DungTheory>>(extensions));
+			// the iterator returns every preferred extension once
+			List<Extension<DungTheory>> iterated = new ArrayList<Extension<DungTheory>>();
+			Iterator<Extension<DungTheory>> it = sat.modelIterator(theory);
+			while(it.hasNext())
+				iterated.add(it.next());
+			assertEquals(expected.size(), iterated.size());
+			assertEquals(expected, new HashSet<Extension<DungTheory>>(iterated));
+			assertTrue(expected.contains(sat.getModel(theory)));
+			assertTrue(expected.contains(simple.getModel(theory)));
+			// queries
+			for(Argument a: theory) {
+				boolean credulous = false, skeptical = true;
+				for(Extension<DungTheory> e: expected) {
+					credulous |= e.contains(a);
+					skeptical &= e.contains(a);
+				}
+				assertEquals(credulous, sat.query(theory, a, InferenceMode.CREDULOUS));
+				assertEquals(skeptical, sat.query(theory, a, InferenceMode.SKEPTICAL));
+			}
+		}
+	}
+
+	@Test
+	public void ExampleTest() {
+		// a and b attack each other, both attack c, c attacks d, e attacks itself and d
+		DungTheory theory = new DungTheory();
+		Argument a = new Argument("a"), b = new Argument("b"), c = new Argument("c"), d = new Argument("d"), e = new Argument("e");
+		theory.add(a);
+		theory.add(b);
+		theory.add(c);
+		theory.add(d);
+		theory.add(e);
+		theory.addAttack(a, b);
+		theory.addAttack(b, a);
+		theory.addAttack(a, c);
+		theory.addAttack(b, c);
+		theory.addAttack(c, d);
+		theory.addAttack(e, e);
+		theory.addAttack(e, d);
+		SatPreferredReasoner sat = new SatPreferredReasoner(new CdclSolver());
+		Set<Extension<DungTheory>> expected = new HashSet<Extension<DungTheory>>();
+		expected.add(new Extension<DungTheory>(Collections.singleton(a)));
+		expected.add(new Extension<DungTheory>(Collections.singleton(b)));
+		assertEquals(expected, new HashSet<Extension<DungTheory>>(sat.getModels(theory)));
+		assertTrue(sat.query(theory, a, InferenceMode.CREDULOUS));
+		assertFalse(sat.query(theory, a, InferenceMode.SKEPTICAL));
+		assertFalse(sat.query(theory, c, InferenceMode.CREDULOUS));
+		assertFalse(sat.query(theory, d, InferenceMode.CREDULOUS));
+		// the empty theory has the empty extension
+		assertEquals(1, sat.getModels(new DungTheory()).size());
+		assertTrue(sat.getModel(new DungTheory()).isEmpty());
+	}
+
+	/**
+	 * Returns generated theories of different densities, with and without self-attacks.
+	 * @return some theories.
+	 */
+	private static List<DungTheory> theories() {
+		return Utilities.theories(10, new double[] {0.05, 0.1, 0.2, 0.3}, 20);
+	}
+}
@@ -0,0 +1,180 @@
+/*
+ *  This file is part of "TweetyProject", a collection of Java libraries for
+ *  logical aspects of artificial intelligence and knowledge representation.
+ *
+ *  TweetyProject is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  Copyright 2024 The TweetyProject Team <http://tweetyproject.org/contact/>
+ */
+package org.tweetyproject.arg.dung;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import org.tweetyproject.arg.dung.reasoner.AbstractExtensionReasoner;
+import org.tweetyproject.arg.dung.reasoner.SccCF2Reasoner;
+import org.tweetyproject.arg.dung.reasoner.SimpleCompleteReasoner;
+import org.tweetyproject.arg.dung.reasoner.SimpleGroundedReasoner;
+import org.tweetyproject.arg.dung.reasoner.SimplePreferredReasoner;
+import org.tweetyproject.arg.dung.reasoner.SimpleSccCompleteReasoner;
+import org.tweetyproject.arg.dung.reasoner.SimpleSccRecursiveReasoner;
+import org.tweetyproject.arg.dung.semantics.Extension;
+import org.tweetyproject.arg.dung.syntax.Argument;
+import org.tweetyproject.arg.dung.syntax.DungTheory;
+
+/**
+ * Compares the SCC-recursive reasoners, evaluated sequentially and concurrently,
+ * with the extensions obtained by enumerating all sets of arguments on generated theories.
+ *
+ * @author agent
+ */
+public class SccRecursiveReasonerTest {
+
+	/** The parallelisms to test, "1" is the sequential evaluation. */
+	private static final int[] PARALLELISMS = {1, 4};
+
+	@Test
+	public void CompleteTest() {
+		for(DungTheory theory: SccRecursiveReasonerTest.theories()) {
+			Set<Extension<DungTheory>> expected = SccRecursiveReasonerTest.complete(theory);
+			assertEquals(expected, new HashSet<Extension<DungTheory>>(new SimpleCompleteReasoner().getModels(theory)));
+			for(int parallelism: PARALLELISMS)
+				SccRecursiveReasonerTest.check(expected, new SimpleSccCompleteReasoner(parallelism), theory);
+		}
+	}
+
+	@Test
+	public void PreferredTest() {
+		for(DungTheory theory: SccRecursiveReasonerTest.theories()) {
+			Set<Extension<DungTheory>> expected = Utilities.maximal(SccRecursiveReasonerTest.complete(theory));
+			SccRecursiveReasonerTest.check(expected, new SimplePreferredReasoner(), theory);
+			for(int parallelism: PARALLELISMS)
+				SccRecursiveReasonerTest.check(expected, new SimpleSccRecursiveReasoner(new SimplePreferredReasoner(), parallelism), theory);
+		}
+	}
+
+	@Test
+	public void GroundedTest() {
+		for(DungTheory theory: SccRecursiveReasonerTest.theories()) {
+			// the grounded extension is the least complete one
+			Extension<DungTheory> grounded = new Extension<DungTheory>(theory);
+			for(Extension<DungTheory> e: SccRecursiveReasonerTest.complete(theory))
+				grounded.retainAll(e);
+			Set<Extension<DungTheory>> expected = new HashSet<Extension<DungTheory>>();
+			expected.add(grounded);
+			for(int parallelism: PARALLELISMS)
+				SccRecursiveReasonerTest.check(expected, new SimpleSccRecursiveReasoner(new SimpleGroundedReasoner(), parallelism), theory);
+		}
+	}
+
+	@Test
+	public void CF2Test() {
+		for(DungTheory theory: SccRecursiveReasonerTest.theories()) {
+			Collection<Extension<DungTheory>> expected = new SccCF2Reasoner(1).getModels(theory);
+			// cf2 extensions are naive, stable extensions are cf2 extensions
+			Set<Extension<DungTheory>> naive = new HashSet<Extension<DungTheory>>();
+			for(Extension<DungTheory> e: SccRecursiveReasonerTest.subsets(theory))
+				if(theory.isConflictFree(e))
+					naive.add(e);
+			assertTrue(Utilities.maximal(naive).containsAll(expected));
+			for(Extension<DungTheory> e: SccRecursiveReasonerTest.complete(theory))
+				if(theory.isStable(e))
+					assertTrue(expected.contains(e));
+			for(int parallelism: PARALLELISMS) {
+				SccCF2Reasoner reasoner = new SccCF2Reasoner(parallelism);
+				assertEquals(new ArrayList<Extension<DungTheory>>(expected), new ArrayList<Extension<DungTheory>>(reasoner.getModels(theory)));
+				assertTrue(expected.contains(reasoner.getModel(theory)));
+			}
+		}
+	}
+
+	@Test
+	public void NestedPoolTest() {
+		// an evaluation started within a foreign fork-join pool runs in its own pool with the same result
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			for(DungTheory theory: SccRecursiveReasonerTest.theories()) {
+				List<Extension<DungTheory>> expected = new ArrayList<Extension<DungTheory>>(new SimpleSccCompleteReasoner(1).getModels(theory));
+				assertEquals(expected, pool.submit(() -> new ArrayList<Extension<DungTheory>>(new SimpleSccCompleteReasoner(4).getModels(theory))).join());
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void ParallelismTest() {
+		new SimpleSccCompleteReasoner(0);
+	}
+
+	/**
+	 * Checks that the given reasoner computes the given extensions of the given theory.
+	 * @param expected the expected extensions
+	 * @param reasoner some reasoner
+	 * @param theory some theory
+	 */
+	private static void check(Set<Extension<DungTheory>> expected, AbstractExtensionReasoner reasoner, DungTheory theory) {
+		Collection<Extension<DungTheory>> extensions = reasoner.getModels(theory);
+		assertEquals(expected.size(), extensions.size());
+		assertEquals(expected, new HashSet<Extension<DungTheory>>(extensions));
+		assertTrue(expected.contains(reasoner.getModel(theory)));
+	}
+
+	/**
+	 * Returns generated theories. Sparse theories have many SCCs, several of them on the same level.
+	 * @return some theories.
+	 */
+	private static List<DungTheory> theories() {
+		return Utilities.theories(11, new double[] {0.05, 0.1, 0.15, 0.25}, 15);
+	}
+
+	/**
+	 * Computes the complete extensions by checking all sets of arguments.
+	 * @param theory some theory
+	 * @return the complete extensions.
+	 */
+	private static Set<Extension<DungTheory>> complete(DungTheory theory) {
+		Set<Extension<DungTheory>> result = new HashSet<Extension<DungTheory>>();
+		for(Extension<DungTheory> e: SccRecursiveReasonerTest.subsets(theory))
+			if(theory.isAdmissable(e) && theory.isComplete(e))
+				result.add(e);
+		return result;
+	}
+
+	/**
+	 * Returns all sets of arguments of the given theory.
+	 * @param theory some theory
+	 * @return all subsets of the theory.
+	 */
+	private static List<Extension<DungTheory>> subsets(DungTheory theory) {
+		List<Argument> args = new ArrayList<Argument>(theory);
+		List<Extension<DungTheory>> result = new ArrayList<Extension<DungTheory>>();
+		for(int bits = 0; bits < (1 << args.size()); bits++) {
+			Extension<DungTheory> e = new Extension<DungTheory>();
+			for(int i = 0; i < args.size(); i++)
+				if((bits & (1 << i)) != 0)
+					e.add(args.get(i));
+			result.add(e);
+		}
+		return result;
+	}
+}
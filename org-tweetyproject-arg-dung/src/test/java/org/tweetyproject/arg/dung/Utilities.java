@@ -0,0 +1,80 @@
+/*
+ *  This file is part of "TweetyProject", a collection of Java libraries for
+ *  logical aspects of artificial intelligence and knowledge representation.
+ *
+ *  TweetyProject is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  Copyright 2024 The TweetyProject Team <http://tweetyproject.org/contact/>
+ */
+package org.tweetyproject.arg.dung;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.tweetyproject.arg.dung.semantics.Extension;
+import org.tweetyproject.arg.dung.syntax.DungTheory;
+import org.tweetyproject.arg.dung.util.DefaultDungTheoryGenerator;
+import org.tweetyproject.arg.dung.util.DungTheoryGenerationParameters;
+
+/**
+ * Utility functions for test classes to generate theories and compare extensions.
+ *
+ * @author agent
+ */
+class Utilities {
+
+	/**
+	 * Returns generated theories of the given densities, with and without self-attacks. The
+	 * generators are seeded, so the same parameters always yield the same theories.
+	 * @param numberOfArguments the number of arguments of each theory
+	 * @param probabilities the attack probabilities
+	 * @param count the number of theories for each attack probability with and without self-attacks
+	 * @return some theories.
+	 */
+	static List<DungTheory> theories(int numberOfArguments, double[] probabilities, int count) {
+		List<DungTheory> theories = new ArrayList<DungTheory>();
+		for(double p: probabilities)
+			for(boolean selfAttacks: new boolean[] {false, true}) {
+				DungTheoryGenerationParameters params = new DungTheoryGenerationParameters();
+				params.numberOfArguments = numberOfArguments;
+				params.attackProbability = p;
+				params.avoidSelfAttacks = !selfAttacks;
+				DefaultDungTheoryGenerator gen = new DefaultDungTheoryGenerator(params);
+				gen.setSeed(Double.hashCode(p) + (selfAttacks ? 1 : 0));
+				for(int i = 0; i < count; i++)
+					theories.add(gen.next());
+			}
+		return theories;
+	}
+
+	/**
+	 * Returns the maximal sets wrt. set inclusion among the given ones.
+	 * @param extensions some extensions
+	 * @return the maximal extensions.
+	 */
+	static Set<Extension<DungTheory>> maximal(Collection<Extension<DungTheory>> extensions) {
+		Set<Extension<DungTheory>> result = new HashSet<Extension<DungTheory>>();
+		for(Extension<DungTheory> e1: extensions) {
+			boolean maximal = true;
+			for(Extension<DungTheory> e2: extensions)
+				if(e2.size() > e1.size() && e2.containsAll(e1))
+					maximal = false;
+			if(maximal)
+				result.add(e1);
+		}
+		return result;
+	}
+}
@@ -18,67 +18,632 @@
  */
 package org.tweetyproject.arg.prob.reasoner;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Function;
+
 import org.tweetyproject.arg.dung.reasoner.AbstractExtensionReasoner;
 import org.tweetyproject.arg.dung.semantics.Extension;
 import org.tweetyproject.arg.dung.semantics.Semantics;
 import org.tweetyproject.arg.dung.syntax.Argument;
+import org.tweetyproject.arg.dung.syntax.Attack;
 import org.tweetyproject.arg.dung.syntax.DungTheory;
 import org.tweetyproject.arg.prob.syntax.ProbabilisticArgumentationFramework;
 import org.tweetyproject.commons.InferenceMode;
+import org.tweetyproject.commons.util.ForkJoinTools;
 
 /**
  * This class implements the Monte Carlo algorithm for estimating
  * probabilities of extensions in probabilistic argumentation frameworks
  * from [Li, Oren, Norman. Probabilistic Argumentation Frameworks. TAFA'2011].
- * 
+ * <br>
+ * Samples are drawn by one or more (concurrent) tasks, each with its own random number stream,
+ * on an indexed copy of the framework. Whether a set is an extension of a sample is tested
+ * directly for conflict-free, admissible, complete, stable and grounded semantics; for
+ * other semantics, the extensions of a sample are only computed if the set passes the
+ * necessary conflict-freeness (or admissibility) test. Likewise, the acceptance of an
+ * argument is decided by the grounded labelling of the sample whenever possible.
+ * <br>
+ * Either a fixed number of trials is used or sampling stops as soon as the confidence
+ * interval of the estimate is small enough. The tasks are scheduled with {@link ForkJoinTools}.
+ *
  * @author Matthias Thimm
  */
 public class MonteCarloPafReasoner extends AbstractPafReasoner{
 
-	/** The number of runs of the Monte Carlo simulation. */
+	/** The number of trials of each task between two checks of the stopping rule. */
+	private static final int BATCH_SIZE = 1000;
+
+	/** The number of runs of the Monte Carlo simulation (the maximal number if precision is positive). */
 	private int numberOfTrials;
-	
+	/** Sampling stops when the half-width of the confidence interval is at most this value, "-1" for a fixed number of trials. */
+	private double precision = -1;
+	/** The confidence level of the confidence interval. */
+	private double confidence = 0.95;
+	/** The maximal number of tasks sampling concurrently. */
+	private int parallelism;
+	/** The random number generator the streams of the tasks are split from. */
+	private SplittableRandom random = new SplittableRandom();
+
 	/**
-	 * Creates a new reasoner.
+	 * The result of a Monte Carlo simulation.
+	 */
+	public static class Estimate {
+		private final double probability;
+		private final double halfWidth;
+		private final double confidence;
+		private final long trials;
+		private final long time;
+
+		private Estimate(double probability, double halfWidth, double confidence, long trials, long time) {
+			this.probability = probability;
+			this.halfWidth = halfWidth;
+			this.confidence = confidence;
+			this.trials = trials;
+			this.time = time;
+		}
+
+		/**
+		 * Returns the estimated probability.
+		 * @return the estimated probability.
+		 */
+		public double getProbability() {
+			return this.probability;
+		}
+
+		/**
+		 * Returns the (estimated) variance of the estimated probability.
+		 * @return the variance.
+		 */
+		public double getVariance() {
+			return this.trials == 0 ? 0 : this.probability * (1 - this.probability) / this.trials;
+		}
+
+		/**
+		 * Returns the half-width of the (Wilson score) confidence interval of the estimate.
+		 * @return the half-width of the confidence interval.
+		 */
+		public double getHalfWidth() {
+			return this.halfWidth;
+		}
+
+		/**
+		 * Returns the confidence level of the confidence interval.
+		 * @return the confidence level.
+		 */
+		public double getConfidence() {
+			return this.confidence;
+		}
+
+		/**
+		 * Returns the number of trials.
+		 * @return the number of trials.
+		 */
+		public long getNumberOfTrials() {
+			return this.trials;
+		}
+
+		/**
+		 * Returns the time of the simulation.
+		 * @return the time in milliseconds.
+		 */
+		public long getTime() {
+			return this.time;
+		}
+
+		/**
+		 * Returns the number of trials per second.
+		 * @return the throughput.
+		 */
+		public double getThroughput() {
+			return this.time == 0 ? Double.POSITIVE_INFINITY : 1000d * this.trials / this.time;
+		}
+
+		/* (non-Javadoc)
+		 * @see java.lang.Object#toString()
+		 */
+		@Override
+		public String toString() {
+			return this.probability + " +- " + this.halfWidth + " (" + this.confidence + " confidence, " + this.trials + " trials, "
+				+ this.time + "ms, " + Math.round(this.getThroughput()) + " trials/s)";
+		}
+	}
+
+	/**
+	 * Creates a new reasoner that samples sequentially.
 	 * @param semantics semantics used for determining extensions.
 	 * @param numberOfTrials The number of runs of the Monte Carlo simulation
-	 * 
+	 *
 	 */
 	public MonteCarloPafReasoner(Semantics semantics, int numberOfTrials) {
+		this(semantics, numberOfTrials, 1);
+	}
+
+	/**
+	 * Creates a new reasoner.
+	 * @param semantics semantics used for determining extensions.
+	 * @param numberOfTrials The number of runs of the Monte Carlo simulation
+	 * @param parallelism the maximal number of tasks sampling concurrently
+	 */
+	public MonteCarloPafReasoner(Semantics semantics, int numberOfTrials, int parallelism) {
 		super(semantics);
+		if(numberOfTrials < 1 || parallelism < 1)
+			throw new IllegalArgumentException("The number of trials and the parallelism must be positive.");
 		this.numberOfTrials = numberOfTrials;
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Creates a new reasoner that samples until the confidence interval of the estimate
+	 * is small enough.
+	 * @param semantics semantics used for determining extensions.
+	 * @param precision sampling stops when the half-width of the confidence interval is at most this value
+	 * @param confidence the confidence level of the confidence interval, e.g. 0.95
+	 * @param maxTrials the maximal number of runs of the Monte Carlo simulation
+	 * @param parallelism the maximal number of tasks sampling concurrently
+	 */
+	public MonteCarloPafReasoner(Semantics semantics, double precision, double confidence, int maxTrials, int parallelism) {
+		this(semantics, maxTrials, parallelism);
+		if(precision <= 0 || confidence <= 0 || confidence >= 1)
+			throw new IllegalArgumentException("The precision must be positive and the confidence must be in (0,1).");
+		this.precision = precision;
+		this.confidence = confidence;
+	}
+
+	/**
+	 * Sets the seed of the random number generator. The estimates of subsequent
+	 * queries then only depend on the seed, the order of the queries and the parallelism.
+	 * @param seed some seed
+	 */
+	public synchronized void setSeed(long seed) {
+		this.random = new SplittableRandom(seed);
 	}
 
 	/* (non-Javadoc)
 	 * @see org.tweetyproject.arg.prob.reasoner.AbstractPafReasoner#query(org.tweetyproject.arg.prob.syntax.ProbabilisticArgumentationFramework, org.tweetyproject.arg.dung.semantics.Extension)
 	 */
 	public Double query(ProbabilisticArgumentationFramework paf, Extension ext){
-		int count = 0;
-		AbstractExtensionReasoner r = AbstractExtensionReasoner.getSimpleReasonerForSemantics(this.getSemantics());
-		for(int i = 0; i < this.numberOfTrials; i++){
-			DungTheory sub = paf.sample();
-			if(r.getModels(sub).contains(ext))
-				count++;
-		}
-		return ((double)count)/this.numberOfTrials;
+		return this.estimate(paf, ext).getProbability();
 	}
-	
+
 	/* (non-Javadoc)
 	 * @see org.tweetyproject.arg.prob.reasoner.AbstractPafReasoner#query(org.tweetyproject.arg.prob.syntax.ProbabilisticArgumentationFramework, org.tweetyproject.arg.dung.syntax.Argument, org.tweetyproject.commons.InferenceMode)
 	 */
 	public Double query(ProbabilisticArgumentationFramework beliefbase, Argument formula, InferenceMode inferenceMode) {
-		int count = 0;
-		AbstractExtensionReasoner r = AbstractExtensionReasoner.getSimpleReasonerForSemantics(this.getSemantics());
-		for(int i = 0; i < this.numberOfTrials; i++){
-			DungTheory sub = beliefbase.sample();
-			if(r.query(sub,formula,inferenceMode))
-				count++;
-		}
-		return ((double)count)/this.numberOfTrials;
-	}	
-	
+		return this.estimate(beliefbase, formula, inferenceMode).getProbability();
+	}
+
+	/**
+	 * Estimates the probability that the given set of arguments is an extension.
+	 * @param paf a PAF
+	 * @param ext some set of arguments
+	 * @return the estimate.
+	 */
+	@SuppressWarnings("unchecked")
+	public Estimate estimate(ProbabilisticArgumentationFramework paf, Extension ext){
+		Framework f = new Framework(paf);
+		for(Argument a: (Iterable<Argument>) ext)
+			if(!f.ids.containsKey(a))
+				return new Estimate(0, 0, this.confidence, 0, 0);
+		return this.simulate(f, random -> new ExtensionTrial(f, random, this.getSemantics(), ext));
+	}
+
+	/**
+	 * Estimates the probability that the given argument is accepted.
+	 * @param paf a PAF
+	 * @param arg some argument
+	 * @param inferenceMode either InferenceMode.SKEPTICAL or InferenceMode.CREDULOUS
+	 * @return the estimate.
+	 */
+	public Estimate estimate(ProbabilisticArgumentationFramework paf, Argument arg, InferenceMode inferenceMode) {
+		Framework f = new Framework(paf);
+		return this.simulate(f, random -> new ArgumentTrial(f, random, this.getSemantics(), arg, inferenceMode));
+	}
+
+	/**
+	 * Runs the Monte Carlo simulation with the configured parallelism (but at most one task per trial).
+	 * @param f the indexed framework
+	 * @param factory creates the trials of a task from its random number stream
+	 * @return the estimate.
+	 */
+	private Estimate simulate(Framework f, Function<SplittableRandom,Trial> factory) {
+		int tasks = (int) Math.min(this.parallelism, this.numberOfTrials);
+		return ForkJoinTools.invoke(tasks, () -> this.simulate(f, factory, tasks));
+	}
+
+	/**
+	 * Runs the Monte Carlo simulation.
+	 * @param f the indexed framework
+	 * @param factory creates the trials of a task from its random number stream
+	 * @param tasks the number of tasks
+	 * @return the estimate.
+	 */
+	private Estimate simulate(Framework f, Function<SplittableRandom,Trial> factory, int tasks) {
+		long start = System.nanoTime();
+		SplittableRandom random;
+		synchronized(this) {
+			random = this.random.split();
+		}
+		List<Trial> trials = new ArrayList<Trial>();
+		for(int t = 0; t < tasks; t++)
+			trials.add(factory.apply(random.split()));
+		long hits = 0, n = 0;
+		double z = MonteCarloPafReasoner.quantile((1 + this.confidence) / 2);
+		double halfWidth;
+		do {
+			// the trials of this round
+			long round = this.precision < 0 ? this.numberOfTrials : Math.min((long) tasks * MonteCarloPafReasoner.BATCH_SIZE, this.numberOfTrials - n);
+			List<ForkJoinTask<Long>> jobs = new ArrayList<ForkJoinTask<Long>>();
+			for(int t = 0; t < tasks; t++) {
+				Trial trial = trials.get(t);
+				long size = round / tasks + (t < round % tasks ? 1 : 0);
+				jobs.add(ForkJoinTask.adapt(() -> trial.run(size)));
+			}
+			ForkJoinTools.invokeAll(tasks, jobs);
+			for(ForkJoinTask<Long> job: jobs)
+				hits += job.join();
+			n += round;
+			halfWidth = MonteCarloPafReasoner.wilsonHalfWidth((double) hits / n, n, z);
+		}while(this.precision >= 0 && halfWidth > this.precision && n < this.numberOfTrials);
+		return new Estimate((double) hits / n, halfWidth, this.confidence, n, (System.nanoTime() - start) / 1000000);
+	}
+
+	/**
+	 * Computes the half-width of the Wilson score interval.
+	 * @param p the observed frequency
+	 * @param n the number of trials
+	 * @param z the quantile of the standard normal distribution
+	 * @return the half-width.
+	 */
+	private static double wilsonHalfWidth(double p, long n, double z) {
+		return z * Math.sqrt(p * (1 - p) / n + z * z / (4d * n * n)) / (1 + z * z / n);
+	}
+
+	/**
+	 * Approximates the quantile function of the standard normal distribution (with an absolute error
+	 * below 4.5e-4, see [Abramowitz, Stegun. Handbook of Mathematical Functions. 26.2.23]).
+	 * @param p some probability in (0,1)
+	 * @return the p-quantile.
+	 */
+	private static double quantile(double p) {
+		double q = p < 0.5 ? p : 1 - p;
+		double t = Math.sqrt(-2 * Math.log(q));
+		double x = t - (2.515517 + 0.802853 * t + 0.010328 * t * t) / (1 + 1.432788 * t + 0.189269 * t * t + 0.001308 * t * t * t);
+		return p < 0.5 ? -x : x;
+	}
+
 	@Override
 	public boolean isInstalled() {
 		return true;
 	}
+
+	/**
+	 * An indexed copy of a PAF.
+	 */
+	private static class Framework {
+		/** The arguments, indexed by their id. */
+		private final Argument[] arguments;
+		/** Maps every argument to its id. */
+		private final Map<Argument,Integer> ids = new HashMap<Argument,Integer>();
+		/** The probabilities of the arguments. */
+		private final double[] argumentProbabilities;
+		/** The attacker and attacked argument and the probability of every attack. */
+		private final int[] sources, targets;
+		private final double[] attackProbabilities;
+		/** The attacks on argument i are attacksOn[attacksOnOffsets[i]] to attacksOn[attacksOnOffsets[i+1]-1]. */
+		private final int[] attacksOnOffsets, attacksOn;
+		/** The attacks by argument i are attacksBy[attacksByOffsets[i]] to attacksBy[attacksByOffsets[i+1]-1]. */
+		private final int[] attacksByOffsets, attacksBy;
+
+		private Framework(ProbabilisticArgumentationFramework paf) {
+			this.arguments = paf.toArray(new Argument[paf.size()]);
+			this.argumentProbabilities = new double[this.arguments.length];
+			for(int i = 0; i < this.arguments.length; i++) {
+				this.ids.put(this.arguments[i], i);
+				this.argumentProbabilities[i] = paf.getProbability(this.arguments[i]).doubleValue();
+			}
+			int m = paf.getAttacks().size();
+			this.sources = new int[m];
+			this.targets = new int[m];
+			this.attackProbabilities = new double[m];
+			int k = 0;
+			for(Attack att: paf.getAttacks()) {
+				this.sources[k] = this.ids.get(att.getAttacker());
+				this.targets[k] = this.ids.get(att.getAttacked());
+				this.attackProbabilities[k++] = paf.getProbability(att).doubleValue();
+			}
+			this.attacksOnOffsets = new int[this.arguments.length + 1];
+			this.attacksOn = this.index(this.targets, this.attacksOnOffsets);
+			this.attacksByOffsets = new int[this.arguments.length + 1];
+			this.attacksBy = this.index(this.sources, this.attacksByOffsets);
+		}
+
+		/**
+		 * Groups the attacks by the given endpoints.
+		 * @param endpoints the endpoint of every attack
+		 * @param offsets the offsets of the groups (output)
+		 * @return the attacks, grouped by endpoints.
+		 */
+		private int[] index(int[] endpoints, int[] offsets) {
+			for(int e: endpoints)
+				offsets[e + 1]++;
+			for(int i = 0; i < this.arguments.length; i++)
+				offsets[i + 1] += offsets[i];
+			int[] next = new int[this.arguments.length];
+			int[] result = new int[endpoints.length];
+			for(int k = 0; k < endpoints.length; k++)
+				result[offsets[endpoints[k]] + next[endpoints[k]]++] = k;
+			return result;
+		}
+	}
+
+	/**
+	 * The trials of one task, i.e. sampling a sub-framework and testing it.
+	 */
+	private static abstract class Trial {
+		protected final Framework f;
+		protected final SplittableRandom random;
+		protected final Semantics semantics;
+		/** The arguments of the current sample. */
+		protected final boolean[] present;
+		/** The attacks of the current sample. */
+		protected final boolean[] live;
+		/** The grounded labelling of the current sample: 1 for in, -1 for out, 0 for undecided. */
+		private final int[] labels;
+		/** The number of attackers of an argument that are not out. */
+		private final int[] counters;
+		/** Arguments whose label has been decided but not yet propagated. */
+		private final int[] queue;
+		/** A reasoner for tests that have to compute extensions (created on demand). */
+		private AbstractExtensionReasoner reasoner;
+
+		private Trial(Framework f, SplittableRandom random, Semantics semantics) {
+			this.f = f;
+			this.random = random;
+			this.semantics = semantics;
+			this.present = new boolean[f.arguments.length];
+			this.live = new boolean[f.sources.length];
+			this.labels = new int[f.arguments.length];
+			this.counters = new int[f.arguments.length];
+			this.queue = new int[f.arguments.length];
+		}
+
+		/**
+		 * Runs the given number of trials.
+		 * @param n some number of trials
+		 * @return the number of successful trials.
+		 */
+		private long run(long n) {
+			long hits = 0;
+			for(long i = 0; i < n; i++) {
+				this.sample();
+				if(this.test())
+					hits++;
+			}
+			return hits;
+		}
+
+		/**
+		 * Samples a sub-framework wrt. the probabilities of its elements and assuming independence.
+		 */
+		private void sample() {
+			for(int i = 0; i < this.present.length; i++)
+				this.present[i] = this.random.nextDouble() < this.f.argumentProbabilities[i];
+			for(int k = 0; k < this.live.length; k++)
+				this.live[k] = this.present[this.f.sources[k]] && this.present[this.f.targets[k]] && this.random.nextDouble() < this.f.attackProbabilities[k];
+		}
+
+		/**
+		 * Tests the current sample.
+		 * @return "true" iff the trial is successful.
+		 */
+		protected abstract boolean test();
+
+		/**
+		 * Computes the grounded labelling of the current sample in linear time.
+		 * @return the labels of the arguments (1 for in, -1 for out, 0 for undecided or absent).
+		 */
+		protected int[] grounded() {
+			int head = 0, tail = 0;
+			for(int i = 0; i < this.labels.length; i++) {
+				this.labels[i] = 0;
+				this.counters[i] = 0;
+			}
+			for(int k = 0; k < this.live.length; k++)
+				if(this.live[k])
+					this.counters[this.f.targets[k]]++;
+			for(int i = 0; i < this.labels.length; i++)
+				if(this.present[i] && this.counters[i] == 0) {
+					this.labels[i] = 1;
+					this.queue[tail++] = i;
+				}
+			while(head < tail) {
+				int a = this.queue[head++];
+				for(int j = this.f.attacksByOffsets[a]; j < this.f.attacksByOffsets[a + 1]; j++) {
+					int k = this.f.attacksBy[j];
+					if(!this.live[k])
+						continue;
+					int b = this.f.targets[k];
+					if(this.labels[a] == 1 && this.labels[b] == 0) {
+						this.labels[b] = -1;
+						this.queue[tail++] = b;
+					}else if(this.labels[a] == -1 && --this.counters[b] == 0 && this.labels[b] == 0) {
+						this.labels[b] = 1;
+						this.queue[tail++] = b;
+					}
+				}
+			}
+			return this.labels;
+		}
+
+		/**
+		 * Returns the current sample as a Dung theory.
+		 * @return the sampled Dung theory.
+		 */
+		protected DungTheory toDungTheory() {
+			DungTheory aaf = new DungTheory();
+			for(int i = 0; i < this.present.length; i++)
+				if(this.present[i])
+					aaf.add(this.f.arguments[i]);
+			for(int k = 0; k < this.live.length; k++)
+				if(this.live[k])
+					aaf.add(new Attack(this.f.arguments[this.f.sources[k]], this.f.arguments[this.f.targets[k]]));
+			return aaf;
+		}
+
+		/**
+		 * Returns a reasoner for the semantics.
+		 * @return a reasoner.
+		 */
+		protected AbstractExtensionReasoner getReasoner() {
+			if(this.reasoner == null)
+				this.reasoner = AbstractExtensionReasoner.getSimpleReasonerForSemantics(this.semantics);
+			return this.reasoner;
+		}
+	}
+
+	/**
+	 * Tests whether a set of arguments is an extension of the sample.
+	 */
+	private static class ExtensionTrial extends Trial {
+		/** The set of arguments. */
+		private final Extension<?> ext;
+		/** The ids of the arguments of the set. */
+		private final int[] members;
+		/** Whether an argument belongs to the set. */
+		private final boolean[] member;
+		/** Whether an argument is attacked by the set in the current sample. */
+		private final boolean[] attacked;
+
+		@SuppressWarnings("unchecked")
+		private ExtensionTrial(Framework f, SplittableRandom random, Semantics semantics, Extension<?> ext) {
+			super(f, random, semantics);
+			this.ext = ext;
+			this.member = new boolean[f.arguments.length];
+			List<Integer> members = new ArrayList<Integer>();
+			for(Argument a: (Iterable<Argument>) ext) {
+				int id = f.ids.get(a);
+				this.member[id] = true;
+				members.add(id);
+			}
+			this.members = members.stream().mapToInt(Integer::intValue).toArray();
+			this.attacked = new boolean[f.arguments.length];
+		}
+
+		/* (non-Javadoc)
+		 * @see org.tweetyproject.arg.prob.reasoner.MonteCarloPafReasoner.Trial#test()
+		 */
+		@Override
+		protected boolean test() {
+			for(int a: this.members)
+				if(!this.present[a])
+					return false;
+			// every semantics requires conflict-freeness
+			for(int i = 0; i < this.attacked.length; i++)
+				this.attacked[i] = false;
+			for(int a: this.members)
+				for(int j = this.f.attacksByOffsets[a]; j < this.f.attacksByOffsets[a + 1]; j++) {
+					int k = this.f.attacksBy[j];
+					if(this.live[k]) {
+						if(this.member[this.f.targets[k]])
+							return false;
+						this.attacked[this.f.targets[k]] = true;
+					}
+				}
+			switch(this.semantics) {
+				case CF:
+					return true;
+				case GR:
+					int[] labels = this.grounded();
+					for(int i = 0; i < labels.length; i++)
+						if((labels[i] == 1) != this.member[i])
+							return false;
+					return true;
+				case ADM: case CO: case ST: case PR: case SST: case ID: case EA:
+					// all these semantics require admissibility
+					for(int a: this.members)
+						if(!this.isDefended(a))
+							return false;
+					break;
+				default:
+					return this.getReasoner().getModels(this.toDungTheory()).contains(this.ext);
+			}
+			switch(this.semantics) {
+				case ADM:
+					return true;
+				case CO:
+					for(int i = 0; i < this.present.length; i++)
+						if(this.present[i] && !this.member[i] && this.isDefended(i))
+							return false;
+					return true;
+				case ST:
+					for(int i = 0; i < this.present.length; i++)
+						if(this.present[i] && !this.member[i] && !this.attacked[i])
+							return false;
+					return true;
+				default:
+					return this.getReasoner().getModels(this.toDungTheory()).contains(this.ext);
+			}
+		}
+
+		/**
+		 * Checks whether the given argument is defended by the set in the current sample.
+		 * @param a some argument
+		 * @return "true" iff every attacker of the argument is attacked by the set.
+		 */
+		private boolean isDefended(int a) {
+			for(int j = this.f.attacksOnOffsets[a]; j < this.f.attacksOnOffsets[a + 1]; j++) {
+				int k = this.f.attacksOn[j];
+				if(this.live[k] && !this.attacked[this.f.sources[k]])
+					return false;
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * Tests whether an argument is accepted in the sample.
+	 */
+	private static class ArgumentTrial extends Trial {
+		/** The argument. */
+		private final Argument arg;
+		/** The id of the argument, "-1" if it does not belong to the framework. */
+		private final int id;
+		/** The inference mode. */
+		private final InferenceMode inferenceMode;
+
+		private ArgumentTrial(Framework f, SplittableRandom random, Semantics semantics, Argument arg, InferenceMode inferenceMode) {
+			super(f, random, semantics);
+			this.arg = arg;
+			this.id = f.ids.containsKey(arg) ? f.ids.get(arg) : -1;
+			this.inferenceMode = inferenceMode;
+		}
+
+		/* (non-Javadoc)
+		 * @see org.tweetyproject.arg.prob.reasoner.MonteCarloPafReasoner.Trial#test()
+		 */
+		@Override
+		protected boolean test() {
+			switch(this.semantics) {
+				case GR: case CO: case PR: case SST: case ID: case EA:
+					// these semantics always have an extension and all of them contain the
+					// grounded extension and are conflict-free
+					if(this.id < 0 || !this.present[this.id])
+						return false;
+					int label = this.grounded()[this.id];
+					if(label != 0)
+						return label == 1;
+					// the grounded extension is the intersection of all complete extensions
+					if(this.semantics == Semantics.GR || (this.semantics == Semantics.CO && this.inferenceMode == InferenceMode.SKEPTICAL))
+						return false;
+					return this.getReasoner().query(this.toDungTheory(), this.arg, this.inferenceMode);
+				default:
+					return this.getReasoner().query(this.toDungTheory(), this.arg, this.inferenceMode);
+			}
+		}
+	}
 }
@@ -0,0 +1,141 @@
+/*
+ *  This file is part of "TweetyProject", a collection of Java libraries for
+ *  logical aspects of artificial intelligence and knowledge representation.
+ *
+ *  TweetyProject is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  Copyright 2024 The TweetyProject Team <http://tweetyproject.org/contact/>
+ */
+package org.tweetyproject.arg.prob;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.tweetyproject.arg.dung.semantics.Extension;
+import org.tweetyproject.arg.dung.semantics.Semantics;
+import org.tweetyproject.arg.dung.syntax.Argument;
+import org.tweetyproject.arg.dung.syntax.Attack;
+import org.tweetyproject.arg.dung.syntax.DungTheory;
+import org.tweetyproject.arg.prob.reasoner.MonteCarloPafReasoner;
+import org.tweetyproject.arg.prob.reasoner.SimplePafReasoner;
+import org.tweetyproject.arg.prob.syntax.ProbabilisticArgumentationFramework;
+import org.tweetyproject.commons.InferenceMode;
+import org.tweetyproject.math.probability.Probability;
+
+/**
+ * Compares the estimates of the Monte Carlo PAF reasoner with the exact probabilities of
+ * the simple PAF reasoner on small generated PAFs.
+ *
+ * @author agent
+ */
+public class MonteCarloPafReasonerTest {
+
+	/** The semantics to test. */
+	private static final Semantics[] SEMANTICS = { Semantics.CF, Semantics.ADM, Semantics.CO, Semantics.GR, Semantics.ST, Semantics.PR };
+
+	@Test
+	public void ExtensionTest() {
+		Random random = new Random(1);
+		for(Semantics semantics: MonteCarloPafReasonerTest.SEMANTICS) {
+			SimplePafReasoner simple = new SimplePafReasoner(semantics);
+			MonteCarloPafReasoner mc = new MonteCarloPafReasoner(semantics, 20000, 4);
+			mc.setSeed(1);
+			for(ProbabilisticArgumentationFramework paf: MonteCarloPafReasonerTest.pafs())
+				for(int i = 0; i < 4; i++) {
+					Extension<DungTheory> ext = new Extension<DungTheory>();
+					for(Argument a: paf)
+						if(random.nextBoolean())
+							ext.add(a);
+					MonteCarloPafReasoner.Estimate estimate = mc.estimate(paf, ext);
+					// within about 4 standard errors
+					assertEquals(simple.query(paf, ext), estimate.getProbability(), 2 * estimate.getHalfWidth(), semantics + " " + ext);
+				}
+		}
+	}
+
+	@Test
+	public void ArgumentTest() {
+		for(Semantics semantics: MonteCarloPafReasonerTest.SEMANTICS) {
+			SimplePafReasoner simple = new SimplePafReasoner(semantics);
+			MonteCarloPafReasoner mc = new MonteCarloPafReasoner(semantics, 5000, 4);
+			mc.setSeed(2);
+			for(ProbabilisticArgumentationFramework paf: MonteCarloPafReasonerTest.pafs())
+				for(Argument a: paf)
+					for(InferenceMode mode: new InferenceMode[] {InferenceMode.CREDULOUS, InferenceMode.SKEPTICAL}) {
+						MonteCarloPafReasoner.Estimate estimate = mc.estimate(paf, a, mode);
+						assertEquals(simple.query(paf, a, mode), estimate.getProbability(), 2 * estimate.getHalfWidth(), semantics + " " + a + " " + mode);
+					}
+		}
+	}
+
+	@Test
+	public void PrecisionTest() {
+		// a single argument with probability 0.5
+		ProbabilisticArgumentationFramework paf = new ProbabilisticArgumentationFramework();
+		Argument a = new Argument("a");
+		paf.add(a, new Probability(0.5));
+		// a round consists of 1000 trials per task; the half-width of the 95% interval for p=0.5 is
+		// about 0.0155 after 4000, 0.011 after 8000 and 0.009 after 12000 trials
+		MonteCarloPafReasoner mc = new MonteCarloPafReasoner(Semantics.GR, 0.01, 0.95, 1000000, 4);
+		mc.setSeed(3);
+		MonteCarloPafReasoner.Estimate estimate = mc.estimate(paf, a, InferenceMode.CREDULOUS);
+		assertTrue(estimate.getHalfWidth() <= 0.01);
+		assertEquals(12000, estimate.getNumberOfTrials());
+		assertEquals(0.5, estimate.getProbability(), 0.01);
+		// stops after the maximal number of trials if the precision cannot be reached
+		mc = new MonteCarloPafReasoner(Semantics.GR, 0.001, 0.95, 10000, 4);
+		estimate = mc.estimate(paf, a, InferenceMode.CREDULOUS);
+		assertEquals(10000, estimate.getNumberOfTrials());
+		assertTrue(estimate.getHalfWidth() > 0.001);
+	}
+
+	@Test
+	public void SeedTest() {
+		ProbabilisticArgumentationFramework paf = MonteCarloPafReasonerTest.pafs().get(1);
+		MonteCarloPafReasoner mc1 = new MonteCarloPafReasoner(Semantics.PR, 5000, 4), mc2 = new MonteCarloPafReasoner(Semantics.PR, 5000, 4);
+		mc1.setSeed(4);
+		mc2.setSeed(4);
+		for(Argument a: paf)
+			assertEquals(mc1.query(paf, a, InferenceMode.SKEPTICAL), mc2.query(paf, a, InferenceMode.SKEPTICAL));
+	}
+
+	/**
+	 * Returns small generated PAFs with random probabilities of arguments and attacks.
+	 * @return some PAFs.
+	 */
+	private static List<ProbabilisticArgumentationFramework> pafs() {
+		Random random = new Random(0);
+		List<ProbabilisticArgumentationFramework> result = new ArrayList<ProbabilisticArgumentationFramework>();
+		for(int i = 0; i < 5; i++) {
+			ProbabilisticArgumentationFramework paf = new ProbabilisticArgumentationFramework();
+			List<Argument> args = new ArrayList<Argument>();
+			for(int j = 0; j < 4; j++) {
+				Argument a = new Argument("a" + j);
+				args.add(a);
+				// some arguments are certain
+				paf.add(a, new Probability(random.nextBoolean() ? 1 : 0.1 + 0.8 * random.nextDouble()));
+			}
+			for(Argument a: args)
+				for(Argument b: args)
+					if(random.nextDouble() < 0.3)
+						paf.add(new Attack(a, b), new Probability(random.nextBoolean() ? 1 : 0.1 + 0.8 * random.nextDouble()));
+			result.add(paf);
+		}
+		return result;
+	}
+}
@@ -0,0 +1,114 @@
+/*
+ *  This file is part of "TweetyProject", a collection of Java libraries for
+ *  logical aspects of artificial intelligence and knowledge representation.
+ *
+ *  TweetyProject is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  Copyright 2024 The TweetyProject Team <http://tweetyproject.org/contact/>
+ */
+package org.tweetyproject.arg.rankings.reasoner;
+
+import java.util.Collection;
+import java.util.HashSet;
+
+import org.tweetyproject.arg.dung.syntax.Argument;
+import org.tweetyproject.arg.dung.syntax.DungTheory;
+import org.tweetyproject.arg.rankings.util.FixpointRankingSolver;
+import org.tweetyproject.comparator.NumericalPartialOrder;
+
+/**
+ * Common abstract class for ranking reasoners whose ranking is the fixpoint of an iterative
+ * update of the value of every argument wrt. the values of its direct attackers. The
+ * fixpoint is computed by a {@link FixpointRankingSolver}, which determines the update scheme,
+ * the convergence threshold and the number of threads.
+ *
+ * @author agent
+ */
+public abstract class AbstractFixpointRankingReasoner extends AbstractRankingReasoner<NumericalPartialOrder<Argument, DungTheory>> {
+
+	/** The solver used for computing the fixpoint. */
+	private FixpointRankingSolver solver;
+
+	/**
+	 * Creates a new reasoner using the given solver.
+	 * @param solver the solver used for computing the fixpoint
+	 */
+	protected AbstractFixpointRankingReasoner(FixpointRankingSolver solver) {
+		this.solver = solver;
+	}
+
+	/**
+	 * Returns the solver used for computing the fixpoint.
+	 * @return the solver.
+	 */
+	public FixpointRankingSolver getSolver() {
+		return this.solver;
+	}
+
+	/**
+	 * Sets the solver used for computing the fixpoint.
+	 * @param solver some solver
+	 */
+	public void setSolver(FixpointRankingSolver solver) {
+		this.solver = solver;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.commons.ModelProvider#getModels(org.tweetyproject.commons.BeliefBase)
+	 */
+	@Override
+	public Collection<NumericalPartialOrder<Argument, DungTheory>> getModels(DungTheory bbase) {
+		Collection<NumericalPartialOrder<Argument, DungTheory>> ranks = new HashSet<NumericalPartialOrder<Argument, DungTheory>>();
+		ranks.add(this.getModel(bbase));
+		return ranks;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.commons.ModelProvider#getModel(org.tweetyproject.commons.BeliefBase)
+	 */
+	@Override
+	public NumericalPartialOrder<Argument, DungTheory> getModel(DungTheory bbase) {
+		return this.getModel(bbase, null);
+	}
+
+	/**
+	 * Computes the ranking of the given theory starting from the values of the given ranking,
+	 * e.g., the ranking of a theory before it has been modified. Arguments not ranked by
+	 * <code>previous</code> start with the initial value of this semantics.
+	 * @param bbase some Dung theory
+	 * @param previous some ranking (may be null)
+	 * @return the ranking of the theory.
+	 */
+	public NumericalPartialOrder<Argument, DungTheory> getModel(DungTheory bbase, NumericalPartialOrder<Argument, DungTheory> previous) {
+		return this.solver.solve(bbase, this.getInitialValue(), previous, this.getUpdateFunction(bbase));
+	}
+
+	/**
+	 * Returns the value of every argument before the first iteration.
+	 * @return the initial value.
+	 */
+	protected abstract double getInitialValue();
+
+	/**
+	 * Returns the function computing the new value of an argument from the values of its attackers.
+	 * @param bbase the theory that is ranked
+	 * @return the update function of this semantics.
+	 */
+	protected abstract FixpointRankingSolver.UpdateFunction getUpdateFunction(DungTheory bbase);
+
+	/**natively installed*/
+	@Override
+	public boolean isInstalled() {
+		return true;
+	}
+}
@@ -18,13 +18,8 @@
  */
 package org.tweetyproject.arg.rankings.reasoner;
 
-import java.util.Collection;
-import java.util.HashSet;
-
-import org.tweetyproject.arg.dung.syntax.Argument;
 import org.tweetyproject.arg.dung.syntax.DungTheory;
-import org.tweetyproject.comparator.NumericalPartialOrder;
-import org.tweetyproject.math.matrix.Matrix;
+import org.tweetyproject.arg.rankings.util.FixpointRankingSolver;
 
 /**
  * This class implements the "h-categorizer" argument ranking approach that was 
@@ -37,94 +32,62 @@ import org.tweetyproject.math.matrix.Matrix;
  * 
  * @author Anna Gessler
  */
-public class CategorizerRankingReasoner extends AbstractRankingReasoner<NumericalPartialOrder<Argument, DungTheory>> {
-	
-	private double epsilon;
+public class CategorizerRankingReasoner extends AbstractFixpointRankingReasoner {
 	
 	/**
 	 * Create a new CountingRankingReasoner with default
 	 * parameters.
 	 */
 	public CategorizerRankingReasoner() {
-		this.epsilon = 0.001;
+		this(0.001);
 	}
 	
 	/**
 	 * Create a new CategorizerRankingReasoner with the given
 	 * parameters.
 	 * 
-	 * @param epsilon TODO add description
+	 * @param epsilon the algorithm terminates when the change between two iterations is below this value
 	 */
 	public CategorizerRankingReasoner(double epsilon) {
-		this.epsilon = epsilon;
+		this(new FixpointRankingSolver(epsilon));
 	}
 	
+	/**
+	 * Create a new CategorizerRankingReasoner that uses the given
+	 * solver for computing the fixed point.
+	 * 
+	 * @param solver some solver
+	 */
+	public CategorizerRankingReasoner(FixpointRankingSolver solver) {
+		super(solver);
+	}
+
 	@Override
-	public Collection<NumericalPartialOrder<Argument, DungTheory>> getModels(DungTheory bbase) {
-		Collection<NumericalPartialOrder<Argument, DungTheory>> ranks 
-			= new HashSet<NumericalPartialOrder<Argument, DungTheory>>();
-		ranks.add(this.getModel(bbase));
-		return ranks;
+	protected double getInitialValue() {
+		return 0.0;
 	}
 
 	@Override
-	public NumericalPartialOrder<Argument, DungTheory> getModel(DungTheory base) {
-		Matrix directAttackMatrix = ((DungTheory)base).getAdjacencyMatrix().transpose(); //The matrix of direct attackers
-		int n = directAttackMatrix.getXDimension();
-		double valuations[] = new double[n];	 //Stores valuations of the current iteration
-		double valuationsOld[] = new double[n]; //Stores valuations of the last iteration
-		
-		//Keep computing valuations until the values stop changing much or converge 
-		do {
-			valuationsOld = valuations.clone();
-			for (int i = 0; i < n; i++) 
-				valuations[i] = calculateCategorizerFunction(valuationsOld,directAttackMatrix,i);
-		} while (getDistance(valuationsOld, valuations) > this.epsilon);
-	
-		//Use computed valuations as values for argument ranking
-		//Note: The order of valuations v[i] is the same as the order of DungTheory.iterator()
-		NumericalPartialOrder<Argument, DungTheory> ranking = new NumericalPartialOrder<Argument, DungTheory>();
-		ranking.setSortingType(NumericalPartialOrder.SortingType.DESCENDING);
-		int i = 0;
-		for (Argument a : ((DungTheory)base)) 
-			ranking.put(a, valuations[i++]);
-		return ranking;
+	protected FixpointRankingSolver.UpdateFunction getUpdateFunction(DungTheory bbase) {
+		return this::calculateCategorizerFunction;
 	}
 
 	/**
 	 * Computes the h-Categorizer function.
+	 * @param i the argument whose valuation is computed
 	 * @param vOld array of double valuations that were computed in the previous iteration
-	 * @param directAttackMatrix complete matrix of direct attacks
-	 * @param i row of the attack matrix that will be used in the calculation
+	 * @param attackers the attackers of all arguments
+	 * @param from the position of the first attacker of argument i
+	 * @param to the position after the last attacker of argument i
 	 * @return categorizer valuation
 	 */
-	private double calculateCategorizerFunction(double[] vOld, Matrix directAttackMatrix, int i) {
+	private double calculateCategorizerFunction(int i, double[] vOld, int[] attackers, int from, int to) {
 		double c = 1.0;
-		for (int j = 0; j < directAttackMatrix.getXDimension(); j++) {
-			c += vOld[j] * directAttackMatrix.getEntry(i,j).doubleValue();
+		for (int k = from; k < to; k++) {
+			c += vOld[attackers[k]];
 		}
 		return (1.0 / c);
 		
 	}
 
-	/**
-	 * Computes the Euclidean distance between to the given arrays.
-	 * @param vOld first array
-	 * @param v second array
-	 * @return distance between v and vOld
-	 */
-	private double getDistance(double[] vOld, double[] v) {
-		double sum = 0.0;
-		for (int i = 0; i < v.length; i++) {
-			sum += Math.pow(v[i]-vOld[i],2.0);
-		}
-		return Math.sqrt(sum);
-	}
-	
-	/**natively installed*/
-	@Override
-	public boolean isInstalled() {
-		return true;
-	}
-
 }
@@ -18,14 +18,9 @@
  */
 package org.tweetyproject.arg.rankings.reasoner;
 
-import java.util.Collection;
-import java.util.HashSet;
-
 import org.tweetyproject.arg.dung.syntax.Argument;
 import org.tweetyproject.arg.dung.syntax.DungTheory;
-import org.tweetyproject.comparator.NumericalPartialOrder;
-import org.tweetyproject.math.matrix.Matrix;
-import org.tweetyproject.math.term.FloatConstant;
+import org.tweetyproject.arg.rankings.util.FixpointRankingSolver;
 
 /**
  * This class implements the argument ranking approach of [Pu, Zhang, G.Luo,
@@ -35,10 +30,13 @@ import org.tweetyproject.math.term.FloatConstant;
  * This approach ranks arguments by counting the number of their attackers and
  * defenders in form of a dialogue game where proponents are defenders and
  * opponents are attackers.
+ * <br>
+ * If the theory has no attacks, the normalization factor is 0 and every
+ * argument keeps its initial value 1.0 (as no argument has an attacker).
  * 
  * @author Anna Gessler
  */
-public class CountingRankingReasoner extends AbstractRankingReasoner<NumericalPartialOrder<Argument, DungTheory>> {
+public class CountingRankingReasoner extends AbstractFixpointRankingReasoner {
 
 	/**
 	 * This parameter influences whether shorter/longer attackers/defender lines are
@@ -48,29 +46,22 @@ public class CountingRankingReasoner extends AbstractRankingReasoner<NumericalPa
 	 */
 	double dampingFactor;
 
-	/**
-	 * The algorithm terminates when the change between two iterations is below this
-	 * tolerance parameter.
-	 */
-	double epsilon;
-
 	/**
 	 * Create a new CountingRankingReasoner with default parameters.
 	 */
 	public CountingRankingReasoner() {
-		this.dampingFactor = 0.9;
-		this.epsilon = 0.001;
+		this(0.9, 0.001);
 	}
 
 	/**
 	 * Create a new CountingRankingReasoner with the given parameters.
 	 * 
 	 * @param damping_factor must be in (0,1)
-	 * @param epsilon TODO add description
+	 * @param epsilon the algorithm terminates when the change between two iterations is below this
+	 * tolerance parameter
 	 */
 	public CountingRankingReasoner(double damping_factor, double epsilon) {
-		this.dampingFactor = damping_factor;
-		this.epsilon = epsilon;
+		this(damping_factor, new FixpointRankingSolver(epsilon));
 	}
 	
 	/**
@@ -79,90 +70,58 @@ public class CountingRankingReasoner extends AbstractRankingReasoner<NumericalPa
 	 * @param damping_factor must be in (0,1)
 	 */
 	public CountingRankingReasoner(double damping_factor) {
+		this(damping_factor, 0.001);
+	}
+
+	/**
+	 * Create a new CountingRankingReasoner with the given damping factor that uses
+	 * the given solver for computing the fixed point.
+	 * 
+	 * @param damping_factor must be in (0,1)
+	 * @param solver some solver
+	 */
+	public CountingRankingReasoner(double damping_factor, FixpointRankingSolver solver) {
+		super(solver);
 		this.dampingFactor = damping_factor;
-		this.epsilon = 0.001;
 	}
 
 	@Override
-	public Collection<NumericalPartialOrder<Argument, DungTheory>> getModels(DungTheory bbase) {
-		Collection<NumericalPartialOrder<Argument, DungTheory>> ranks = new HashSet<NumericalPartialOrder<Argument, DungTheory>>();
-		ranks.add(this.getModel(bbase));
-		return ranks;
+	protected double getInitialValue() {
+		// the ranking for step 0 is 1.0 for all arguments
+		return 1.0;
 	}
 
 	@Override
-	public NumericalPartialOrder<Argument, DungTheory> getModel(DungTheory kb) {
-		Matrix adjacencyMatrix = ((DungTheory)kb).getAdjacencyMatrix();
-		
+	protected FixpointRankingSolver.UpdateFunction getUpdateFunction(DungTheory kb) {
 		// Apply matrix norm to guarantee that the argument strength scale is bounded
-		adjacencyMatrix = adjacencyMatrix.mult((1.0 / getInfiniteNormalizationFactor(adjacencyMatrix)));
-
-		// Apply damping factor
-		adjacencyMatrix = adjacencyMatrix.mult(this.dampingFactor).simplify();
-		
-		int n = ((DungTheory)kb).getNumberOfNodes();
-		Matrix valuations = new Matrix(1, n); // Stores values of the current iteration
-		Matrix valuationsOld = new Matrix(1, n); // Stores values of the last iteration
-		
-		Matrix e = new Matrix(1, n); // column vector of all ones
-		for (int i = 0; i < n; i++) {
-			e.setEntry(0, i, new FloatConstant(1.0)); 
-		}
-		// the ranking for step 0 is 1.0 for all arguments
-		valuations = e; 
-		
-		do {
-			valuationsOld = valuations;
-			valuations = e.minus(adjacencyMatrix.mult(valuationsOld)).simplify();
-		} while (getDistance(valuationsOld, valuations) > epsilon);
-		
-		NumericalPartialOrder<Argument, DungTheory> ranking = new NumericalPartialOrder<Argument, DungTheory>();
-		ranking.setSortingType(NumericalPartialOrder.SortingType.DESCENDING);
-		int i = 0;
-		for (Argument a : ((DungTheory)kb)) 
-			ranking.put(a, valuations.getEntry(0, i++).doubleValue());
-
-		return ranking;
+		// and apply damping factor
+		double norm = getInfiniteNormalizationFactor(kb);
+		// without attacks there is nothing to normalize, all values stay 1.0
+		double weight = norm == 0 ? 0 : (1.0 / norm) * this.dampingFactor;
+		return (i, vOld, attackers, from, to) -> {
+			double sum = 0.0;
+			for (int k = from; k < to; k++)
+				sum += weight * vOld[attackers[k]];
+			return 1.0 - sum;
+		};
 	}
 
 	/**
-	 * Calculates the infinite matrix norm of the given matrix (i.e. the maximum
-	 * absolute row sum).
+	 * Calculates the infinite matrix norm of the adjacency matrix of the given theory 
+	 * (i.e. the maximum absolute row sum), which is the maximal number of attackers
+	 * of an argument.
 	 * 
-	 * @param matrix
-	 * @return infinite matrix norm of the matrix
+	 * @param kb some theory
+	 * @return infinite matrix norm of the adjacency matrix
 	 */
-	private double getInfiniteNormalizationFactor(Matrix matrix) {
+	private double getInfiniteNormalizationFactor(DungTheory kb) {
 		double maxSum = 0.0;
-		for (int y = 0; y < matrix.getXDimension(); y++) {
-			double sum = 0.0;
-			for (int x = 0; x < matrix.getYDimension(); x++)
-				sum += matrix.getEntry(x, y).doubleValue();
+		for (Argument a : kb) {
+			double sum = kb.getAttackers(a).size();
 			if (sum > maxSum)
 				maxSum = sum;
 		}
 		return maxSum;
 	}
 
-	/**
-	 * Computes the Euclidean distance between to the given column vectors.
-	 * 
-	 * @param vOld first column vector
-	 * @param v     second column vector
-	 * @return distance between v and v_old
-	 */
-	private double getDistance(Matrix vOld, Matrix v) {
-		double sum = 0.0;
-		for (int i = 0; i < v.getYDimension(); i++) {
-			sum += Math.pow(v.getEntry(0, i).doubleValue() - vOld.getEntry(0, i).doubleValue(), 2.0);
-		}
-		return Math.sqrt(sum);
-	}
-	
-	/**natively installed*/
-	@Override
-	public boolean isInstalled() {
-		return true;
-	}
-
-}
\ No newline at end of file
+}
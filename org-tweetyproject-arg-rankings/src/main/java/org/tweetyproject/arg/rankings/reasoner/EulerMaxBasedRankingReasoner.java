@@ -18,13 +18,8 @@
  */
 package org.tweetyproject.arg.rankings.reasoner;
 
-import org.tweetyproject.arg.dung.syntax.Argument;
 import org.tweetyproject.arg.dung.syntax.DungTheory;
-import org.tweetyproject.comparator.NumericalPartialOrder;
-import org.tweetyproject.math.matrix.Matrix;
-
-import java.util.Collection;
-import java.util.HashSet;
+import org.tweetyproject.arg.rankings.util.FixpointRankingSolver;
 
 import static java.lang.StrictMath.exp;
 
@@ -38,89 +33,48 @@ import static java.lang.StrictMath.exp;
  *
  * @author Carola Bauer
  */
-public class EulerMaxBasedRankingReasoner extends AbstractRankingReasoner<NumericalPartialOrder<Argument, DungTheory>> {
+public class EulerMaxBasedRankingReasoner extends AbstractFixpointRankingReasoner {
 
+    /**
+     * Create a new EulerMaxBasedRankingReasoner that keeps computing valuations until the
+     * values stop changing much or converge.
+     */
+    public EulerMaxBasedRankingReasoner() {
+        this(new FixpointRankingSolver(0.001));
+    }
 
-    @Override
-    public Collection<NumericalPartialOrder<Argument, DungTheory>> getModels(DungTheory bbase) {
-        Collection<NumericalPartialOrder<Argument, DungTheory>> ranks = new HashSet<>();
-        ranks.add(this.getModel(bbase));
-        return ranks;
+    /**
+     * Create a new EulerMaxBasedRankingReasoner that uses the given solver for computing the fixed point.
+     * @param solver some solver
+     */
+    public EulerMaxBasedRankingReasoner(FixpointRankingSolver solver) {
+        super(solver);
     }
 
     @Override
-    public NumericalPartialOrder<Argument, DungTheory> getModel(DungTheory kb) {
-
-
-        Matrix directAttackMatrix = kb.getAdjacencyMatrix().transpose(); //The matrix of direct attackers
-        int n = directAttackMatrix.getXDimension();
-        double[] valuations = new double[n];	 //Stores valuations of the current iteration
-        for (int i=0; i<n; i++) {
-            valuations[i]=1.;
-        }
-        double[] valuationsOld; //Stores valuations of the last iteration
-
-        //Keep computing valuations until the values stop changing much or converge
-        double epsilon = 0.001;
-        do {
-            valuationsOld = valuations.clone();
-
-            for (int i = 0; i < n; i++)
-                valuations[i] = calculateEulerMaxBasedFunction(valuationsOld, directAttackMatrix, i);
-        } while (getDistance(valuationsOld, valuations) > epsilon);
+    protected double getInitialValue() {
+        return 1.;
+    }
 
-        //Use computed valuations as values for argument ranking
-        //Note: The order of valuations v[i] is the same as the order of DungTheory.iterator()
-        NumericalPartialOrder<Argument, DungTheory> ranking = new NumericalPartialOrder<>();
-        ranking.setSortingType(NumericalPartialOrder.SortingType.DESCENDING);
-        int i = 0;
-        for (Argument a : kb)
-            ranking.put(a, valuations[i++]);
-        return ranking;
+    @Override
+    protected FixpointRankingSolver.UpdateFunction getUpdateFunction(DungTheory kb) {
+        return this::calculateEulerMaxBasedFunction;
     }
 
     /**
      * Computes the maxbased function.
+     * @param i the argument whose valuation is computed
      * @param vOld array of double valuations that were computed in the previous iteration
-     * @param directAttackMatrix complete matrix of direct attacks
-     * @param i row of the attack matrix that will be used in the calculation
+     * @param attackers the attackers of all arguments
+     * @param from the position of the first attacker of argument i
+     * @param to the position after the last attacker of argument i
      * @return categorizer valuation
      */
-    private double calculateEulerMaxBasedFunction(double[] vOld, Matrix directAttackMatrix, int i) {
-        double max = 0.;
+    private double calculateEulerMaxBasedFunction(int i, double[] vOld, int[] attackers, int from, int to) {
+        double max = FixpointRankingSolver.max(vOld, attackers, from, to);
 
-        for (int j = 0; j < directAttackMatrix.getXDimension(); j++) {
-            double attacker= vOld[j] * directAttackMatrix.getEntry(i,j).doubleValue();
-            if (attacker>max) {
-                max = attacker;
-            }
-        }
         return  1. * exp(-max);
 
     }
 
-
-    /**
-     * Computes the Euclidean distance between to the given arrays.
-     * @param vOld first array
-     * @param v second array
-     * @return distance between v and vOld
-     */
-    private double getDistance(double[] vOld, double[] v) {
-        double sum = 0.0;
-        for (int i = 0; i < v.length; i++) {
-            sum += Math.pow(v[i]-vOld[i],2.0);
-        }
-        return Math.sqrt(sum);
-    }
-
-    /**
-     * natively installed
-     */
-    @Override
-    public boolean isInstalled() {
-        return true;
-    }
-
-
 }
\ No newline at end of file
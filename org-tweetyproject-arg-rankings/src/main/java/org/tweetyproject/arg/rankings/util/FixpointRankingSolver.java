@@ -0,0 +1,358 @@
+/*
+ *  This file is part of "TweetyProject", a collection of Java libraries for
+ *  logical aspects of artificial intelligence and knowledge representation.
+ *
+ *  TweetyProject is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  Copyright 2024 The TweetyProject Team <http://tweetyproject.org/contact/>
+ */
+package org.tweetyproject.arg.rankings.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.tweetyproject.arg.dung.syntax.Argument;
+import org.tweetyproject.arg.dung.syntax.DungTheory;
+import org.tweetyproject.comparator.NumericalPartialOrder;
+
+/**
+ * Computes the fixpoint of a gradual semantics whose value of an argument only depends on the
+ * values of its direct attackers (and its own value), e.g. the h-categorizer or the max-based semantics.
+ * The attackers of every argument are stored as adjacency lists, so a single sweep over all arguments
+ * takes time O(|A|+|R|). Sweeps are repeated until the Euclidean distance between the values of two
+ * consecutive sweeps is at most epsilon (or the maximal number of sweeps is reached).
+ * <br>
+ * Sweeps either use the values of the previous sweep only (Jacobi), possibly distributed over several threads,
+ * or update the values in place (Gauss-Seidel), which usually needs fewer sweeps but is sequential. Both schemes
+ * lead to the same fixpoint if it is unique. The iteration can be started from a previous ranking, e.g.,
+ * the ranking of a theory before some attacks were added or removed.
+ *
+ * @author agent
+ */
+public class FixpointRankingSolver {
+
+	/** The number of arguments from which on Jacobi sweeps are distributed over several threads. */
+	private static final int MIN_PARALLEL_ARGUMENTS = 1 << 12;
+
+	/**
+	 * The schemes for updating the values during a sweep.
+	 */
+	public enum UpdateScheme {
+		/** all values of a sweep are computed from the values of the previous sweep */
+		JACOBI,
+		/** values are updated in place, later arguments of a sweep see the new values of earlier ones */
+		GAUSS_SEIDEL;
+	}
+
+	/**
+	 * The local update function of a semantics.
+	 */
+	public interface UpdateFunction {
+		/**
+		 * Computes the new value of the i-th argument.
+		 * @param i the index of the argument
+		 * @param values the current values of all arguments (must not be modified)
+		 * @param attackers the indices of the attackers of all arguments
+		 * @param from the position of the first attacker of the i-th argument in <code>attackers</code>
+		 * @param to the position after the last attacker of the i-th argument in <code>attackers</code>
+		 * @return the new value of the i-th argument.
+		 */
+		double update(int i, double[] values, int[] attackers, int from, int to);
+	}
+
+	/** The convergence threshold. */
+	private final double epsilon;
+	/** The update scheme. */
+	private final UpdateScheme scheme;
+	/** The number of threads used for Jacobi sweeps. */
+	private final int parallelism;
+	/** The maximal number of sweeps. */
+	private final int maxIterations;
+
+	/**
+	 * Creates a new sequential solver using Jacobi sweeps until convergence.
+	 * @param epsilon the convergence threshold
+	 */
+	public FixpointRankingSolver(double epsilon) {
+		this(epsilon, UpdateScheme.JACOBI, 1, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Creates a new solver.
+	 * @param epsilon the convergence threshold
+	 * @param scheme the update scheme
+	 * @param parallelism the number of threads used for Jacobi sweeps (Gauss-Seidel sweeps are always sequential)
+	 * @param maxIterations the maximal number of sweeps
+	 */
+	public FixpointRankingSolver(double epsilon, UpdateScheme scheme, int parallelism, int maxIterations) {
+		if(parallelism < 1)
+			throw new IllegalArgumentException("The parallelism must be positive.");
+		if(maxIterations < 1)
+			throw new IllegalArgumentException("The maximal number of iterations must be positive.");
+		this.epsilon = epsilon;
+		this.scheme = scheme;
+		this.parallelism = parallelism;
+		this.maxIterations = maxIterations;
+	}
+
+	/**
+	 * Returns a solver that equals this one except for the convergence threshold.
+	 * @param epsilon the convergence threshold
+	 * @return a new solver.
+	 */
+	public FixpointRankingSolver withEpsilon(double epsilon) {
+		return new FixpointRankingSolver(epsilon, this.scheme, this.parallelism, this.maxIterations);
+	}
+
+	/**
+	 * Returns the convergence threshold.
+	 * @return the convergence threshold.
+	 */
+	public double getEpsilon() {
+		return this.epsilon;
+	}
+
+	/**
+	 * Returns the update scheme.
+	 * @return the update scheme.
+	 */
+	public UpdateScheme getUpdateScheme() {
+		return this.scheme;
+	}
+
+	/**
+	 * Returns the number of threads used for Jacobi sweeps.
+	 * @return the parallelism.
+	 */
+	public int getParallelism() {
+		return this.parallelism;
+	}
+
+	/**
+	 * Returns the maximal number of sweeps.
+	 * @return the maximal number of sweeps.
+	 */
+	public int getMaxIterations() {
+		return this.maxIterations;
+	}
+
+	/**
+	 * Computes the fixpoint of the given update function on the given theory.
+	 * @param theory some Dung theory
+	 * @param initialValue the initial value of every argument
+	 * @param function the update function
+	 * @return the values of the arguments after the last sweep (sorted in descending order).
+	 */
+	public NumericalPartialOrder<Argument, DungTheory> solve(DungTheory theory, double initialValue, UpdateFunction function) {
+		return this.solve(theory, initialValue, null, function);
+	}
+
+	/**
+	 * Computes the fixpoint of the given update function on the given theory.
+	 * @param theory some Dung theory
+	 * @param initialValue the initial value of every argument not ranked by <code>previous</code>
+	 * @param previous some ranking whose values are used as initial values (may be null)
+	 * @param function the update function
+	 * @return the values of the arguments after the last sweep (sorted in descending order).
+	 */
+	public NumericalPartialOrder<Argument, DungTheory> solve(DungTheory theory, double initialValue, NumericalPartialOrder<Argument, DungTheory> previous, UpdateFunction function) {
+		// number the arguments in the order of the theory and collect the attackers of each
+		List<Argument> args = new ArrayList<Argument>(theory);
+		int n = args.size();
+		Map<Argument,Integer> index = new HashMap<Argument,Integer>();
+		for(int i = 0; i < n; i++)
+			index.put(args.get(i), i);
+		int[] offsets = new int[n+1];
+		int[][] lists = new int[n][];
+		for(int i = 0; i < n; i++) {
+			int[] list = theory.getAttackers(args.get(i)).stream().mapToInt(index::get).toArray();
+			Arrays.sort(list);
+			lists[i] = list;
+			offsets[i+1] = offsets[i] + list.length;
+		}
+		int[] attackers = new int[offsets[n]];
+		for(int i = 0; i < n; i++)
+			System.arraycopy(lists[i], 0, attackers, offsets[i], lists[i].length);
+		double[] values = new double[n];
+		for(int i = 0; i < n; i++) {
+			Double v = previous == null ? null : previous.get(args.get(i));
+			values[i] = v == null ? initialValue : v;
+		}
+		if(this.scheme == UpdateScheme.GAUSS_SEIDEL)
+			this.gaussSeidel(values, offsets, attackers, function);
+		else if(this.parallelism > 1 && n >= FixpointRankingSolver.MIN_PARALLEL_ARGUMENTS)
+			values = this.parallelJacobi(values, offsets, attackers, function);
+		else values = this.jacobi(values, offsets, attackers, function);
+		NumericalPartialOrder<Argument, DungTheory> ranking = new NumericalPartialOrder<Argument, DungTheory>();
+		ranking.setSortingType(NumericalPartialOrder.SortingType.DESCENDING);
+		for(int i = 0; i < n; i++)
+			ranking.put(args.get(i), values[i]);
+		return ranking;
+	}
+
+	/**
+	 * Performs Gauss-Seidel sweeps on the given values.
+	 * @param values the initial values, updated in place
+	 * @param offsets the start of the attackers of each argument
+	 * @param attackers the attackers of all arguments
+	 * @param function the update function
+	 */
+	private void gaussSeidel(double[] values, int[] offsets, int[] attackers, UpdateFunction function) {
+		for(int it = 0; it < this.maxIterations; it++) {
+			double distance = 0;
+			for(int i = 0; i < values.length; i++) {
+				double v = function.update(i, values, attackers, offsets[i], offsets[i+1]);
+				double d = v - values[i];
+				distance += d * d;
+				values[i] = v;
+			}
+			if(Math.sqrt(distance) <= this.epsilon)
+				return;
+		}
+	}
+
+	/**
+	 * Performs sequential Jacobi sweeps starting from the given values.
+	 * @param values the initial values
+	 * @param offsets the start of the attackers of each argument
+	 * @param attackers the attackers of all arguments
+	 * @param function the update function
+	 * @return the values after the last sweep.
+	 */
+	private double[] jacobi(double[] values, int[] offsets, int[] attackers, UpdateFunction function) {
+		double[] next = new double[values.length];
+		for(int it = 0; it < this.maxIterations; it++) {
+			FixpointRankingSolver.sweep(values, next, 0, values.length, offsets, attackers, function);
+			double[] tmp = values;
+			values = next;
+			next = tmp;
+			if(FixpointRankingSolver.distance(next, values) <= this.epsilon)
+				break;
+		}
+		return values;
+	}
+
+	/**
+	 * Performs Jacobi sweeps starting from the given values, each sweep is split into
+	 * consecutive blocks of arguments that are processed by different threads.
+	 * @param values the initial values
+	 * @param offsets the start of the attackers of each argument
+	 * @param attackers the attackers of all arguments
+	 * @param function the update function
+	 * @return the values after the last sweep.
+	 */
+	private double[] parallelJacobi(double[] values, int[] offsets, int[] attackers, UpdateFunction function) {
+		int n = values.length;
+		double[][] buffers = new double[][] {values, new double[n]};
+		int blocks = this.parallelism * 4;
+		ExecutorService executor = Executors.newFixedThreadPool(this.parallelism);
+		try {
+			int current = 0;
+			for(int it = 0; it < this.maxIterations; it++) {
+				final double[] source = buffers[current], target = buffers[1-current];
+				List<Callable<Double>> tasks = new ArrayList<Callable<Double>>();
+				for(int b = 0; b < blocks; b++) {
+					final int from = (int) ((long) n * b / blocks), to = (int) ((long) n * (b+1) / blocks);
+					tasks.add(() -> {
+						FixpointRankingSolver.sweep(source, target, from, to, offsets, attackers, function);
+						double distance = 0;
+						for(int i = from; i < to; i++)
+							distance += (target[i] - source[i]) * (target[i] - source[i]);
+						return distance;
+					});
+				}
+				double distance = 0;
+				for(Future<Double> f: executor.invokeAll(tasks))
+					distance += f.get();
+				current = 1 - current;
+				if(Math.sqrt(distance) <= this.epsilon)
+					break;
+			}
+			return buffers[current];
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		} catch (ExecutionException e) {
+			throw new RuntimeException(e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Computes the new values of the arguments from..to-1 from the given values.
+	 * @param source the values of the previous sweep
+	 * @param target the array the new values are written to
+	 * @param from the first argument
+	 * @param to the argument after the last one
+	 * @param offsets the start of the attackers of each argument
+	 * @param attackers the attackers of all arguments
+	 * @param function the update function
+	 */
+	private static void sweep(double[] source, double[] target, int from, int to, int[] offsets, int[] attackers, UpdateFunction function) {
+		for(int i = from; i < to; i++)
+			target[i] = function.update(i, source, attackers, offsets[i], offsets[i+1]);
+	}
+
+	/**
+	 * Computes the Euclidean distance between the given arrays.
+	 * @param v1 some array
+	 * @param v2 some array of the same length
+	 * @return the distance between v1 and v2.
+	 */
+	private static double distance(double[] v1, double[] v2) {
+		double sum = 0;
+		for(int i = 0; i < v1.length; i++)
+			sum += (v1[i] - v2[i]) * (v1[i] - v2[i]);
+		return Math.sqrt(sum);
+	}
+
+	/**
+	 * Returns the maximal value of the given attackers, or 0 if there are none.
+	 * @param values the values of all arguments
+	 * @param attackers the attackers of all arguments
+	 * @param from the position of the first attacker
+	 * @param to the position after the last attacker
+	 * @return the maximal value of an attacker.
+	 */
+	public static double max(double[] values, int[] attackers, int from, int to) {
+		double max = 0;
+		for(int k = from; k < to; k++)
+			if(values[attackers[k]] > max)
+				max = values[attackers[k]];
+		return max;
+	}
+
+	/**
+	 * Returns the sum of the values of the given attackers.
+	 * @param values the values of all arguments
+	 * @param attackers the attackers of all arguments
+	 * @param from the position of the first attacker
+	 * @param to the position after the last attacker
+	 * @return the sum of the values of the attackers.
+	 */
+	public static double sum(double[] values, int[] attackers, int from, int to) {
+		double sum = 0;
+		for(int k = from; k < to; k++)
+			sum += values[attackers[k]];
+		return sum;
+	}
+}
@@ -0,0 +1,218 @@
+/*
+ *  This file is part of "TweetyProject", a collection of Java libraries for
+ *  logical aspects of artificial intelligence and knowledge representation.
+ *
+ *  TweetyProject is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  Copyright 2024 The TweetyProject Team <http://tweetyproject.org/contact/>
+ */
+package org.tweetyproject.arg.rankings;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.tweetyproject.arg.dung.syntax.Argument;
+import org.tweetyproject.arg.dung.syntax.Attack;
+import org.tweetyproject.arg.dung.syntax.DungTheory;
+import org.tweetyproject.arg.rankings.reasoner.AbstractFixpointRankingReasoner;
+import org.tweetyproject.arg.rankings.reasoner.CategorizerRankingReasoner;
+import org.tweetyproject.arg.rankings.reasoner.CountingRankingReasoner;
+import org.tweetyproject.arg.rankings.reasoner.EulerMaxBasedRankingReasoner;
+import org.tweetyproject.arg.rankings.reasoner.IterativeSchemaRankingReasoner;
+import org.tweetyproject.arg.rankings.reasoner.MaxBasedRankingReasoner;
+import org.tweetyproject.arg.rankings.reasoner.TrustBasedRankingReasoner;
+import org.tweetyproject.arg.rankings.util.FixpointRankingSolver;
+import org.tweetyproject.comparator.NumericalPartialOrder;
+
+/**
+ * Pins the values of the fixed-point based ranking semantics on the examples
+ * of RankingSemanticsExample and RankingSemanticsExample2 (the expected values
+ * were computed with the former matrix-based implementations).
+ *
+ * @author agent
+ */
+public class FixpointRankingReasonerTest {
+
+	public static final int DEFAULT_TIMEOUT = 50000;
+
+	private DungTheory ex1, ex2, ex4a, ex4c, ex5, pu, noattacks;
+
+	private AbstractFixpointRankingReasoner reasoner;
+
+	@Before
+	public void setUp() {
+		Argument a = new Argument("a");
+		Argument b = new Argument("b");
+		Argument c = new Argument("c");
+		Argument d = new Argument("d");
+		Argument e = new Argument("e");
+		Argument f = new Argument("f");
+		Argument g = new Argument("g");
+		Argument h = new Argument("h");
+		Argument i = new Argument("i");
+		Argument j = new Argument("j");
+		// [Bonzon, Delobelle, Konieczny, Maudet. A Comparative Study of Ranking-Based Semantics for Abstract Argumentation. AAAI 2016]
+		this.ex1 = new DungTheory();
+		this.ex1.add(a, b, c, d, e);
+		this.ex1.add(new Attack(a, e), new Attack(d, a), new Attack(e, d), new Attack(c, e), new Attack(b, c), new Attack(b, a));
+		// [Baumeister, Neugebauer, Rothe. Argumentation Meets Computational Social Choice. Tutorial. 2018]
+		this.ex2 = new DungTheory();
+		this.ex2.add(a, b, c, d, e, f);
+		this.ex2.add(new Attack(a, b), new Attack(b, c), new Attack(d, e), new Attack(c, f), new Attack(e, d), new Attack(e, c));
+		// Figure 2 in [Matt, Toni. A game-theoretic measure of argument strength for abstract argumentation. JELIA 2008]
+		this.ex4a = new DungTheory();
+		this.ex4a.add(a, b, c, d, e, f, g);
+		this.ex4a.add(new Attack(b, a), new Attack(c, a), new Attack(d, a), new Attack(f, a), new Attack(e, d), new Attack(g, f));
+		// Figure 4 in [Matt, Toni. A game-theoretic measure of argument strength for abstract argumentation. JELIA 2008]
+		this.ex4c = new DungTheory();
+		this.ex4c.add(a, b, c, d, e, f);
+		this.ex4c.add(new Attack(a, b), new Attack(a, e), new Attack(c, b), new Attack(d, e));
+		this.ex4c.add(new Attack(e, f), new Attack(e, e), new Attack(e, b), new Attack(f, e), new Attack(f, b));
+		// Figure 2.4 in [Delobelle, Jerome. Ranking-based Semantics for Abstract Argumentation. 2017]
+		this.ex5 = new DungTheory();
+		this.ex5.add(a, b, c, d, e, f, g, h, i, j);
+		this.ex5.add(new Attack(a, b), new Attack(b, c), new Attack(b, f), new Attack(d, g), new Attack(d, f));
+		this.ex5.add(new Attack(e, h), new Attack(e, d), new Attack(e, i), new Attack(h, g), new Attack(j, i));
+		// Figure 1.a in [Pu, Zhang, G.Luo, J.Luo. Attacker and Defender Counting Approach for Abstract Argumentation. CoRR 2015]
+		Argument x1 = new Argument("x1");
+		Argument x2 = new Argument("x2");
+		Argument x3 = new Argument("x3");
+		Argument x4 = new Argument("x4");
+		this.pu = new DungTheory();
+		this.pu.add(x1, x2, x3, x4);
+		this.pu.add(new Attack(x2, x3), new Attack(x2, x1), new Attack(x3, x2), new Attack(x3, x3), new Attack(x4, x2));
+		// without attacks, all arguments have the maximal value
+		this.noattacks = new DungTheory();
+		this.noattacks.add(a, b, c);
+	}
+
+	@Test(timeout = DEFAULT_TIMEOUT)
+	public void CategorizerTest() {
+		this.reasoner = new CategorizerRankingReasoner();
+		assertRanking(this.reasoner.getModel(this.ex1), 0.377001, 1.000000, 0.500000, 0.652370, 0.532695);
+		assertRanking(this.reasoner.getModel(this.ex2), 1.000000, 0.500000, 0.472222, 0.618182, 0.618182, 0.679389);
+		assertRanking(this.reasoner.getModel(this.ex4a), 0.250000, 1.000000, 1.000000, 0.500000, 1.000000, 0.500000, 1.000000);
+		assertRanking(this.reasoner.getModel(this.ex4c), 1.000000, 0.247035, 1.000000, 1.000000, 0.247035, 0.802064);
+		assertRanking(this.reasoner.getModel(this.ex5), 1.000000, 0.500000, 0.666667, 0.500000, 1.000000, 0.500000, 0.500000, 0.500000, 0.333333, 1.000000);
+		assertRanking(this.reasoner.getModel(this.pu), 0.715970, 0.396570, 0.521288, 1.000000);
+		assertRanking(this.reasoner.getModel(this.noattacks), 1.000000, 1.000000, 1.000000);
+	}
+
+	@Test(timeout = DEFAULT_TIMEOUT)
+	public void CountingTest() {
+		this.reasoner = new CountingRankingReasoner();
+		assertRanking(this.reasoner.getModel(this.ex1), 0.231250, 1.000000, 0.550000, 0.708027, 0.648369);
+		assertRanking(this.reasoner.getModel(this.ex2), 1.000000, 0.550000, 0.442261, 0.689761, 0.689761, 0.801136);
+		assertRanking(this.reasoner.getModel(this.ex4a), 0.201250, 1.000000, 1.000000, 0.775000, 1.000000, 0.775000, 1.000000);
+		assertRanking(this.reasoner.getModel(this.ex4c), 1.000000, 0.276913, 1.000000, 1.000000, 0.276913, 0.937838);
+		assertRanking(this.reasoner.getModel(this.ex5), 1.000000, 0.550000, 0.752500, 0.550000, 1.000000, 0.505000, 0.505000, 0.550000, 0.100000, 1.000000);
+		assertRanking(this.reasoner.getModel(this.pu), 0.874764, 0.278743, 0.603507, 1.000000);
+		assertRanking(this.reasoner.getModel(this.noattacks), 1.000000, 1.000000, 1.000000);
+		this.reasoner = new CountingRankingReasoner(0.98, 0.001);
+		assertRanking(this.reasoner.getModel(this.ex1), 0.179287, 1.000000, 0.510000, 0.675500, 0.662437);
+		assertRanking(this.reasoner.getModel(this.ex2), 1.000000, 0.510000, 0.421112, 0.671012, 0.671012, 0.793463);
+		assertRanking(this.reasoner.getModel(this.ex4a), 0.140050, 1.000000, 1.000000, 0.755000, 1.000000, 0.755000, 1.000000);
+		assertRanking(this.reasoner.getModel(this.ex4c), 1.000000, 0.223492, 1.000000, 1.000000, 0.223492, 0.945122);
+		assertRanking(this.reasoner.getModel(this.ex5), 1.000000, 0.510000, 0.750100, 0.510000, 1.000000, 0.500200, 0.500200, 0.510000, 0.020000, 1.000000);
+		assertRanking(this.reasoner.getModel(this.pu), 0.894076, 0.215751, 0.599827, 1.000000);
+		assertRanking(this.reasoner.getModel(this.noattacks), 1.000000, 1.000000, 1.000000);
+	}
+
+	@Test(timeout = DEFAULT_TIMEOUT)
+	public void MaxBasedTest() {
+		this.reasoner = new MaxBasedRankingReasoner();
+		assertRanking(this.reasoner.getModel(this.ex1), 0.500000, 1.000000, 0.500000, 0.600000, 0.666667);
+		assertRanking(this.reasoner.getModel(this.ex2), 1.000000, 0.500000, 0.618026, 0.618026, 0.618026, 0.618026);
+		assertRanking(this.reasoner.getModel(this.ex4a), 0.500000, 1.000000, 1.000000, 0.500000, 1.000000, 0.500000, 1.000000);
+		assertRanking(this.reasoner.getModel(this.ex4c), 1.000000, 0.500000, 1.000000, 1.000000, 0.500000, 0.666667);
+		assertRanking(this.reasoner.getModel(this.ex5), 1.000000, 0.500000, 0.666667, 0.500000, 1.000000, 0.666667, 0.666667, 0.500000, 0.500000, 1.000000);
+		assertRanking(this.reasoner.getModel(this.pu), 0.666667, 0.500000, 0.618056, 1.000000);
+		assertRanking(this.reasoner.getModel(this.noattacks), 1.000000, 1.000000, 1.000000);
+	}
+
+	@Test(timeout = DEFAULT_TIMEOUT)
+	public void TrustBasedTest() {
+		this.reasoner = new TrustBasedRankingReasoner();
+		assertRanking(this.reasoner.getModel(this.ex1), 0.500000, 1.000000, 0.500000, 0.625000, 0.750000);
+		assertRanking(this.reasoner.getModel(this.ex2), 1.000000, 0.500000, 0.666656, 0.666656, 0.666656, 0.666656);
+		assertRanking(this.reasoner.getModel(this.ex4a), 0.500000, 1.000000, 1.000000, 0.500000, 1.000000, 0.500000, 1.000000);
+		assertRanking(this.reasoner.getModel(this.ex4c), 1.000000, 0.500000, 1.000000, 1.000000, 0.500000, 0.750000);
+		assertRanking(this.reasoner.getModel(this.ex5), 1.000000, 0.500000, 0.750000, 0.500000, 1.000000, 0.750000, 0.750000, 0.500000, 0.500000, 1.000000);
+		assertRanking(this.reasoner.getModel(this.pu), 0.750000, 0.500000, 0.666687, 1.000000);
+		assertRanking(this.reasoner.getModel(this.noattacks), 1.000000, 1.000000, 1.000000);
+	}
+
+	@Test(timeout = DEFAULT_TIMEOUT)
+	public void EulerMaxBasedTest() {
+		this.reasoner = new EulerMaxBasedRankingReasoner();
+		assertRanking(this.reasoner.getModel(this.ex1), 0.367879, 1.000000, 0.367879, 0.500474, 0.692201);
+		assertRanking(this.reasoner.getModel(this.ex2), 1.000000, 0.367879, 0.567276, 0.567276, 0.567276, 0.567276);
+		assertRanking(this.reasoner.getModel(this.ex4a), 0.367879, 1.000000, 1.000000, 0.367879, 1.000000, 0.367879, 1.000000);
+		assertRanking(this.reasoner.getModel(this.ex4c), 1.000000, 0.367879, 1.000000, 1.000000, 0.367879, 0.692201);
+		assertRanking(this.reasoner.getModel(this.ex5), 1.000000, 0.367879, 0.692201, 0.367879, 1.000000, 0.692201, 0.692201, 0.367879, 0.367879, 1.000000);
+		assertRanking(this.reasoner.getModel(this.pu), 0.692201, 0.367879, 0.566909, 1.000000);
+		assertRanking(this.reasoner.getModel(this.noattacks), 1.000000, 1.000000, 1.000000);
+	}
+
+	@Test(timeout = DEFAULT_TIMEOUT)
+	public void IterativeSchemaTest() {
+		this.reasoner = new IterativeSchemaRankingReasoner();
+		assertRanking(this.reasoner.getModel(this.ex1), 0.500000, 1.000000, 0.500000, 0.624977, 0.666656);
+		assertRanking(this.reasoner.getModel(this.ex2), 1.000000, 0.500000, 0.633991, 0.633991, 0.633991, 0.633991);
+		assertRanking(this.reasoner.getModel(this.ex4a), 0.500000, 1.000000, 1.000000, 0.500000, 1.000000, 0.500000, 1.000000);
+		assertRanking(this.reasoner.getModel(this.ex4c), 1.000000, 0.500000, 1.000000, 1.000000, 0.500000, 0.666687);
+		assertRanking(this.reasoner.getModel(this.ex5), 1.000000, 0.500000, 0.666656, 0.500000, 1.000000, 0.666656, 0.666656, 0.500000, 0.500000, 1.000000);
+		assertRanking(this.reasoner.getModel(this.pu), 0.666667, 0.500000, 0.633933, 1.000000);
+		assertRanking(this.reasoner.getModel(this.noattacks), 1.000000, 1.000000, 1.000000);
+	}
+
+	@Test(timeout = DEFAULT_TIMEOUT)
+	public void ParallelJacobiTest() {
+		// large enough for the sweeps to be distributed over several threads
+		Random random = new Random(42);
+		DungTheory theory = new DungTheory();
+		List<Argument> args = new ArrayList<Argument>();
+		for (int k = 0; k < 10000; k++) {
+			Argument arg = new Argument("a" + k);
+			args.add(arg);
+			theory.add(arg);
+		}
+		for (int k = 0; k < 30000; k++)
+			theory.add(new Attack(args.get(random.nextInt(args.size())), args.get(random.nextInt(args.size()))));
+		NumericalPartialOrder<Argument, DungTheory> sequential = new CategorizerRankingReasoner().getModel(theory);
+		NumericalPartialOrder<Argument, DungTheory> parallel = new CategorizerRankingReasoner(
+				new FixpointRankingSolver(0.001, FixpointRankingSolver.UpdateScheme.JACOBI, 4, Integer.MAX_VALUE)).getModel(theory);
+		for (Argument arg : args)
+			assertEquals(sequential.get(arg), parallel.get(arg), 0);
+	}
+
+	/**
+	 * Checks the values of the given ranking, given in the lexicographic order of the argument names.
+	 * @param ranking some ranking
+	 * @param values the expected values
+	 */
+	private static void assertRanking(NumericalPartialOrder<Argument, DungTheory> ranking, double... values) {
+		List<Argument> args = new ArrayList<Argument>(ranking.keySet());
+		args.sort(Comparator.comparing(Argument::getName));
+		assertEquals(values.length, args.size());
+		for (int k = 0; k < values.length; k++)
+			assertEquals(args.get(k).getName(), values[k], ranking.get(args.get(k)), 0.00001);
+	}
+}
@@ -18,9 +18,8 @@
  */
 package org.tweetyproject.commons.util;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.util.stream.Stream;
 
 /**
  * Cygwin shell.
@@ -38,14 +37,16 @@ public class CygwinShell extends Shell{
 
 	@Override
 	public String run(String cmd)throws InterruptedException, IOException {
-		Runtime runtime = Runtime.getRuntime();			
-		Process proc = runtime.exec(new String[] {binaryLocation , "-c",cmd },new String[] {});
-		proc.waitFor();
-		BufferedReader br = new BufferedReader(new InputStreamReader(proc.getInputStream()));
-		String result = "";
-		while (br.ready())
-			result += br.readLine()+"\n";
-		return result;
+		return this.run(cmd, -1);
+	}
+
+	@Override
+	public Stream<String> stream(String cmd, String input, long timeout) throws IOException {
+		// only the standard output is returned, the error output is discarded
+		ProcessExecution proc = ProcessExecution.start(new String[] {binaryLocation , "-c",cmd }, new String[] {}, timeout, line -> {});
+		if(input != null)
+			proc.writeInput(input);
+		return proc.lines();
 	}
 	
 }
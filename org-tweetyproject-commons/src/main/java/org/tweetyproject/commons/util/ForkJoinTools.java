@@ -0,0 +1,108 @@
+/*
+ *  This file is part of "TweetyProject", a collection of Java libraries for
+ *  logical aspects of artificial intelligence and knowledge representation.
+ *
+ *  TweetyProject is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  Copyright 2024 The TweetyProject Team <http://tweetyproject.org/contact/>
+ */
+package org.tweetyproject.commons.util;
+
+import java.util.Collection;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Supplier;
+
+/**
+ * This class provides methods for running fork-join computations with a bounded parallelism.
+ * <br>
+ * With parallelism 1 all tasks run one after another on the calling thread. With a larger
+ * parallelism all tasks run in a pool created by this class with exactly that parallelism: if the
+ * calling thread is a worker of such a pool (e.g. in a nested computation) the tasks are forked into
+ * it, otherwise a new pool is created for the call and shut down afterwards. Tasks never run in the
+ * common pool or in any other pool of the caller, so the given parallelism is always respected.
+ *
+ * @author agent
+ */
+public class ForkJoinTools {
+
+	/**
+	 * The pools created by this class, to distinguish them from pools of the caller.
+	 */
+	private static class BoundedPool extends ForkJoinPool {
+		/**
+		 * Creates a new pool.
+		 * @param parallelism the parallelism of the pool
+		 */
+		BoundedPool(int parallelism) {
+			super(parallelism);
+		}
+	}
+
+	/**
+	 * Runs the given computation with the given parallelism, i.e., all tasks forked or invoked by the
+	 * computation via {@link #invokeAll(int, Collection)} (or the methods of {@link ForkJoinTask}) run
+	 * with at most this parallelism.
+	 * @param <T> the type of the result
+	 * @param parallelism the maximal number of tasks run concurrently, "1" for the calling thread
+	 * @param computation some computation
+	 * @return the result of the computation.
+	 */
+	public static <T> T invoke(int parallelism, Supplier<T> computation) {
+		ForkJoinTools.checkParallelism(parallelism);
+		if(parallelism == 1 || ForkJoinTools.inPool(parallelism))
+			return computation.get();
+		ForkJoinPool pool = new BoundedPool(parallelism);
+		try {
+			return pool.invoke(ForkJoinTask.adapt(computation::get));
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Runs the given tasks with the given parallelism and waits until all of them are done. Their results
+	 * are available via {@link ForkJoinTask#join()} afterwards.
+	 * @param parallelism the maximal number of tasks run concurrently, "1" for the calling thread
+	 * @param tasks some tasks
+	 */
+	public static void invokeAll(int parallelism, Collection<? extends ForkJoinTask<?>> tasks) {
+		ForkJoinTools.checkParallelism(parallelism);
+		if(parallelism == 1 || tasks.size() < 2) {
+			for(ForkJoinTask<?> task: tasks)
+				task.invoke();
+		} else if(ForkJoinTools.inPool(parallelism))
+			ForkJoinTask.invokeAll(tasks);
+		else ForkJoinTools.invoke(parallelism, () -> ForkJoinTask.invokeAll(tasks));
+	}
+
+	/**
+	 * Checks whether the current thread is a worker of a pool created by this class with the given parallelism.
+	 * @param parallelism some parallelism
+	 * @return "true" if tasks can be forked into the pool of the current thread.
+	 */
+	private static boolean inPool(int parallelism) {
+		ForkJoinPool pool = ForkJoinTask.getPool();
+		return pool instanceof BoundedPool && pool.getParallelism() == parallelism;
+	}
+
+	/**
+	 * Checks that the given parallelism is positive.
+	 * @param parallelism some parallelism
+	 * @throws IllegalArgumentException if the parallelism is not positive.
+	 */
+	private static void checkParallelism(int parallelism) {
+		if(parallelism < 1)
+			throw new IllegalArgumentException("The parallelism must be positive.");
+	}
+}
@@ -18,9 +18,9 @@
  */
 package org.tweetyproject.commons.util;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.util.stream.Stream;
 
 /**
  * Default shell
@@ -41,6 +41,34 @@ public class NativeShell extends Shell {
 	public String run(String cmd) throws InterruptedException, IOException {
 		 return NativeShell.invokeExecutable(cmd, -1, true);
 	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.commons.util.Shell#run(java.lang.String, long)
+	 */
+	@Override
+	public String run(String cmd, long timeout) throws InterruptedException, IOException {
+		 return NativeShell.invokeExecutable(cmd, -1, true, timeout);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.commons.util.Shell#stream(java.lang.String, java.lang.String, long)
+	 */
+	@Override
+	public Stream<String> stream(String cmd, String input, long timeout) throws IOException {
+		ProcessExecution child = ProcessExecution.start(cmd, timeout);
+		if(input != null)
+			child.writeInput(input);
+		// as for run(), the error output is appended to the output
+		Stream<String> error = Stream.of(child).flatMap(c -> {
+			try {
+				return c.getErrorOutput().lines();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return Stream.empty();
+			}
+		});
+		return Stream.concat(child.lines(), error).onClose(child::close);
+	}
 	
 	/**
 	 * Executes the given command on the commandline and returns the complete output.
@@ -78,38 +106,43 @@ public class NativeShell extends Shell {
 	 * @throws InterruptedException if some interruption occurred. 
 	 */
 	public static String invokeExecutable(String commandline, long maxLines, boolean suppressErrors) throws IOException, InterruptedException{
-		Process child = Runtime.getRuntime().exec(commandline);
-		String output = "";
-		BufferedReader reader = new BufferedReader(new InputStreamReader(child.getInputStream()));
-		String line = "";
-		long lines = 0;
-		
-		while((line = reader.readLine())!= null) {
-			output += line + "\n";
-			lines++;
-			if(maxLines != -1 && lines >= maxLines)
-				break;
-		}
-		reader.close();
-		
-		// check for errors (only if we did not exhaust max lines)
-		if(maxLines == -1 || lines < maxLines){
-			reader = new BufferedReader(new InputStreamReader(child.getErrorStream())); 
-			line = "";		
-			String error = "";
-			while((line = reader.readLine())!= null) {
-				error += line + "\n";
+		return NativeShell.invokeExecutable(commandline, maxLines, suppressErrors, -1);
+	}
+
+	/**
+	 * Executes the given command on the commandline and returns the output up to a given number of lines. The
+	 * output and the error output of the process are read concurrently.
+	 * @param commandline some command
+	 * @param maxLines the maximum number of lines to be read (the process is killed afterwards)
+	 * @param suppressErrors if set to true, possible errors will not be included in the output
+	 * @param timeout the timeout in milliseconds (the process is killed afterwards), "-1" for no timeout
+	 * @return the output of the execution
+	 * @throws InterruptedIOException if the process did not finish within the given time.
+	 * @throws IOException of an error was encountered.
+	 * @throws InterruptedException if some interruption occurred. 
+	 */
+	public static String invokeExecutable(String commandline, long maxLines, boolean suppressErrors, long timeout) throws IOException, InterruptedException{
+		try(ProcessExecution child = ProcessExecution.start(commandline, timeout)){
+			StringBuilder output = new StringBuilder();
+			String line;
+			long lines = 0;
+			while((line = child.readLine()) != null) {
+				output.append(line).append("\n");
+				lines++;
+				if(maxLines != -1 && lines >= maxLines)
+					break;
+			}
+			// check for errors (only if we did not exhaust max lines)
+			if(maxLines == -1 || lines < maxLines){
+				String error = child.getErrorOutput();
+				child.waitFor();
+				if(!suppressErrors && !error.equals("")) 
+					throw new IOException(error); 
+				else
+					output.append(error);
 			}
-			reader.close();
-			child.destroy();
-			child.waitFor();
-			error.trim();
-			if(!suppressErrors && !error.equals("")) 
-				throw new IOException(error); 
-			else
-				output += error;
+			return output.toString();
 		}
-		return output;
 	}
 	
 }
\ No newline at end of file
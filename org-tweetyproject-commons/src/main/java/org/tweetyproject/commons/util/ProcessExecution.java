@@ -0,0 +1,296 @@
+/*
+ *  This file is part of "TweetyProject", a collection of Java libraries for
+ *  logical aspects of artificial intelligence and knowledge representation.
+ *
+ *  TweetyProject is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  Copyright 2024 The TweetyProject Team <http://tweetyproject.org/contact/>
+ */
+package org.tweetyproject.commons.util;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A running external process. The standard output of the process is read line by line on
+ * demand (see {@link #lines()}), so it never has to be kept in memory as a whole, while the
+ * error output is drained concurrently by a separate thread, so the process cannot block on a full
+ * error pipe. The process can be cancelled at any time and is killed automatically once a given timeout
+ * has passed; in the latter case reading the output fails with an {@link InterruptedIOException}.
+ * <br>
+ * Executions should be closed after use (e.g. by a try-with-resources statement or by closing the stream
+ * returned by {@link #lines()}), which kills the process if it is still running.
+ *
+ * @author agent
+ */
+public class ProcessExecution implements AutoCloseable {
+
+	/** Kills processes whose timeout has passed. */
+	private static final ScheduledExecutorService WATCHDOG = Executors.newSingleThreadScheduledExecutor(r -> {
+		Thread t = new Thread(r, "ProcessExecution-watchdog");
+		t.setDaemon(true);
+		return t;
+	});
+
+	/** The process. */
+	private final Process process;
+	/** The reader for the standard output. */
+	private final BufferedReader output;
+	/** The thread draining the error output. */
+	private final Thread errorReader;
+	/** The error output collected so far (if no consumer for the error output is given). */
+	private final StringBuilder error = new StringBuilder();
+	/** The task killing the process after the timeout (null if there is no timeout). */
+	private final ScheduledFuture<?> timeoutTask;
+	/** Whether the process has been killed because of the timeout. */
+	private volatile boolean timedOut = false;
+	/** Whether the process has been cancelled. */
+	private volatile boolean cancelled = false;
+
+	/**
+	 * Starts the given command line.
+	 * @param commandline some command
+	 * @param timeout the timeout in milliseconds, "-1" for no timeout
+	 * @return the execution of the command.
+	 * @throws IOException if the process could not be started.
+	 */
+	public static ProcessExecution start(String commandline, long timeout) throws IOException {
+		return new ProcessExecution(Runtime.getRuntime().exec(commandline), timeout, null);
+	}
+
+	/**
+	 * Starts the given command.
+	 * @param cmdarray the command and its arguments
+	 * @param envp the environment variables in the format name=value, or null if the environment of
+	 * 	the current process should be inherited
+	 * @param timeout the timeout in milliseconds, "-1" for no timeout
+	 * @param errorConsumer receives every line of the error output, or null if the error output should be collected
+	 * 	(see {@link #getErrorOutput()})
+	 * @return the execution of the command.
+	 * @throws IOException if the process could not be started.
+	 */
+	public static ProcessExecution start(String[] cmdarray, String[] envp, long timeout, Consumer<String> errorConsumer) throws IOException {
+		return new ProcessExecution(Runtime.getRuntime().exec(cmdarray, envp), timeout, errorConsumer);
+	}
+
+	/**
+	 * Creates a new execution for the given process.
+	 * @param process some freshly started process
+	 * @param timeout the timeout in milliseconds, "-1" for no timeout
+	 * @param errorConsumer receives every line of the error output, or null if the error output should be collected
+	 */
+	private ProcessExecution(Process process, long timeout, Consumer<String> errorConsumer) {
+		this.process = process;
+		this.output = new BufferedReader(new InputStreamReader(process.getInputStream()));
+		Consumer<String> consumer = errorConsumer != null ? errorConsumer : line -> {
+			synchronized(this.error) {
+				this.error.append(line).append("\n");
+			}
+		};
+		this.errorReader = new Thread(() -> {
+			try(BufferedReader reader = new BufferedReader(new InputStreamReader(process.getErrorStream()))) {
+				String line;
+				while((line = reader.readLine()) != null)
+					consumer.accept(line);
+			} catch (IOException e) {
+				// the stream has been closed because the process was killed
+			}
+		}, "ProcessExecution-stderr");
+		this.errorReader.setDaemon(true);
+		this.errorReader.start();
+		if(timeout >= 0)
+			this.timeoutTask = ProcessExecution.WATCHDOG.schedule(() -> {
+				this.timedOut = true;
+				this.kill();
+			}, timeout, TimeUnit.MILLISECONDS);
+		else this.timeoutTask = null;
+	}
+
+	/**
+	 * Writes the given text to the standard input of the process and closes the standard input afterwards.
+	 * The text is written by a separate thread, so the process may produce output while its input is still written.
+	 * @param input some text
+	 */
+	public void writeInput(String input) {
+		Thread writer = new Thread(() -> {
+			try(Writer w = new OutputStreamWriter(this.process.getOutputStream())) {
+				w.write(input);
+			} catch (IOException e) {
+				// the process terminated before reading its complete input
+			}
+		}, "ProcessExecution-stdin");
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	/**
+	 * Returns a writer to the standard input of the process, e.g. for processes that
+	 * communicate via a line protocol. Written text has to be flushed to reach the process.
+	 * @return a writer to the standard input of the process.
+	 */
+	public Writer getInputWriter() {
+		return new BufferedWriter(new OutputStreamWriter(this.process.getOutputStream()));
+	}
+
+	/**
+	 * Returns whether the process is still running.
+	 * @return "true" if the process has not terminated yet.
+	 */
+	public boolean isAlive() {
+		return this.process.isAlive();
+	}
+
+	/**
+	 * Reads the next line of the standard output.
+	 * @return the next line or null if the output is exhausted.
+	 * @throws InterruptedIOException if the process has been killed because of the timeout.
+	 * @throws IOException if some IO issue occurred.
+	 */
+	public String readLine() throws IOException {
+		String line;
+		try {
+			line = this.output.readLine();
+		} catch (IOException e) {
+			if(this.timedOut || this.cancelled)
+				line = null;
+			else throw e;
+		}
+		if(line == null && this.timedOut)
+			throw new InterruptedIOException("The process did not finish within the given time.");
+		return line;
+	}
+
+	/**
+	 * Returns the remaining lines of the standard output as a lazily populated stream. If the process is killed because of
+	 * the timeout, the stream throws an {@link UncheckedIOException} wrapping an {@link InterruptedIOException}. Closing the
+	 * stream closes this execution.
+	 * @return the lines of the standard output.
+	 */
+	public Stream<String> lines() {
+		Iterator<String> it = new Iterator<String>() {
+			private String next = null;
+
+			@Override
+			public boolean hasNext() {
+				if(this.next == null) {
+					try {
+						this.next = ProcessExecution.this.readLine();
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				}
+				return this.next != null;
+			}
+
+			@Override
+			public String next() {
+				if(!this.hasNext())
+					throw new NoSuchElementException();
+				String line = this.next;
+				this.next = null;
+				return line;
+			}
+		};
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(it, Spliterator.ORDERED | Spliterator.NONNULL), false)
+				.onClose(this::close);
+	}
+
+	/**
+	 * Waits until the error output has been read completely and returns it. Each line
+	 * is terminated by a line break. If a consumer for the error output has been given, the
+	 * result is empty.
+	 * @return the error output of the process.
+	 * @throws InterruptedException if the current thread was interrupted while waiting.
+	 */
+	public String getErrorOutput() throws InterruptedException {
+		this.errorReader.join();
+		synchronized(this.error) {
+			return this.error.toString();
+		}
+	}
+
+	/**
+	 * Waits for the process to terminate.
+	 * @return the exit value of the process.
+	 * @throws InterruptedException if the current thread was interrupted while waiting.
+	 */
+	public int waitFor() throws InterruptedException {
+		return this.process.waitFor();
+	}
+
+	/**
+	 * Returns whether the process has been killed because its timeout has passed.
+	 * @return "true" if the process timed out.
+	 */
+	public boolean isTimedOut() {
+		return this.timedOut;
+	}
+
+	/**
+	 * Returns whether the process has been cancelled.
+	 * @return "true" if {@link #cancel()} has been called.
+	 */
+	public boolean isCancelled() {
+		return this.cancelled;
+	}
+
+	/**
+	 * Cancels the execution by killing the process (and all its descendants). Remaining
+	 * output that has not been read yet is lost.
+	 */
+	public void cancel() {
+		this.cancelled = true;
+		this.kill();
+	}
+
+	/**
+	 * Kills the process and all its descendants.
+	 */
+	private void kill() {
+		this.process.descendants().forEach(ProcessHandle::destroyForcibly);
+		this.process.destroyForcibly();
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.AutoCloseable#close()
+	 */
+	@Override
+	public void close() {
+		if(this.timeoutTask != null)
+			this.timeoutTask.cancel(false);
+		if(this.process.isAlive())
+			this.kill();
+		try {
+			this.output.close();
+		} catch (IOException e) {
+			// nothing to do
+		}
+	}
+}
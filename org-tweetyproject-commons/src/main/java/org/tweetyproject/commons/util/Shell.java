@@ -19,6 +19,9 @@
 package org.tweetyproject.commons.util;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * @author Nils Geilen
@@ -52,6 +55,58 @@ public abstract class Shell {
 	 * @throws IOException if some IO issue occurred.
 	 */
 	public abstract String run(String cmd) throws InterruptedException, IOException;
+	
+	/**
+	 * runs command and kills it if it does not finish in time
+	 * @param cmd the command to be run
+	 * @param timeout the timeout in milliseconds, "-1" for no timeout
+	 * @return the terminal output
+	 * @throws java.io.InterruptedIOException if the command did not finish in time.
+	 * @throws InterruptedException if some interruption occurred.
+	 * @throws IOException if some IO issue occurred.
+	 */
+	public String run(String cmd, long timeout) throws InterruptedException, IOException {
+		try(Stream<String> lines = this.stream(cmd, timeout)){
+			return lines.map(line -> line + "\n").collect(Collectors.joining());
+		}catch(UncheckedIOException e){
+			throw e.getCause();
+		}
+	}
+	
+	/**
+	 * runs command and returns the terminal output line by line as it is produced
+	 * @param cmd the command to be run
+	 * @return the lines of the terminal output, the stream should be closed after use.
+	 * @throws IOException if the command could not be run.
+	 */
+	public Stream<String> stream(String cmd) throws IOException {
+		return this.stream(cmd, -1);
+	}
+	
+	/**
+	 * runs command and returns the terminal output line by line as it is produced; the command 
+	 * is killed if it does not finish in time or the stream is closed 
+	 * @param cmd the command to be run
+	 * @param timeout the timeout in milliseconds, "-1" for no timeout
+	 * @return the lines of the terminal output, the stream should be closed after use. The stream
+	 * 	throws an {@link UncheckedIOException} if the command did not finish in time.
+	 * @throws IOException if the command could not be run.
+	 */
+	public Stream<String> stream(String cmd, long timeout) throws IOException {
+		return this.stream(cmd, null, timeout);
+	}
+	
+	/**
+	 * runs command with the given input and returns the terminal output line by line as it is produced; 
+	 * the command is killed if it does not finish in time or the stream is closed 
+	 * @param cmd the command to be run
+	 * @param input the text passed to the standard input of the command, or null if there is no input
+	 * @param timeout the timeout in milliseconds, "-1" for no timeout
+	 * @return the lines of the terminal output, the stream should be closed after use. The stream
+	 * 	throws an {@link UncheckedIOException} if the command did not finish in time.
+	 * @throws IOException if the command could not be run.
+	 */
+	public abstract Stream<String> stream(String cmd, String input, long timeout) throws IOException;
 }
 
 
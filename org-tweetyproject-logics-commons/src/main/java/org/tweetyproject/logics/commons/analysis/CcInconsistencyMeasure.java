@@ -21,6 +21,8 @@ package org.tweetyproject.logics.commons.analysis;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 
 import org.tweetyproject.commons.Formula;
@@ -67,7 +69,10 @@ public class CcInconsistencyMeasure<S extends Formula> extends BeliefSetInconsis
 	 * @see org.tweetyproject.logics.commons.analysis.BeliefSetInconsistencyMeasure#inconsistencyMeasure(java.util.Collection)
 	 */
 	public Double inconsistencyMeasure(Collection<S> formulas) {
-		Collection<Collection<S>> mises = this.enumerator.minimalInconsistentSubsets(formulas);
+		Collection<Collection<S>> mises;
+		try(Stream<Collection<S>> mis = this.enumerator.streamMinimalInconsistentSubsets(formulas)){
+			mises = mis.collect(Collectors.toList());
+		}
 		// special case of consistent set		
 		if(mises.isEmpty())
 			return 0d;
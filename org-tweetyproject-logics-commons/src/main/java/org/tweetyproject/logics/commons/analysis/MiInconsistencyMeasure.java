@@ -19,6 +19,7 @@
 package org.tweetyproject.logics.commons.analysis;
 
 import java.util.Collection;
+import java.util.stream.Stream;
 
 import org.tweetyproject.commons.Formula;
 
@@ -41,12 +42,22 @@ public class MiInconsistencyMeasure<S extends Formula> extends BeliefSetInconsis
 		this.enumerator = enumerator;
 	}
 
+	/**
+	 * Returns the MUs enumerator of this measure.
+	 * @return the MUs enumerator.
+	 */
+	MusEnumerator<S> getEnumerator(){
+		return this.enumerator;
+	}
+
 	/* (non-Javadoc)
 	 * @see org.tweetyproject.logics.commons.analysis.BeliefSetInconsistencyMeasure#inconsistencyMeasure(java.util.Collection)
 	 */
 	@Override
 	public Double inconsistencyMeasure(Collection<S> formulas) {
-		return ((double)this.enumerator.minimalInconsistentSubsets(formulas).size());
+		try(Stream<Collection<S>> mis = this.enumerator.streamMinimalInconsistentSubsets(formulas)){
+			return ((double)mis.count());
+		}
 	}
 
 	/* (non-Javadoc)
@@ -19,6 +19,7 @@
 package org.tweetyproject.logics.commons.analysis;
 
 import java.util.*;
+import java.util.stream.Stream;
 
 import org.tweetyproject.commons.*;
 
@@ -41,16 +42,22 @@ public class MicInconsistencyMeasure<S extends Formula> extends BeliefSetInconsi
 		this.enumerator = enumerator;
 	}
 	
+	/**
+	 * Returns the MUs enumerator of this measure.
+	 * @return the MUs enumerator.
+	 */
+	MusEnumerator<S> getEnumerator(){
+		return this.enumerator;
+	}
+
 	/* (non-Javadoc)
 	 * @see org.tweetyproject.logics.commons.analysis.BeliefSetInconsistencyMeasure#inconsistencyMeasure(java.util.Collection)
 	 */
 	@Override
 	public Double inconsistencyMeasure(Collection<S> formulas) {
-		double value = 0; 
-		for(Collection<S> minInconSet: this.enumerator.minimalInconsistentSubsets(formulas)){			
-			value += ( 1 / ((double)minInconSet.size()) );
+		try(Stream<Collection<S>> mis = this.enumerator.streamMinimalInconsistentSubsets(formulas)){
+			return mis.mapToDouble(minInconSet -> 1 / ((double)minInconSet.size())).sum();
 		}
-		return value;
 	}
 	
 	/* (non-Javadoc)
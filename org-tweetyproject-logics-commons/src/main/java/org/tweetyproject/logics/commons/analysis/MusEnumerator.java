@@ -20,6 +20,7 @@ package org.tweetyproject.logics.commons.analysis;
 
 import java.util.Collection;
 import java.util.Set;
+import java.util.stream.Stream;
 
 import org.tweetyproject.commons.BeliefSet;
 import org.tweetyproject.commons.Formula;
@@ -42,6 +43,21 @@ public interface MusEnumerator<S extends Formula> extends BeliefSetConsistencyTe
 	 *  set of formulas
 	 */
 	public Collection<Collection<S>> minimalInconsistentSubsets(Collection<S> formulas);
+
+	/**
+	 * This method returns the minimal inconsistent subsets of the given
+	 * set of formulas as a stream. Enumerators that find minimal inconsistent subsets one
+	 * by one compute them only when they are requested, so consumers that do not
+	 * need all of them at once (e.g. for counting them) do not have to wait for
+	 * the complete enumeration or keep all subsets in memory. The stream should be closed after use.
+	 * By default, this is the stream of {@link #minimalInconsistentSubsets(Collection)}.
+	 * @param formulas a set of formulas.
+	 * @return the minimal inconsistent subsets of the given
+	 *  set of formulas
+	 */
+	public default Stream<Collection<S>> streamMinimalInconsistentSubsets(Collection<S> formulas){
+		return this.minimalInconsistentSubsets(formulas).stream();
+	}
 		
 	/**
 	 * This method returns the maximal consistent subsets of the given
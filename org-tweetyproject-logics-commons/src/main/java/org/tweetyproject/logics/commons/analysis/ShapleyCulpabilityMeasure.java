@@ -19,6 +19,12 @@
 package org.tweetyproject.logics.commons.analysis;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
 
 import org.tweetyproject.commons.BeliefSet;
 import org.tweetyproject.commons.Formula;
@@ -26,72 +32,383 @@ import org.tweetyproject.commons.util.*;
 
 /**
  * This class implements the Shapley culpability measure.
- * 
+ * <br>
+ * For the MI and the MI^C inconsistency measure the Shapley value is computed directly from the
+ * minimal inconsistent subsets: a formula receives 1/|M| (MI) resp. 1/|M|^2 (MI^C) from every
+ * minimal inconsistent subset M it belongs to. For all other measures the Shapley value is
+ * either computed exactly by considering all subsets of the belief set (exponential in its size) or,
+ * if a number of samples is given, estimated by sampling random orders of the formulas. In the latter case
+ * every sampled order yields a marginal contribution of each formula, so the values of all formulas of the belief
+ * set are estimated together and stored in the archive. The samples are evaluated with the given parallelism
+ * (see {@link ForkJoinTools}), so the inconsistency measure has to be thread-safe unless the parallelism is 1,
+ * and {@link #getConfidenceInterval(BeliefSet, Formula)} gives the precision of the estimate.
+ * <br>
+ * Values of the inconsistency measure and computed culpability values are cached in bounded caches
+ * which identify formulas by canonical ids. If more than 10000 formulas have been seen, the ids and
+ * both caches are reset before the next computation.
+ *
  * @author Matthias Thimm
  * @param <S> the type of formulas
  * @param <T> the type of belief sets
  */
 public class ShapleyCulpabilityMeasure<S extends Formula, T extends BeliefSet<S,?>> implements CulpabilityMeasure<S,T> {
 
+	/** The maximal number of culpability values in the archive. */
+	private static final int ARCHIVE_SIZE = 10000;
+	/** The maximal number of cached values of the inconsistency measure. */
+	private static final int CACHE_SIZE = 100000;
+	/** The maximal number of formulas with canonical ids (before all ids and caches are reset). */
+	private static final int MAX_IDS = 10000;
+	/** The quantile of the standard normal distribution for 95% confidence intervals. */
+	private static final double Z_95 = 1.959964;
+	/** The maximal number of chunks the samples of a belief set are split into. */
+	private static final int CHUNKS = 64;
+
 	/**
 	 * The inconsistency measure this Shapley culpability measure bases on.
 	 */
 	private BeliefSetInconsistencyMeasure<S> inconsistencyMeasure;
-	
-	/** Stores previously computed culpability values. */
-	private Map<Pair<T,S>,Double> archive;
-	
+
+	/** The number of sampled orders per culpability value, "0" for an exact computation. */
+	private int samples;
+	/** The maximal number of samples evaluated concurrently. */
+	private int parallelism;
+	/** The random number generator the generators of the samples are split from. */
+	private SplittableRandom random;
+
+	/** The canonical ids of all formulas seen so far. */
+	private Map<S,Integer> ids = new ConcurrentHashMap<S,Integer>();
+	/** The next canonical id. */
+	private AtomicInteger nextId = new AtomicInteger();
+	/** Stores previously computed culpability values and their standard errors. */
+	private Map<Pair<BitSet,Integer>,double[]> archive;
+	/** Stores previously computed values of the inconsistency measure. */
+	private Map<BitSet,Double> cache;
+	/** Computations share the ids (read lock), resetting them is exclusive (write lock). */
+	private ReadWriteLock lock = new ReentrantReadWriteLock();
+
 	/**
 	 * Creates a new Shapley culpability measure that bases on the given
 	 * inconsistency measure.
 	 * @param inconsistencyMeasure an inconsistency measure.
 	 */
 	public ShapleyCulpabilityMeasure(BeliefSetInconsistencyMeasure<S> inconsistencyMeasure){
+		this(inconsistencyMeasure, 0, 1);
+	}
+
+	/**
+	 * Creates a new Shapley culpability measure that bases on the given
+	 * inconsistency measure and estimates culpability values (unless they can
+	 * be computed from minimal inconsistent subsets) by sampling.
+	 * @param inconsistencyMeasure an inconsistency measure.
+	 * @param samples the number of sampled orders per culpability value, "0" for an exact computation
+	 * @param parallelism the maximal number of samples evaluated concurrently
+	 */
+	public ShapleyCulpabilityMeasure(BeliefSetInconsistencyMeasure<S> inconsistencyMeasure, int samples, int parallelism){
+		this(inconsistencyMeasure, samples, parallelism, new SplittableRandom());
+	}
+
+	/**
+	 * Creates a new Shapley culpability measure that bases on the given
+	 * inconsistency measure and estimates culpability values (unless they can
+	 * be computed from minimal inconsistent subsets) by sampling with the given seed. The
+	 * estimates do not depend on the parallelism but on the order in which
+	 * culpability values are requested.
+	 * @param inconsistencyMeasure an inconsistency measure.
+	 * @param samples the number of sampled orders per culpability value, "0" for an exact computation
+	 * @param parallelism the maximal number of samples evaluated concurrently
+	 * @param seed the seed of the random number generator
+	 */
+	public ShapleyCulpabilityMeasure(BeliefSetInconsistencyMeasure<S> inconsistencyMeasure, int samples, int parallelism, long seed){
+		this(inconsistencyMeasure, samples, parallelism, new SplittableRandom(seed));
+	}
+
+	/**
+	 * Creates a new Shapley culpability measure.
+	 * @param inconsistencyMeasure an inconsistency measure.
+	 * @param samples the number of sampled orders per culpability value, "0" for an exact computation
+	 * @param parallelism the maximal number of samples evaluated concurrently
+	 * @param random the random number generator the generators of the samples are split from
+	 */
+	private ShapleyCulpabilityMeasure(BeliefSetInconsistencyMeasure<S> inconsistencyMeasure, int samples, int parallelism, SplittableRandom random){
+		if(samples < 0)
+			throw new IllegalArgumentException("The number of samples must not be negative.");
+		if(parallelism < 1)
+			throw new IllegalArgumentException("The parallelism must be positive.");
 		this.inconsistencyMeasure = inconsistencyMeasure;
-		this.archive = new HashMap<Pair<T,S>,Double>();
+		this.samples = samples;
+		this.parallelism = parallelism;
+		this.random = random;
+		this.archive = Collections.synchronizedMap(ShapleyCulpabilityMeasure.<Pair<BitSet,Integer>,double[]>lruMap(ShapleyCulpabilityMeasure.ARCHIVE_SIZE));
+		this.cache = Collections.synchronizedMap(ShapleyCulpabilityMeasure.<BitSet,Double>lruMap(ShapleyCulpabilityMeasure.CACHE_SIZE));
+	}
+
+	/**
+	 * Creates a map that removes its least recently used entry when its size exceeds the given capacity.
+	 * @param <K> the type of keys
+	 * @param <V> the type of values
+	 * @param capacity the maximal number of entries
+	 * @return an empty map.
+	 */
+	private static <K,V> Map<K,V> lruMap(int capacity){
+		return new LinkedHashMap<K,V>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<K,V> eldest) {
+				return this.size() > capacity;
+			}
+		};
 	}
-	
+
 	/* (non-Javadoc)
 	 * @see org.tweetyproject.logics.commons.analysis.CulpabilityMeasure#culpabilityMeasure(org.tweetyproject.BeliefSet, org.tweetyproject.Formula)
 	 */
 	@Override
 	public Double culpabilityMeasure(T beliefSet, S formula) {
-		if(this.archive.containsKey(new Pair<T,S>(beliefSet,formula)))
-			return this.archive.get(new Pair<T,S>(beliefSet,formula)); 
-		Set<Pair<Collection<S>,Collection<S>>> subbases = this.getSubsets(beliefSet, formula);		
-		Double result = 0d;
-		for(Pair<Collection<S>,Collection<S>> pair : subbases){
-			Double v1,v2;
-			v1 = this.inconsistencyMeasure.inconsistencyMeasure(pair.getFirst());
-			v2 = this.inconsistencyMeasure.inconsistencyMeasure(pair.getSecond());			
-			Double temp =  v1 - v2;
-			temp *= MathTools.faculty(pair.getSecond().size());
-			temp *= MathTools.faculty(beliefSet.size()-pair.getFirst().size());
-			temp /= MathTools.faculty(beliefSet.size());
-			result += temp;
-		}		
-		this.archive.put(new Pair<T,S>(beliefSet,formula), result); 
+		return this.compute(beliefSet, formula)[0];
+	}
+
+	/**
+	 * Returns a 95% confidence interval for the culpability value of the given formula,
+	 * i.e. the culpability value plus/minus 1.96 times the standard error of its estimation. If
+	 * the value is computed exactly, both bounds are equal to the value.
+	 * @param beliefSet some belief set
+	 * @param formula some formula of the belief set
+	 * @return the lower and upper bound of the confidence interval.
+	 */
+	public Pair<Double,Double> getConfidenceInterval(T beliefSet, S formula){
+		double[] value = this.compute(beliefSet, formula);
+		double delta = ShapleyCulpabilityMeasure.Z_95 * value[1];
+		return new Pair<Double,Double>(value[0] - delta, value[0] + delta);
+	}
+
+	/**
+	 * Returns the canonical id of the given formula.
+	 * @param formula some formula
+	 * @return the id of the formula.
+	 */
+	private int getId(S formula){
+		return this.ids.computeIfAbsent(formula, f -> this.nextId.getAndIncrement());
+	}
+
+	/**
+	 * Returns the ids of the given formulas.
+	 * @param formulas some formulas
+	 * @return the set of their ids.
+	 */
+	private BitSet getIds(Collection<S> formulas){
+		BitSet result = new BitSet();
+		for(S f: formulas)
+			result.set(this.getId(f));
+		return result;
+	}
+
+	/**
+	 * Computes (or retrieves from the archive) the culpability value of the given formula.
+	 * @param beliefSet some belief set
+	 * @param formula some formula of the belief set
+	 * @return the culpability value and the standard error of its estimation.
+	 */
+	private double[] compute(T beliefSet, S formula){
+		if(this.ids.size() > ShapleyCulpabilityMeasure.MAX_IDS){
+			this.lock.writeLock().lock();
+			try {
+				if(this.ids.size() > ShapleyCulpabilityMeasure.MAX_IDS){
+					this.ids.clear();
+					this.nextId.set(0);
+					this.archive.clear();
+					this.cache.clear();
+				}
+			} finally {
+				this.lock.writeLock().unlock();
+			}
+		}
+		this.lock.readLock().lock();
+		try {
+			return this.computeWithIds(beliefSet, formula);
+		} finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Computes (or retrieves from the archive) the culpability value of the given formula, the ids of
+	 * formulas must not be reset meanwhile.
+	 * @param beliefSet some belief set
+	 * @param formula some formula of the belief set
+	 * @return the culpability value and the standard error of its estimation.
+	 */
+	private double[] computeWithIds(T beliefSet, S formula){
+		List<S> kb = new ArrayList<S>(beliefSet);
+		BitSet kbIds = this.getIds(kb);
+		Pair<BitSet,Integer> key = new Pair<BitSet,Integer>(kbIds, this.getId(formula));
+		double[] result = this.archive.get(key);
+		if(result != null)
+			return result;
+		// the Shapley values of the MI-based measures only depend on the minimal inconsistent subsets
+		if(this.inconsistencyMeasure.getClass().equals(MiInconsistencyMeasure.class))
+			return this.computeFromMis(kb, kbIds, formula, ((MiInconsistencyMeasure<S>)this.inconsistencyMeasure).getEnumerator(), 1);
+		if(this.inconsistencyMeasure.getClass().equals(MicInconsistencyMeasure.class))
+			return this.computeFromMis(kb, kbIds, formula, ((MicInconsistencyMeasure<S>)this.inconsistencyMeasure).getEnumerator(), 2);
+		if(this.samples > 0)
+			return this.sample(kb, kbIds, formula);
+		else result = new double[] {this.enumerate(kb, formula), 0};
+		this.archive.put(key, result);
 		return result;
 	}
-		
-	/**
-	 * Computes all pairs (k,k') of knowledge bases k,k'\subseteq kb, such that k = k' \cup {pc}.
-	 * @param kb a knowledge base.
-	 * @param f a formula.
-	 * @return a set of pairs of knowledge bases.
-	 */
-	private Set<Pair<Collection<S>,Collection<S>>> getSubsets(T kb, S f){
-		Set<Pair<Collection<S>,Collection<S>>> result = new HashSet<Pair<Collection<S>,Collection<S>>>();
-		Set<Set<S>> subsets = new SetTools<S>().subsets(kb);
-		for(Set<S> subset: subsets)
-			if(!subset.contains(f)){
-				Pair<Collection<S>,Collection<S>> pair = new Pair<Collection<S>,Collection<S>>();
-				Collection<S> first = new HashSet<S>(subset);
-				first.add(f);
-				pair.setFirst(first);
-				pair.setSecond(new HashSet<S>(subset));
-				result.add(pair);
+
+	/**
+	 * Computes the Shapley values of all formulas of the given belief set wrt. the MI (exponent 1) or
+	 * MI^C (exponent 2) inconsistency measure and stores them in the archive.
+	 * @param kb the formulas of some belief set
+	 * @param kbIds the ids of these formulas
+	 * @param formula some formula of the belief set
+	 * @param enumerator a MUs enumerator
+	 * @param exponent the exponent of the size of a minimal inconsistent subset in the share of its elements
+	 * @return the Shapley value of the given formula (and "0" as its standard error).
+	 */
+	private double[] computeFromMis(List<S> kb, BitSet kbIds, S formula, MusEnumerator<S> enumerator, int exponent){
+		Map<S,Double> values = new HashMap<S,Double>();
+		try(Stream<Collection<S>> mis = enumerator.streamMinimalInconsistentSubsets(kb)){
+			mis.forEach(m -> {
+				double share = 1 / Math.pow(m.size(), exponent);
+				for(S f: m)
+					values.merge(f, share, Double::sum);
+			});
+		}
+		for(S f: kb)
+			this.archive.put(new Pair<BitSet,Integer>(kbIds, this.getId(f)), new double[] {values.getOrDefault(f, 0d), 0});
+		return new double[] {values.getOrDefault(formula, 0d), 0};
+	}
+
+	/**
+	 * Returns the value of the inconsistency measure for the given formulas.
+	 * @param formulas some formulas
+	 * @return the inconsistency value.
+	 */
+	private double getInconsistencyValue(Collection<S> formulas){
+		BitSet key = this.getIds(formulas);
+		Double value = this.cache.get(key);
+		if(value == null) {
+			value = this.inconsistencyMeasure.inconsistencyMeasure(formulas);
+			this.cache.put(key, value);
+		}
+		return value;
+	}
+
+	/**
+	 * Returns the marginal contribution of the given formula to the given set of formulas.
+	 * @param subset some formulas (not containing f)
+	 * @param f some formula
+	 * @return I(subset+f) - I(subset).
+	 */
+	private double getContribution(Collection<S> subset, S f){
+		double without = this.getInconsistencyValue(subset);
+		Collection<S> with = new HashSet<S>(subset);
+		with.add(f);
+		return this.getInconsistencyValue(with) - without;
+	}
+
+	/**
+	 * Computes the Shapley value of the given formula by considering all subsets of
+	 * the remaining formulas.
+	 * @param kb the formulas of some belief set
+	 * @param f some formula of the belief set
+	 * @return the Shapley value of f.
+	 */
+	private double enumerate(List<S> kb, S f){
+		List<S> others = new ArrayList<S>(kb);
+		others.remove(f);
+		int n = others.size();
+		if(n > 62)
+			throw new IllegalArgumentException("Too many formulas for an exact computation, consider sampling.");
+		// the weight of a subset of size k is k!(n-k)!/(n+1)!
+		double[] weight = new double[n+1];
+		weight[0] = 1d / (n+1);
+		for(int k = 0; k < n; k++)
+			weight[k+1] = weight[k] * (k+1) / (n-k);
+		double result = 0;
+		for(long mask = 0; mask < (1L << n); mask++){
+			Collection<S> subset = new HashSet<S>();
+			for(int i = 0; i < n; i++)
+				if((mask & (1L << i)) != 0)
+					subset.add(others.get(i));
+			result += weight[subset.size()] * this.getContribution(subset, f);
+		}
+		return result;
+	}
+
+	/**
+	 * Estimates the Shapley values of all formulas of the given belief set as their average marginal contributions
+	 * to the formulas preceding them in uniformly sampled orders of the belief set and stores them in the archive.
+	 * @param kb the formulas of some belief set
+	 * @param kbIds the ids of these formulas
+	 * @param formula some formula of the belief set
+	 * @return the estimated Shapley value of the given formula and the standard error of the estimation.
+	 */
+	private double[] sample(List<S> kb, BitSet kbIds, S formula){
+		SplittableRandom random;
+		synchronized(this.random){
+			random = this.random.split();
+		}
+		int chunks = Math.min(this.samples, ShapleyCulpabilityMeasure.CHUNKS);
+		List<ForkJoinTask<double[][]>> tasks = new ArrayList<ForkJoinTask<double[][]>>();
+		for(int c = 0; c < chunks; c++){
+			int size = this.samples / chunks + (c < this.samples % chunks ? 1 : 0);
+			SplittableRandom rnd = random.split();
+			tasks.add(ForkJoinTask.adapt(() -> this.sample(kb, size, rnd)));
+		}
+		ForkJoinTools.invokeAll(this.parallelism, tasks);
+		double[] sum = new double[kb.size()], sumOfSquares = new double[kb.size()];
+		for(ForkJoinTask<double[][]> task: tasks)
+			for(int i = 0; i < kb.size(); i++){
+				sum[i] += task.join()[0][i];
+				sumOfSquares[i] += task.join()[1][i];
+			}
+		double[] result = null;
+		for(int i = 0; i < kb.size(); i++){
+			double mean = sum[i] / this.samples;
+			double variance = this.samples > 1 ? Math.max(0, (sumOfSquares[i] - this.samples * mean * mean) / (this.samples - 1)) : 0;
+			double[] value = new double[] {mean, Math.sqrt(variance / this.samples)};
+			this.archive.put(new Pair<BitSet,Integer>(kbIds, this.getId(kb.get(i))), value);
+			if(kb.get(i).equals(formula))
+				result = value;
+		}
+		return result;
+	}
+
+	/**
+	 * Samples uniformly random orders of the given formulas and the marginal contribution of each
+	 * formula to the formulas preceding it.
+	 * @param kb the formulas of some belief set
+	 * @param size the number of samples
+	 * @param random a random number generator
+	 * @return the sums and the sums of squares of the sampled marginal contributions of each formula.
+	 */
+	private double[][] sample(List<S> kb, int size, SplittableRandom random){
+		int[] order = new int[kb.size()];
+		for(int i = 0; i < order.length; i++)
+			order[i] = i;
+		double[][] result = new double[2][kb.size()];
+		for(int s = 0; s < size; s++){
+			// Fisher-Yates shuffle
+			for(int i = order.length - 1; i > 0; i--){
+				int j = random.nextInt(i + 1);
+				int tmp = order[i];
+				order[i] = order[j];
+				order[j] = tmp;
+			}
+			List<S> prefix = new ArrayList<S>();
+			double previous = this.getInconsistencyValue(prefix);
+			for(int i: order){
+				prefix.add(kb.get(i));
+				double value = this.getInconsistencyValue(prefix);
+				result[0][i] += value - previous;
+				result[1][i] += (value - previous) * (value - previous);
+				previous = value;
 			}
+		}
 		return result;
 	}
 }
@@ -20,7 +20,6 @@ package org.tweetyproject.logics.fol.semantics;
 
 import java.util.*;
 
-import org.tweetyproject.commons.util.*;
 import org.tweetyproject.logics.commons.syntax.Predicate;
 import org.tweetyproject.logics.commons.syntax.Sort;
 import org.tweetyproject.logics.commons.syntax.interfaces.Term;
@@ -86,15 +85,29 @@ public class HerbrandBase {
 	}
 		
 	/**
+	 * The returned set is an unmodifiable view whose interpretations are created lazily
+	 * while iterating over it, see {@link HerbrandInterpretationIterator}.
 	 * @return all possible Herbrand interpretations of this Herbrand
 	 * base, i.e. all possible subsets of this Herbrand base.
 	 */
 	public Set<HerbrandInterpretation> getAllHerbrandInterpretations(){
-		Set<HerbrandInterpretation> interpretations = new HashSet<HerbrandInterpretation>();
-		Set<Set<FolAtom>> subsets = new SetTools<FolAtom>().subsets(this.getAtoms());
-		for(Set<FolAtom> atoms: subsets)
-			interpretations.add(new HerbrandInterpretation(atoms));		
-		return interpretations;
+		return new AbstractSet<HerbrandInterpretation>() {
+			@Override
+			public Iterator<HerbrandInterpretation> iterator() {
+				return new HerbrandInterpretationIterator(HerbrandBase.this);
+			}
+
+			@Override
+			public int size() {
+				int n = HerbrandBase.this.atoms.size();
+				return n >= 31 ? Integer.MAX_VALUE : 1 << n;
+			}
+
+			@Override
+			public boolean contains(Object o) {
+				return o instanceof HerbrandInterpretation && HerbrandBase.this.atoms.containsAll((HerbrandInterpretation) o);
+			}
+		};
 	}
 	
 	/**
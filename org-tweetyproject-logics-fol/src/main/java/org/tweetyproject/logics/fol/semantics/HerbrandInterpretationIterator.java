@@ -0,0 +1,130 @@
+/*
+ *  This file is part of "TweetyProject", a collection of Java libraries for
+ *  logical aspects of artificial intelligence and knowledge representation.
+ *
+ *  TweetyProject is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  Copyright 2024 The TweetyProject Team <http://tweetyproject.org/contact/>
+ */
+package org.tweetyproject.logics.fol.semantics;
+
+import java.util.Collection;
+import java.util.NoSuchElementException;
+
+import org.tweetyproject.commons.Formula;
+import org.tweetyproject.commons.InterpretationIterator;
+import org.tweetyproject.commons.Signature;
+import org.tweetyproject.commons.util.DefaultSubsetIterator;
+import org.tweetyproject.commons.util.SubsetIterator;
+import org.tweetyproject.logics.fol.syntax.FolAtom;
+import org.tweetyproject.logics.fol.syntax.FolBeliefSet;
+import org.tweetyproject.logics.fol.syntax.FolFormula;
+import org.tweetyproject.logics.fol.syntax.FolSignature;
+
+/**
+ * Iterates over all Herbrand interpretations of a given signature without
+ * materializing them, i.e., only one interpretation is kept in memory at a time.
+ * 
+ * @author agent
+ *
+ */
+public class HerbrandInterpretationIterator implements InterpretationIterator<FolFormula,FolBeliefSet,HerbrandInterpretation>{
+
+	/** The Herbrand base whose subsets are the Herbrand interpretations. */
+	private HerbrandBase hBase = null;
+	
+	/** Used for iterating over subsets of the Herbrand base. */
+	private SubsetIterator<FolAtom> it = null;
+
+	/**
+	 * Creates new iterator.
+	 */
+	public HerbrandInterpretationIterator(){		
+	}
+	
+	/**
+	 * Creates new iterator for the given signature.
+	 * @param sig some signature without functors
+	 */
+	public HerbrandInterpretationIterator(FolSignature sig){
+		this(new HerbrandBase(sig));
+	}
+	
+	/**
+	 * Creates new iterator for the given Herbrand base.
+	 * @param hBase some Herbrand base
+	 */
+	public HerbrandInterpretationIterator(HerbrandBase hBase){
+		this();
+		this.hBase = hBase;
+		this.it = new DefaultSubsetIterator<FolAtom>(hBase.getAtoms());
+	}
+	
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.commons.InterpretationIterator#hasNext()
+	 */
+	@Override
+	public boolean hasNext() {
+		return this.it != null && this.it.hasNext();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.commons.InterpretationIterator#next()
+	 */
+	@Override
+	public HerbrandInterpretation next() {
+		if(!this.hasNext())
+			throw new NoSuchElementException();
+		return new HerbrandInterpretation(this.it.next());
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.commons.InterpretationIterator#remove()
+	 */
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException("This operation is not supported");		
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.commons.InterpretationIterator#reset()
+	 */
+	@Override
+	public InterpretationIterator<FolFormula,FolBeliefSet,HerbrandInterpretation> reset() {
+		return this.hBase == null ? new HerbrandInterpretationIterator() : new HerbrandInterpretationIterator(this.hBase);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.commons.InterpretationIterator#reset(org.tweetyproject.commons.Signature)
+	 */
+	@Override
+	public InterpretationIterator<FolFormula,FolBeliefSet,HerbrandInterpretation> reset(Signature sig){
+		if(!(sig instanceof FolSignature))
+			throw new IllegalArgumentException("Signature of type 'FolSignature' expected.");
+		return new HerbrandInterpretationIterator((FolSignature)sig);
+	}
+	
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.commons.InterpretationIterator#reset(java.util.Collection)
+	 */
+	@Override
+	public InterpretationIterator<FolFormula,FolBeliefSet,HerbrandInterpretation> reset(Collection<? extends Formula> formulas){
+		FolSignature sig = new FolSignature();
+		for(Formula f: formulas){
+			if(!(f instanceof FolFormula))
+				throw new IllegalArgumentException("Formula of type 'FolFormula' expected.");
+			sig.addSignature(((FolFormula)f).getSignature());
+		}	
+		return this.reset((Signature)sig);
+	}
+}
@@ -0,0 +1,108 @@
+/*
+ *  This file is part of "TweetyProject", a collection of Java libraries for
+ *  logical aspects of artificial intelligence and knowledge representation.
+ *
+ *  TweetyProject is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  Copyright 2024 The TweetyProject Team <http://tweetyproject.org/contact/>
+ */
+package org.tweetyproject.logics.fol.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.tweetyproject.logics.commons.syntax.Constant;
+import org.tweetyproject.logics.commons.syntax.Predicate;
+import org.tweetyproject.logics.commons.syntax.Sort;
+import org.tweetyproject.logics.fol.semantics.HerbrandBase;
+import org.tweetyproject.logics.fol.semantics.HerbrandInterpretation;
+import org.tweetyproject.logics.fol.syntax.FolAtom;
+import org.tweetyproject.logics.fol.syntax.FolSignature;
+
+/**
+ * Tests the lazy view of all Herbrand interpretations of a Herbrand base.
+ *
+ * @author agent
+ */
+public class HerbrandBaseTest {
+
+	private FolSignature sig;
+	private Predicate flies, knows;
+	private Constant penguin, kiwi;
+
+	@Before
+	public void setUp() {
+		this.sig = new FolSignature();
+		Sort animal = new Sort("Animal");
+		this.sig.add(animal);
+		this.penguin = new Constant("penguin", animal);
+		this.kiwi = new Constant("kiwi", animal);
+		this.sig.add(this.penguin);
+		this.sig.add(this.kiwi);
+		this.sig.add(new Predicate("SunIsShining"));
+		List<Sort> types = new ArrayList<Sort>();
+		types.add(animal);
+		this.flies = new Predicate("Flies", types);
+		this.sig.add(this.flies);
+		types = new ArrayList<Sort>(types);
+		types.add(animal);
+		this.knows = new Predicate("Knows", types);
+		this.sig.add(this.knows);
+	}
+
+	@Test
+	public void SizeTest() {
+		HerbrandBase base = new HerbrandBase(this.sig);
+		// SunIsShining, 2 instances of Flies, 4 instances of Knows
+		assertEquals(7, base.getAtoms().size());
+		Set<HerbrandInterpretation> interpretations = base.getAllHerbrandInterpretations();
+		assertEquals(128, interpretations.size());
+		Set<Set<FolAtom>> seen = new HashSet<Set<FolAtom>>();
+		for(HerbrandInterpretation i: interpretations) {
+			assertTrue(base.getAtoms().containsAll(i));
+			seen.add(new HashSet<FolAtom>(i));
+		}
+		assertEquals(128, seen.size());
+		// the size saturates for large bases
+		for(int i = 0; i < 30; i++)
+			this.sig.add(new Constant("c" + i, this.penguin.getSort()));
+		assertEquals(Integer.MAX_VALUE, new HerbrandBase(this.sig).getAllHerbrandInterpretations().size());
+	}
+
+	@Test
+	public void ContainsTest() {
+		Set<HerbrandInterpretation> interpretations = new HerbrandBase(this.sig).getAllHerbrandInterpretations();
+		assertTrue(interpretations.contains(new HerbrandInterpretation()));
+		Set<FolAtom> atoms = new HashSet<FolAtom>();
+		atoms.add(new FolAtom(this.flies, this.kiwi));
+		atoms.add(new FolAtom(this.knows, this.kiwi, this.penguin));
+		assertTrue(interpretations.contains(new HerbrandInterpretation(atoms)));
+		atoms.add(new FolAtom(this.flies, new Constant("tweety", this.penguin.getSort())));
+		assertFalse(interpretations.contains(new HerbrandInterpretation(atoms)));
+		assertFalse(interpretations.contains(new HashSet<FolAtom>()));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void UnmodifiableTest() {
+		new HerbrandBase(this.sig).getAllHerbrandInterpretations().add(new HerbrandInterpretation());
+	}
+}
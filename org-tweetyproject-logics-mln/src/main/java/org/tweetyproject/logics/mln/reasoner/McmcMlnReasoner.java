@@ -0,0 +1,863 @@
+/*
+ *  This file is part of "TweetyProject", a collection of Java libraries for
+ *  logical aspects of artificial intelligence and knowledge representation.
+ *
+ *  TweetyProject is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  Copyright 2024 The TweetyProject Team <http://tweetyproject.org/contact/>
+ */
+package org.tweetyproject.logics.mln.reasoner;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+
+import org.tweetyproject.commons.util.ForkJoinTools;
+import org.tweetyproject.logics.commons.syntax.Constant;
+import org.tweetyproject.logics.commons.syntax.RelationalFormula;
+import org.tweetyproject.logics.commons.syntax.Variable;
+import org.tweetyproject.logics.commons.syntax.interfaces.Term;
+import org.tweetyproject.logics.fol.semantics.HerbrandBase;
+import org.tweetyproject.logics.fol.syntax.Conjunction;
+import org.tweetyproject.logics.fol.syntax.Contradiction;
+import org.tweetyproject.logics.fol.syntax.Disjunction;
+import org.tweetyproject.logics.fol.syntax.EqualityPredicate;
+import org.tweetyproject.logics.fol.syntax.Equivalence;
+import org.tweetyproject.logics.fol.syntax.ExclusiveDisjunction;
+import org.tweetyproject.logics.fol.syntax.ExistsQuantifiedFormula;
+import org.tweetyproject.logics.fol.syntax.FolAtom;
+import org.tweetyproject.logics.fol.syntax.FolFormula;
+import org.tweetyproject.logics.fol.syntax.FolSignature;
+import org.tweetyproject.logics.fol.syntax.ForallQuantifiedFormula;
+import org.tweetyproject.logics.fol.syntax.Implication;
+import org.tweetyproject.logics.fol.syntax.InequalityPredicate;
+import org.tweetyproject.logics.fol.syntax.Negation;
+import org.tweetyproject.logics.fol.syntax.Tautology;
+import org.tweetyproject.logics.mln.syntax.MarkovLogicNetwork;
+import org.tweetyproject.logics.mln.syntax.MlnFormula;
+
+/**
+ * This MLN reasoner estimates the probability of a formula by Markov chain Monte Carlo sampling
+ * (MC-SAT or Gibbs sampling) on the ground Markov network, without enumerating or storing
+ * Herbrand interpretations.
+ * <br>
+ * The MLN is grounded once into an indexed network: every ground atom has an index, every
+ * ground instance of an MLN formula is compiled into an evaluator over the atom indices, and
+ * every atom knows the ground formulas it occurs in. Flipping an atom then only re-evaluates
+ * these formulas, i.e., the change of the weight of the world is computed incrementally.
+ * <br>
+ * Strict formulas are treated as formulas with infinite weight: every chain starts in a world
+ * satisfying all strict formulas (found by local search) and never leaves the set of these worlds.
+ * MC-SAT (see [Poon, Domingos. Sound and Efficient Inference with Probabilistic and Deterministic
+ * Dependencies. AAAI 2006]) samples uniformly from the worlds satisfying randomly selected ground formulas;
+ * instead of SampleSAT, it uses Metropolis moves flipping single atoms or pairs of atoms of a ground formula,
+ * which are exactly uniform on these worlds. Gibbs sampling flips one atom at a time and may therefore not
+ * mix if strict or heavily weighted formulas couple atoms.
+ * <br>
+ * Several chains are run in parallel from random initial worlds; sampling stops when the potential
+ * scale reduction factor (R-hat) of the query over all chains and the standard error of the estimate
+ * fall below given thresholds (but not before every chain took 1000 samples) or the maximal number
+ * of samples is reached. The chains are run with a parallelism of at most the number of chains,
+ * see {@link ForkJoinTools}; given a seed, the estimates do not depend on the parallelism.
+ *
+ * @author agent
+ */
+public class McmcMlnReasoner extends AbstractMlnReasoner {
+
+	/** The number of steps of every chain between two convergence checks. */
+	private static final int STEPS_PER_ROUND = 100;
+	/** The minimal number of samples of every chain before convergence is checked. */
+	private static final int MIN_SAMPLES = 1000;
+	/** The maximal number of flips (per constraint) for finding a world satisfying the constraints. */
+	private static final int MAX_FLIPS_PER_FORMULA = 1000;
+
+	/**
+	 * The sampling algorithms.
+	 */
+	public enum Sampler {
+		/** MC-SAT, i.e. slice sampling on the worlds satisfying randomly selected ground formulas. */
+		MC_SAT,
+		/** Gibbs sampling, i.e. resampling one atom at a time. */
+		GIBBS
+	}
+
+	/** The sampling algorithm. */
+	private Sampler sampler;
+
+	/** The number of chains. */
+	private int chains;
+	/** The number of steps of every chain before samples are taken. */
+	private int burnIn;
+	/** The maximal number of samples of every chain. */
+	private int maxSamples;
+	/** Sampling stops when R-hat is below this value (and the standard error is below the given one). */
+	private double maxRHat;
+	/** Sampling stops when the standard error is below this value (and R-hat is below the given one). */
+	private double maxStandardError;
+	/** The maximal number of chains run concurrently. */
+	private int parallelism;
+	/** The random number generator the generators of the chains are split from. */
+	private SplittableRandom random;
+
+	/**
+	 * The result of sampling.
+	 */
+	public static class Estimate {
+		private final double probability;
+		private final double standardError;
+		private final double rHat;
+		private final int samples;
+		private final boolean converged;
+
+		private Estimate(double probability, double standardError, double rHat, int samples, boolean converged) {
+			this.probability = probability;
+			this.standardError = standardError;
+			this.rHat = rHat;
+			this.samples = samples;
+			this.converged = converged;
+		}
+
+		/**
+		 * Returns the estimated probability of the query.
+		 * @return the estimated probability.
+		 */
+		public double getProbability() {
+			return this.probability;
+		}
+
+		/**
+		 * Returns the standard error of the estimated probability, computed from the
+		 * variance of the estimates of the individual chains (but at least the standard
+		 * error of the same number of independent samples, with the frequency of the query
+		 * shrunken to (hits+1)/(samples+2) so that the error is positive even if the query
+		 * was never or always satisfied).
+		 * @return the standard error.
+		 */
+		public double getStandardError() {
+			return this.standardError;
+		}
+
+		/**
+		 * Returns the potential scale reduction factor of the query over all chains, values
+		 * close to 1 indicate convergence.
+		 * @return R-hat (NaN if there is only one chain).
+		 */
+		public double getRHat() {
+			return this.rHat;
+		}
+
+		/**
+		 * Returns the number of samples (of all chains).
+		 * @return the number of samples.
+		 */
+		public int getNumberOfSamples() {
+			return this.samples;
+		}
+
+		/**
+		 * Returns whether R-hat and the standard error fell below the thresholds before the maximal
+		 * number of samples was reached.
+		 * @return "true" iff the chains converged.
+		 */
+		public boolean isConverged() {
+			return this.converged;
+		}
+
+		/* (non-Javadoc)
+		 * @see java.lang.Object#toString()
+		 */
+		@Override
+		public String toString() {
+			return this.probability + " (se=" + this.standardError + ", R-hat=" + this.rHat + ", samples=" + this.samples + ", converged=" + this.converged + ")";
+		}
+	}
+
+	/**
+	 * Creates a new McmcMlnReasoner using MC-SAT with 4 chains, 100 steps of burn-in, at most 10000
+	 * samples per chain, R-hat threshold 1.01 and standard error threshold 0.005.
+	 */
+	public McmcMlnReasoner() {
+		this(Sampler.MC_SAT, 4, 100, 10000, 1.01, 0.005, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Creates a new McmcMlnReasoner.
+	 * @param sampler the sampling algorithm
+	 * @param chains the number of chains
+	 * @param burnIn the number of steps of every chain before samples are taken
+	 * @param maxSamples the maximal number of samples of every chain
+	 * @param maxRHat sampling stops when R-hat and the standard error are below the given values
+	 * @param maxStandardError sampling stops when R-hat and the standard error are below the given values
+	 * @param parallelism the maximal number of chains run concurrently
+	 */
+	public McmcMlnReasoner(Sampler sampler, int chains, int burnIn, int maxSamples, double maxRHat, double maxStandardError, int parallelism) {
+		this(sampler, chains, burnIn, maxSamples, maxRHat, maxStandardError, parallelism, new SplittableRandom());
+	}
+
+	/**
+	 * Creates a new McmcMlnReasoner whose chains are initialised from the given seed. The estimates then
+	 * only depend on the seed and on the order of the queries.
+	 * @param sampler the sampling algorithm
+	 * @param chains the number of chains
+	 * @param burnIn the number of steps of every chain before samples are taken
+	 * @param maxSamples the maximal number of samples of every chain
+	 * @param maxRHat sampling stops when R-hat and the standard error are below the given values
+	 * @param maxStandardError sampling stops when R-hat and the standard error are below the given values
+	 * @param parallelism the maximal number of chains run concurrently
+	 * @param seed the seed of the random number generator
+	 */
+	public McmcMlnReasoner(Sampler sampler, int chains, int burnIn, int maxSamples, double maxRHat, double maxStandardError, int parallelism, long seed) {
+		this(sampler, chains, burnIn, maxSamples, maxRHat, maxStandardError, parallelism, new SplittableRandom(seed));
+	}
+
+	/**
+	 * Creates a new McmcMlnReasoner.
+	 * @param sampler the sampling algorithm
+	 * @param chains the number of chains
+	 * @param burnIn the number of steps of every chain before samples are taken
+	 * @param maxSamples the maximal number of samples of every chain
+	 * @param maxRHat sampling stops when R-hat and the standard error are below the given values
+	 * @param maxStandardError sampling stops when R-hat and the standard error are below the given values
+	 * @param parallelism the maximal number of chains run concurrently
+	 * @param random the random number generator the generators of the chains are split from
+	 */
+	private McmcMlnReasoner(Sampler sampler, int chains, int burnIn, int maxSamples, double maxRHat, double maxStandardError, int parallelism, SplittableRandom random) {
+		if(chains < 1 || burnIn < 0 || maxSamples < 1 || parallelism < 1)
+			throw new IllegalArgumentException("Invalid sampling parameters.");
+		this.sampler = sampler;
+		this.chains = chains;
+		this.burnIn = burnIn;
+		this.maxSamples = maxSamples;
+		this.maxRHat = maxRHat;
+		this.maxStandardError = maxStandardError;
+		this.parallelism = parallelism;
+		this.random = random;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.logics.mln.reasoner.AbstractMlnReasoner#doQuery(org.tweetyproject.logics.mln.syntax.MarkovLogicNetwork, org.tweetyproject.logics.fol.syntax.FolFormula, org.tweetyproject.logics.fol.syntax.FolSignature)
+	 */
+	@Override
+	protected double doQuery(MarkovLogicNetwork mln, FolFormula query, FolSignature signature) {
+		return this.doEstimate(mln, query, signature).getProbability();
+	}
+
+	/**
+	 * Estimates the probability of the given query wrt. the given signature, along with
+	 * convergence diagnostics.
+	 * @param mln some mln
+	 * @param query some ground query
+	 * @param signature some signature
+	 * @return the estimate.
+	 */
+	public Estimate estimate(MarkovLogicNetwork mln, FolFormula query, FolSignature signature) {
+		if(!query.isGround())
+			throw new IllegalArgumentException("Reasoning in Markov logic is only defined for ground FOL formulas.");
+		if(!mln.getMinimalSignature().isSubSignature(signature))
+			throw new IllegalArgumentException("Given signature is not a super-signature of the belief base's signature.");
+		return this.doEstimate(mln, query, signature);
+	}
+
+	/**
+	 * Estimates the probability of the given query, running the chains with the configured
+	 * parallelism (but at most one task per chain).
+	 * @param mln some mln
+	 * @param query some ground query
+	 * @param signature some signature
+	 * @return the estimate.
+	 */
+	private Estimate doEstimate(MarkovLogicNetwork mln, FolFormula query, FolSignature signature) {
+		return ForkJoinTools.invoke(Math.min(this.parallelism, this.chains), () -> this.sample(mln, query, signature));
+	}
+
+	/**
+	 * Estimates the probability of the given query.
+	 * @param mln some mln
+	 * @param query some ground query
+	 * @param signature some signature
+	 * @return the estimate.
+	 */
+	private Estimate sample(MarkovLogicNetwork mln, FolFormula query, FolSignature signature) {
+		GroundNetwork net = new GroundNetwork(mln, signature);
+		Node q = net.compile(query, new HashMap<Variable,Constant>());
+		SplittableRandom random;
+		synchronized(this.random) {
+			random = this.random.split();
+		}
+		List<Chain> chainList = new ArrayList<Chain>();
+		for(int c = 0; c < this.chains; c++)
+			chainList.add(new Chain(net, q, this.sampler, random.split()));
+		this.run(chainList, chain -> chain.initialize(this.burnIn));
+		int n = 0;
+		double rHat = Double.NaN, mean = 0, standardError = Double.NaN;
+		boolean converged = false;
+		int m = chainList.size();
+		int minSamples = Math.min(McmcMlnReasoner.MIN_SAMPLES, this.maxSamples);
+		while(n < this.maxSamples && !converged) {
+			int steps = Math.min(McmcMlnReasoner.STEPS_PER_ROUND, this.maxSamples - n);
+			this.run(chainList, chain -> chain.sample(steps));
+			n += steps;
+			double sum = 0, sumOfSquares = 0;
+			long hits = 0;
+			for(Chain chain: chainList) {
+				double p = (double) chain.hits / n;
+				sum += p;
+				sumOfSquares += p * p;
+				hits += chain.hits;
+			}
+			mean = sum / m;
+			// the error of independent samples is a lower bound for the error of correlated samples;
+			// it is computed from the shrunken frequency (hits+1)/(samples+2) so that it does not
+			// vanish if the query has not (or always) been satisfied so far
+			double shrunken = (hits + 1d) / ((long) m * n + 2);
+			standardError = Math.sqrt(shrunken * (1 - shrunken) / ((long) m * n));
+			if(m > 1)
+				standardError = Math.max(standardError, Math.sqrt(Math.max(0, (sumOfSquares - m * mean * mean) / (m - 1)) / m));
+			rHat = McmcMlnReasoner.rHat(chainList, n);
+			converged = n >= minSamples && (m == 1 || rHat <= this.maxRHat) && standardError <= this.maxStandardError;
+		}
+		return new Estimate(mean, standardError, rHat, m * n, converged);
+	}
+
+	/**
+	 * Runs the given action on all chains, concurrently if the parallelism is larger than one.
+	 * @param chainList some chains
+	 * @param action some action
+	 */
+	private void run(List<Chain> chainList, Consumer<Chain> action) {
+		List<ForkJoinTask<?>> tasks = new ArrayList<ForkJoinTask<?>>();
+		for(Chain chain: chainList)
+			tasks.add(ForkJoinTask.adapt(() -> action.accept(chain)));
+		ForkJoinTools.invokeAll(Math.min(this.parallelism, this.chains), tasks);
+	}
+
+	/**
+	 * Computes the potential scale reduction factor of the query indicator.
+	 * @param chainList some chains
+	 * @param n the number of samples of every chain
+	 * @return R-hat (NaN for a single chain).
+	 */
+	private static double rHat(List<Chain> chainList, int n) {
+		int m = chainList.size();
+		if(m < 2 || n < 2)
+			return Double.NaN;
+		double sum = 0, sumOfSquares = 0, within = 0;
+		for(Chain chain: chainList) {
+			// shrunken frequencies, so the within-chain variance is positive
+			double mean = (chain.hits + 1d) / (n + 2);
+			sum += mean;
+			sumOfSquares += mean * mean;
+			within += mean * (1 - mean) * n / (n - 1);
+		}
+		double mean = sum / m;
+		double between = n * Math.max(0, (sumOfSquares - m * mean * mean) / (m - 1));
+		within /= m;
+		return Math.sqrt(((n - 1d) / n * within + between / n) / within);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.commons.Reasoner#isInstalled()
+	 */
+	@Override
+	public boolean isInstalled() {
+		return true;
+	}
+
+	/**
+	 * The ground Markov network of an MLN.
+	 */
+	private static class GroundNetwork {
+		/** The indices of the ground atoms. */
+		private final Map<FolAtom,Integer> atoms = new HashMap<FolAtom,Integer>();
+		/** The ground formulas. */
+		private final List<Node> formulas = new ArrayList<Node>();
+		/** The weights of the ground formulas (NaN for strict formulas). */
+		private double[] weights;
+		/** The atoms of every ground formula. */
+		private int[][] atomsOf;
+		/** The ground formulas every atom occurs in. */
+		private int[][] occurrences;
+		/** Collects the atoms of the formula currently compiled. */
+		private Set<Integer> collected = new LinkedHashSet<Integer>();
+
+		private GroundNetwork(MarkovLogicNetwork mln, FolSignature signature) {
+			for(FolAtom a: new HerbrandBase(signature).getAtoms())
+				this.atoms.put(a, this.atoms.size());
+			List<Double> weights = new ArrayList<Double>();
+			List<int[]> atomsOf = new ArrayList<int[]>();
+			for(MlnFormula f: mln) {
+				FolFormula formula = f.getFormula();
+				for(Map<Variable,Term<?>> map: formula.allSubstitutions(signature.getConstants())) {
+					Map<Variable,Constant> binding = new HashMap<Variable,Constant>();
+					for(Map.Entry<Variable,Term<?>> e: map.entrySet())
+						binding.put(e.getKey(), (Constant) e.getValue());
+					this.collected.clear();
+					Node node = this.compile(formula, binding);
+					if(this.collected.isEmpty()) {
+						if(f.isStrict() && !node.eval(null))
+							throw new IllegalArgumentException("The strict formula " + formula + " is not satisfiable.");
+						continue;
+					}
+					this.formulas.add(node);
+					weights.add(f.isStrict() ? Double.NaN : f.getWeight());
+					atomsOf.add(this.collected.stream().mapToInt(Integer::intValue).toArray());
+				}
+			}
+			this.weights = weights.stream().mapToDouble(Double::doubleValue).toArray();
+			this.atomsOf = atomsOf.toArray(new int[0][]);
+			this.index();
+		}
+
+		/**
+		 * Computes the occurrences of all atoms.
+		 */
+		private void index() {
+			int[] count = new int[this.atoms.size()];
+			for(int[] as: this.atomsOf)
+				for(int a: as)
+					count[a]++;
+			this.occurrences = new int[this.atoms.size()][];
+			for(int a = 0; a < count.length; a++)
+				this.occurrences[a] = new int[count[a]];
+			for(int g = 0; g < this.atomsOf.length; g++)
+				for(int a: this.atomsOf[g])
+					this.occurrences[a][--count[a]] = g;
+		}
+
+		/**
+		 * Compiles the given formula under the given binding; atoms not yet in the network are added
+		 * (without any ground formulas).
+		 * @param f some formula
+		 * @param binding the constants of the unbound variables of the formula
+		 * @return the evaluator of the formula.
+		 */
+		private Node compile(FolFormula f, Map<Variable,Constant> binding) {
+			if(f instanceof Tautology)
+				return new Const(true);
+			if(f instanceof Contradiction)
+				return new Const(false);
+			if(f instanceof FolAtom) {
+				FolAtom a = (FolAtom) f;
+				List<Term<?>> args = new ArrayList<Term<?>>();
+				for(Term<?> t: a.getArguments()) {
+					if(t instanceof Variable) {
+						Constant c = binding.get(t);
+						if(c == null)
+							throw new IllegalArgumentException("FolFormula " + a + " is not closed.");
+						args.add(c);
+					}else if(t instanceof Constant)
+						args.add(t);
+					else throw new IllegalArgumentException("Grounding is defined only for formulas without functors.");
+				}
+				if(a.getPredicate() instanceof EqualityPredicate)
+					return new Const(args.get(0).equals(args.get(1)));
+				if(a.getPredicate() instanceof InequalityPredicate)
+					return new Const(!args.get(0).equals(args.get(1)));
+				FolAtom ground = new FolAtom(a.getPredicate(), args);
+				Integer idx = this.atoms.get(ground);
+				if(idx == null) {
+					idx = this.atoms.size();
+					this.atoms.put(ground, idx);
+					if(this.occurrences != null)
+						this.index();
+				}
+				this.collected.add(idx);
+				return new Atom(idx);
+			}
+			if(f instanceof Negation)
+				return new Not(this.compile(((Negation) f).getFormula(), binding));
+			if(f instanceof Conjunction || f instanceof Disjunction) {
+				List<Node> children = new ArrayList<Node>();
+				for(RelationalFormula g: (Iterable<RelationalFormula>) f)
+					children.add(this.compile((FolFormula) g, binding));
+				return new Junction(children.toArray(new Node[0]), f instanceof Conjunction);
+			}
+			if(f instanceof Implication) {
+				Node a = this.compile((FolFormula) ((Implication) f).getFirstFormula(), binding);
+				Node b = this.compile((FolFormula) ((Implication) f).getSecondFormula(), binding);
+				return new Junction(new Node[] {new Not(a), b}, false);
+			}
+			if(f instanceof Equivalence) {
+				Node a = this.compile((FolFormula) ((Equivalence) f).getFormulas().getFirst(), binding);
+				Node b = this.compile((FolFormula) ((Equivalence) f).getFormulas().getSecond(), binding);
+				return new Not(new Xor(new Node[] {a, b}));
+			}
+			if(f instanceof ExclusiveDisjunction) {
+				List<Node> children = new ArrayList<Node>();
+				for(RelationalFormula g: (ExclusiveDisjunction) f)
+					children.add(this.compile((FolFormula) g, binding));
+				return new Xor(children.toArray(new Node[0]));
+			}
+			if(f instanceof ForallQuantifiedFormula || f instanceof ExistsQuantifiedFormula) {
+				boolean forall = f instanceof ForallQuantifiedFormula;
+				FolFormula body = forall ? ((ForallQuantifiedFormula) f).getFormula() : ((ExistsQuantifiedFormula) f).getFormula();
+				List<Variable> vars = new ArrayList<Variable>(forall ? ((ForallQuantifiedFormula) f).getQuantifierVariables() : ((ExistsQuantifiedFormula) f).getQuantifierVariables());
+				List<Node> children = new ArrayList<Node>();
+				this.instantiate(body, vars, 0, new HashMap<Variable,Constant>(binding), children);
+				return new Junction(children.toArray(new Node[0]), forall);
+			}
+			throw new IllegalArgumentException("FolFormula " + f + " is of unknown type.");
+		}
+
+		/**
+		 * Compiles all instances of the given formula where the given variables (from the
+		 * given index on) are instantiated by constants of their sorts.
+		 * @param f some formula
+		 * @param vars some variables
+		 * @param i the index of the next variable to instantiate
+		 * @param binding the current binding
+		 * @param result the compiled instances
+		 */
+		private void instantiate(FolFormula f, List<Variable> vars, int i, Map<Variable,Constant> binding, List<Node> result) {
+			if(i == vars.size()) {
+				result.add(this.compile(f, binding));
+				return;
+			}
+			Variable v = vars.get(i);
+			for(Constant c: v.getSort().getTerms(Constant.class)) {
+				binding.put(v, c);
+				this.instantiate(f, vars, i + 1, binding, result);
+			}
+		}
+	}
+
+	/**
+	 * A sampling chain on a ground network.
+	 */
+	private static class Chain {
+		private final GroundNetwork net;
+		private final Node query;
+		private final Sampler sampler;
+		private final SplittableRandom random;
+		/** The current world. */
+		private final boolean[] world;
+		/** Whether the ground formulas are satisfied in the current world. */
+		private final boolean[] sat;
+		/** The constraints of the current step: "1" if the ground formula has to be satisfied,
+		 * "-1" if it has to be violated, "0" otherwise. */
+		private final int[] constraints;
+		/** The values of ground formulas after a flip. */
+		private final boolean[] buffer;
+		/** The number of samples satisfying the query. */
+		private long hits;
+
+		private Chain(GroundNetwork net, Node query, Sampler sampler, SplittableRandom random) {
+			this.net = net;
+			this.query = query;
+			this.sampler = sampler;
+			this.random = random;
+			this.world = new boolean[net.atoms.size()];
+			this.sat = new boolean[net.formulas.size()];
+			this.constraints = new int[net.formulas.size()];
+			int max = 0;
+			for(int[] occ: net.occurrences)
+				max = Math.max(max, occ.length);
+			this.buffer = new boolean[max];
+		}
+
+		/**
+		 * Draws a random world satisfying all strict formulas and performs the burn-in.
+		 * @param burnIn the number of steps
+		 */
+		private void initialize(int burnIn) {
+			for(int a = 0; a < this.world.length; a++)
+				this.world[a] = this.random.nextBoolean();
+			int violated = 0;
+			for(int g = 0; g < this.sat.length; g++) {
+				this.sat[g] = this.net.formulas.get(g).eval(this.world);
+				this.constraints[g] = Double.isNaN(this.net.weights[g]) ? 1 : 0;
+				if(this.constraints[g] == 1 && !this.sat[g])
+					violated++;
+			}
+			if(!this.walkSat(this.active(), violated))
+				throw new IllegalArgumentException("Could not find a world satisfying all strict formulas.");
+			for(int s = 0; s < burnIn; s++)
+				this.step();
+		}
+
+		/**
+		 * Performs the given number of steps and records whether the query is satisfied after each.
+		 * @param steps some number of steps
+		 */
+		private void sample(int steps) {
+			for(int s = 0; s < steps; s++) {
+				this.step();
+				if(this.query.eval(this.world))
+					this.hits++;
+			}
+		}
+
+		/**
+		 * Performs one step of the sampling algorithm.
+		 */
+		private void step() {
+			if(this.sampler == Sampler.GIBBS)
+				this.sweep();
+			else this.mcSat();
+		}
+
+		/**
+		 * Returns the indices of the ground formulas that are currently constraints.
+		 * @return the indices of the constraints.
+		 */
+		private int[] active() {
+			int n = 0;
+			for(int c: this.constraints)
+				if(c != 0)
+					n++;
+			int[] result = new int[n];
+			n = 0;
+			for(int g = 0; g < this.constraints.length; g++)
+				if(this.constraints[g] != 0)
+					result[n++] = g;
+			return result;
+		}
+
+		/**
+		 * Performs one step of MC-SAT: every satisfied ground formula with weight w &gt; 0 becomes a
+		 * constraint with probability 1-exp(-w) (likewise for violated ground formulas with negative
+		 * weight), strict formulas are always constraints, and the next world is drawn from the
+		 * worlds satisfying the constraints.
+		 */
+		private void mcSat() {
+			for(int g = 0; g < this.constraints.length; g++) {
+				double w = this.net.weights[g];
+				if(Double.isNaN(w))
+					this.constraints[g] = 1;
+				else if(w > 0 && this.sat[g] && this.random.nextDouble() < -Math.expm1(-w))
+					this.constraints[g] = 1;
+				else if(w < 0 && !this.sat[g] && this.random.nextDouble() < -Math.expm1(w))
+					this.constraints[g] = -1;
+				else this.constraints[g] = 0;
+			}
+			// Metropolis moves that are uniform on the worlds satisfying the constraints: the flipped
+			// atoms are chosen independently of the current world and the move is accepted iff all
+			// constraints remain satisfied
+			for(int s = 0; s < this.world.length; s++) {
+				int a = this.random.nextInt(this.world.length), b = -1;
+				if(this.net.atomsOf.length > 0 && this.random.nextBoolean()) {
+					// flip two atoms of a ground formula, e.g. atoms coupled by a strict formula
+					int[] as = this.net.atomsOf[this.random.nextInt(this.net.atomsOf.length)];
+					int i = this.random.nextInt(as.length);
+					a = as[i];
+					if(as.length > 1) {
+						int j = this.random.nextInt(as.length - 1);
+						b = as[j >= i ? j + 1 : j];
+					}
+				}
+				int delta = this.flip(a, true);
+				if(b >= 0)
+					delta += this.flip(b, true);
+				if(delta != 0) {
+					if(b >= 0)
+						this.flip(b, true);
+					this.flip(a, true);
+				}
+			}
+		}
+
+		/**
+		 * Performs WalkSAT moves until all constraints are satisfied.
+		 * @param active the constraints
+		 * @param violated the number of violated constraints
+		 * @return "true" iff all constraints could be satisfied.
+		 */
+		private boolean walkSat(int[] active, int violated) {
+			long maxFlips = (long) McmcMlnReasoner.MAX_FLIPS_PER_FORMULA * active.length;
+			for(long flips = 0; violated > 0; flips++) {
+				if(flips >= maxFlips)
+					return false;
+				violated += this.walkSatMove(active);
+			}
+			return true;
+		}
+
+		/**
+		 * Flips an atom of a random violated constraint, either a random one or one
+		 * minimizing the number of violated constraints.
+		 * @param active the constraints
+		 * @return the change of the number of violated constraints.
+		 */
+		private int walkSatMove(int[] active) {
+			int count = 0, chosen = -1;
+			for(int g: active)
+				if(this.sat[g] != (this.constraints[g] == 1) && this.random.nextInt(++count) == 0)
+					chosen = g;
+			int[] as = this.net.atomsOf[chosen];
+			int best = as[this.random.nextInt(as.length)];
+			if(this.random.nextBoolean()) {
+				// greedy move, ties are broken randomly
+				int bestDelta = Integer.MAX_VALUE, ties = 0;
+				for(int a: as) {
+					int delta = this.flip(a, false);
+					if(delta < bestDelta) {
+						bestDelta = delta;
+						best = a;
+						ties = 1;
+					}else if(delta == bestDelta && this.random.nextInt(++ties) == 0)
+						best = a;
+				}
+			}
+			return this.flip(best, true);
+		}
+
+		/**
+		 * Resamples every atom once from its conditional distribution given all other atoms.
+		 */
+		private void sweep() {
+			for(int a = 0; a < this.world.length; a++) {
+				int[] occ = this.net.occurrences[a];
+				this.world[a] = !this.world[a];
+				int hard = 0;
+				double soft = 0;
+				for(int i = 0; i < occ.length; i++) {
+					int g = occ[i];
+					boolean s = this.net.formulas.get(g).eval(this.world);
+					this.buffer[i] = s;
+					if(s != this.sat[g]) {
+						double w = this.net.weights[g];
+						if(Double.isNaN(w))
+							hard += s ? -1 : 1;
+						else soft += s ? w : -w;
+					}
+				}
+				// the probability of the flipped value is 1/(1+exp(-soft)) unless strict formulas decide
+				boolean accept = hard != 0 ? hard < 0 : this.random.nextDouble() * (1 + Math.exp(-soft)) < 1;
+				if(accept) {
+					for(int i = 0; i < occ.length; i++)
+						this.sat[occ[i]] = this.buffer[i];
+				}else this.world[a] = !this.world[a];
+			}
+		}
+
+		/**
+		 * Computes the change of the number of violated constraints when flipping the given atom.
+		 * @param a some atom
+		 * @param keep whether the flip is kept
+		 * @return the change of the number of violated constraints.
+		 */
+		private int flip(int a, boolean keep) {
+			int[] occ = this.net.occurrences[a];
+			this.world[a] = !this.world[a];
+			int delta = 0;
+			for(int g: occ) {
+				boolean s = this.net.formulas.get(g).eval(this.world);
+				if(s != this.sat[g]) {
+					if(this.constraints[g] != 0)
+						delta += s == (this.constraints[g] == 1) ? -1 : 1;
+					if(keep)
+						this.sat[g] = s;
+				}
+			}
+			if(!keep)
+				this.world[a] = !this.world[a];
+			return delta;
+		}
+	}
+
+	/**
+	 * A compiled ground formula.
+	 */
+	private static abstract class Node {
+		/**
+		 * Evaluates this formula in the given world.
+		 * @param world the truth values of the atoms
+		 * @return "true" iff the world satisfies this formula.
+		 */
+		abstract boolean eval(boolean[] world);
+	}
+
+	/** A truth value. */
+	private static class Const extends Node {
+		private final boolean value;
+
+		private Const(boolean value) {
+			this.value = value;
+		}
+
+		@Override
+		boolean eval(boolean[] world) {
+			return this.value;
+		}
+	}
+
+	/** A ground atom. */
+	private static class Atom extends Node {
+		private final int index;
+
+		private Atom(int index) {
+			this.index = index;
+		}
+
+		@Override
+		boolean eval(boolean[] world) {
+			return world[this.index];
+		}
+	}
+
+	/** A negation. */
+	private static class Not extends Node {
+		private final Node inner;
+
+		private Not(Node inner) {
+			this.inner = inner;
+		}
+
+		@Override
+		boolean eval(boolean[] world) {
+			return !this.inner.eval(world);
+		}
+	}
+
+	/** A conjunction or disjunction. */
+	private static class Junction extends Node {
+		private final Node[] children;
+		private final boolean conjunction;
+
+		private Junction(Node[] children, boolean conjunction) {
+			this.children = children;
+			this.conjunction = conjunction;
+		}
+
+		@Override
+		boolean eval(boolean[] world) {
+			for(Node n: this.children)
+				if(n.eval(world) != this.conjunction)
+					return !this.conjunction;
+			return this.conjunction;
+		}
+	}
+
+	/** An exclusive disjunction (parity). */
+	private static class Xor extends Node {
+		private final Node[] children;
+
+		private Xor(Node[] children) {
+			this.children = children;
+		}
+
+		@Override
+		boolean eval(boolean[] world) {
+			boolean result = false;
+			for(Node n: this.children)
+				result ^= n.eval(world);
+			return result;
+		}
+	}
+}
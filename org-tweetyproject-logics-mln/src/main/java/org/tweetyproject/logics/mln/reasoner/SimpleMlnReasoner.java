@@ -42,6 +42,8 @@ import org.tweetyproject.logics.mln.syntax.MarkovLogicNetwork;
 
 /**
  * This class implements a simple reasoner for MLNs.
+ * It enumerates all Herbrand interpretations (using temporary files) and is therefore only
+ * feasible for small MLNs; see {@link McmcMlnReasoner} for sampling-based inference.
  * 
  * @author Matthias Thimm
  */
@@ -0,0 +1,127 @@
+/*
+ *  This file is part of "TweetyProject", a collection of Java libraries for
+ *  logical aspects of artificial intelligence and knowledge representation.
+ *
+ *  TweetyProject is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  Copyright 2024 The TweetyProject Team <http://tweetyproject.org/contact/>
+ */
+package org.tweetyproject.logics.mln.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+
+import org.junit.Test;
+
+import org.tweetyproject.commons.ParserException;
+import org.tweetyproject.logics.commons.syntax.Constant;
+import org.tweetyproject.logics.commons.syntax.Predicate;
+import org.tweetyproject.logics.fol.parser.FolParser;
+import org.tweetyproject.logics.fol.syntax.FolFormula;
+import org.tweetyproject.logics.fol.syntax.FolSignature;
+import org.tweetyproject.logics.mln.reasoner.McmcMlnReasoner;
+import org.tweetyproject.logics.mln.reasoner.SimpleMlnReasoner;
+import org.tweetyproject.logics.mln.syntax.MarkovLogicNetwork;
+import org.tweetyproject.logics.mln.syntax.MlnFormula;
+
+/**
+ * Compares the probabilities estimated by MC-SAT with the exact probabilities of the
+ * simple MLN reasoner on small MLNs with strict formulas and negative weights.
+ *
+ * @author agent
+ */
+public class McmcMlnReasonerTest {
+
+	/** The seed of the sampling reasoners. */
+	private static final long SEED = 42;
+
+	@Test
+	public void SmokersTest() throws ParserException, IOException {
+		FolSignature sig = McmcMlnReasonerTest.signature();
+		FolParser parser = new FolParser();
+		parser.setSignature(sig);
+		MarkovLogicNetwork mln = new MarkovLogicNetwork();
+		mln.add(new MlnFormula((FolFormula) parser.parseFormula("!smokes(X) || cancer(X)"), 1.5));
+		mln.add(new MlnFormula((FolFormula) parser.parseFormula("smokes(X)"), -0.7));
+		mln.add(new MlnFormula((FolFormula) parser.parseFormula("!friends(X,Y) || ((smokes(X) && smokes(Y)) || (!smokes(X) && !smokes(Y)))"), 1.1));
+		mln.add(new MlnFormula((FolFormula) parser.parseFormula("friends(X,Y)"), -0.3));
+		// strict formulas
+		mln.add(new MlnFormula((FolFormula) parser.parseFormula("(friends(X,Y) && friends(Y,X)) || (!friends(X,Y) && !friends(Y,X))")));
+		mln.add(new MlnFormula((FolFormula) parser.parseFormula("cancer(a)")));
+		McmcMlnReasonerTest.compare(mln, sig, parser, "smokes(a)", "smokes(b)", "cancer(b)", "friends(a,b)", "smokes(b) && cancer(b)", "friends(a,b) || smokes(a)");
+	}
+
+	@Test
+	public void NegativeWeightsTest() throws ParserException, IOException {
+		FolSignature sig = McmcMlnReasonerTest.signature();
+		FolParser parser = new FolParser();
+		parser.setSignature(sig);
+		MarkovLogicNetwork mln = new MarkovLogicNetwork();
+		mln.add(new MlnFormula((FolFormula) parser.parseFormula("smokes(X) && cancer(X)"), -1.2));
+		mln.add(new MlnFormula((FolFormula) parser.parseFormula("!friends(X,Y) || smokes(Y)"), -0.8));
+		mln.add(new MlnFormula((FolFormula) parser.parseFormula("cancer(X) || friends(X,X)"), 2.0));
+		McmcMlnReasonerTest.compare(mln, sig, parser, "smokes(a)", "cancer(b)", "friends(a,a)", "friends(b,a) && smokes(a)");
+	}
+
+	@Test
+	public void SeedTest() throws ParserException, IOException {
+		FolSignature sig = McmcMlnReasonerTest.signature();
+		FolParser parser = new FolParser();
+		parser.setSignature(sig);
+		MarkovLogicNetwork mln = new MarkovLogicNetwork();
+		mln.add(new MlnFormula((FolFormula) parser.parseFormula("!smokes(X) || cancer(X)"), 1.5));
+		mln.add(new MlnFormula((FolFormula) parser.parseFormula("cancer(a)")));
+		FolFormula query = (FolFormula) parser.parseFormula("smokes(a)");
+		// the estimate does not depend on the parallelism
+		McmcMlnReasoner sequential = new McmcMlnReasoner(McmcMlnReasoner.Sampler.MC_SAT, 4, 100, 2000, 1.01, 0.005, 1, McmcMlnReasonerTest.SEED);
+		McmcMlnReasoner parallel = new McmcMlnReasoner(McmcMlnReasoner.Sampler.MC_SAT, 4, 100, 2000, 1.01, 0.005, 4, McmcMlnReasonerTest.SEED);
+		assertEquals(sequential.estimate(mln, query, sig).getProbability(), parallel.estimate(mln, query, sig).getProbability(), 0);
+	}
+
+	/**
+	 * Compares the estimated probabilities of the given queries with the exact ones.
+	 * @param mln some MLN
+	 * @param sig the signature
+	 * @param parser a parser for the signature
+	 * @param queries some ground queries
+	 * @throws ParserException if a query cannot be parsed
+	 * @throws IOException if a query cannot be parsed
+	 */
+	private static void compare(MarkovLogicNetwork mln, FolSignature sig, FolParser parser, String... queries) throws ParserException, IOException {
+		SimpleMlnReasoner simple = new SimpleMlnReasoner();
+		simple.setTempDirectory(System.getProperty("java.io.tmpdir"));
+		McmcMlnReasoner mcSat = new McmcMlnReasoner(McmcMlnReasoner.Sampler.MC_SAT, 4, 100, 10000, 1.01, 0.005, 4, McmcMlnReasonerTest.SEED);
+		for(String q: queries) {
+			FolFormula query = (FolFormula) parser.parseFormula(q);
+			double expected = simple.query(mln, query, sig);
+			McmcMlnReasoner.Estimate estimate = mcSat.estimate(mln, query, sig);
+			// within 4 standard errors
+			assertEquals(q, expected, estimate.getProbability(), 4 * estimate.getStandardError());
+		}
+	}
+
+	/**
+	 * Returns a signature with the predicates smokes/1, cancer/1, friends/2 and the constants a and b.
+	 * @return the signature.
+	 */
+	private static FolSignature signature() {
+		FolSignature sig = new FolSignature();
+		sig.add(new Predicate("smokes", 1));
+		sig.add(new Predicate("cancer", 1));
+		sig.add(new Predicate("friends", 2));
+		sig.add(new Constant("a"));
+		sig.add(new Constant("b"));
+		return sig;
+	}
+}
@@ -62,7 +62,7 @@ public class ConvexAggregatingMeMachineShop implements BeliefBaseMachineShop {
 			bs.add(pc);
 			// name the signature explicitly in order to ensure that the distributions
 			// are defined on the same set. 
-			distributions[cnt] = new DefaultMeReasoner(this.rootFinder).getModel(bs,(PlSignature) beliefSet.getMinimalSignature());			
+			distributions[cnt] = new DefaultMeReasoner().getModel(bs,(PlSignature) beliefSet.getMinimalSignature());			
 			cnt++;
 		}
 		double[] factors = new double[beliefSet.size()];
@@ -20,6 +20,7 @@ package org.tweetyproject.logics.pcl.analysis;
 
 import java.util.*;
 
+import org.tweetyproject.logics.pcl.reasoner.MeEngine;
 import org.tweetyproject.logics.pcl.syntax.*;
 import org.tweetyproject.logics.pl.semantics.*;
 import org.tweetyproject.logics.pl.syntax.*;
@@ -32,7 +33,8 @@ import org.tweetyproject.logics.commons.analysis.*;
 
 /**
  * This class is capable of checking whether a given conditional knowledge base
- * is consistent by searching for the root of some equivalent multi-dimensional function.
+ * is consistent by searching for the root of some equivalent multi-dimensional function
+ * or, if no root finder is given, by computing its ME-distribution natively.
  * 
  * @author Matthias Thimm
  */
@@ -44,6 +46,14 @@ public class PclDefaultConsistencyTester extends AbstractBeliefSetConsistencyTes
 		this.rootFinder = rootFinder;
 	}
 	
+	/**
+	 * Creates a new consistency tester that decides consistency by computing the
+	 * ME-distribution natively, see {@link MeEngine}.
+	 */
+	public PclDefaultConsistencyTester() {
+		this.rootFinder = null;
+	}
+	
 	/* (non-Javadoc)
 	 * @see org.tweetyproject.logics.commons.analysis.AbstractBeliefSetConsistencyTester#isConsistent(java.util.Collection)
 	 */
@@ -51,10 +61,15 @@ public class PclDefaultConsistencyTester extends AbstractBeliefSetConsistencyTes
 	public boolean isConsistent(Collection<ProbabilisticConditional> formulas) {
 		PclBeliefSet beliefSet = new PclBeliefSet(formulas);
 		if(beliefSet.isEmpty()) return true;
+		if(this.rootFinder == null)
+			return new MeEngine().isConsistent(beliefSet, new ArrayList<Proposition>(((PlSignature)beliefSet.getMinimalSignature()).toCollection()));
 		// Create variables for the probability of each possible world and
 		// create a multi-dimensional function that has a root iff the belief base is consistent
 		List<Term> functions = new ArrayList<Term>();
-		Set<PossibleWorld> worlds = PossibleWorld.getAllPossibleWorlds((PlSignature)beliefSet.getMinimalSignature());
+		List<PossibleWorld> worlds = new ArrayList<PossibleWorld>(PossibleWorld.getAllPossibleWorlds((PlSignature)beliefSet.getMinimalSignature()));
+		// evaluate the conditionals on 64 worlds at once, see CompiledPlFormula
+		List<Proposition> atoms = new ArrayList<Proposition>(((PlSignature)beliefSet.getMinimalSignature()).toCollection());
+		long[][] batches = CompiledPlFormula.toBatches(worlds, atoms);
 		Map<PossibleWorld,Variable> worlds2vars = new HashMap<PossibleWorld,Variable>();
 		int i = 0;
 		Term normConstraint = null;
@@ -72,27 +87,24 @@ public class PclDefaultConsistencyTester extends AbstractBeliefSetConsistencyTes
 			Term leftSide = null;
 			Term rightSide = null;
 			if(c.isFact()){
-				for(PossibleWorld w: worlds)
-					if(w.satisfies(c.getConclusion())){
-						if(leftSide == null)
-							leftSide = worlds2vars.get(w);
-						else leftSide = leftSide.add(worlds2vars.get(w));
-					}
+				for(PossibleWorld w: new CompiledPlFormula(c.getConclusion(), atoms).getModels(worlds, batches)){
+					if(leftSide == null)
+						leftSide = worlds2vars.get(w);
+					else leftSide = leftSide.add(worlds2vars.get(w));
+				}
 				rightSide = new FloatConstant(c.getProbability().getValue());
 			}else{				
 				PlFormula body = c.getPremise().iterator().next();
 				PlFormula head_and_body = c.getConclusion().combineWithAnd(body);
-				for(PossibleWorld w: worlds){
-					if(w.satisfies(head_and_body)){
-						if(leftSide == null)
-							leftSide = worlds2vars.get(w);
-						else leftSide = leftSide.add(worlds2vars.get(w));
-					}
-					if(w.satisfies(body)){
-						if(rightSide == null)
-							rightSide = worlds2vars.get(w);
-						else rightSide = rightSide.add(worlds2vars.get(w));
-					}					
+				for(PossibleWorld w: new CompiledPlFormula(head_and_body, atoms).getModels(worlds, batches)){
+					if(leftSide == null)
+						leftSide = worlds2vars.get(w);
+					else leftSide = leftSide.add(worlds2vars.get(w));
+				}
+				for(PossibleWorld w: new CompiledPlFormula(body, atoms).getModels(worlds, batches)){
+					if(rightSide == null)
+						rightSide = worlds2vars.get(w);
+					else rightSide = rightSide.add(worlds2vars.get(w));
 				}
 				if(rightSide == null)
 					rightSide = new FloatConstant(0);
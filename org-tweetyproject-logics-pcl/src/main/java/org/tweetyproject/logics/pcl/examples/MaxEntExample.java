@@ -28,9 +28,6 @@ import org.tweetyproject.logics.pcl.semantics.ProbabilityDistribution;
 import org.tweetyproject.logics.pcl.syntax.PclBeliefSet;
 import org.tweetyproject.logics.pcl.syntax.ProbabilisticConditional;
 import org.tweetyproject.logics.pl.syntax.Proposition;
-import org.tweetyproject.math.opt.rootFinder.GradientDescentRootFinder;
-import org.tweetyproject.math.opt.solver.OctaveSqpSolver;
-import org.tweetyproject.math.opt.solver.Solver;
 
 /**
  * 
@@ -41,14 +38,6 @@ import org.tweetyproject.math.opt.solver.Solver;
  */
 public class MaxEntExample {
 	public static void main(String[] args) throws ParserException, IOException{
-		/**
-		 * @TODO: change your path to Octave
-		 */
-		OctaveSqpSolver.setPathToOctave("/Users/Jonas/Desktop/TU/Hiwi/octave-5.2.0-w64/mingw64/bin/octave-cli-5.2.0.exe");
-		// Check if solver is installed: 
-		// System.out.println(OctaveSqpSolver.isInstalled());
-		Solver.setDefaultGeneralSolver(new OctaveSqpSolver());
-		
 		PclBeliefSet kb = new PclBeliefSet();
 		PclParser parser = new PclParser();
 		kb.add((ProbabilisticConditional)parser.parseFormula("(k|g)[1.0]"));
@@ -59,7 +48,7 @@ public class MaxEntExample {
 		System.out.println(kb);
 		System.out.println(kb.getMinimalSignature());
 		
-		DefaultMeReasoner reasoner_me_default = new DefaultMeReasoner(new GradientDescentRootFinder());
+		DefaultMeReasoner reasoner_me_default = new DefaultMeReasoner();
 
 		ProbabilityDistribution prob = reasoner_me_default.getModel(kb);
 		System.out.println("Resulting probability distribution of maximal entropy:");
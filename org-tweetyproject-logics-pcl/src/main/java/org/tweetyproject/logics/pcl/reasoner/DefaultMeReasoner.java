@@ -20,34 +20,51 @@ package org.tweetyproject.logics.pcl.reasoner;
 
 import java.util.*;
 
-import org.tweetyproject.logics.pcl.analysis.*;
 import org.tweetyproject.logics.pcl.semantics.*;
 import org.tweetyproject.logics.pcl.syntax.*;
 import org.tweetyproject.logics.pl.semantics.*;
 import org.tweetyproject.logics.pl.syntax.*;
 import org.tweetyproject.math.*;
-import org.tweetyproject.math.equation.*;
 import org.tweetyproject.math.opt.rootFinder.*;
-import org.tweetyproject.math.opt.problem.*;
-import org.tweetyproject.math.opt.solver.*;
-import org.tweetyproject.math.term.*;
-import org.tweetyproject.math.probability.*;
 
 /**
  * This class implements a maximum entropy reasoner for probabilistic
  * conditional logic. This means, it computes the ME-distribution
  * for the given belief set and answers queries with respect to
- * this ME-distribution.
+ * this ME-distribution. The ME-distribution is computed by a {@link MeEngine}.
  * 
  * @author Matthias Thimm
  *
  */
 public class DefaultMeReasoner extends AbstractPclReasoner {
 		
-	private OptimizationRootFinder rootFinder;
+	/** The engine computing ME-distributions. */
+	private MeEngine engine;
 	
+	/**
+	 * Creates a new ME-reasoner.
+	 */
+	public DefaultMeReasoner() {
+		this(new MeEngine());
+	}
+	
+	/**
+	 * Creates a new ME-reasoner.
+	 * @param engine the engine computing ME-distributions
+	 */
+	public DefaultMeReasoner(MeEngine engine) {
+		this.engine = engine;
+	}
+	
+	/**
+	 * Creates a new ME-reasoner. The given root finder is ignored, consistency is
+	 * decided by the {@link MeEngine}.
+	 * @param rootFinder some root finder (ignored)
+	 * @deprecated the root finder is not used anymore, use {@link #DefaultMeReasoner()} instead
+	 */
+	@Deprecated
 	public DefaultMeReasoner(OptimizationRootFinder rootFinder) {
-		this.rootFinder = rootFinder;
+		this();
 	}
 	
 	/* (non-Javadoc)
@@ -55,6 +72,10 @@ public class DefaultMeReasoner extends AbstractPclReasoner {
 	 */
 	@Override
 	public Double query(PclBeliefSet beliefbase, PlFormula formula) {
+		PlSignature signature = (PlSignature) beliefbase.getMinimalSignature();
+		// avoid enumerating all possible worlds if possible
+		if(formula.getSignature().isSubSignature(signature))
+			return this.solve(beliefbase, signature).getProbability(formula);
 		return this.getModel(beliefbase).probability(formula).getValue();
 	}
 
@@ -83,84 +104,28 @@ public class DefaultMeReasoner extends AbstractPclReasoner {
 	 * @return the ME-distribution this reasoner bases on.
 	 */
 	public ProbabilityDistribution<PossibleWorld> getModel(PclBeliefSet bs,PlSignature signature) {
-		// if belief set is inconsistent no reasoning is possible
-		PclDefaultConsistencyTester tester = new PclDefaultConsistencyTester(this.rootFinder);
-		if(!tester.isConsistent(bs))
-			throw new IllegalArgumentException("Knowledge base is inconsistent.");
+		return this.solve(bs, signature).toProbabilityDistribution(signature);
+	}
+	
+	/**
+	 * Computes the ME-distribution of the given belief set.
+	 * @param bs the belief set
+	 * @param signature the signature
+	 * @return the ME-distribution.
+	 */
+	private MeEngine.Solution solve(PclBeliefSet bs, PlSignature signature) {
 		if(!bs.getMinimalSignature().isSubSignature(signature))
 			throw new IllegalArgumentException("Given signature is not a super-signature of the belief base's signature.");
-				
-		// construct optimization problem
-		OptimizationProblem problem = new OptimizationProblem(OptimizationProblem.MINIMIZE);
-		Set<PossibleWorld> worlds = PossibleWorld.getAllPossibleWorlds((PlSignature) signature);
-		Map<PossibleWorld,Variable> vars = new HashMap<PossibleWorld,Variable>();
-		int cnt = 0;
-		Term normConstraint = null;
-		for(PossibleWorld w: worlds){
-			Variable var = new FloatVariable("w" + cnt,0,1);
-			vars.put(w, var);
-			if(normConstraint == null)
-				normConstraint = var;
-			else normConstraint = normConstraint.add(var);
-			cnt++;
-		}
-		problem.add(new Equation(normConstraint,new FloatConstant(1)));
-		// add constraint imposed by conditionals
-		for(ProbabilisticConditional pc: bs){
-			Term leftSide = null;
-			Term rightSide = null;			
-			if(pc.isFact()){
-				for(PossibleWorld w: worlds)
-					if(w.satisfies(pc.getConclusion())){
-						if(leftSide == null)
-							leftSide = vars.get(w);
-						else leftSide = leftSide.add(vars.get(w));
-					}
-				rightSide = new FloatConstant(pc.getProbability().getValue());
-			}else{				
-				PlFormula body = pc.getPremise().iterator().next();
-				PlFormula head_and_body = pc.getConclusion().combineWithAnd(body);
-				for(PossibleWorld w: worlds){
-					if(w.satisfies(head_and_body)){
-						if(leftSide == null)
-							leftSide = vars.get(w);
-						else leftSide = leftSide.add(vars.get(w));
-					}
-					if(w.satisfies(body)){
-						if(rightSide == null)
-							rightSide = vars.get(w);
-						else rightSide = rightSide.add(vars.get(w));
-					}					
-				}
-				if(rightSide == null)
-					rightSide = new FloatConstant(0);
-				else rightSide = rightSide.mult(new FloatConstant(pc.getProbability().getValue()));
-			}
-			if(leftSide == null)
-				leftSide = new FloatConstant(0);
-			if(rightSide == null)
-				rightSide = new FloatConstant(0);
-			problem.add(new Equation(leftSide,rightSide));
-		}
-		// target function is the entropy
-		Term targetFunction = null;
-		for(PossibleWorld w: worlds){
-			if(targetFunction == null)
-				targetFunction = vars.get(w).mult(new Logarithm(vars.get(w)));
-			else targetFunction = targetFunction.add(vars.get(w).mult(new Logarithm(vars.get(w))));			
-		}
-		problem.setTargetFunction(targetFunction);
-		try{			
-			Map<Variable,Term> solution = Solver.getDefaultGeneralSolver().solve(problem);
-			// construct probability distribution
-			ProbabilityDistribution<PossibleWorld> p = new ProbabilityDistribution<PossibleWorld>(signature);
-			for(PossibleWorld w: worlds)
-				p.put(w, new Probability(solution.get(vars.get(w)).doubleValue()));
-			return p;					
+		MeEngine.Solution solution;
+		try {
+			solution = this.engine.solve(bs, new ArrayList<Proposition>(signature.toCollection()));
 		}catch (GeneralMathException e){
-			// This should not happen as the optimization problem is guaranteed to be feasible (the knowledge base is consistent)
-			throw new RuntimeException("Fatal error: Optimization problem to compute the ME-distribution is not feasible although the knowledge base seems to be consistent.");
-		}		
+			throw new RuntimeException("Fatal error: " + e.getMessage());
+		}
+		// if belief set is inconsistent no reasoning is possible
+		if(solution == null)
+			throw new IllegalArgumentException("Knowledge base is inconsistent.");
+		return solution;
 	}
 
 	@Override
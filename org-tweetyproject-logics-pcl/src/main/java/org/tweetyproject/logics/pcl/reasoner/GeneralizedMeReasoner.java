@@ -18,11 +18,12 @@
  */
 package org.tweetyproject.logics.pcl.reasoner;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.Vector;
 
 import org.tweetyproject.logics.commons.analysis.BeliefSetInconsistencyMeasure;
@@ -31,9 +32,11 @@ import org.tweetyproject.logics.pcl.analysis.MinimalViolationInconsistencyMeasur
 import org.tweetyproject.logics.pcl.semantics.ProbabilityDistribution;
 import org.tweetyproject.logics.pcl.syntax.PclBeliefSet;
 import org.tweetyproject.logics.pcl.syntax.ProbabilisticConditional;
+import org.tweetyproject.logics.pl.semantics.CompiledPlFormula;
 import org.tweetyproject.logics.pl.semantics.PossibleWorld;
 import org.tweetyproject.logics.pl.syntax.PlFormula;
 import org.tweetyproject.logics.pl.syntax.PlSignature;
+import org.tweetyproject.logics.pl.syntax.Proposition;
 import org.tweetyproject.math.GeneralMathException;
 import org.tweetyproject.math.equation.Equation;
 import org.tweetyproject.math.equation.Inequation;
@@ -75,6 +78,9 @@ public class GeneralizedMeReasoner extends AbstractPclReasoner {
 	/** The numerical accuracy. */
 	private double accuracy;
 	
+	/** The engine computing ME-distributions of consistent belief sets. */
+	private MeEngine engine = new MeEngine();
+	
 	
 	/**
 	 * Creates a new generalized ME-reasoner
@@ -138,11 +144,22 @@ public class GeneralizedMeReasoner extends AbstractPclReasoner {
 	public ProbabilityDistribution<PossibleWorld> getModel(PclBeliefSet bs,PlSignature signature) {
 		if(!bs.getMinimalSignature().isSubSignature(signature))
 			throw new IllegalArgumentException("Given signature is not a super-signature of the belief base's signature.");
+		// for consistent belief sets, the generalized ME-distribution is the ME-distribution
+		try {
+			MeEngine.Solution solution = this.engine.solve(bs, new ArrayList<Proposition>(signature.toCollection()));
+			if(solution != null)
+				return solution.toProbabilityDistribution(signature);
+		}catch (GeneralMathException e){
+			// use the optimization problem below
+		}
 		// get inconsistency value
 		double iValue = inc.inconsistencyMeasure(bs);		
 		// construct optimization problem
 		OptimizationProblem problem = new OptimizationProblem(OptimizationProblem.MINIMIZE);
-		Set<PossibleWorld> worlds = PossibleWorld.getAllPossibleWorlds(signature);
+		List<PossibleWorld> worlds = new ArrayList<PossibleWorld>(PossibleWorld.getAllPossibleWorlds(signature));
+		// evaluate the conditionals on 64 worlds at once, see CompiledPlFormula
+		List<Proposition> atoms = new ArrayList<Proposition>(signature.toCollection());
+		long[][] batches = CompiledPlFormula.toBatches(worlds, atoms);
 		Map<PossibleWorld,Variable> vars = new HashMap<PossibleWorld,Variable>();		
 		int cnt = 0;
 		Term normConstraint = null;
@@ -165,27 +182,24 @@ public class GeneralizedMeReasoner extends AbstractPclReasoner {
 			Term leftSide = null;
 			Term rightSide = null;			
 			if(pc.isFact()){
-				for(PossibleWorld w: worlds)
-					if(w.satisfies(pc.getConclusion())){
-						if(leftSide == null)
-							leftSide = vars.get(w);
-						else leftSide = leftSide.add(vars.get(w));
-					}
+				for(PossibleWorld w: new CompiledPlFormula(pc.getConclusion(), atoms).getModels(worlds, batches)){
+					if(leftSide == null)
+						leftSide = vars.get(w);
+					else leftSide = leftSide.add(vars.get(w));
+				}
 				rightSide = new FloatConstant(pc.getProbability().getValue());
 			}else{				
 				PlFormula body = pc.getPremise().iterator().next();
 				PlFormula head_and_body = pc.getConclusion().combineWithAnd(body);
-				for(PossibleWorld w: worlds){
-					if(w.satisfies(head_and_body)){
-						if(leftSide == null)
-							leftSide = vars.get(w);
-						else leftSide = leftSide.add(vars.get(w));
-					}
-					if(w.satisfies(body)){
-						if(rightSide == null)
-							rightSide = vars.get(w);
-						else rightSide = rightSide.add(vars.get(w));
-					}					
+				for(PossibleWorld w: new CompiledPlFormula(head_and_body, atoms).getModels(worlds, batches)){
+					if(leftSide == null)
+						leftSide = vars.get(w);
+					else leftSide = leftSide.add(vars.get(w));
+				}
+				for(PossibleWorld w: new CompiledPlFormula(body, atoms).getModels(worlds, batches)){
+					if(rightSide == null)
+						rightSide = vars.get(w);
+					else rightSide = rightSide.add(vars.get(w));
 				}
 				if(rightSide == null)
 					rightSide = new FloatConstant(0);
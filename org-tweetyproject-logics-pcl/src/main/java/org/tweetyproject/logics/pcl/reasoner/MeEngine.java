@@ -0,0 +1,530 @@
+/*
+ *  This file is part of "TweetyProject", a collection of Java libraries for
+ *  logical aspects of artificial intelligence and knowledge representation.
+ *
+ *  TweetyProject is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  Copyright 2024 The TweetyProject Team <http://tweetyproject.org/contact/>
+ */
+package org.tweetyproject.logics.pcl.reasoner;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.tweetyproject.logics.pcl.semantics.ProbabilityDistribution;
+import org.tweetyproject.logics.pcl.syntax.ProbabilisticConditional;
+import org.tweetyproject.logics.pl.semantics.CompiledPlFormula;
+import org.tweetyproject.logics.pl.semantics.PossibleWorld;
+import org.tweetyproject.logics.pl.syntax.PlFormula;
+import org.tweetyproject.logics.pl.syntax.PlSignature;
+import org.tweetyproject.logics.pl.syntax.Proposition;
+import org.tweetyproject.math.GeneralMathException;
+import org.tweetyproject.math.probability.Probability;
+
+/**
+ * Computes the ME-distribution of a set of probabilistic conditionals natively, i.e., without
+ * constructing an optimization problem of symbolic terms.
+ * <br>
+ * A conditional (B|A)[p] imposes the constraint sum_w P(w)f(w) = 0 with f(w) = 1-p if w satisfies A and B,
+ * f(w) = -p if w satisfies A but not B, and f(w) = 0 otherwise. The ME-distribution has the form
+ * P(w) = exp(sum_i l_i f_i(w))/Z and its multipliers l_i minimize the convex dual function log Z, which
+ * is done by Newton's method. As P(w) only depends on the values f_i(w), the dual function is evaluated
+ * on the classes of worlds with the same values (at most min(2^n,3^m) classes for n atoms and m conditionals),
+ * which are determined by evaluating the conditionals on 64 worlds at once, see {@link CompiledPlFormula}.
+ * Worlds violating a conditional with probability 0 or 1 have probability 0 and are ignored.
+ * <br>
+ * For a consistent set of conditionals, log Z is bounded from below by the entropy of any of its
+ * models and therefore non-negative; so a negative value of log Z proves inconsistency.
+ *
+ * @author agent
+ */
+public class MeEngine {
+
+	/** The maximal number of atoms. */
+	public static final int MAX_ATOMS = 62;
+
+	/** The margin below zero of log Z proving inconsistency (accounts for rounding errors). */
+	private static final double INCONSISTENCY_MARGIN = 1e-6;
+	/** The initial regularization of the Hessian. */
+	private static final double REGULARIZATION = 1e-10;
+
+	/** The maximal violation of a constraint. */
+	private final double accuracy;
+	/** The maximal number of Newton iterations. */
+	private final int maxIterations;
+
+	/**
+	 * Creates a new engine with accuracy 1e-9 and at most 500 iterations.
+	 */
+	public MeEngine() {
+		this(1e-9, 500);
+	}
+
+	/**
+	 * Creates a new engine.
+	 * @param accuracy the maximal violation of the constraint sum_w P(w)f(w) = 0 of a conditional, i.e.,
+	 * 	of P(AB) = p P(A)
+	 * @param maxIterations the maximal number of Newton iterations
+	 */
+	public MeEngine(double accuracy, int maxIterations) {
+		if(accuracy <= 0 || maxIterations < 1)
+			throw new IllegalArgumentException("Invalid accuracy or number of iterations.");
+		this.accuracy = accuracy;
+		this.maxIterations = maxIterations;
+	}
+
+	/**
+	 * Checks whether the given conditionals are consistent.
+	 * @param conditionals a set of conditionals
+	 * @param atoms a list of at most 62 propositions containing all atoms of the conditionals
+	 * @return "true" iff the conditionals are consistent (if the computation of the ME-distribution
+	 * 	does not converge, they are considered inconsistent).
+	 */
+	public boolean isConsistent(Collection<ProbabilisticConditional> conditionals, List<Proposition> atoms) {
+		try {
+			return this.solve(conditionals, atoms) != null;
+		} catch (GeneralMathException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Computes the ME-distribution of the given conditionals.
+	 * @param conditionals a set of conditionals
+	 * @param atoms a list of at most 62 propositions containing all atoms of the conditionals;
+	 * 	the i-th proposition corresponds to the i-th bit of a world, see {@link CompiledPlFormula}
+	 * @return the ME-distribution or null if the conditionals are inconsistent.
+	 * @throws GeneralMathException if the computation does not converge.
+	 */
+	public Solution solve(Collection<ProbabilisticConditional> conditionals, List<Proposition> atoms) throws GeneralMathException {
+		Solution s = new Solution(conditionals, atoms);
+		int m = s.probabilities.length;
+		int k = s.size;
+		if(k == 0)
+			return null;
+		double[] lambda = new double[m];
+		double[] next = new double[m];
+		double[] scores = new double[k];
+		double[] nextScores = new double[k];
+		double[] mass = new double[k];
+		double[] gradient = new double[m];
+		double[] hessian = new double[m * m];
+		// the non-zero feature values of a class
+		int[] indices = new int[m];
+		double[] values = new double[m];
+		double logZ = s.evaluate(lambda, scores);
+		boolean stalled = false;
+		for(int iteration = 0; ; iteration++) {
+			if(logZ < -MeEngine.INCONSISTENCY_MARGIN)
+				return null;
+			// gradient (expected feature values) and Hessian (their covariances)
+			double max = Double.NEGATIVE_INFINITY;
+			for(int c = 0; c < k; c++)
+				max = Math.max(max, scores[c]);
+			double sum = 0;
+			for(int c = 0; c < k; c++) {
+				mass[c] = s.counts[c] * Math.exp(scores[c] - max);
+				sum += mass[c];
+			}
+			Arrays.fill(gradient, 0);
+			Arrays.fill(hessian, 0);
+			for(int c = 0; c < k; c++) {
+				double q = mass[c] / sum;
+				int nonZero = s.features(c, indices, values);
+				for(int a = 0; a < nonZero; a++) {
+					double qa = q * values[a];
+					gradient[indices[a]] += qa;
+					int row = indices[a] * m;
+					for(int b = 0; b <= a; b++)
+						hessian[row + indices[b]] += qa * values[b];
+				}
+			}
+			double violation = 0;
+			for(int i = 0; i < m; i++)
+				violation = Math.max(violation, Math.abs(gradient[i]));
+			if(violation <= this.accuracy || stalled) {
+				s.worldProbabilities = new double[k];
+				for(int c = 0; c < k; c++)
+					s.worldProbabilities[c] = mass[c] / sum / s.counts[c];
+				return s;
+			}
+			if(iteration >= this.maxIterations)
+				throw new GeneralMathException("The computation of the ME-distribution did not converge.");
+			for(int i = 0; i < m; i++)
+				for(int j = 0; j <= i; j++) {
+					hessian[i * m + j] -= gradient[i] * gradient[j];
+					hessian[j * m + i] = hessian[i * m + j];
+				}
+			// Newton direction with backtracking line search
+			double[] direction = MeEngine.newtonDirection(hessian, gradient, m);
+			double slope = 0;
+			for(int i = 0; i < m; i++)
+				slope += gradient[i] * direction[i];
+			double step = 1;
+			double nextLogZ = Double.NaN;
+			for(int halvings = 0; halvings < 60; halvings++, step /= 2) {
+				for(int i = 0; i < m; i++)
+					next[i] = lambda[i] + step * direction[i];
+				nextLogZ = s.evaluate(next, nextScores);
+				if(nextLogZ <= logZ + 1e-4 * step * slope)
+					break;
+			}
+			if(!(nextLogZ < logZ)) {
+				// no further progress due to rounding errors
+				if(violation > Math.sqrt(this.accuracy))
+					throw new GeneralMathException("The computation of the ME-distribution did not converge.");
+				stalled = true;
+				continue;
+			}
+			double[] tmp = lambda;
+			lambda = next;
+			next = tmp;
+			tmp = scores;
+			scores = nextScores;
+			nextScores = tmp;
+			logZ = nextLogZ;
+		}
+	}
+
+	/**
+	 * Solves (H + mu I)d = -g by a Cholesky decomposition, increasing the regularization mu
+	 * until the matrix is positive definite.
+	 * @param hessian the Hessian H (row-major)
+	 * @param gradient the gradient g
+	 * @param m the dimension
+	 * @return the direction d.
+	 */
+	private static double[] newtonDirection(double[] hessian, double[] gradient, int m) {
+		double scale = 0;
+		for(int i = 0; i < m; i++)
+			scale = Math.max(scale, hessian[i * m + i]);
+		double mu = MeEngine.REGULARIZATION * Math.max(scale, 1e-6);
+		double[] l = new double[m * m];
+		while(true) {
+			boolean definite = true;
+			for(int i = 0; i < m && definite; i++)
+				for(int j = 0; j <= i; j++) {
+					double sum = hessian[i * m + j] + (i == j ? mu : 0);
+					for(int r = 0; r < j; r++)
+						sum -= l[i * m + r] * l[j * m + r];
+					if(i == j) {
+						if(sum <= 0) {
+							definite = false;
+							break;
+						}
+						l[i * m + i] = Math.sqrt(sum);
+					}else l[i * m + j] = sum / l[j * m + j];
+				}
+			if(definite)
+				break;
+			mu *= 100;
+		}
+		double[] y = new double[m];
+		for(int i = 0; i < m; i++) {
+			double sum = -gradient[i];
+			for(int r = 0; r < i; r++)
+				sum -= l[i * m + r] * y[r];
+			y[i] = sum / l[i * m + i];
+		}
+		double[] d = new double[m];
+		for(int i = m - 1; i >= 0; i--) {
+			double sum = y[i];
+			for(int r = i + 1; r < m; r++)
+				sum -= l[r * m + i] * d[r];
+			d[i] = sum / l[i * m + i];
+		}
+		return d;
+	}
+
+	/**
+	 * The ME-distribution of a set of conditionals, represented by the probabilities of
+	 * the classes of worlds.
+	 */
+	public static class Solution {
+		/** The numbering of atoms. */
+		private final List<Proposition> atoms;
+		/** The number of worlds. */
+		private final long numberOfWorlds;
+		/** The premises of the conditionals (null for facts). */
+		private final CompiledPlFormula[] premises;
+		/** The conjunctions of premise and conclusion of the conditionals. */
+		private final CompiledPlFormula[] conclusions;
+		/** The probabilities of the conditionals. */
+		private final double[] probabilities;
+		/** The number of longs of the code of a class, i.e., of the states of all conditionals in
+		 * its worlds (two bits each; 0: premise false, 1: verified, 2: falsified). */
+		private final int words;
+		/** The codes of the classes. */
+		private long[] codes;
+		/** The numbers of worlds of the classes. */
+		private double[] counts;
+		/** The number of classes. */
+		private int size;
+		/** The hash table of the classes (open addressing, -1 for empty slots). */
+		private int[] table;
+		/** The probability of each world of a class. */
+		private double[] worldProbabilities;
+
+		/**
+		 * Compiles the given conditionals and determines the classes of worlds.
+		 * @param conditionals a set of conditionals
+		 * @param atoms the numbering of atoms
+		 */
+		private Solution(Collection<ProbabilisticConditional> conditionals, List<Proposition> atoms) {
+			if(atoms.size() > MeEngine.MAX_ATOMS)
+				throw new IllegalArgumentException("At most " + MeEngine.MAX_ATOMS + " atoms are supported.");
+			this.atoms = atoms;
+			this.numberOfWorlds = 1L << atoms.size();
+			int m = conditionals.size();
+			this.premises = new CompiledPlFormula[m];
+			this.conclusions = new CompiledPlFormula[m];
+			this.probabilities = new double[m];
+			int i = 0;
+			for(ProbabilisticConditional pc: conditionals) {
+				if(pc.isFact())
+					this.conclusions[i] = new CompiledPlFormula(pc.getConclusion(), atoms);
+				else {
+					PlFormula body = pc.getPremise().iterator().next();
+					this.premises[i] = new CompiledPlFormula(body, atoms);
+					this.conclusions[i] = new CompiledPlFormula(pc.getConclusion().combineWithAnd(body), atoms);
+				}
+				this.probabilities[i++] = pc.getProbability().getValue();
+			}
+			this.words = Math.max(1, (2 * m + 63) / 64);
+			this.codes = new long[16 * this.words];
+			this.counts = new double[16];
+			this.table = new int[32];
+			Arrays.fill(this.table, -1);
+			long[] premiseMasks = new long[m];
+			long[] conclusionMasks = new long[m];
+			long[] code = new long[this.words];
+			for(long first = 0; first < this.numberOfWorlds; first += 64) {
+				long worlds = this.evaluate(first, premiseMasks, conclusionMasks);
+				for(; worlds != 0; worlds &= worlds - 1) {
+					this.encode(Long.numberOfTrailingZeros(worlds), premiseMasks, conclusionMasks, code);
+					int slot = this.find(code);
+					if(this.table[slot] < 0)
+						slot = this.add(code);
+					this.counts[this.table[slot]]++;
+				}
+			}
+		}
+
+		/**
+		 * Evaluates the conditionals on the 64 worlds first,...,first+63.
+		 * @param first a multiple of 64
+		 * @param premiseMasks filled with the masks of worlds satisfying the premises
+		 * @param conclusionMasks filled with the masks of worlds satisfying premise and conclusion
+		 * @return the mask of worlds that exist and do not violate a conditional with probability 0 or 1.
+		 */
+		private long evaluate(long first, long[] premiseMasks, long[] conclusionMasks) {
+			long worlds = this.numberOfWorlds - first < 64 ? (1L << (this.numberOfWorlds - first)) - 1 : -1L;
+			for(int i = 0; i < this.probabilities.length; i++) {
+				premiseMasks[i] = this.premises[i] == null ? -1L : this.premises[i].satisfiesRange(first);
+				conclusionMasks[i] = this.conclusions[i].satisfiesRange(first);
+				if(this.probabilities[i] == 1)
+					worlds &= ~premiseMasks[i] | conclusionMasks[i];
+				else if(this.probabilities[i] == 0)
+					worlds &= ~conclusionMasks[i];
+			}
+			return worlds;
+		}
+
+		/**
+		 * Determines the code of the j-th world of a batch.
+		 * @param j the index of the world in the batch
+		 * @param premiseMasks the masks of worlds satisfying the premises
+		 * @param conclusionMasks the masks of worlds satisfying premise and conclusion
+		 * @param code filled with the code
+		 */
+		private void encode(int j, long[] premiseMasks, long[] conclusionMasks, long[] code) {
+			Arrays.fill(code, 0);
+			for(int i = 0; i < this.probabilities.length; i++)
+				if((premiseMasks[i] >>> j & 1) != 0)
+					code[i / 32] |= ((conclusionMasks[i] >>> j & 1) != 0 ? 1L : 2L) << (2 * (i % 32));
+		}
+
+		/**
+		 * Returns the slot of the hash table for the given code.
+		 * @param code some code
+		 * @return the slot containing the class with the given code or the empty slot for it.
+		 */
+		private int find(long[] code) {
+			long h = 0;
+			for(long w: code)
+				h = (h ^ w) * 0x9E3779B97F4A7C15L;
+			int mask = this.table.length - 1;
+			for(int slot = (int) (h >>> 32) & mask; ; slot = (slot + 1) & mask) {
+				int c = this.table[slot];
+				if(c < 0 || Arrays.equals(this.codes, c * this.words, (c + 1) * this.words, code, 0, this.words))
+					return slot;
+			}
+		}
+
+		/**
+		 * Adds a new class with the given code.
+		 * @param code some code not yet in the hash table
+		 * @return the slot of the new class.
+		 */
+		private int add(long[] code) {
+			if(this.size == this.counts.length) {
+				this.counts = Arrays.copyOf(this.counts, 2 * this.size);
+				this.codes = Arrays.copyOf(this.codes, 2 * this.size * this.words);
+			}
+			System.arraycopy(code, 0, this.codes, this.size * this.words, this.words);
+			this.size++;
+			if(2 * this.size > this.table.length) {
+				// rehash
+				this.table = new int[2 * this.table.length];
+				Arrays.fill(this.table, -1);
+				long[] other = new long[this.words];
+				for(int c = 0; c < this.size; c++) {
+					System.arraycopy(this.codes, c * this.words, other, 0, this.words);
+					this.table[this.find(other)] = c;
+				}
+				return this.find(code);
+			}
+			int slot = this.find(code);
+			this.table[slot] = this.size - 1;
+			return slot;
+		}
+
+		/**
+		 * Determines the non-zero feature values of the worlds of the given class.
+		 * @param c some class
+		 * @param indices filled with the indices of the conditionals with non-zero values
+		 * @param values filled with the values
+		 * @return the number of non-zero values.
+		 */
+		private int features(int c, int[] indices, double[] values) {
+			int nonZero = 0;
+			for(int i = 0; i < this.probabilities.length; i++) {
+				long state = this.codes[c * this.words + i / 32] >>> (2 * (i % 32)) & 3;
+				if(state == 0 || (state == 1 && this.probabilities[i] == 1))
+					continue;
+				indices[nonZero] = i;
+				values[nonZero++] = state == 1 ? 1 - this.probabilities[i] : -this.probabilities[i];
+			}
+			return nonZero;
+		}
+
+		/**
+		 * Evaluates the dual function log Z.
+		 * @param lambda the multipliers
+		 * @param scores filled with the scores sum_i l_i f_i of the classes
+		 * @return the value of log Z.
+		 */
+		private double evaluate(double[] lambda, double[] scores) {
+			int[] indices = new int[lambda.length];
+			double[] values = new double[lambda.length];
+			double max = Double.NEGATIVE_INFINITY;
+			for(int c = 0; c < this.size; c++) {
+				int nonZero = this.features(c, indices, values);
+				double score = 0;
+				for(int a = 0; a < nonZero; a++)
+					score += lambda[indices[a]] * values[a];
+				scores[c] = score;
+				max = Math.max(max, score);
+			}
+			double sum = 0;
+			for(int c = 0; c < this.size; c++)
+				sum += this.counts[c] * Math.exp(scores[c] - max);
+			return max + Math.log(sum);
+		}
+
+		/**
+		 * Returns the probabilities of the 64 worlds first,...,first+63.
+		 * @param first a multiple of 64
+		 * @return the probabilities of the worlds (0 for worlds beyond the last world).
+		 */
+		public double[] getProbabilities(long first) {
+			if((first & 63) != 0)
+				throw new IllegalArgumentException("The first world of a range must be a multiple of 64.");
+			int m = this.probabilities.length;
+			long[] premiseMasks = new long[m];
+			long[] conclusionMasks = new long[m];
+			long[] code = new long[this.words];
+			double[] result = new double[64];
+			for(long worlds = this.evaluate(first, premiseMasks, conclusionMasks); worlds != 0; worlds &= worlds - 1) {
+				int j = Long.numberOfTrailingZeros(worlds);
+				this.encode(j, premiseMasks, conclusionMasks, code);
+				result[j] = this.worldProbabilities[this.table[this.find(code)]];
+			}
+			return result;
+		}
+
+		/**
+		 * Returns the probability of the given world.
+		 * @param world a world, the i-th bit is the truth value of the i-th atom
+		 * @return the probability of the world.
+		 */
+		public double getProbability(long world) {
+			return this.getProbabilities(world & ~63L)[(int) (world & 63)];
+		}
+
+		/**
+		 * Returns the probability of the given formula.
+		 * @param formula some formula over the atoms
+		 * @return the probability of the formula.
+		 */
+		public double getProbability(PlFormula formula) {
+			CompiledPlFormula f = new CompiledPlFormula(formula, this.atoms);
+			double result = 0;
+			for(long first = 0; first < this.numberOfWorlds; first += 64) {
+				long models = f.satisfiesRange(first);
+				double[] p = this.getProbabilities(first);
+				for(; models != 0; models &= models - 1)
+					result += p[Long.numberOfTrailingZeros(models)];
+			}
+			return result;
+		}
+
+		/**
+		 * Returns the entropy of this distribution.
+		 * @return the entropy of this distribution.
+		 */
+		public double getEntropy() {
+			double entropy = 0;
+			for(int c = 0; c < this.size; c++)
+				if(this.worldProbabilities[c] > 0)
+					entropy -= this.counts[c] * this.worldProbabilities[c] * Math.log(this.worldProbabilities[c]);
+			return entropy;
+		}
+
+		/**
+		 * Returns the number of classes of worlds with the same probability, i.e., the size of the
+		 * optimization problem actually solved.
+		 * @return the number of classes.
+		 */
+		public int getNumberOfClasses() {
+			return this.size;
+		}
+
+		/**
+		 * Returns this distribution as a probability distribution on possible worlds (this
+		 * enumerates all 2^n worlds).
+		 * @param signature the signature of the distribution, containing exactly the atoms
+		 * @return the probability distribution.
+		 */
+		public ProbabilityDistribution<PossibleWorld> toProbabilityDistribution(PlSignature signature) {
+			ProbabilityDistribution<PossibleWorld> p = new ProbabilityDistribution<PossibleWorld>(signature);
+			for(long first = 0; first < this.numberOfWorlds; first += 64) {
+				double[] probs = this.getProbabilities(first);
+				for(int j = 0; j < 64 && first + j < this.numberOfWorlds; j++)
+					p.put(CompiledPlFormula.toPossibleWorld(first + j, this.atoms), new Probability(probs[j]));
+			}
+			return p;
+		}
+	}
+}
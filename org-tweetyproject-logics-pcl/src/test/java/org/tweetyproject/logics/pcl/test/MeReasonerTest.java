@@ -0,0 +1,142 @@
+/*
+ *  This file is part of "TweetyProject", a collection of Java libraries for
+ *  logical aspects of artificial intelligence and knowledge representation.
+ *
+ *  TweetyProject is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  Copyright 2024 The TweetyProject Team <http://tweetyproject.org/contact/>
+ */
+package org.tweetyproject.logics.pcl.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.tweetyproject.commons.ParserException;
+import org.tweetyproject.logics.pcl.analysis.PclDefaultConsistencyTester;
+import org.tweetyproject.logics.pcl.parser.PclParser;
+import org.tweetyproject.logics.pcl.reasoner.DefaultMeReasoner;
+import org.tweetyproject.logics.pcl.reasoner.GeneralizedMeReasoner;
+import org.tweetyproject.logics.pcl.reasoner.MeEngine;
+import org.tweetyproject.logics.pcl.semantics.ProbabilityDistribution;
+import org.tweetyproject.logics.pcl.syntax.PclBeliefSet;
+import org.tweetyproject.logics.pl.parser.PlParser;
+import org.tweetyproject.logics.pl.semantics.PossibleWorld;
+import org.tweetyproject.logics.pl.syntax.PlSignature;
+import org.tweetyproject.logics.pl.syntax.Proposition;
+import org.tweetyproject.math.GeneralMathException;
+import org.tweetyproject.math.opt.solver.ApacheCommonsSimplex;
+import org.tweetyproject.math.opt.solver.Solver;
+
+/**
+ * Tests the computation of ME-distributions by {@link MeEngine} against ME-distributions
+ * known in closed form.
+ *
+ * @author agent
+ */
+public class MeReasonerTest {
+
+	private static final double ACCURACY = 0.0001;
+
+	private PclParser parser;
+	private PlParser plParser;
+
+	@Before
+	public void setUp() {
+		this.parser = new PclParser();
+		this.plParser = new PlParser();
+		Solver.setDefaultLinearSolver(new ApacheCommonsSimplex());
+	}
+
+	private double query(PclBeliefSet bs, String formula) throws ParserException, IOException {
+		return new DefaultMeReasoner().query(bs, this.plParser.parseFormula(formula));
+	}
+
+	private static List<Proposition> atoms(PclBeliefSet bs) {
+		return new ArrayList<Proposition>(((PlSignature) bs.getMinimalSignature()).toCollection());
+	}
+
+	@Test
+	public void FactTest() throws ParserException, IOException {
+		// conditionals on "a" only, "b" is uniformly distributed
+		PclBeliefSet bs = this.parser.parseBeliefBase("(a)[0.6]\n(b|a)[0.8]");
+		assertEquals(0.6, this.query(bs, "a"), ACCURACY);
+		assertEquals(0.48, this.query(bs, "a && b"), ACCURACY);
+		assertEquals(0.68, this.query(bs, "b"), ACCURACY);
+	}
+
+	@Test
+	public void ConditionalTest() throws ParserException, IOException, GeneralMathException {
+		// the ME-distribution of (b|a)[x] has P(w) proportional to r^(1-x) for the world
+		// verifying the conditional, to r^(-x) for the one falsifying it, and to 1 otherwise,
+		// where r = x/(1-x)
+		PclBeliefSet bs = this.parser.parseBeliefBase("(b|a)[0.8]");
+		double verified = Math.pow(4, 0.2);
+		double falsified = Math.pow(4, -0.8);
+		double z = verified + falsified + 2;
+		assertEquals((verified + falsified) / z, this.query(bs, "a"), ACCURACY);
+		assertEquals((verified + 1) / z, this.query(bs, "b"), ACCURACY);
+		assertEquals(verified / z, this.query(bs, "a && b"), ACCURACY);
+		// the ME-distribution maximizes the entropy -sum P(w) log P(w)
+		double entropy = -(verified * Math.log(verified / z) + falsified * Math.log(falsified / z) + 2 * Math.log(1 / z)) / z;
+		assertEquals(entropy, new MeEngine().solve(bs, atoms(bs)).getEntropy(), ACCURACY);
+		// the generalized ME-distribution of a consistent belief set is its ME-distribution
+		ProbabilityDistribution<PossibleWorld> p = new GeneralizedMeReasoner(GeneralizedMeReasoner.MANHATTAN).getModel(bs);
+		assertEquals((verified + falsified) / z, p.probability(this.plParser.parseFormula("a")).getValue(), ACCURACY);
+	}
+
+	@Test
+	public void InconsistentTest() throws ParserException, IOException, GeneralMathException {
+		PclBeliefSet bs = this.parser.parseBeliefBase("(a)[0.3]\n(a)[0.7]");
+		assertFalse(new PclDefaultConsistencyTester().isConsistent(bs));
+		assertFalse(new MeEngine().isConsistent(bs, atoms(bs)));
+		assertNull(new MeEngine().solve(bs, atoms(bs)));
+		try {
+			new DefaultMeReasoner().getModel(bs);
+			assertTrue(false);
+		} catch (IllegalArgumentException e) {
+			// inconsistent belief sets have no ME-distribution
+		}
+		// slightly inconsistent belief sets are detected as well (log Z is negative)
+		bs = this.parser.parseBeliefBase("(a)[0.3]\n(b)[0.5]\n(a)[0.31]");
+		assertFalse(new PclDefaultConsistencyTester().isConsistent(bs));
+		// consistent, but only by distributions that are zero on some worlds
+		bs = this.parser.parseBeliefBase("(a)[0.3]\n(b)[0.3]\n(b|a)[1]");
+		assertTrue(new PclDefaultConsistencyTester().isConsistent(bs));
+		assertEquals(0.3, this.query(bs, "a && b"), ACCURACY);
+		assertEquals(0, this.query(bs, "!a && b"), ACCURACY);
+	}
+
+	@Test
+	public void ExtremeProbabilityTest() throws ParserException, IOException {
+		PclBeliefSet bs = this.parser.parseBeliefBase("(a)[0.5]\n(b|a)[1]\n(c|b)[0]");
+		// worlds violating conditionals with probability 0 or 1 have probability 0 exactly
+		assertEquals(0, this.query(bs, "a && !b"), 0);
+		assertEquals(0, this.query(bs, "b && c"), 0);
+		// remaining worlds: (a,b,!c) with 0.5, and (!a,b,!c), (!a,!b,c), (!a,!b,!c) with 0.5/3 each
+		assertEquals(0.5, this.query(bs, "a && b && !c"), ACCURACY);
+		assertEquals(0.5 + 0.5 / 3, this.query(bs, "b"), ACCURACY);
+		assertEquals(0.5 / 3, this.query(bs, "c"), ACCURACY);
+		ProbabilityDistribution<PossibleWorld> p = new DefaultMeReasoner().getModel(bs);
+		assertEquals(1, p.probability(this.plParser.parseFormula("b || !b")).getValue(), ACCURACY);
+		assertEquals(0, p.probability(this.plParser.parseFormula("a && !b")).getValue(), 0);
+	}
+}
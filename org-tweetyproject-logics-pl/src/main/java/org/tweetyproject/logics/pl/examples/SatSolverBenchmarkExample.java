@@ -0,0 +1,78 @@
+/*
+ *  This file is part of "TweetyProject", a collection of Java libraries for
+ *  logical aspects of artificial intelligence and knowledge representation.
+ *
+ *  TweetyProject is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  Copyright 2024 The TweetyProject Team <http://tweetyproject.org/contact/>
+ */
+package org.tweetyproject.logics.pl.examples;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.tweetyproject.logics.pl.sat.CdclSolver;
+import org.tweetyproject.logics.pl.sat.SatSolver;
+import org.tweetyproject.logics.pl.sat.SimpleDpllSolver;
+import org.tweetyproject.logics.pl.syntax.PlBeliefSet;
+import org.tweetyproject.logics.pl.syntax.PlSignature;
+import org.tweetyproject.logics.pl.util.RandomSatSampler;
+
+/**
+ * Compares the runtime of the pure Java solvers {@link SimpleDpllSolver} and
+ * {@link CdclSolver} on random 3-SAT instances at the phase transition (i.e., with
+ * about 4.26 clauses per variable), where instances are hardest. As the DPLL
+ * solver does not scale, it is only run on the smaller instances.
+ *
+ * @author agent
+ */
+public class SatSolverBenchmarkExample {
+
+	/** The number of instances per size. */
+	private static final int NUM_INSTANCES = 10;
+	/** The largest number of variables the DPLL solver is run on. */
+	private static final int MAX_DPLL_VARIABLES = 30;
+
+	/**
+	 * main
+	 * @param args arguments
+	 */
+	public static void main(String[] args) {
+		SatSolver dpll = new SimpleDpllSolver();
+		SatSolver cdcl = new CdclSolver();
+		System.out.println("#vars\t#clauses\t#sat\tDPLL (ms)\tCDCL (ms)");
+		for (int n : new int[] { 10, 20, 30, 50, 100, 150, 200 }) {
+			int m = (int) Math.round(4.26 * n);
+			RandomSatSampler sampler = new RandomSatSampler(new PlSignature(n), 3, m, m);
+			List<PlBeliefSet> instances = new ArrayList<>();
+			for (int i = 0; i < NUM_INSTANCES; i++)
+				instances.add(sampler.next());
+			int sat = 0;
+			long millis_cdcl = 0;
+			for (PlBeliefSet bs : instances) {
+				long start = System.nanoTime();
+				if (cdcl.isSatisfiable(bs))
+					sat++;
+				millis_cdcl += (System.nanoTime() - start) / 1000000;
+			}
+			String millis_dpll = "-";
+			if (n <= MAX_DPLL_VARIABLES) {
+				long start = System.nanoTime();
+				for (PlBeliefSet bs : instances)
+					dpll.isSatisfiable(bs);
+				millis_dpll = Long.toString((System.nanoTime() - start) / 1000000);
+			}
+			System.out.println(n + "\t" + m + "\t\t" + sat + "/" + NUM_INSTANCES + "\t" + millis_dpll + "\t\t" + millis_cdcl);
+		}
+	}
+}
@@ -0,0 +1,348 @@
+/*
+ *  This file is part of "TweetyProject", a collection of Java libraries for
+ *  logical aspects of artificial intelligence and knowledge representation.
+ *
+ *  TweetyProject is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  Copyright 2024 The TweetyProject Team <http://tweetyproject.org/contact/>
+ */
+package org.tweetyproject.logics.pl.reasoner;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.tweetyproject.logics.commons.syntax.Constant;
+import org.tweetyproject.logics.commons.syntax.Predicate;
+import org.tweetyproject.logics.commons.syntax.RelationalFormula;
+import org.tweetyproject.logics.commons.syntax.Sort;
+import org.tweetyproject.logics.commons.syntax.Variable;
+import org.tweetyproject.logics.commons.syntax.interfaces.Term;
+import org.tweetyproject.logics.fol.reasoner.FolReasoner;
+import org.tweetyproject.logics.fol.syntax.Conjunction;
+import org.tweetyproject.logics.fol.syntax.Contradiction;
+import org.tweetyproject.logics.fol.syntax.Disjunction;
+import org.tweetyproject.logics.fol.syntax.EqualityPredicate;
+import org.tweetyproject.logics.fol.syntax.Equivalence;
+import org.tweetyproject.logics.fol.syntax.ExclusiveDisjunction;
+import org.tweetyproject.logics.fol.syntax.ExistsQuantifiedFormula;
+import org.tweetyproject.logics.fol.syntax.FolAtom;
+import org.tweetyproject.logics.fol.syntax.FolBeliefSet;
+import org.tweetyproject.logics.fol.syntax.FolFormula;
+import org.tweetyproject.logics.fol.syntax.ForallQuantifiedFormula;
+import org.tweetyproject.logics.fol.syntax.Implication;
+import org.tweetyproject.logics.fol.syntax.InequalityPredicate;
+import org.tweetyproject.logics.fol.syntax.Negation;
+import org.tweetyproject.logics.fol.syntax.Tautology;
+import org.tweetyproject.logics.pl.sat.CdclEngine;
+
+/**
+ * A reasoner for first-order logic (without functors) wrt. Herbrand interpretations, like
+ * {@link org.tweetyproject.logics.fol.reasoner.SimpleFolReasoner}, that grounds the belief set and
+ * the negated query into propositional clauses over ground atoms and decides entailment with the
+ * SAT engine {@link CdclEngine}, instead of enumerating all Herbrand interpretations.
+ * <br>
+ * Grounding is streaming, i.e., no ground formulas are constructed: universally quantified
+ * formulas and conjunctions on the top level (and existentially quantified formulas and disjunctions
+ * below a negation) are asserted instance by instance; other subformulas are encoded by auxiliary
+ * variables (Tseitin encoding). Quantified variables range over the constants of their sort; the
+ * ground atoms are indexed by their predicate and their arguments and are created on demand.
+ * <br>
+ * Note that the Herbrand base of {@link org.tweetyproject.logics.fol.reasoner.SimpleFolReasoner} only contains
+ * the constants occurring in the belief set or the query (atoms with other constants are always false), so both
+ * reasoners agree if every constant of the signature occurs there.
+ *
+ * @author agent
+ */
+public class GroundingFolReasoner extends FolReasoner {
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.logics.fol.reasoner.FolReasoner#query(org.tweetyproject.logics.fol.syntax.FolBeliefSet, org.tweetyproject.logics.fol.syntax.FolFormula)
+	 */
+	@Override
+	public Boolean query(FolBeliefSet kb, FolFormula formula) {
+		if(!formula.isWellFormed())
+			throw new IllegalArgumentException("The given formula " + formula + " is not well-formed.");
+		if(!formula.isClosed())
+			throw new IllegalArgumentException("The given formula " + formula + " is not closed.");
+		Grounder grounder = new Grounder();
+		for(FolFormula f: kb)
+			grounder.add(f, false);
+		grounder.add(formula, true);
+		return !grounder.engine.solve();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.logics.fol.reasoner.FolReasoner#equivalent(org.tweetyproject.logics.fol.syntax.FolBeliefSet, org.tweetyproject.logics.fol.syntax.FolFormula, org.tweetyproject.logics.fol.syntax.FolFormula)
+	 */
+	@Override
+	public boolean equivalent(FolBeliefSet kb, FolFormula f1, FolFormula f2) {
+		FolFormula f = new Equivalence(f1, f2);
+		if(!f.getUnboundVariables().isEmpty())
+			f = new ForallQuantifiedFormula(f, f.getUnboundVariables());
+		return this.query(kb, f);
+	}
+
+	/**
+	 * Checks whether the given belief set has a Herbrand model.
+	 * @param kb some belief set
+	 * @return "true" iff the belief set is consistent.
+	 */
+	public boolean isConsistent(FolBeliefSet kb) {
+		Grounder grounder = new Grounder();
+		for(FolFormula f: kb)
+			grounder.add(f, false);
+		return grounder.engine.solve();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.commons.Reasoner#isInstalled()
+	 */
+	@Override
+	public boolean isInstalled() {
+		return true;
+	}
+
+	/**
+	 * Grounds formulas into the clauses of a SAT engine.
+	 */
+	private static class Grounder {
+		/** The SAT engine. */
+		private final CdclEngine engine = new CdclEngine();
+		/** The variable that is always true. */
+		private final int top;
+		/** The variables of the ground atoms, by predicate and arguments. */
+		private final Map<Predicate,Map<List<Term<?>>,Integer>> atoms = new HashMap<Predicate,Map<List<Term<?>>,Integer>>();
+		/** The constants of every sort. */
+		private final Map<Sort,List<Constant>> constants = new HashMap<Sort,List<Constant>>();
+		/** The current instantiation of variables. */
+		private final Map<Variable,Constant> binding = new HashMap<Variable,Constant>();
+
+		private Grounder() {
+			this.top = this.engine.newVariable();
+			this.engine.addClause(this.top);
+		}
+
+		/**
+		 * Adds the clauses of the given formula (under the current binding).
+		 * @param f some formula
+		 * @param negated whether the negation of the formula is to be added
+		 */
+		private void add(FolFormula f, boolean negated) {
+			if(f instanceof Negation)
+				this.add(((Negation) f).getFormula(), !negated);
+			else if((f instanceof Conjunction && !negated) || (f instanceof Disjunction && negated)) {
+				for(RelationalFormula g: (Iterable<RelationalFormula>) f)
+					this.add((FolFormula) g, negated);
+			}else if(f instanceof Implication && negated) {
+				this.add((FolFormula) ((Implication) f).getFirstFormula(), false);
+				this.add((FolFormula) ((Implication) f).getSecondFormula(), true);
+			}else if(f instanceof ForallQuantifiedFormula && !negated) {
+				ForallQuantifiedFormula q = (ForallQuantifiedFormula) f;
+				List<Variable> vars = new ArrayList<Variable>(q.getQuantifierVariables());
+				this.instantiate(vars, 0, () -> this.add(q.getFormula(), false));
+			}else if(f instanceof ExistsQuantifiedFormula && negated) {
+				ExistsQuantifiedFormula q = (ExistsQuantifiedFormula) f;
+				List<Variable> vars = new ArrayList<Variable>(q.getQuantifierVariables());
+				this.instantiate(vars, 0, () -> this.add(q.getFormula(), true));
+			}else if(f instanceof Disjunction || (f instanceof Conjunction && negated)) {
+				List<Integer> clause = new ArrayList<Integer>();
+				for(RelationalFormula g: (Iterable<RelationalFormula>) f)
+					clause.add(negated ? -this.encode((FolFormula) g) : this.encode((FolFormula) g));
+				this.engine.addClause(clause.stream().mapToInt(Integer::intValue).toArray());
+			}else{
+				int lit = this.encode(f);
+				this.engine.addClause(negated ? -lit : lit);
+			}
+		}
+
+		/**
+		 * Runs the given action for every instantiation of the given variables (from the given
+		 * index on) by constants of their sorts.
+		 * @param vars some variables
+		 * @param i the index of the next variable to instantiate
+		 * @param action some action
+		 */
+		private void instantiate(List<Variable> vars, int i, Runnable action) {
+			if(i == vars.size()) {
+				action.run();
+				return;
+			}
+			Variable v = vars.get(i);
+			Constant previous = this.binding.get(v);
+			for(Constant c: this.getConstants(v.getSort())) {
+				this.binding.put(v, c);
+				this.instantiate(vars, i + 1, action);
+			}
+			if(previous == null)
+				this.binding.remove(v);
+			else this.binding.put(v, previous);
+		}
+
+		/**
+		 * Returns the constants of the given sort.
+		 * @param sort some sort
+		 * @return the constants of the sort.
+		 */
+		private List<Constant> getConstants(Sort sort) {
+			List<Constant> result = this.constants.get(sort);
+			if(result == null) {
+				result = new ArrayList<Constant>(sort.getTerms(Constant.class));
+				this.constants.put(sort, result);
+			}
+			return result;
+		}
+
+		/**
+		 * Returns a literal equivalent to the given formula (under the current binding).
+		 * @param f some formula
+		 * @return a literal of the SAT engine.
+		 */
+		private int encode(FolFormula f) {
+			if(f instanceof Tautology)
+				return this.top;
+			if(f instanceof Contradiction)
+				return -this.top;
+			if(f instanceof FolAtom)
+				return this.encodeAtom((FolAtom) f);
+			if(f instanceof Negation)
+				return -this.encode(((Negation) f).getFormula());
+			if(f instanceof Conjunction || f instanceof Disjunction) {
+				List<Integer> lits = new ArrayList<Integer>();
+				for(RelationalFormula g: (Iterable<RelationalFormula>) f)
+					lits.add(this.encode((FolFormula) g));
+				return f instanceof Conjunction ? this.and(lits) : -this.and(this.negate(lits));
+			}
+			if(f instanceof Implication) {
+				int a = this.encode((FolFormula) ((Implication) f).getFirstFormula());
+				int b = this.encode((FolFormula) ((Implication) f).getSecondFormula());
+				return -this.and(List.of(a, -b));
+			}
+			if(f instanceof Equivalence) {
+				int a = this.encode((FolFormula) ((Equivalence) f).getFormulas().getFirst());
+				int b = this.encode((FolFormula) ((Equivalence) f).getFormulas().getSecond());
+				return -this.xor(a, b);
+			}
+			if(f instanceof ExclusiveDisjunction) {
+				int result = -this.top;
+				for(RelationalFormula g: (ExclusiveDisjunction) f)
+					result = this.xor(result, this.encode((FolFormula) g));
+				return result;
+			}
+			if(f instanceof ForallQuantifiedFormula || f instanceof ExistsQuantifiedFormula) {
+				boolean forall = f instanceof ForallQuantifiedFormula;
+				FolFormula body = forall ? ((ForallQuantifiedFormula) f).getFormula() : ((ExistsQuantifiedFormula) f).getFormula();
+				List<Variable> vars = new ArrayList<Variable>(forall ? ((ForallQuantifiedFormula) f).getQuantifierVariables() : ((ExistsQuantifiedFormula) f).getQuantifierVariables());
+				List<Integer> lits = new ArrayList<Integer>();
+				this.instantiate(vars, 0, () -> lits.add(forall ? this.encode(body) : -this.encode(body)));
+				return forall ? this.and(lits) : -this.and(lits);
+			}
+			throw new IllegalArgumentException("FolFormula " + f + " is of unknown type.");
+		}
+
+		/**
+		 * Returns the literal of the given atom (under the current binding).
+		 * @param a some atom
+		 * @return a literal of the SAT engine.
+		 */
+		private int encodeAtom(FolAtom a) {
+			List<Term<?>> args = new ArrayList<Term<?>>(a.getArguments().size());
+			for(Term<?> t: a.getArguments()) {
+				if(t instanceof Variable) {
+					Constant c = this.binding.get(t);
+					if(c == null)
+						throw new IllegalArgumentException("FolFormula " + a + " is not closed.");
+					args.add(c);
+				}else if(t instanceof Constant)
+					args.add(t);
+				else throw new IllegalArgumentException("Grounding is defined only for formulas without functors.");
+			}
+			Predicate p = a.getPredicate();
+			if(p instanceof EqualityPredicate)
+				return args.get(0).equals(args.get(1)) ? this.top : -this.top;
+			if(p instanceof InequalityPredicate)
+				return args.get(0).equals(args.get(1)) ? -this.top : this.top;
+			Map<List<Term<?>>,Integer> index = this.atoms.get(p);
+			if(index == null) {
+				index = new HashMap<List<Term<?>>,Integer>();
+				this.atoms.put(p, index);
+			}
+			Integer var = index.get(args);
+			if(var == null) {
+				var = this.engine.newVariable();
+				index.put(args, var);
+			}
+			return var;
+		}
+
+		/**
+		 * Returns a literal equivalent to the conjunction of the given literals.
+		 * @param lits some literals
+		 * @return a literal of the SAT engine.
+		 */
+		private int and(List<Integer> lits) {
+			List<Integer> rest = new ArrayList<Integer>();
+			for(int l: lits) {
+				if(l == -this.top)
+					return -this.top;
+				if(l != this.top)
+					rest.add(l);
+			}
+			if(rest.isEmpty())
+				return this.top;
+			if(rest.size() == 1)
+				return rest.get(0);
+			int x = this.engine.newVariable();
+			int[] clause = new int[rest.size() + 1];
+			clause[0] = x;
+			for(int i = 0; i < rest.size(); i++) {
+				this.engine.addClause(-x, rest.get(i));
+				clause[i + 1] = -rest.get(i);
+			}
+			this.engine.addClause(clause);
+			return x;
+		}
+
+		/**
+		 * Returns a literal equivalent to the exclusive disjunction of the given literals.
+		 * @param a some literal
+		 * @param b some literal
+		 * @return a literal of the SAT engine.
+		 */
+		private int xor(int a, int b) {
+			if(Math.abs(a) == this.top)
+				return a == this.top ? -b : b;
+			if(Math.abs(b) == this.top)
+				return b == this.top ? -a : a;
+			int x = this.engine.newVariable();
+			this.engine.addClause(-x, a, b);
+			this.engine.addClause(-x, -a, -b);
+			this.engine.addClause(x, -a, b);
+			this.engine.addClause(x, a, -b);
+			return x;
+		}
+
+		/**
+		 * Negates the given literals.
+		 * @param lits some literals
+		 * @return the negated literals.
+		 */
+		private List<Integer> negate(List<Integer> lits) {
+			List<Integer> result = new ArrayList<Integer>(lits.size());
+			for(int l: lits)
+				result.add(-l);
+			return result;
+		}
+	}
+}
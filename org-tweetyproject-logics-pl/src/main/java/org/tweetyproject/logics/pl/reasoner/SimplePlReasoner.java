@@ -18,19 +18,59 @@
  */
 package org.tweetyproject.logics.pl.reasoner;
 
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 
-import org.tweetyproject.logics.pl.semantics.PossibleWorld;
+import org.tweetyproject.logics.pl.semantics.CompiledPlFormula;
+import org.tweetyproject.logics.pl.syntax.Conjunction;
 import org.tweetyproject.logics.pl.syntax.PlBeliefSet;
 import org.tweetyproject.logics.pl.syntax.PlFormula;
 import org.tweetyproject.logics.pl.syntax.PlSignature;
+import org.tweetyproject.logics.pl.syntax.Proposition;
 
 /**
  * Naive classical inference  (checks all interpretations for satisfiability).
+ * <br>
+ * The belief base and the query are compiled once (see {@link CompiledPlFormula}) and the
+ * interpretations are enumerated as bit vectors, so no possible worlds are materialised. Each
+ * step evaluates a batch of 64 interpretations with bitwise operations. The
+ * search stops at the first batch containing an interpretation that satisfies the belief base but not the query. Optionally,
+ * the interpretations are split into ranges that are checked in parallel.
  * 
  * @author Matthias Thimm
  */
 public class SimplePlReasoner extends AbstractPlReasoner {
+
+	/** The maximal number of atoms supported. */
+	public static final int MAX_ATOMS = 62;
+
+	/** Below this number of interpretations the check is always sequential. */
+	private static final long MIN_PARALLEL_WORLDS = 1L << 16;
+
+	/** The number of threads used for checking the interpretations. */
+	private final int parallelism;
+
+	/**
+	 * Creates a new reasoner that checks all interpretations sequentially.
+	 */
+	public SimplePlReasoner() {
+		this(1);
+	}
+
+	/**
+	 * Creates a new reasoner that splits the interpretations among the given number of threads.
+	 * @param parallelism the number of threads
+	 */
+	public SimplePlReasoner(int parallelism) {
+		if(parallelism < 1)
+			throw new IllegalArgumentException("The parallelism must be positive.");
+		this.parallelism = parallelism;
+	}
 	
 	/* (non-Javadoc)
 	 * @see org.tweetyproject.logics.pl.reasoner.AbstractPropositionalLogicReasoner#query(org.tweetyproject.logics.pl.syntax.PlBeliefSet, org.tweetyproject.logics.pl.syntax.PropositionalFormula)
@@ -41,12 +81,57 @@ public class SimplePlReasoner extends AbstractPlReasoner {
 		for(PlFormula f: beliefbase)
 			signature.addAll(f.getAtoms());
 		signature.addAll(formula.getAtoms());
-		Set<PossibleWorld> possibleWorlds = PossibleWorld.getAllPossibleWorlds(signature);
-		for(PossibleWorld w: possibleWorlds)
-			if(w.satisfies((PlBeliefSet)beliefbase))
-				if(!w.satisfies(formula))
-					return false;
-		return true;
+		List<Proposition> atoms = new ArrayList<Proposition>(signature.toCollection());
+		if(atoms.size() > SimplePlReasoner.MAX_ATOMS)
+			throw new IllegalArgumentException("Cannot enumerate the interpretations of more than " + SimplePlReasoner.MAX_ATOMS + " atoms.");
+		CompiledPlFormula kb = new CompiledPlFormula(new Conjunction(beliefbase), atoms);
+		CompiledPlFormula query = new CompiledPlFormula(formula, atoms);
+		long numberOfWorlds = 1L << atoms.size();
+		if(this.parallelism == 1 || numberOfWorlds < SimplePlReasoner.MIN_PARALLEL_WORLDS)
+			return !this.hasCounterModel(kb, query, 0, numberOfWorlds, new AtomicBoolean(false));
+		AtomicBoolean found = new AtomicBoolean(false);
+		ExecutorService executor = Executors.newFixedThreadPool(this.parallelism);
+		try {
+			List<Future<Boolean>> futures = new ArrayList<Future<Boolean>>();
+			// ranges start at multiples of 64, see CompiledPlFormula#satisfiesRange(long)
+			long range = ((numberOfWorlds + this.parallelism - 1) / this.parallelism + 63) & ~63L;
+			for(long from = 0; from < numberOfWorlds; from += range) {
+				long start = from, end = Math.min(numberOfWorlds, from + range);
+				futures.add(executor.submit(() -> this.hasCounterModel(kb, query, start, end, found)));
+			}
+			for(Future<Boolean> future: futures)
+				future.get();
+		} catch (InterruptedException | ExecutionException e) {
+			throw new RuntimeException(e);
+		} finally {
+			executor.shutdownNow();
+		}
+		return !found.get();
+	}
+
+	/**
+	 * Checks whether some interpretation in the given range satisfies the belief base but not the query.
+	 * @param kb the compiled belief base
+	 * @param query the compiled query
+	 * @param from the first interpretation (inclusive), a multiple of 64
+	 * @param to the last interpretation (exclusive)
+	 * @param found set to "true" if a counter-model has been found, also by other threads
+	 * @return "true" iff a counter-model has been found.
+	 */
+	private boolean hasCounterModel(CompiledPlFormula kb, CompiledPlFormula query, long from, long to, AtomicBoolean found) {
+		for(long w = from; w < to; w += 64) {
+			long models = kb.satisfiesRange(w);
+			if(to - w < 64)
+				models &= (1L << (to - w)) - 1;
+			if(models != 0 && (models & ~query.satisfiesRange(w)) != 0) {
+				found.set(true);
+				return true;
+			}
+			// stop if some other thread found a counter-model
+			if((w & 0x3FFFF) == 0 && found.get())
+				return true;
+		}
+		return false;
 	}
 	
 	@Override
@@ -0,0 +1,792 @@
+/*
+ *  This file is part of "TweetyProject", a collection of Java libraries for
+ *  logical aspects of artificial intelligence and knowledge representation.
+ *
+ *  TweetyProject is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  Copyright 2024 The TweetyProject Team <http://tweetyproject.org/contact/>
+ */
+package org.tweetyproject.logics.pl.sat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+/**
+ * A conflict-driven clause learning (CDCL) SAT engine working directly on
+ * clauses in Dimacs representation, i.e. variables are positive integers and
+ * a negative integer denotes the negation of a variable. The engine follows the
+ * design of MiniSat, see [Een, Soerensson. An Extensible SAT-solver. SAT 2003]:
+ * <ul>
+ * <li>unit propagation with two watched literals per clause,</li>
+ * <li>first-UIP conflict analysis with clause minimization and non-chronological backtracking,</li>
+ * <li>VSIDS branching with phase saving,</li>
+ * <li>restarts following the Luby sequence and periodic deletion of learned clauses
+ * based on their literal block distance, see [Audemard, Simon. Predicting Learnt Clauses
+ * Quality in Modern SAT Solvers. IJCAI 2009].</li>
+ * </ul>
+ * The engine is incremental: clauses can be added between calls to {@link #solve(int...)}
+ * and every call can be given a set of assumptions which only hold for this call.
+ * <br>
+ * Internally, a literal is encoded as <code>2*v</code> (positive) or <code>2*v+1</code> (negative)
+ * for a variable <code>v</code>.
+ *
+ * @author agent
+ */
+public class CdclEngine {
+
+	/** Truth value "true" of a variable or literal. */
+	private static final byte TRUE = 1;
+	/** Truth value "false" of a variable or literal. */
+	private static final byte FALSE = -1;
+	/** Unassigned variable or literal. */
+	private static final byte UNDEF = 0;
+
+	/** No reason clause (decisions and facts). */
+	private static final int NO_REASON = -1;
+
+	/** Factor for the activity decay of variables. */
+	private static final double VAR_DECAY = 0.95;
+	/** Number of conflicts of the first restart (multiplied by the Luby sequence). */
+	private static final int RESTART_BASE = 100;
+	/** The interrupt status of the thread is checked every INTERRUPT_CHECK+1 conflicts. */
+	private static final long INTERRUPT_CHECK = 0xFF;
+	/** Number of conflicts until learned clauses are deleted for the first time. */
+	private static final int REDUCE_BASE = 2000;
+	/** Increment of the number of conflicts between two deletions of learned clauses. */
+	private static final int REDUCE_INC = 300;
+	/** Learned clauses with at most this literal block distance are never deleted. */
+	private static final int GLUE = 2;
+
+	/** The number of variables. */
+	private int num_vars = 0;
+	/** All clauses, indexed by their id; deleted clauses are <code>null</code>. */
+	private final List<int[]> clauses = new ArrayList<>();
+	/** The ids of the learned clauses. */
+	private IntVec learnts = new IntVec();
+	/** The literal block distance of every clause (0 for original clauses). */
+	private final IntVec lbd = new IntVec();
+	/** For each literal the ids of the clauses watching it, each followed by a blocking literal of the clause. */
+	private IntVec[] watches = new IntVec[0];
+
+	/** The current assignment of every variable. */
+	private byte[] assigns = new byte[1];
+	/** The decision level of every assigned variable. */
+	private int[] level = new int[1];
+	/** The clause that implied the value of every assigned variable. */
+	private int[] reason = new int[1];
+	/** The last polarity of every variable ("true" if it was false). */
+	private boolean[] phase = new boolean[1];
+	/** Marks for conflict analysis. */
+	private boolean[] seen = new boolean[1];
+	/** Marks of decision levels for computing literal block distances. */
+	private int[] level_stamp = new int[1];
+	/** The current mark for decision levels. */
+	private int stamp = 0;
+	/** The activity of every variable. */
+	private double[] activity = new double[1];
+	/** The current bump value for activities. */
+	private double var_inc = 1;
+	/** The unassigned variables ordered by activity. */
+	private final VarHeap order = new VarHeap();
+
+	/** The assigned literals in assignment order. */
+	private int[] trail = new int[1];
+	/** The number of assigned literals. */
+	private int trail_size = 0;
+	/** The positions in the trail where the decision levels start. */
+	private final IntVec trail_lim = new IntVec();
+	/** The position in the trail of the next literal to be propagated. */
+	private int qhead = 0;
+
+	/** "false" if the clauses are unsatisfiable regardless of assumptions. */
+	private boolean ok = true;
+	/** The model of the last successful call, indexed by variable. */
+	private boolean[] model = null;
+	/** The total number of conflicts so far. */
+	private long conflicts = 0;
+	/** The number of conflicts at which learned clauses are deleted next. */
+	private long next_reduce = REDUCE_BASE;
+	/** The number of deletions of learned clauses so far. */
+	private int num_reduce = 0;
+
+	/**
+	 * Returns the number of variables known to this engine.
+	 * @return the number of variables.
+	 */
+	public int numberOfVariables() {
+		return this.num_vars;
+	}
+
+	/**
+	 * Returns the total number of conflicts encountered by this engine.
+	 * @return the number of conflicts.
+	 */
+	public long numberOfConflicts() {
+		return this.conflicts;
+	}
+
+	/**
+	 * Introduces a new variable.
+	 * @return the new variable (a natural number &gt; 0).
+	 */
+	public int newVariable() {
+		this.ensureVariables(this.num_vars + 1);
+		return this.num_vars;
+	}
+
+	/**
+	 * Makes sure that all variables up to (and including) the given one are known.
+	 * @param n some variable
+	 */
+	public void ensureVariables(int n) {
+		if (n <= this.num_vars)
+			return;
+		if (n + 1 > this.assigns.length) {
+			int capacity = Math.max(n + 1, this.assigns.length * 2);
+			this.assigns = Arrays.copyOf(this.assigns, capacity);
+			this.level = Arrays.copyOf(this.level, capacity);
+			this.reason = Arrays.copyOf(this.reason, capacity);
+			this.phase = Arrays.copyOf(this.phase, capacity);
+			this.seen = Arrays.copyOf(this.seen, capacity);
+			this.level_stamp = Arrays.copyOf(this.level_stamp, capacity);
+			this.activity = Arrays.copyOf(this.activity, capacity);
+			this.trail = Arrays.copyOf(this.trail, capacity);
+			int old = this.watches.length;
+			this.watches = Arrays.copyOf(this.watches, 2 * capacity);
+			for (int i = old; i < this.watches.length; i++)
+				this.watches[i] = new IntVec();
+		}
+		for (int v = this.num_vars + 1; v <= n; v++) {
+			this.reason[v] = NO_REASON;
+			this.phase[v] = true;
+			this.order.insert(v);
+		}
+		this.num_vars = n;
+	}
+
+	/**
+	 * Adds the given clause (in Dimacs representation, without the terminating 0).
+	 * Variables that are not known yet are introduced automatically.
+	 * @param clause some clause; an empty clause renders the engine unsatisfiable.
+	 * @return "false" if the engine became unsatisfiable by adding the clause.
+	 */
+	public boolean addClause(int... clause) {
+		if (!this.ok)
+			return false;
+		this.cancelUntil(0);
+		int[] lits = new int[clause.length];
+		int size = 0;
+		for (int l : clause) {
+			if (l == 0)
+				throw new IllegalArgumentException("0 is not a valid literal.");
+			this.ensureVariables(Math.abs(l));
+			lits[size++] = CdclEngine.toLit(l);
+		}
+		Arrays.sort(lits, 0, size);
+		// remove duplicates and literals false on level 0, skip satisfied and tautological clauses
+		int j = 0;
+		int prev = -1;
+		for (int i = 0; i < size; i++) {
+			int l = lits[i];
+			byte val = this.value(l);
+			if (val == TRUE || l == (prev ^ 1))
+				return true;
+			if (val != FALSE && l != prev)
+				lits[j++] = prev = l;
+		}
+		if (j == 0) {
+			this.ok = false;
+			return false;
+		}
+		if (j == 1) {
+			this.enqueue(lits[0], NO_REASON);
+			this.ok = this.propagate() == NO_REASON;
+			return this.ok;
+		}
+		this.attach(Arrays.copyOf(lits, j));
+		return true;
+	}
+
+	/**
+	 * Checks whether the clauses of this engine are satisfiable under the
+	 * given assumptions (in Dimacs representation). If so, the model can be
+	 * retrieved by {@link #modelValue(int)}.
+	 * @param assumptions some literals that are assumed to be true for this call.
+	 * @return "true" if the clauses and the assumptions are satisfiable.
+	 * @throws CancellationException if the current thread is interrupted during the search; the
+	 * 	engine remains usable and the interrupt status of the thread is kept.
+	 */
+	public boolean solve(int... assumptions) {
+		this.model = null;
+		if (!this.ok)
+			return false;
+		int[] assumps = new int[assumptions.length];
+		for (int i = 0; i < assumptions.length; i++) {
+			this.ensureVariables(Math.abs(assumptions[i]));
+			assumps[i] = CdclEngine.toLit(assumptions[i]);
+		}
+		byte status = UNDEF;
+		for (int restart = 0; status == UNDEF; restart++)
+			status = this.search(CdclEngine.luby(restart) * RESTART_BASE, assumps);
+		this.cancelUntil(0);
+		return status == TRUE;
+	}
+
+	/**
+	 * Returns the value of the given variable in the model found by the last call
+	 * of {@link #solve(int...)}, which must have been successful.
+	 * @param var some variable
+	 * @return the truth value of the variable.
+	 */
+	public boolean modelValue(int var) {
+		if (this.model == null)
+			throw new IllegalStateException("No model available, the last call to solve() was not successful.");
+		return var < this.model.length && this.model[var];
+	}
+
+	/**
+	 * Searches for a model until the given number of conflicts is reached.
+	 * @param max_conflicts the number of conflicts until the next restart.
+	 * @param assumptions the assumptions (as internal literals).
+	 * @return TRUE if a model was found, FALSE if there is none, UNDEF on a restart.
+	 */
+	private byte search(long max_conflicts, int[] assumptions) {
+		long num_conflicts = 0;
+		IntVec learnt = new IntVec();
+		while (true) {
+			int confl = this.propagate();
+			if (confl != NO_REASON) {
+				this.conflicts++;
+				num_conflicts++;
+				if ((this.conflicts & INTERRUPT_CHECK) == 0 && Thread.currentThread().isInterrupted()) {
+					this.cancelUntil(0);
+					throw new CancellationException("The search has been interrupted.");
+				}
+				if (this.decisionLevel() == 0) {
+					this.ok = false;
+					return FALSE;
+				}
+				int backtrack_level = this.analyze(confl, learnt);
+				this.cancelUntil(backtrack_level);
+				if (learnt.size == 1)
+					this.enqueue(learnt.data[0], NO_REASON);
+				else {
+					int id = this.attach(learnt.toArray());
+					this.lbd.data[id] = this.computeLbd(learnt);
+					this.learnts.push(id);
+					this.enqueue(learnt.data[0], id);
+				}
+				this.var_inc /= VAR_DECAY;
+			} else {
+				if (num_conflicts >= max_conflicts) {
+					this.cancelUntil(0);
+					return UNDEF;
+				}
+				if (this.conflicts >= this.next_reduce) {
+					this.reduceLearnts();
+					this.next_reduce = this.conflicts + REDUCE_BASE + REDUCE_INC * (++this.num_reduce);
+				}
+				int next = -1;
+				while (this.decisionLevel() < assumptions.length) {
+					int p = assumptions[this.decisionLevel()];
+					byte val = this.value(p);
+					if (val == TRUE)
+						// dummy decision level
+						this.trail_lim.push(this.trail_size);
+					else if (val == FALSE)
+						return FALSE;
+					else {
+						next = p;
+						break;
+					}
+				}
+				if (next == -1) {
+					next = this.pickBranchLiteral();
+					if (next == -1) {
+						this.model = new boolean[this.num_vars + 1];
+						for (int v = 1; v <= this.num_vars; v++)
+							this.model[v] = this.assigns[v] == TRUE;
+						return TRUE;
+					}
+				}
+				this.trail_lim.push(this.trail_size);
+				this.enqueue(next, NO_REASON);
+			}
+		}
+	}
+
+	/**
+	 * Propagates all enqueued literals.
+	 * @return the id of a conflicting clause or NO_REASON if there is no conflict.
+	 */
+	private int propagate() {
+		while (this.qhead < this.trail_size) {
+			int false_lit = this.trail[this.qhead++] ^ 1;
+			IntVec ws = this.watches[false_lit];
+			int[] data = ws.data;
+			int i = 0, j = 0;
+			while (i < ws.size) {
+				int id = data[i];
+				int blocker = data[i + 1];
+				i += 2;
+				// if the blocker is true, the clause is satisfied and need not be visited
+				if (this.value(blocker) == TRUE) {
+					data[j++] = id;
+					data[j++] = blocker;
+					continue;
+				}
+				int[] c = this.clauses.get(id);
+				if (c == null)
+					// deleted clause
+					continue;
+				// make sure the false literal is c[1]
+				if (c[0] == false_lit) {
+					c[0] = c[1];
+					c[1] = false_lit;
+				}
+				int first = c[0];
+				if (first != blocker && this.value(first) == TRUE) {
+					data[j++] = id;
+					data[j++] = first;
+					continue;
+				}
+				// look for a new literal to watch
+				boolean found = false;
+				for (int k = 2; k < c.length; k++)
+					if (this.value(c[k]) != FALSE) {
+						c[1] = c[k];
+						c[k] = false_lit;
+						this.watches[c[1]].push(id, first);
+						found = true;
+						break;
+					}
+				if (found)
+					continue;
+				// the clause is unit or conflicting
+				data[j++] = id;
+				data[j++] = first;
+				if (this.value(first) == FALSE) {
+					while (i < ws.size)
+						data[j++] = data[i++];
+					ws.size = j;
+					this.qhead = this.trail_size;
+					return id;
+				}
+				this.enqueue(first, id);
+			}
+			ws.size = j;
+		}
+		return NO_REASON;
+	}
+
+	/**
+	 * Analyzes the given conflict and derives a first-UIP clause.
+	 * @param confl the id of the conflicting clause
+	 * @param learnt the learned clause is stored here, its first literal is the asserting one
+	 * 		and its second literal has the highest decision level among the others.
+	 * @return the decision level to backtrack to.
+	 */
+	private int analyze(int confl, IntVec learnt) {
+		learnt.size = 0;
+		// placeholder for the asserting literal
+		learnt.push(-1);
+		int path_count = 0;
+		int p = -1;
+		int index = this.trail_size - 1;
+		do {
+			int[] c = this.clauses.get(confl);
+			for (int k = (p == -1 ? 0 : 1); k < c.length; k++) {
+				int q = c[k];
+				int v = q >> 1;
+				if (!this.seen[v] && this.level[v] > 0) {
+					this.bumpActivity(v);
+					this.seen[v] = true;
+					if (this.level[v] >= this.decisionLevel())
+						path_count++;
+					else
+						learnt.push(q);
+				}
+			}
+			// select the next literal of the current decision level to look at
+			while (!this.seen[this.trail[index--] >> 1]);
+			p = this.trail[index + 1];
+			confl = this.reason[p >> 1];
+			this.seen[p >> 1] = false;
+			path_count--;
+		} while (path_count > 0);
+		learnt.data[0] = p ^ 1;
+		// remove literals implied by other literals of the clause
+		int[] lits = learnt.toArray();
+		int j = 1;
+		for (int i = 1; i < lits.length; i++) {
+			int q = lits[i];
+			if (this.reason[q >> 1] == NO_REASON || !this.isRedundant(q))
+				learnt.data[j++] = q;
+		}
+		for (int i = 1; i < lits.length; i++)
+			this.seen[lits[i] >> 1] = false;
+		learnt.size = j;
+		if (j == 1)
+			return 0;
+		// move the literal with the highest decision level to the second position
+		int max = 1;
+		for (int i = 2; i < j; i++)
+			if (this.level[learnt.data[i] >> 1] > this.level[learnt.data[max] >> 1])
+				max = i;
+		int tmp = learnt.data[1];
+		learnt.data[1] = learnt.data[max];
+		learnt.data[max] = tmp;
+		return this.level[learnt.data[1] >> 1];
+	}
+
+	/**
+	 * Checks whether the given literal of a learned clause is implied by the other
+	 * literals of the clause, i.e. whether all literals of its reason are marked.
+	 * @param q some literal with a reason clause
+	 * @return "true" if the literal is redundant.
+	 */
+	private boolean isRedundant(int q) {
+		int[] c = this.clauses.get(this.reason[q >> 1]);
+		for (int k = 1; k < c.length; k++) {
+			int v = c[k] >> 1;
+			if (!this.seen[v] && this.level[v] > 0)
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Computes the literal block distance of the given clause, i.e. the number
+	 * of different decision levels of its literals.
+	 * @param c some clause
+	 * @return the literal block distance of c.
+	 */
+	private int computeLbd(IntVec c) {
+		this.stamp++;
+		int result = 0;
+		for (int i = 0; i < c.size; i++) {
+			int l = this.level[c.data[i] >> 1];
+			if (l >= this.level_stamp.length)
+				// there may be more decision levels than variables due to assumptions
+				this.level_stamp = Arrays.copyOf(this.level_stamp, 2 * l);
+			if (this.level_stamp[l] != this.stamp) {
+				this.level_stamp[l] = this.stamp;
+				result++;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Deletes about half of the learned clauses, preferring to keep those with
+	 * small literal block distance and short ones. Clauses with a literal block
+	 * distance of at most GLUE and clauses that are currently the reason of some
+	 * assignment are kept.
+	 */
+	private void reduceLearnts() {
+		int[] ids = this.learnts.toArray();
+		// sort by decreasing literal block distance and length
+		Integer[] sorted = new Integer[ids.length];
+		for (int i = 0; i < ids.length; i++)
+			sorted[i] = ids[i];
+		Arrays.sort(sorted, (a, b) -> this.lbd.data[a] != this.lbd.data[b] ? Integer.compare(this.lbd.data[b], this.lbd.data[a])
+				: Integer.compare(this.clauses.get(b).length, this.clauses.get(a).length));
+		IntVec kept = new IntVec();
+		for (int i = 0; i < sorted.length; i++) {
+			int id = sorted[i];
+			int[] c = this.clauses.get(id);
+			if (i < sorted.length / 2 && this.lbd.data[id] > GLUE && !this.isLocked(id, c))
+				this.clauses.set(id, null);
+			else
+				kept.push(id);
+		}
+		this.learnts = kept;
+	}
+
+	/**
+	 * Checks whether the given clause is the reason of a current assignment.
+	 * @param id the id of some clause
+	 * @param c the clause
+	 * @return "true" if the clause is locked.
+	 */
+	private boolean isLocked(int id, int[] c) {
+		return this.reason[c[0] >> 1] == id && this.value(c[0]) == TRUE;
+	}
+
+	/**
+	 * Returns an unassigned literal of highest activity, with the last polarity
+	 * of its variable.
+	 * @return some literal or -1 if all variables are assigned.
+	 */
+	private int pickBranchLiteral() {
+		while (!this.order.isEmpty()) {
+			int v = this.order.removeMax();
+			if (this.assigns[v] == UNDEF)
+				return (v << 1) | (this.phase[v] ? 1 : 0);
+		}
+		return -1;
+	}
+
+	/**
+	 * Increases the activity of the given variable.
+	 * @param v some variable
+	 */
+	private void bumpActivity(int v) {
+		if ((this.activity[v] += this.var_inc) > 1e100) {
+			// rescale to avoid overflows
+			for (int i = 1; i <= this.num_vars; i++)
+				this.activity[i] *= 1e-100;
+			this.var_inc *= 1e-100;
+		}
+		this.order.increased(v);
+	}
+
+	/**
+	 * Stores the given clause and watches its first two literals.
+	 * @param c some clause with at least two literals
+	 * @return the id of the clause.
+	 */
+	private int attach(int[] c) {
+		int id = this.clauses.size();
+		this.clauses.add(c);
+		this.lbd.push(0);
+		this.watches[c[0]].push(id, c[1]);
+		this.watches[c[1]].push(id, c[0]);
+		return id;
+	}
+
+	/**
+	 * Assigns the given literal to true.
+	 * @param lit some unassigned literal
+	 * @param from the id of the clause implying the literal or NO_REASON.
+	 */
+	private void enqueue(int lit, int from) {
+		int v = lit >> 1;
+		this.assigns[v] = (lit & 1) == 0 ? TRUE : FALSE;
+		this.level[v] = this.decisionLevel();
+		this.reason[v] = from;
+		this.trail[this.trail_size++] = lit;
+	}
+
+	/**
+	 * Reverts all assignments above the given decision level.
+	 * @param lvl some decision level
+	 */
+	private void cancelUntil(int lvl) {
+		if (this.decisionLevel() <= lvl)
+			return;
+		int start = this.trail_lim.data[lvl];
+		for (int i = this.trail_size - 1; i >= start; i--) {
+			int v = this.trail[i] >> 1;
+			this.phase[v] = (this.trail[i] & 1) == 1;
+			this.assigns[v] = UNDEF;
+			this.reason[v] = NO_REASON;
+			this.order.insert(v);
+		}
+		this.trail_size = start;
+		this.qhead = start;
+		this.trail_lim.size = lvl;
+	}
+
+	/**
+	 * Returns the current decision level.
+	 * @return the current decision level.
+	 */
+	private int decisionLevel() {
+		return this.trail_lim.size;
+	}
+
+	/**
+	 * Returns the current value of the given literal.
+	 * @param lit some literal
+	 * @return TRUE, FALSE, or UNDEF.
+	 */
+	private byte value(int lit) {
+		byte val = this.assigns[lit >> 1];
+		return (lit & 1) == 0 ? val : (byte) -val;
+	}
+
+	/**
+	 * Converts a literal in Dimacs representation to the internal one.
+	 * @param l some non-zero integer
+	 * @return the internal literal.
+	 */
+	private static int toLit(int l) {
+		return l > 0 ? l << 1 : ((-l) << 1) | 1;
+	}
+
+	/**
+	 * Returns the i-th element (starting with 0) of the Luby sequence
+	 * 1,1,2,1,1,2,4,1,1,2,...
+	 * @param i some index
+	 * @return the i-th element of the Luby sequence.
+	 */
+	private static long luby(int i) {
+		int size = 1;
+		int seq = 0;
+		while (size < i + 1) {
+			seq++;
+			size = 2 * size + 1;
+		}
+		while (size - 1 != i) {
+			size = (size - 1) >> 1;
+			seq--;
+			i = i % size;
+		}
+		return 1L << seq;
+	}
+
+	/**
+	 * A growable array of primitive integers.
+	 */
+	private static final class IntVec {
+		/** The elements. */
+		int[] data = new int[4];
+		/** The number of elements. */
+		int size = 0;
+
+		/**
+		 * Appends the given element.
+		 * @param x some integer
+		 */
+		void push(int x) {
+			if (this.size == this.data.length)
+				this.data = Arrays.copyOf(this.data, this.size * 2);
+			this.data[this.size++] = x;
+		}
+
+		/**
+		 * Appends the given two elements.
+		 * @param x some integer
+		 * @param y some integer
+		 */
+		void push(int x, int y) {
+			if (this.size + 2 > this.data.length)
+				this.data = Arrays.copyOf(this.data, this.size * 2 + 2);
+			this.data[this.size++] = x;
+			this.data[this.size++] = y;
+		}
+
+		/**
+		 * Returns a copy of the elements.
+		 * @return the elements.
+		 */
+		int[] toArray() {
+			return Arrays.copyOf(this.data, this.size);
+		}
+	}
+
+	/**
+	 * A binary max-heap of variables ordered by their activity.
+	 */
+	private final class VarHeap {
+		/** The heap. */
+		private int[] heap = new int[4];
+		/** The number of elements of the heap. */
+		private int size = 0;
+		/** The position of every variable in the heap or -1. */
+		private int[] indices = new int[0];
+
+		/**
+		 * Checks whether the heap is empty.
+		 * @return "true" if the heap is empty.
+		 */
+		boolean isEmpty() {
+			return this.size == 0;
+		}
+
+		/**
+		 * Inserts the given variable if it is not already contained.
+		 * @param v some variable
+		 */
+		void insert(int v) {
+			if (v >= this.indices.length) {
+				int old = this.indices.length;
+				this.indices = Arrays.copyOf(this.indices, Math.max(v + 1, old * 2));
+				Arrays.fill(this.indices, old, this.indices.length, -1);
+			}
+			if (this.indices[v] >= 0)
+				return;
+			if (this.size == this.heap.length)
+				this.heap = Arrays.copyOf(this.heap, this.size * 2);
+			this.heap[this.size] = v;
+			this.indices[v] = this.size;
+			this.up(this.size++);
+		}
+
+		/**
+		 * Restores the heap property after the activity of the given variable increased.
+		 * @param v some variable
+		 */
+		void increased(int v) {
+			if (v < this.indices.length && this.indices[v] >= 0)
+				this.up(this.indices[v]);
+		}
+
+		/**
+		 * Removes and returns the variable with the highest activity.
+		 * @return the variable with the highest activity.
+		 */
+		int removeMax() {
+			int v = this.heap[0];
+			this.indices[v] = -1;
+			this.size--;
+			if (this.size > 0) {
+				this.heap[0] = this.heap[this.size];
+				this.indices[this.heap[0]] = 0;
+				this.down(0);
+			}
+			return v;
+		}
+
+		/**
+		 * Moves the element at the given position up.
+		 * @param i some position
+		 */
+		private void up(int i) {
+			int v = this.heap[i];
+			while (i > 0) {
+				int parent = (i - 1) >> 1;
+				if (activity[this.heap[parent]] >= activity[v])
+					break;
+				this.heap[i] = this.heap[parent];
+				this.indices[this.heap[i]] = i;
+				i = parent;
+			}
+			this.heap[i] = v;
+			this.indices[v] = i;
+		}
+
+		/**
+		 * Moves the element at the given position down.
+		 * @param i some position
+		 */
+		private void down(int i) {
+			int v = this.heap[i];
+			while (2 * i + 1 < this.size) {
+				int child = 2 * i + 1;
+				if (child + 1 < this.size && activity[this.heap[child + 1]] > activity[this.heap[child]])
+					child++;
+				if (activity[this.heap[child]] <= activity[v])
+					break;
+				this.heap[i] = this.heap[child];
+				this.indices[this.heap[i]] = i;
+				i = child;
+			}
+			this.heap[i] = v;
+			this.indices[v] = i;
+		}
+	}
+}
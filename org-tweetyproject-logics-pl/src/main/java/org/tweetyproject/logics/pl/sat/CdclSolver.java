@@ -0,0 +1,201 @@
+/*
+ *  This file is part of "TweetyProject", a collection of Java libraries for
+ *  logical aspects of artificial intelligence and knowledge representation.
+ *
+ *  TweetyProject is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  Copyright 2024 The TweetyProject Team <http://tweetyproject.org/contact/>
+ */
+package org.tweetyproject.logics.pl.sat;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.tweetyproject.commons.Interpretation;
+import org.tweetyproject.logics.pl.semantics.PossibleWorld;
+import org.tweetyproject.logics.pl.syntax.PlBeliefSet;
+import org.tweetyproject.logics.pl.syntax.PlFormula;
+import org.tweetyproject.logics.pl.syntax.Proposition;
+
+/**
+ * A SAT solver implemented in pure Java, based on the conflict-driven clause
+ * learning engine {@link CdclEngine}. In contrast to {@link SimpleDpllSolver},
+ * which is only meant as a reference implementation, this solver scales to
+ * problems with thousands of variables and, in contrast to {@link Sat4jSolver}
+ * and {@link CmdLineSatSolver}, it has no dependencies. Its solver states
+ * (see {@link #createState()}) are incremental.
+ *
+ * @author agent
+ */
+public class CdclSolver extends DimacsSatSolver {
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.logics.pl.sat.DimacsSatSolver#getWitness(java.util.Collection, java.util.Map, java.util.Map, java.lang.String, int)
+	 */
+	@Override
+	public Interpretation<PlBeliefSet, PlFormula> getWitness(Collection<PlFormula> formulas, Map<Proposition, Integer> prop_index, Map<Integer, Proposition> prop_inverted_index, String additional_clauses, int num_additional_clauses) {
+		CdclEngine engine = new CdclEngine();
+		if (!CdclSolver.addClauses(engine, formulas, prop_index) || !CdclSolver.addClauses(engine, additional_clauses) || !engine.solve())
+			return null;
+		PossibleWorld w = new PossibleWorld();
+		for (Map.Entry<Proposition, Integer> e : prop_index.entrySet())
+			if (engine.modelValue(e.getValue()))
+				w.add(e.getKey());
+		return w;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.logics.pl.sat.DimacsSatSolver#isSatisfiable(java.util.Collection, java.util.Map, java.lang.String, int)
+	 */
+	@Override
+	public boolean isSatisfiable(Collection<PlFormula> formulas, Map<Proposition, Integer> prop_index, String additional_clauses, int num_additional_clauses) {
+		CdclEngine engine = new CdclEngine();
+		return CdclSolver.addClauses(engine, formulas, prop_index) && CdclSolver.addClauses(engine, additional_clauses) && engine.solve();
+	}
+
+	/**
+	 * Adds the clauses of the given formulas to the given engine.
+	 * @param engine some engine
+	 * @param formulas a collection of formulas
+	 * @param prop_index maps propositions to the variables of the engine
+	 * @return "false" if the engine detected that the clauses are unsatisfiable.
+	 */
+	private static boolean addClauses(CdclEngine engine, Collection<PlFormula> formulas, Map<Proposition, Integer> prop_index) {
+		boolean[] ok = { true };
+		try {
+			DimacsSatSolver.forEachClause(formulas, prop_index, (clause, origin) -> ok[0] = engine.addClause(clause));
+		} catch (IOException e) {
+			// cannot happen as the clauses are not written anywhere
+			throw new RuntimeException(e);
+		}
+		return ok[0];
+	}
+
+	/**
+	 * Adds the given clauses in Dimacs format (without header) to the given engine.
+	 * @param engine some engine
+	 * @param clauses some clauses in Dimacs format, each terminated by 0
+	 * @return "false" if the engine detected that the clauses are unsatisfiable.
+	 */
+	private static boolean addClauses(CdclEngine engine, String clauses) {
+		List<Integer> clause = new ArrayList<>();
+		for (String token : clauses.trim().split("\\s+")) {
+			if (token.isEmpty())
+				continue;
+			int l = Integer.parseInt(token);
+			if (l != 0) {
+				clause.add(l);
+				continue;
+			}
+			int[] c = new int[clause.size()];
+			for (int i = 0; i < c.length; i++)
+				c[i] = clause.get(i);
+			clause.clear();
+			if (!engine.addClause(c))
+				return false;
+		}
+		return true;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.logics.pl.sat.SatSolver#createState()
+	 */
+	@Override
+	public SatSolverState createState() {
+		return new CdclSolverState();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.logics.pl.sat.DimacsSatSolver#isInstalled()
+	 */
+	@Override
+	public boolean isInstalled() {
+		return true;
+	}
+
+	/**
+	 * A solver state that keeps a single engine alive, so that learned clauses
+	 * are retained between calls.
+	 */
+	private static final class CdclSolverState implements SatSolverState {
+
+		/** The underlying engine. */
+		private CdclEngine engine = new CdclEngine();
+
+		/** Maps propositions to variables of the engine. */
+		private final Map<Proposition, Integer> prop_index = new HashMap<>();
+
+		/** The assumptions for the next call. */
+		private List<Integer> assumptions = new ArrayList<>();
+
+		/**
+		 * Returns the variable of the given proposition, a new variable
+		 * is introduced on first use.
+		 * @param p some proposition
+		 * @return the variable of p.
+		 */
+		private int getVariable(Proposition p) {
+			Integer var = this.prop_index.get(p);
+			if (var == null) {
+				var = this.engine.newVariable();
+				this.prop_index.put(p, var);
+			}
+			return var;
+		}
+
+		@Override
+		public boolean add(PlFormula formula) {
+			for (Proposition p : formula.getAtoms())
+				this.getVariable(p);
+			return CdclSolver.addClauses(this.engine, Collections.singleton(formula), this.prop_index);
+		}
+
+		@Override
+		public void assume(Proposition proposition, boolean value) {
+			int var = this.getVariable(proposition);
+			this.assumptions.add(value ? var : -var);
+		}
+
+		@Override
+		public boolean satisfiable() {
+			int[] assumptions = new int[this.assumptions.size()];
+			for (int i = 0; i < assumptions.length; i++)
+				assumptions[i] = this.assumptions.get(i);
+			this.assumptions = new ArrayList<>();
+			return this.engine.solve(assumptions);
+		}
+
+		@Override
+		public PossibleWorld witness() {
+			if (!this.satisfiable())
+				return null;
+			PossibleWorld w = new PossibleWorld();
+			for (Map.Entry<Proposition, Integer> e : this.prop_index.entrySet())
+				if (this.engine.modelValue(e.getValue()))
+					w.add(e.getKey());
+			return w;
+		}
+
+		@Override
+		public void close() {
+			this.engine = new CdclEngine();
+			this.prop_index.clear();
+			this.assumptions.clear();
+		}
+	}
+}
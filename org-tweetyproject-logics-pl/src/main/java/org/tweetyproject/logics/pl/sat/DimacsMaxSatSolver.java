@@ -20,7 +20,8 @@ package org.tweetyproject.logics.pl.sat;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -28,7 +29,6 @@ import java.util.Map;
 
 import org.tweetyproject.commons.Interpretation;
 import org.tweetyproject.commons.util.Pair;
-import org.tweetyproject.logics.pl.syntax.Conjunction;
 import org.tweetyproject.logics.pl.syntax.Disjunction;
 import org.tweetyproject.logics.pl.syntax.Negation;
 import org.tweetyproject.logics.pl.syntax.PlBeliefSet;
@@ -67,61 +67,69 @@ public abstract class DimacsMaxSatSolver extends MaxSatSolver{
 	 * @throws IllegalArgumentException if any soft constraint is not a clause.
 	 */
 	protected static String convertToDimacsWcnf(Collection<PlFormula> hardConstraints, Map<PlFormula,Integer> softConstraints, Map<Proposition,Integer> prop_index) throws IllegalArgumentException{
-		String s = "";
-		int num_clauses = 0;		
+		StringWriter body = new StringWriter();
+		try {
+			String header = DimacsMaxSatSolver.writeDimacsWcnf(hardConstraints, softConstraints, prop_index, body);
+			return header + "\n" + body;
+		} catch (IOException e) {
+			// cannot happen for a StringWriter
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Writes the clauses of the given MaxSAT instance in Dimacs WCNF to the given writer
+	 * while they are generated and returns the header line ("p wcnf &lt;#vars&gt; &lt;#clauses&gt; &lt;top&gt;"),
+	 * which has to be put in front of the clauses by the caller.
+	 * @param hardConstraints a collection of formulas
+	 * @param softConstraints a map mapping clauses to weights
+	 * @param prop_index a map of propositions (=signature) to the indices that are used for writing the clauses.
+	 * @param out the writer for the clauses
+	 * @return the header line (without line break).
+	 * @throws IOException if writing to out failed.
+	 * @throws IllegalArgumentException if any soft constraint is not a clause.
+	 */
+	protected static String writeDimacsWcnf(Collection<PlFormula> hardConstraints, Map<PlFormula,Integer> softConstraints, Map<Proposition,Integer> prop_index, Writer out) throws IOException, IllegalArgumentException{
+		int num_clauses = 0;
 		int sum_weight = 0;
 		for(PlFormula f: softConstraints.keySet()) {
-			sum_weight += softConstraints.get(f);
+			int[] clause;
 			if(f instanceof Proposition) {
-				s += softConstraints.get(f) + " " + prop_index.get(f) + " 0\n";
+				clause = new int[] {prop_index.get(f)};
 			}else if(f.isLiteral()){
-				s += softConstraints.get(f) + " -" +  prop_index.get((Proposition)((Negation)f).getFormula()) + " 0\n";
-			}else if(!(f instanceof Disjunction)) {
+				clause = new int[] {- prop_index.get(((Negation)f).getFormula())};
+			}else if(!(f instanceof Disjunction) || !f.isClause()) {
 				throw new IllegalArgumentException("Clause expected.");
 			}else {
-				s += softConstraints.get(f) + " ";
-				for(PlFormula p2: (Disjunction) f){
-					if(p2 instanceof Proposition)
-						s += prop_index.get(p2) + " ";
-					else if(p2.isLiteral()){
-						s += "-" + prop_index.get((Proposition)((Negation)p2).getFormula()) + " ";
-					}else throw new IllegalArgumentException("Clause expected.");				
-				}
-				s += "0\n";	
-			}					
-		}		
-		sum_weight++;
-		for(PlFormula p: hardConstraints){
-			Conjunction conj;
-			if (p.isClause()) {
-				conj = new Conjunction();
-				conj.add(p);
-			} else 
-				conj = p.toCnf();
-			for(PlFormula p1: conj){
-				num_clauses++;
-				// max weight as we have a hard clause
-				s += sum_weight + " ";
-				// as conj is in CNF all formulas should be disjunctions
-				Disjunction disj = (Disjunction) p1;
-				for(PlFormula p2: disj){
-					if(p2 instanceof Proposition)
-						s += prop_index.get(p2) + " ";
-					else if(p2.isLiteral()){
-						s += "-" + prop_index.get((Proposition)((Negation)p2).getFormula()) + " ";
-					}else throw new RuntimeException("This should not happen: formula is supposed to be in CNF but another formula than a literal has been encountered.");				
-				}			
-				s += "0\n";
+				clause = DimacsSatSolver.toDimacsClause((Disjunction) f, prop_index);
+				if(clause == null || clause.length == 0)
+					throw new IllegalArgumentException("Clause expected.");
 			}
+			int weight = softConstraints.get(f);
+			sum_weight += weight;
+			out.write(Integer.toString(weight));
+			for(int l: clause) {
+				out.write(' ');
+				out.write(Integer.toString(l));
+			}
+			out.write(" 0\n");
+			num_clauses++;
 		}
-		return "p wcnf " + prop_index.keySet().size() + " " + num_clauses + " " + sum_weight + "\n" + s;
+		sum_weight++;
+		// max weight as we have hard clauses
+		DimacsSatSolver.ClauseWriter writer = new DimacsSatSolver.ClauseWriter(out, sum_weight + " ");
+		DimacsSatSolver.forEachClause(hardConstraints, prop_index, writer);
+		num_clauses += writer.num_clauses;
+		int num_vars = prop_index.size();
+		if(writer.contradiction && num_vars == 0)
+			num_vars = 1;
+		return "p wcnf " + num_vars + " " + num_clauses + " " + sum_weight;
 	}
 
-
 	/**
 	 * Converts the given MaxSAT instance (i.e. hard and soft constraints, the
 	 * latter can only be clauses) to their string representation in 
-	 * Dimacs WCNF and writes it to a temporary file. Note that a single formula may be represented as multiple
+	 * Dimacs WCNF and streams it to a temporary file. Note that a single formula may be represented as multiple
 	 * clauses, so there is no simple correspondence between the formulas of the
 	 * set and the Dimacs representation. 
 	 * @param hardConstraints a collection of formulas
@@ -131,12 +139,9 @@ public abstract class DimacsMaxSatSolver extends MaxSatSolver{
 	 * @throws IOException if some file issue occurs
 	 */
 	protected static File createTmpDimacsWcnfFile(Collection<PlFormula> hardConstraints, Map<PlFormula,Integer> softConstraints, Map<Proposition,Integer> prop_index) throws IOException{
-		String r = DimacsMaxSatSolver.convertToDimacsWcnf(hardConstraints, softConstraints, prop_index);
 		File f = File.createTempFile("tweety-sat", ".wcnf", DimacsMaxSatSolver.tempFolder);		
 		f.deleteOnExit();
-		PrintWriter writer = new PrintWriter(f, "UTF-8");
-		writer.print(r);
-		writer.close();		
+		DimacsSatSolver.writeDimacsFile(f, out -> DimacsMaxSatSolver.writeDimacsWcnf(hardConstraints, softConstraints, prop_index, out));
 		return f;
 	}
 	
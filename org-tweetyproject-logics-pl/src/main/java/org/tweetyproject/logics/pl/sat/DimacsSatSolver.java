@@ -18,9 +18,17 @@
  */
 package org.tweetyproject.logics.pl.sat;
 
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
@@ -49,6 +57,12 @@ public abstract class DimacsSatSolver extends SatSolver{
 
 	/** For temporary files. */
 	private static File tempFolder = null;
+
+	/** The number of bytes reserved for the header when writing Dimacs files. */
+	private static final int HEADER_SIZE = 64;
+
+	/** The buffer size for writing Dimacs files. */
+	private static final int BUFFER_SIZE = 1 << 16;
 	
 	/**
 	 * Set the folder for temporary files created by SAT solver.
@@ -74,6 +88,10 @@ public abstract class DimacsSatSolver extends SatSolver{
 	
 
 	/**
+	 * Converts the given set of formulas to their string representation in Dimacs
+	 * CNF. For large instances, consider {@link #writeDimacs(Collection, Map, String, int, Writer)}
+	 * or {@link #createTmpDimacsFile(Collection, Map, String, int)}, which do not keep
+	 * the whole string in memory.
 	 * 
 	 * @param formulas a collection of formulas
 	 * @param prop_index a map mapping propositions (=signature) to the indices that are
@@ -83,59 +101,47 @@ public abstract class DimacsSatSolver extends SatSolver{
 	 * @return a string in Dimacs CNF.
 	 */
 	public static String convertToDimacs(Collection<PlFormula> formulas, Map<Proposition,Integer> prop_index, String additional_clauses, int num_additional_clauses) {
-		String s = "";
-		int num_clauses = 0;
-		for (PlFormula p : formulas) {
-			Conjunction conj;
-			if (p.isClause()) {
-				conj = new Conjunction();
-				conj.add(p);
-			} else
-				conj = p.toCnf();
-			boolean foundContradiction = false;
-			for (PlFormula p1 : conj) {
-				// as conj is in CNF all formulas should be disjunctions
-				Disjunction disj = (Disjunction) p1;
-				if (disj.isEmpty())
-					continue;
-				num_clauses++;
-				String stemp = "";
-				for (PlFormula p2 : disj) {
-					if (p2 instanceof Proposition) {
-						stemp += prop_index.get(p2) + " ";
-					} else if (p2.isLiteral()) 
-						stemp += "-" + prop_index.get((Proposition) ((Negation) p2).getFormula()) + " ";
-					else if (p2 instanceof Tautology) {
-						stemp = "";
-						break;
-					} else if (p2 instanceof Contradiction) {
-						foundContradiction = true;
-						continue;
-					} else
-						throw new RuntimeException(p2 + 
-								"This should not happen: formula is supposed to be in CNF but another formula than a literal has been encountered. The type of the formula is " + p2.getClass());
-				}
-				if (stemp != "")
-					s += stemp + "0\n";
-				else  {
-					if (foundContradiction) 
-						//case: whole clause is a contradiction, therefore the entire kb is false
-						return  "p cnf 1 2\n1 0\n-1 0\n";
-					else
-						//case: whole clause is a tautology, remove it from kb
-						num_clauses--;		
-				}
-			}
+		StringWriter body = new StringWriter();
+		try {
+			String header = DimacsSatSolver.writeDimacs(formulas, prop_index, additional_clauses, num_additional_clauses, body);
+			return header + "\n" + body;
+		} catch (IOException e) {
+			// cannot happen for a StringWriter
+			throw new RuntimeException(e);
 		}
-		if (s == "") 
-			//case: entire kb is a tautology
-			return "p cnf 0 0\n";
-		return "p cnf " + prop_index.keySet().size() + " " + (num_clauses+num_additional_clauses) + "\n" + s + additional_clauses;
+	}
+
+	/**
+	 * Writes the clauses of the given set of formulas in Dimacs CNF to the given writer
+	 * while they are generated, i.e., without building the whole instance in memory.
+	 * As the number of clauses is only known afterwards, the header
+	 * ("p cnf &lt;#vars&gt; &lt;#clauses&gt;") is not written but returned, the caller
+	 * has to put it in front of the clauses. A contradictory clause is
+	 * written as the two clauses "1 0" and "-1 0"; tautological clauses are omitted.
+	 * 
+	 * @param formulas a collection of formulas
+	 * @param prop_index a map mapping propositions (=signature) to the indices that are
+	 *                 used for writing the clauses.
+	 * @param additional_clauses additional clauses in text form to be added (already correctly formatted in CNF!)
+	 * @param num_additional_clauses the number of additional clauses to be added.
+	 * @param out the writer for the clauses
+	 * @return the header line (without line break).
+	 * @throws IOException if writing to out failed.
+	 */
+	public static String writeDimacs(Collection<PlFormula> formulas, Map<Proposition,Integer> prop_index, String additional_clauses, int num_additional_clauses, Writer out) throws IOException {
+		ClauseWriter writer = new ClauseWriter(out, "");
+		DimacsSatSolver.forEachClause(formulas, prop_index, writer);
+		out.write(additional_clauses);
+		int num_vars = prop_index.size();
+		if(writer.contradiction && num_vars == 0)
+			num_vars = 1;
+		return "p cnf " + num_vars + " " + (writer.num_clauses + num_additional_clauses);
 	}
 
 	/**
 	 * Creates a temporary file in Dimacs format with the given proposition2variable
-	 * mapping.
+	 * mapping. The clauses are streamed to the file, see 
+	 * {@link #writeDimacs(Collection, Map, String, int, Writer)}.
 	 * 
 	 * @param formulas a collection of formulas
 	 * @param prop_index a map mapping propositions (=signature) to the indices that are
@@ -147,14 +153,169 @@ public abstract class DimacsSatSolver extends SatSolver{
 	 */
 	protected static File createTmpDimacsFile(Collection<PlFormula> formulas, Map<Proposition,Integer> prop_index, String additional_clauses, int num_additional_clauses)
 			throws IOException {
-		String r = DimacsSatSolver.convertToDimacs(formulas, prop_index, additional_clauses, num_additional_clauses);
 		File f = File.createTempFile("tweety-sat", ".cnf", DimacsSatSolver.tempFolder);
 		f.deleteOnExit();
-		PrintWriter writer = new PrintWriter(f, "UTF-8");
-		writer.print(r);
-		writer.close();
+		DimacsSatSolver.writeDimacsFile(f, out -> DimacsSatSolver.writeDimacs(formulas, prop_index, additional_clauses, num_additional_clauses, out));
 		return f;
 	}
+
+	/**
+	 * Writes some Dimacs instance (CNF or WCNF) to the given file. First, some space is
+	 * reserved for the header, then the body is written through a buffered channel and
+	 * finally the header returned by the body writer is written into the reserved space.
+	 * The reserved space not needed by the header is filled by a comment line.
+	 * 
+	 * @param file some file
+	 * @param body writes the body and returns the header line
+	 * @throws IOException if something went wrong while writing the file.
+	 */
+	protected static void writeDimacsFile(File file, DimacsBodyWriter body) throws IOException {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			channel.position(DimacsSatSolver.HEADER_SIZE);
+			// do not close the writer as this would also close the channel
+			Writer out = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.US_ASCII.newEncoder(), DimacsSatSolver.BUFFER_SIZE), DimacsSatSolver.BUFFER_SIZE);
+			String header = body.write(out);
+			out.flush();
+			int padding = DimacsSatSolver.HEADER_SIZE - header.length() - 3;
+			if(padding < 0)
+				throw new IOException("Dimacs header '" + header + "' exceeds reserved space.");
+			String h = "c" + " ".repeat(padding) + "\n" + header + "\n";
+			ByteBuffer buffer = ByteBuffer.wrap(h.getBytes(StandardCharsets.US_ASCII));
+			long position = 0;
+			while(buffer.hasRemaining())
+				position += channel.write(buffer, position);
+		}
+	}
+
+	/**
+	 * Writes the body of a Dimacs file, see {@link DimacsSatSolver#writeDimacsFile(File, DimacsBodyWriter)}.
+	 */
+	@FunctionalInterface
+	protected interface DimacsBodyWriter {
+		/**
+		 * Writes the body (i.e. the clauses) of a Dimacs file to the given writer.
+		 * @param out some writer
+		 * @return the header line (without line break) 
+		 * @throws IOException if writing failed.
+		 */
+		String write(Writer out) throws IOException;
+	}
+
+	/**
+	 * Handles single clauses while a set of formulas is converted to CNF, see
+	 * {@link DimacsSatSolver#forEachClause(Collection, Map, ClauseHandler)}. 
+	 */
+	@FunctionalInterface
+	protected interface ClauseHandler {
+		/**
+		 * Handles a single clause.
+		 * @param clause the literals of the clause in Dimacs representation (without 
+		 * 	the terminating 0); an empty array represents a contradictory clause.
+		 * @param origin the formula the clause originates from.
+		 * @return "false" if no further clauses shall be handled.
+		 * @throws IOException if handling the clause failed.
+		 */
+		boolean handle(int[] clause, PlFormula origin) throws IOException;
+	}
+
+	/**
+	 * Converts the given formulas to CNF and passes the resulting clauses one by one 
+	 * to the given handler. Tautological clauses are omitted.
+	 * @param formulas a collection of formulas
+	 * @param prop_index a map mapping propositions (=signature) to the indices that are
+	 *                 used for the clauses.
+	 * @param handler some clause handler
+	 * @throws IOException if the handler failed.
+	 */
+	protected static void forEachClause(Collection<PlFormula> formulas, Map<Proposition,Integer> prop_index, ClauseHandler handler) throws IOException {
+		for (PlFormula p : formulas) {
+			Conjunction conj;
+			if (p instanceof Disjunction && p.isClause()) {
+				conj = new Conjunction();
+				conj.add(p);
+			} else
+				conj = p.toCnf();
+			for (PlFormula p1 : conj) {
+				// as conj is in CNF all formulas should be disjunctions
+				int[] clause = DimacsSatSolver.toDimacsClause((Disjunction) p1, prop_index);
+				if (clause != null && !handler.handle(clause, p))
+					return;
+			}
+		}
+	}
+
+	/**
+	 * Converts the given clause to its Dimacs representation.
+	 * @param disj some clause
+	 * @param prop_index a map mapping propositions (=signature) to the indices that are
+	 *                 used for the clause.
+	 * @return the literals of the clause, an empty array if the clause is contradictory, or
+	 * 		<code>null</code> if the clause is tautological (or empty) and can be omitted.
+	 */
+	protected static int[] toDimacsClause(Disjunction disj, Map<Proposition,Integer> prop_index) {
+		if (disj.isEmpty())
+			return null;
+		int[] clause = new int[disj.size()];
+		int i = 0;
+		for (PlFormula p : disj) {
+			if (p instanceof Proposition)
+				clause[i++] = prop_index.get(p);
+			else if (p.isLiteral())
+				clause[i++] = - prop_index.get(((Negation) p).getFormula());
+			else if (p instanceof Tautology)
+				return null;
+			else if (!(p instanceof Contradiction))
+				throw new RuntimeException(p + 
+						"This should not happen: formula is supposed to be in CNF but another formula than a literal has been encountered. The type of the formula is " + p.getClass());
+		}
+		return i == clause.length ? clause : Arrays.copyOf(clause, i);
+	}
+
+	/**
+	 * Writes clauses in Dimacs format and counts them.
+	 */
+	static class ClauseWriter implements ClauseHandler {
+		/** The writer for the clauses. */
+		private final Writer out;
+		/** Prefix of every clause (e.g. the weight in WCNF). */
+		private final String prefix;
+		/** The number of written clauses. */
+		int num_clauses = 0;
+		/** Whether a contradictory clause has been written. */
+		boolean contradiction = false;
+
+		/**
+		 * Creates a new clause writer.
+		 * @param out the writer for the clauses
+		 * @param prefix prefix of every clause
+		 */
+		ClauseWriter(Writer out, String prefix) {
+			this.out = out;
+			this.prefix = prefix;
+		}
+
+		@Override
+		public boolean handle(int[] clause, PlFormula origin) throws IOException {
+			if (clause.length == 0) {
+				// the whole clause is a contradiction, therefore the entire kb is false
+				this.out.write(this.prefix);
+				this.out.write("1 0\n");
+				this.out.write(this.prefix);
+				this.out.write("-1 0\n");
+				this.num_clauses += 2;
+				this.contradiction = true;
+				return true;
+			}
+			this.out.write(this.prefix);
+			for (int l : clause) {
+				this.out.write(Integer.toString(l));
+				this.out.write(' ');
+			}
+			this.out.write("0\n");
+			this.num_clauses++;
+			return true;
+		}
+	}
 	
 	/**
 	 * Creates the default index and inverted index for the propositions
@@ -20,21 +20,18 @@ package org.tweetyproject.logics.pl.sat;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import org.tweetyproject.commons.util.Pair;
 import org.tweetyproject.logics.commons.analysis.AbstractMusEnumerator;
 import org.tweetyproject.logics.commons.analysis.NaiveMusEnumerator;
-import org.tweetyproject.logics.pl.syntax.Conjunction;
-import org.tweetyproject.logics.pl.syntax.Contradiction;
-import org.tweetyproject.logics.pl.syntax.Disjunction;
-import org.tweetyproject.logics.pl.syntax.Negation;
 import org.tweetyproject.logics.pl.syntax.PlFormula;
 import org.tweetyproject.logics.pl.syntax.Proposition;
-import org.tweetyproject.logics.pl.syntax.Tautology;
 
 /**
  * This abstract class models a MUS enumerator for propositional logic, i.e. an approach
@@ -78,72 +75,47 @@ public abstract class PlMusEnumerator extends AbstractMusEnumerator<PlFormula>{
 	 *         formulas.
 	 */
 	public static Pair<String, List<PlFormula>> convertToDimacsAndIndex(Collection<PlFormula> formulas) {
-		List<Proposition> props = new ArrayList<Proposition>();
-		for (PlFormula f : formulas) {
-			props.removeAll(f.getAtoms());
-			props.addAll(f.getAtoms());
-		}
-		List<PlFormula> clauses = new ArrayList<PlFormula>();
+		StringWriter body = new StringWriter();
 		List<PlFormula> mappings = new ArrayList<PlFormula>();
-		for (PlFormula p : formulas) {
-			Conjunction pcnf;
-			if (p.isClause()) {
-				pcnf = new Conjunction();
-				pcnf.add(p);
-			} else
-				pcnf = p.toCnf();
-			for (PlFormula sub : pcnf) {
-				clauses.add(sub);
-				mappings.add(p);
-			}
-		}
-		int clauseCount = clauses.size();
-		String s = "";
-		for (PlFormula p1 : clauses) {
-			// as conj is in CNF all formulas should be disjunctions
-			Disjunction disj = (Disjunction) p1;
-			String stemp = "";
-			boolean foundContradiction = false;
-			for (PlFormula p2 : disj) {
-				if (p2 instanceof Proposition)
-					stemp += (props.indexOf(p2) + 1) + " ";
-				else if (p2.isLiteral()) 
-					stemp += "-" + (props.indexOf((Proposition) ((Negation) p2).getFormula()) + 1) + " ";
-				else if (p2 instanceof Tautology) {
-					stemp = "";
-					break;
-				} else if (p2 instanceof Contradiction) {
-					foundContradiction = true;
-					continue;
-				} else
-					throw new RuntimeException(
-							"This should not happen: formula is supposed to be in CNF but another formula than a literal has been encountered. The type of the formula is " + p2.getClass());
-			}
-			if (stemp == "") {
-				if (foundContradiction) {
-					//case: whole clause is a contradiction, therefore the entire kb is false
-					String contradiction = "p cnf 1 2\n1 0\n-1 0\n";
-					return new Pair<String, List<PlFormula>>(contradiction,new ArrayList<PlFormula>(formulas));
-				}
-				else
-					//case: whole clause is a tautology
-					clauseCount--;		
-			}
-			if (stemp != "")
-				s += stemp + "0\n";
-		}
-		if (s == "") {
-			//case: entire kb is a tautology
-			String tautology = "p cnf 0 0\n";
-			return new Pair<String, List<PlFormula>>(tautology,new ArrayList<PlFormula>(formulas));
+		try {
+			String header = PlMusEnumerator.writeDimacsAndIndex(formulas, mappings, body);
+			return new Pair<String, List<PlFormula>>(header + "\n" + body, mappings);
+		} catch (IOException e) {
+			// cannot happen for a StringWriter
+			throw new RuntimeException(e);
 		}
-		s = "p cnf " + props.size() + " " + clauseCount + "\n" + s;
-		return new Pair<String, List<PlFormula>>(s, mappings);
+	}
+
+	/**
+	 * Writes the clauses of the given set of formulas in Dimacs CNF to the given writer 
+	 * while they are generated and records for every clause the formula it originated from.
+	 * @param formulas a collection of formulas.
+	 * @param mappings a list to which, for every written clause, the formula it originated from
+	 * 	is added.
+	 * @param out the writer for the clauses
+	 * @return the header line (without line break).
+	 * @throws IOException if writing to out failed.
+	 */
+	private static String writeDimacsAndIndex(Collection<PlFormula> formulas, List<PlFormula> mappings, Writer out) throws IOException {
+		Map<Proposition,Integer> prop_index = DimacsSatSolver.getDefaultIndices(formulas).getFirst();
+		DimacsSatSolver.ClauseWriter writer = new DimacsSatSolver.ClauseWriter(out, "");
+		DimacsSatSolver.forEachClause(formulas, prop_index, (clause, origin) -> {
+			int num_clauses = writer.num_clauses;
+			writer.handle(clause, origin);
+			// a contradictory clause is written as two clauses
+			for(int i = num_clauses; i < writer.num_clauses; i++)
+				mappings.add(origin);
+			return true;
+		});
+		int num_vars = prop_index.size();
+		if(writer.contradiction && num_vars == 0)
+			num_vars = 1;
+		return "p cnf " + num_vars + " " + writer.num_clauses;
 	}
 	
 	/**
 	 * Creates a temporary file in Dimacs format and also returns a mapping between
-	 * formulas and clauses.
+	 * formulas and clauses. The clauses are streamed to the file.
 	 * 
 	 * @param formulas a collection of formulas
 	 * 
@@ -152,13 +124,11 @@ public abstract class PlMusEnumerator extends AbstractMusEnumerator<PlFormula>{
 	 */
 	protected static Pair<File, List<PlFormula>> createTmpDimacsFileAndIndex(Collection<PlFormula> formulas)
 			throws IOException {
-		Pair<String, List<PlFormula>> r = PlMusEnumerator.convertToDimacsAndIndex(formulas);
 		File f = File.createTempFile("tweety-sat", ".cnf");
 		f.deleteOnExit();
-		PrintWriter writer = new PrintWriter(f, "UTF-8");
-		writer.print(r.getFirst());
-		writer.close();
-		return new Pair<File, List<PlFormula>>(f, r.getSecond());
+		List<PlFormula> mappings = new ArrayList<PlFormula>();
+		DimacsSatSolver.writeDimacsFile(f, out -> PlMusEnumerator.writeDimacsAndIndex(formulas, mappings, out));
+		return new Pair<File, List<PlFormula>>(f, mappings);
 	}
 	
 	/**
@@ -18,19 +18,17 @@
  */
 package org.tweetyproject.logics.pl.sat;
 
+import java.io.IOException;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 
 import org.tweetyproject.commons.Interpretation;
 import org.tweetyproject.logics.pl.semantics.PossibleWorld;
-import org.tweetyproject.logics.pl.syntax.Conjunction;
-import org.tweetyproject.logics.pl.syntax.Contradiction;
-import org.tweetyproject.logics.pl.syntax.Disjunction;
-import org.tweetyproject.logics.pl.syntax.Negation;
 import org.tweetyproject.logics.pl.syntax.PlBeliefSet;
 import org.tweetyproject.logics.pl.syntax.Proposition;
 import org.tweetyproject.logics.pl.syntax.PlFormula;
-import org.tweetyproject.logics.pl.syntax.Tautology;
 
 import org.sat4j.core.VecInt;
 import org.sat4j.minisat.SolverFactory;
@@ -78,38 +76,11 @@ public class Sat4jSolver extends DimacsSatSolver{
 			throw new IllegalArgumentException("Sat4j does not suppport additional clauses in text form due to native implementation.");
 		ISolver solver = SolverFactory.newDefault();
 		solver.newVar(this.maxvar);
-		solver.setExpectedNumberOfClauses(this.nbclauses);		
-		int i;		
+		solver.setExpectedNumberOfClauses(this.nbclauses);
 		try{
-			for(PlFormula f: formulas){
-				Conjunction conj;
-				if(f.isClause()) {
-					conj = new Conjunction();
-					conj.add(f);
-				}else conj = f.toCnf();
-				for(PlFormula f2: conj){
-					Disjunction disj = (Disjunction) f2;
-					// first remove contradictions
-					while(disj.remove(new Contradiction()));					
-					int[] clause = new int[disj.size()];
-					i = 0;
-					boolean taut = false;
-					for(PlFormula f3: disj){
-						if(f3 instanceof Proposition){
-							clause[i++] = prop_index.get(f3); 
-						}else if(f3 instanceof Negation){
-							clause[i++] = - prop_index.get(((Negation)f3).getFormula());
-						}else if(f3 instanceof Tautology){
-							taut = true;
-							break;
-						}else throw new RuntimeException("Unexpected formula type in conjunctive normal form: " + f3.getClass());
-					}
-					if(!taut) solver.addClause(new VecInt(clause));
-				}
-			}
+			if(!Sat4jSolver.addClauses(solver, formulas, prop_index))
+				return false;
 			return solver.isSatisfiable();
-		}catch(ContradictionException e){
-			return false;
 		} catch (TimeoutException e) {
 			throw new RuntimeException(e);
 		}
@@ -121,52 +92,147 @@ public class Sat4jSolver extends DimacsSatSolver{
 			throw new IllegalArgumentException("Sat4j does not suppport additional clauses in text form due to native implementation.");
 		ISolver solver = SolverFactory.newLight();
 		solver.newVar(this.maxvar);
-		solver.setExpectedNumberOfClauses(this.nbclauses);		
-		int i = 0;		
+		solver.setExpectedNumberOfClauses(this.nbclauses);
 		try{
-			for(PlFormula f: formulas){
-				Conjunction conj;
-				if(f.isClause()) {
-					conj = new Conjunction();
-					conj.add(f);
-				}else conj = f.toCnf();
-				for(PlFormula f2: conj){
-					Disjunction disj = (Disjunction) f2;
-					// first remove contradictions
-					while(disj.remove(new Contradiction()));					
-					int[] clause = new int[disj.size()];
-					i = 0;
-					boolean taut = false;
-					for(PlFormula f3: disj){
-						if(f3 instanceof Proposition){
-							clause[i++] = prop_index.get(f3) + 1; 
-						}else if(f3 instanceof Negation){
-							clause[i++] = - prop_index.get(((Negation)f3).getFormula()) - 1;
-						}else if(f3 instanceof Tautology){
-							taut = true;
-							break;
-						}else throw new RuntimeException("Unexpected formula type in conjunctive normal form: " + f3.getClass());
-					}
-					if(!taut) solver.addClause(new VecInt(clause));
-				}
-			}
+			if(!Sat4jSolver.addClauses(solver, formulas, prop_index))
+				return null;
 			if(!solver.isSatisfiable())
 				return null;
-			int[] model = solver.model();
 			PossibleWorld w = new PossibleWorld();
-			for(i = 0; i < model.length; i++)
-				if(model[i]>0)
-					w.add(prop_inverted_index.get(model[i]));				
+			for(Map.Entry<Proposition,Integer> e: prop_index.entrySet())
+				if(solver.model(e.getValue()))
+					w.add(e.getKey());
 			return w;
-		}catch(ContradictionException e){
-			return null;
 		} catch (TimeoutException e) {
 			throw new RuntimeException(e);
 		}
 	}
 
+	/**
+	 * Adds the clauses of the given formulas to the given solver.
+	 * @param solver some Sat4j solver
+	 * @param formulas a collection of formulas
+	 * @param prop_index maps propositions to the variables of the solver
+	 * @return "false" if the solver detected that the clauses are unsatisfiable.
+	 */
+	private static boolean addClauses(ISolver solver, Collection<PlFormula> formulas, Map<Proposition,Integer> prop_index) {
+		boolean[] contradiction = new boolean[1];
+		try {
+			DimacsSatSolver.forEachClause(formulas, prop_index, (clause, origin) -> {
+				if(clause.length == 0) {
+					contradiction[0] = true;
+					return false;
+				}
+				try {
+					solver.addClause(new VecInt(clause));
+					return true;
+				}catch(ContradictionException e) {
+					contradiction[0] = true;
+					return false;
+				}
+			});
+		} catch (IOException e) {
+			// cannot happen as the clauses are not written anywhere
+			throw new RuntimeException(e);
+		}
+		return !contradiction[0];
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.logics.pl.sat.SatSolver#createState()
+	 */
+	@Override
+	public SatSolverState createState() {
+		return new Sat4jSolverState(this.nbclauses);
+	}
+
 	@Override
 	public boolean isInstalled() {
 		return true;
-	}	
+	}
+
+	/**
+	 * A solver state that keeps a single Sat4j instance alive, so
+	 * that added formulas are translated and passed to the solver only once.
+	 */
+	private static final class Sat4jSolverState implements SatSolverState {
+
+		/** The underlying Sat4j solver. */
+		private final ISolver solver;
+
+		/** Maps propositions to Sat4j variables. */
+		private final Map<Proposition,Integer> prop_index = new HashMap<>();
+
+		/** The assumptions for the next call. */
+		private VecInt assumptions = new VecInt();
+
+		/** Whether an added formula rendered the state unsatisfiable. */
+		private boolean contradiction = false;
+
+		private Sat4jSolverState(int nbclauses) {
+			this.solver = SolverFactory.newDefault();
+			this.solver.setExpectedNumberOfClauses(nbclauses);
+		}
+
+		/**
+		 * Returns the Sat4j variable of the given proposition, a new variable
+		 * is introduced on first use.
+		 * @param p some proposition
+		 * @return the variable of p.
+		 */
+		private int getVariable(Proposition p) {
+			Integer var = this.prop_index.get(p);
+			if(var == null) {
+				var = this.solver.nextFreeVarId(true);
+				this.prop_index.put(p, var);
+			}
+			return var;
+		}
+
+		@Override
+		public boolean add(PlFormula formula) {
+			if(this.contradiction)
+				return false;
+			for(Proposition p: formula.getAtoms())
+				this.getVariable(p);
+			if(!Sat4jSolver.addClauses(this.solver, Collections.singleton(formula), this.prop_index))
+				this.contradiction = true;
+			return !this.contradiction;
+		}
+
+		@Override
+		public void assume(Proposition proposition, boolean value) {
+			int var = this.getVariable(proposition);
+			this.assumptions.push(value ? var : -var);
+		}
+
+		@Override
+		public boolean satisfiable() {
+			VecInt assumptions = this.assumptions;
+			this.assumptions = new VecInt();
+			if(this.contradiction)
+				return false;
+			try {
+				return this.solver.isSatisfiable(assumptions);
+			} catch (TimeoutException e) {
+				throw new RuntimeException(e);
+			}
+		}
+
+		@Override
+		public PossibleWorld witness() {
+			if(!this.satisfiable())
+				return null;
+			PossibleWorld w = new PossibleWorld();
+			for(Proposition p: this.prop_index.keySet())
+				if(this.solver.model(this.prop_index.get(p)))
+					w.add(p);
+			return w;
+		}
+
+		@Override
+		public void close() {
+			this.solver.reset();
+		}
+	}
 }
@@ -0,0 +1,323 @@
+/*
+ *  This file is part of "TweetyProject", a collection of Java libraries for
+ *  logical aspects of artificial intelligence and knowledge representation.
+ *
+ *  TweetyProject is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  Copyright 2024 The TweetyProject Team <http://tweetyproject.org/contact/>
+ */
+package org.tweetyproject.logics.pl.sat;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.tweetyproject.logics.pl.semantics.PossibleWorld;
+import org.tweetyproject.logics.pl.syntax.Disjunction;
+import org.tweetyproject.logics.pl.syntax.Implication;
+import org.tweetyproject.logics.pl.syntax.Negation;
+import org.tweetyproject.logics.pl.syntax.PlFormula;
+import org.tweetyproject.logics.pl.syntax.Proposition;
+
+/**
+ * Enumerates minimal inconsistent subsets in-process following the approach of MARCO
+ * [Liffiton, Previti, Malik, Marques-Silva. Fast, flexible MUS enumeration. Constraints 21(2), 2016].
+ * <br>
+ * Every formula f is guarded by a fresh selector proposition s (i.e. s =&gt; f is added to
+ * the solver), so the consistency of any subset can be checked by assuming its selectors on a single
+ * incremental solver state (see {@link SatSolver#createState()}). A second state (the "map") over the selectors
+ * keeps track of the subsets that have not been explored yet. In every step a maximal unexplored subset
+ * is taken; if it is consistent, it is a maximal consistent subset and all its subsets are excluded from the map,
+ * otherwise it is shrunk to a minimal inconsistent subset and all supersets of the latter are excluded from the map.
+ * <br>
+ * Minimal inconsistent subsets are computed one at a time, see {@link #streamMinimalInconsistentSubsets(Collection)}.
+ * As every minimal inconsistent subset is connected via shared propositions, the formulas are first split
+ * into components of formulas sharing propositions and each component is explored separately. Note that
+ * the enumeration of a component only terminates once all its maximal consistent subsets have been found as well.
+ *
+ * @author agent
+ */
+public class SatMusEnumerator extends PlMusEnumerator {
+
+	/** The SAT solver providing the solver states. */
+	private SatSolver solver;
+
+	/**
+	 * Creates a new MUS enumerator that uses the given SAT solver. The solver should provide
+	 * incremental states (see {@link SatSolver#createState()}), e.g. {@link Sat4jSolver} or {@link CdclSolver}.
+	 * @param solver some SAT solver
+	 */
+	public SatMusEnumerator(SatSolver solver) {
+		this.solver = solver;
+	}
+
+	/**
+	 * Creates a new MUS enumerator that uses Sat4j.
+	 */
+	public SatMusEnumerator() {
+		this(new Sat4jSolver());
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.logics.pl.sat.PlMusEnumerator#minimalInconsistentSubsets(java.util.Collection)
+	 */
+	@Override
+	public Collection<Collection<PlFormula>> minimalInconsistentSubsets(Collection<PlFormula> formulas) {
+		try(Stream<Collection<PlFormula>> mis = this.streamMinimalInconsistentSubsets(formulas)){
+			return mis.collect(Collectors.toList());
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.logics.commons.analysis.MusEnumerator#streamMinimalInconsistentSubsets(java.util.Collection)
+	 */
+	@Override
+	public Stream<Collection<PlFormula>> streamMinimalInconsistentSubsets(Collection<PlFormula> formulas) {
+		return SatMusEnumerator.getComponents(formulas).stream().flatMap(component -> {
+			MarcoIterator it = new MarcoIterator(component);
+			return StreamSupport.stream(Spliterators.spliteratorUnknownSize(it, Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.DISTINCT), false)
+					.onClose(it::close);
+		});
+	}
+
+	/**
+	 * Partitions the given formulas into the components of the graph where two formulas
+	 * are connected if they share a proposition.
+	 * @param formulas some formulas
+	 * @return the components.
+	 */
+	private static Collection<List<PlFormula>> getComponents(Collection<PlFormula> formulas) {
+		List<PlFormula> distinct = new ArrayList<PlFormula>(new LinkedHashSet<PlFormula>(formulas));
+		// union-find over the formulas, joined via the first formula mentioning a proposition
+		int[] parent = new int[distinct.size()];
+		Map<Proposition,Integer> first = new HashMap<Proposition,Integer>();
+		for(int i = 0; i < parent.length; i++) {
+			parent[i] = i;
+			for(Proposition p: distinct.get(i).getAtoms()) {
+				Integer j = first.putIfAbsent(p, i);
+				if(j != null)
+					parent[SatMusEnumerator.find(parent, i)] = SatMusEnumerator.find(parent, j);
+			}
+		}
+		Map<Integer,List<PlFormula>> components = new LinkedHashMap<Integer,List<PlFormula>>();
+		for(int i = 0; i < parent.length; i++)
+			components.computeIfAbsent(SatMusEnumerator.find(parent, i), k -> new ArrayList<PlFormula>()).add(distinct.get(i));
+		return components.values();
+	}
+
+	/**
+	 * Returns the representative of the given element in the given union-find structure.
+	 * @param parent the parents of the elements
+	 * @param i some element
+	 * @return the representative of i.
+	 */
+	private static int find(int[] parent, int i) {
+		while(parent[i] != i)
+			i = parent[i] = parent[parent[i]];
+		return i;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.logics.commons.analysis.AbstractMusEnumerator#maximalConsistentSubsets(java.util.Collection)
+	 */
+	@Override
+	public Collection<Collection<PlFormula>> maximalConsistentSubsets(Collection<PlFormula> formulas) {
+		try(MarcoIterator it = new MarcoIterator(formulas)){
+			while(it.hasNext())
+				it.next();
+			return it.mss;
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.logics.commons.analysis.AbstractMusEnumerator#isConsistent(java.util.Collection)
+	 */
+	@Override
+	public boolean isConsistent(Collection<PlFormula> formulas) {
+		return this.solver.isConsistent(formulas);
+	}
+
+	@Override
+	public boolean isInstalled() {
+		return this.solver.isInstalled();
+	}
+
+	/**
+	 * Enumerates the minimal inconsistent subsets of a fixed set of formulas.
+	 */
+	private class MarcoIterator implements Iterator<Collection<PlFormula>>, AutoCloseable {
+
+		/** The formulas. */
+		private final List<PlFormula> formulas;
+		/** The selector of every formula. */
+		private final Proposition[] selectors;
+		/** Contains "s =&gt; f" for every formula f and its selector s. */
+		private final SatSolverState check;
+		/** Contains the selectors of all subsets that have not been explored yet as models. */
+		private final SatSolverState map;
+		/** The maximal consistent subsets found so far. */
+		private final List<Collection<PlFormula>> mss = new ArrayList<Collection<PlFormula>>();
+		/** The next minimal inconsistent subset (null if not yet computed). */
+		private Collection<PlFormula> next = null;
+		/** Whether all subsets have been explored. */
+		private boolean done = false;
+
+		private MarcoIterator(Collection<PlFormula> formulas) {
+			this.formulas = new ArrayList<PlFormula>(new LinkedHashSet<PlFormula>(formulas));
+			// choose a prefix for the selectors that does not occur in the formulas
+			String prefix = "_mus";
+			for(PlFormula f: this.formulas)
+				for(Proposition p: f.getAtoms())
+					while(p.getName().startsWith(prefix))
+						prefix += "_";
+			this.selectors = new Proposition[this.formulas.size()];
+			this.check = SatMusEnumerator.this.solver.createState();
+			this.map = SatMusEnumerator.this.solver.createState();
+			for(int i = 0; i < this.selectors.length; i++) {
+				this.selectors[i] = new Proposition(prefix + i);
+				this.check.add(new Implication(this.selectors[i], this.formulas.get(i)));
+			}
+		}
+
+		/**
+		 * Checks whether the given subset is consistent.
+		 * @param subset the indices of some formulas
+		 * @return a model of the subset or null if it is inconsistent.
+		 */
+		private PossibleWorld witness(BitSet subset) {
+			for(int i = subset.nextSetBit(0); i >= 0; i = subset.nextSetBit(i+1))
+				this.check.assume(this.selectors[i], true);
+			return this.check.witness();
+		}
+
+		/**
+		 * Extends the given unexplored subset to a maximal unexplored subset.
+		 * @param subset the indices of some unexplored subset, extended in place
+		 */
+		private void maximize(BitSet subset) {
+			for(int i = 0; i < this.selectors.length; i++) {
+				if(subset.get(i))
+					continue;
+				subset.set(i);
+				for(int j = subset.nextSetBit(0); j >= 0; j = subset.nextSetBit(j+1))
+					this.map.assume(this.selectors[j], true);
+				PossibleWorld seed = this.map.witness();
+				if(seed == null)
+					subset.clear(i);
+				else for(int j = i+1; j < this.selectors.length; j++)
+					if(seed.contains(this.selectors[j]))
+						subset.set(j);
+			}
+		}
+
+		/**
+		 * Reduces the given inconsistent subset to a minimal inconsistent subset by
+		 * removing every formula that is not needed for the inconsistency.
+		 * @param subset the indices of some inconsistent subset, reduced in place
+		 */
+		private void shrink(BitSet subset) {
+			for(int i = subset.nextSetBit(0); i >= 0; i = subset.nextSetBit(i+1)) {
+				subset.clear(i);
+				if(this.witness(subset) != null)
+					subset.set(i);
+			}
+		}
+
+		/**
+		 * Explores unexplored subsets until the next minimal inconsistent subset is found.
+		 * @return the next minimal inconsistent subset or null if there is none.
+		 */
+		private Collection<PlFormula> computeNext() {
+			PossibleWorld seed;
+			while((seed = this.map.witness()) != null) {
+				BitSet subset = new BitSet(this.selectors.length);
+				for(int i = 0; i < this.selectors.length; i++)
+					if(seed.contains(this.selectors[i]))
+						subset.set(i);
+				this.maximize(subset);
+				Collection<PlFormula> result = new HashSet<PlFormula>();
+				Disjunction block = new Disjunction();
+				if(this.witness(subset) != null) {
+					for(int i = 0; i < this.selectors.length; i++)
+						if(subset.get(i))
+							result.add(this.formulas.get(i));
+						else block.add(this.selectors[i]);
+					this.mss.add(result);
+					// all subsets of the maximal consistent subset are explored
+					if(block.isEmpty() || !this.map.add(block))
+						return null;
+				} else {
+					this.shrink(subset);
+					for(int i = subset.nextSetBit(0); i >= 0; i = subset.nextSetBit(i+1)) {
+						result.add(this.formulas.get(i));
+						block.add(new Negation(this.selectors[i]));
+					}
+					// all supersets of the minimal inconsistent subset are explored
+					if(!this.map.add(block))
+						this.done = true;
+					return result;
+				}
+			}
+			return null;
+		}
+
+		/* (non-Javadoc)
+		 * @see java.util.Iterator#hasNext()
+		 */
+		@Override
+		public boolean hasNext() {
+			if(this.next == null && !this.done) {
+				this.next = this.computeNext();
+				if(this.next == null) {
+					this.done = true;
+					this.close();
+				}
+			}
+			return this.next != null;
+		}
+
+		/* (non-Javadoc)
+		 * @see java.util.Iterator#next()
+		 */
+		@Override
+		public Collection<PlFormula> next() {
+			if(!this.hasNext())
+				throw new NoSuchElementException();
+			Collection<PlFormula> mis = this.next;
+			this.next = null;
+			return mis;
+		}
+
+		/* (non-Javadoc)
+		 * @see java.lang.AutoCloseable#close()
+		 */
+		@Override
+		public void close() {
+			this.check.close();
+			this.map.close();
+		}
+	}
+}
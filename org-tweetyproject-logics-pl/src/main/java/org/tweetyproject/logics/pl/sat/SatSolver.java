@@ -159,7 +159,19 @@ public abstract class SatSolver implements BeliefSetConsistencyTester<PlFormula>
 	}
 
 	/**
-	 * 
+	 * Creates a new solver state that allows to add formulas and assumptions
+	 * incrementally, see {@link SatSolverState}. This default implementation
+	 * returns a state that passes all formulas to this solver on every call,
+	 * solvers with native support for incremental solving should override it.
+	 *
+	 * @return a new solver state.
+	 */
+	public SatSolverState createState() {
+		return new SimpleSatSolverState(this);
+	}
+
+	/**
+	 *
 	 * @return whether the solve ris installed
 	 */
 	public abstract boolean isInstalled();
@@ -0,0 +1,83 @@
+/*
+ *  This file is part of "TweetyProject", a collection of Java libraries for
+ *  logical aspects of artificial intelligence and knowledge representation.
+ *
+ *  TweetyProject is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  Copyright 2024 The TweetyProject Team <http://tweetyproject.org/contact/>
+ */
+package org.tweetyproject.logics.pl.sat;
+
+import org.tweetyproject.logics.pl.semantics.PossibleWorld;
+import org.tweetyproject.logics.pl.syntax.PlFormula;
+import org.tweetyproject.logics.pl.syntax.Proposition;
+
+/**
+ * A live instance of a SAT solver to which formulas can be added
+ * incrementally. In contrast to {@link SatSolver#getWitness(java.util.Collection)}
+ * the formulas of a state are only translated once, so a sequence of
+ * related satisfiability checks (e.g. for enumerating all models by adding
+ * blocking clauses) does not need to re-encode the whole problem in every
+ * step.
+ * <p>
+ * Whether a state actually keeps the solver alive depends on the solver, see
+ * {@link SatSolver#createState()}.
+ *
+ * @author agent
+ */
+public interface SatSolverState extends AutoCloseable {
+
+	/**
+	 * Adds the given formula to this state. The formula is converted to
+	 * conjunctive normal form if necessary.
+	 *
+	 * @param formula some formula
+	 * @return "false" if the state became trivially unsatisfiable by adding the formula,
+	 *  "true" otherwise.
+	 */
+	boolean add(PlFormula formula);
+
+	/**
+	 * Assumes the given truth value of the given proposition for the next call
+	 * to {@link #satisfiable()} or {@link #witness()}. There can be multiple
+	 * assumptions, all of them are gone after that call.
+	 *
+	 * @param proposition some proposition
+	 * @param value the assumed truth value
+	 */
+	void assume(Proposition proposition, boolean value);
+
+	/**
+	 * Checks whether the formulas of this state are satisfiable, taking
+	 * the current assumptions into account.
+	 *
+	 * @return "true" if the state is satisfiable.
+	 */
+	boolean satisfiable();
+
+	/**
+	 * Returns a model of the formulas of this state (taking the current
+	 * assumptions into account) or <code>null</code> if the state is
+	 * unsatisfiable.
+	 *
+	 * @return some model or <code>null</code>.
+	 */
+	PossibleWorld witness();
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.AutoCloseable#close()
+	 */
+	@Override
+	void close();
+}
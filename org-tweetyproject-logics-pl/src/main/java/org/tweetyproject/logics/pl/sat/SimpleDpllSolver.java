@@ -37,7 +37,8 @@ import org.tweetyproject.logics.pl.syntax.PlSignature;
  * algorithm for satisfiability testing, see e.g <a href="https://en.wikipedia.org/wiki/DPLL_algorithm">https://en.wikipedia.org/wiki/DPLL_algorithm</a>.
  * 
  * The order of the variables is simply taken by the standard iterator of the induced signature. Only
- * unit propagation is used for satisfiability testing.
+ * unit propagation is used for satisfiability testing. For anything beyond a few dozen
+ * variables, use {@link CdclSolver} instead, which is also implemented in pure Java.
  * 
  * @author Matthias Thimm
  */
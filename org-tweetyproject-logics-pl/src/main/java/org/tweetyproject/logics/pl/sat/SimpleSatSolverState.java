@@ -0,0 +1,110 @@
+/*
+ *  This file is part of "TweetyProject", a collection of Java libraries for
+ *  logical aspects of artificial intelligence and knowledge representation.
+ *
+ *  TweetyProject is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  Copyright 2024 The TweetyProject Team <http://tweetyproject.org/contact/>
+ */
+package org.tweetyproject.logics.pl.sat;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.tweetyproject.logics.pl.semantics.PossibleWorld;
+import org.tweetyproject.logics.pl.syntax.Negation;
+import org.tweetyproject.logics.pl.syntax.PlFormula;
+import org.tweetyproject.logics.pl.syntax.Proposition;
+
+/**
+ * A solver state for SAT solvers without native support for incremental
+ * solving. It just collects all formulas and passes them (together with
+ * the current assumptions) to the underlying solver on every call.
+ *
+ * @author agent
+ */
+public class SimpleSatSolverState implements SatSolverState {
+
+	/** The underlying solver. */
+	private final SatSolver solver;
+
+	/** The formulas of this state. */
+	private final List<PlFormula> formulas = new ArrayList<>();
+
+	/** The assumptions for the next call. */
+	private List<PlFormula> assumptions = new ArrayList<>();
+
+	/**
+	 * Creates a new state for the given solver.
+	 * @param solver some SAT solver
+	 */
+	public SimpleSatSolverState(SatSolver solver) {
+		this.solver = solver;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.logics.pl.sat.SatSolverState#add(org.tweetyproject.logics.pl.syntax.PlFormula)
+	 */
+	@Override
+	public boolean add(PlFormula formula) {
+		this.formulas.add(formula);
+		return true;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.logics.pl.sat.SatSolverState#assume(org.tweetyproject.logics.pl.syntax.Proposition, boolean)
+	 */
+	@Override
+	public void assume(Proposition proposition, boolean value) {
+		this.assumptions.add(value ? proposition : new Negation(proposition));
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.logics.pl.sat.SatSolverState#satisfiable()
+	 */
+	@Override
+	public boolean satisfiable() {
+		return this.solver.isSatisfiable(this.consumeAssumptions());
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.logics.pl.sat.SatSolverState#witness()
+	 */
+	@Override
+	public PossibleWorld witness() {
+		return (PossibleWorld) this.solver.getWitness(this.consumeAssumptions());
+	}
+
+	/**
+	 * Returns the formulas of this state together with the current
+	 * assumptions and clears the latter.
+	 * @return the formulas to be passed to the solver.
+	 */
+	private Collection<PlFormula> consumeAssumptions() {
+		List<PlFormula> result = new ArrayList<>(this.formulas.size() + this.assumptions.size());
+		result.addAll(this.formulas);
+		result.addAll(this.assumptions);
+		this.assumptions = new ArrayList<>();
+		return result;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.logics.pl.sat.SatSolverState#close()
+	 */
+	@Override
+	public void close() {
+		this.formulas.clear();
+		this.assumptions.clear();
+	}
+}
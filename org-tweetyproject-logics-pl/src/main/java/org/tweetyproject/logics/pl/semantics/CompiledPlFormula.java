@@ -0,0 +1,521 @@
+/*
+ *  This file is part of "TweetyProject", a collection of Java libraries for
+ *  logical aspects of artificial intelligence and knowledge representation.
+ *
+ *  TweetyProject is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  Copyright 2024 The TweetyProject Team <http://tweetyproject.org/contact/>
+ */
+package org.tweetyproject.logics.pl.semantics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.tweetyproject.logics.pl.syntax.AssociativePlFormula;
+import org.tweetyproject.logics.pl.syntax.Conjunction;
+import org.tweetyproject.logics.pl.syntax.Contradiction;
+import org.tweetyproject.logics.pl.syntax.Disjunction;
+import org.tweetyproject.logics.pl.syntax.Equivalence;
+import org.tweetyproject.logics.pl.syntax.ExclusiveDisjunction;
+import org.tweetyproject.logics.pl.syntax.Implication;
+import org.tweetyproject.logics.pl.syntax.Negation;
+import org.tweetyproject.logics.pl.syntax.PlFormula;
+import org.tweetyproject.logics.pl.syntax.Proposition;
+import org.tweetyproject.logics.pl.syntax.Tautology;
+
+/**
+ * A propositional formula compiled into an evaluation tree over atom indices. The
+ * atoms of a signature of at most 64 propositions are numbered and a possible world
+ * is encoded as a <code>long</code> whose i-th bit is set iff the i-th atom is true, so
+ * that all possible worlds of a signature of size n are just the numbers 0,...,2^n-1.
+ * Conjunctions and disjunctions of literals are compiled into bit mask tests.
+ * <br>
+ * For evaluating many worlds, the formula is also compiled into a flat postfix program that
+ * evaluates 64 worlds at once with bitwise operations ({@link #satisfiesRange(long)},
+ * {@link #satisfiesBatch(long[])}): a batch of worlds is given bit-sliced, i.e., by one <code>long</code>
+ * per atom whose j-th bit is the truth value of the atom in the j-th world of the batch.
+ * <br>
+ * The result of {@link #satisfies(long)} coincides with {@link PossibleWorld#satisfies(PlFormula)}
+ * for the corresponding possible world, see {@link #toPossibleWorld(long, List)}.
+ *
+ * @author agent
+ */
+public class CompiledPlFormula {
+
+	/** The maximal number of atoms. */
+	public static final int MAX_ATOMS = 64;
+
+	/** The root of the evaluation tree. */
+	private final Node root;
+
+	/** Operation of the postfix program: push the slice of an atom. */
+	private static final byte ATOM = 0;
+	/** Operation of the postfix program: push the negated slice of an atom. */
+	private static final byte NEG_ATOM = 1;
+	/** Operation of the postfix program: push a constant (argument 0 for false, 1 for true). */
+	private static final byte CONST = 2;
+	/** Operation of the postfix program: negate the top of the stack. */
+	private static final byte NOT = 3;
+	/** Operation of the postfix program: replace the given number of top elements by their conjunction. */
+	private static final byte AND = 4;
+	/** Operation of the postfix program: replace the given number of top elements by their disjunction. */
+	private static final byte OR = 5;
+	/** Operation of the postfix program: replace the given number of top elements by their parity. */
+	private static final byte XOR = 6;
+
+	/** The slices of the first six atoms in a batch of 64 consecutive worlds. */
+	private static final long[] SLICES = {
+			0xAAAAAAAAAAAAAAAAL, 0xCCCCCCCCCCCCCCCCL, 0xF0F0F0F0F0F0F0F0L,
+			0xFF00FF00FF00FF00L, 0xFFFF0000FFFF0000L, 0xFFFFFFFF00000000L };
+
+	/** The operations of the postfix program. */
+	private final byte[] ops;
+	/** The arguments of the operations of the postfix program. */
+	private final int[] args;
+	/** The maximal stack size of the postfix program. */
+	private final int maxStack;
+
+	/**
+	 * Compiles the given formula wrt. the given numbering of atoms.
+	 * @param formula some formula
+	 * @param atoms a list of at most 64 propositions containing all atoms of the formula;
+	 * 	the i-th proposition corresponds to the i-th bit of a world
+	 * @throws IllegalArgumentException if there are too many atoms, some atom of the
+	 * 	formula is missing, or the formula is of unknown type.
+	 */
+	public CompiledPlFormula(PlFormula formula, List<Proposition> atoms) throws IllegalArgumentException {
+		this.root = CompiledPlFormula.compile(formula, CompiledPlFormula.index(atoms));
+		Program program = new Program();
+		this.root.emit(program);
+		this.ops = new byte[program.size];
+		this.args = new int[program.size];
+		for(int i = 0; i < program.size; i++) {
+			this.ops[i] = (byte) (program.code[i] & 0xFF);
+			this.args[i] = program.code[i] >>> 8;
+		}
+		this.maxStack = program.maxStack;
+	}
+
+	/**
+	 * Checks whether the given world satisfies this formula.
+	 * @param world a world, the i-th bit is the truth value of the i-th atom
+	 * @return "true" iff the world satisfies this formula.
+	 */
+	public boolean satisfies(long world) {
+		return this.root.satisfies(world);
+	}
+
+	/**
+	 * Checks which of the 64 worlds first,...,first+63 satisfy this formula.
+	 * @param first a world, must be a multiple of 64
+	 * @return a mask whose j-th bit is set iff the world first+j satisfies this formula (if the
+	 * 	signature has less than six atoms, only the first 2^n bits are meaningful).
+	 */
+	public long satisfiesRange(long first) {
+		if((first & 63) != 0)
+			throw new IllegalArgumentException("The first world of a range must be a multiple of 64.");
+		return this.run(null, first);
+	}
+
+	/**
+	 * Checks which worlds of the given batch satisfy this formula.
+	 * @param slices a batch of up to 64 worlds, the j-th bit of slices[i] is the truth value of
+	 * 	the i-th atom in the j-th world
+	 * @return a mask whose j-th bit is set iff the j-th world satisfies this formula.
+	 */
+	public long satisfiesBatch(long[] slices) {
+		return this.run(slices, 0);
+	}
+
+	/**
+	 * Returns the indices of the worlds of the given list that satisfy this formula.
+	 * @param batches the list of worlds, encoded by {@link #toBatches(List, List)}
+	 * @param numberOfWorlds the number of worlds in the list
+	 * @return the set of indices of worlds satisfying this formula.
+	 */
+	public BitSet getModels(long[][] batches, int numberOfWorlds) {
+		long[] masks = new long[batches.length];
+		for(int b = 0; b < batches.length; b++)
+			masks[b] = this.satisfiesBatch(batches[b]);
+		if(numberOfWorlds % 64 != 0)
+			masks[batches.length - 1] &= (1L << (numberOfWorlds % 64)) - 1;
+		return BitSet.valueOf(masks);
+	}
+
+	/**
+	 * Returns the worlds of the given list that satisfy this formula.
+	 * @param worlds a list of possible worlds
+	 * @param batches the same list of worlds, encoded by {@link #toBatches(List, List)}
+	 * @return the worlds satisfying this formula, in the order of the list.
+	 */
+	public List<PossibleWorld> getModels(List<PossibleWorld> worlds, long[][] batches) {
+		BitSet models = this.getModels(batches, worlds.size());
+		List<PossibleWorld> result = new ArrayList<PossibleWorld>(models.cardinality());
+		for(int i = models.nextSetBit(0); i >= 0; i = models.nextSetBit(i + 1))
+			result.add(worlds.get(i));
+		return result;
+	}
+
+	/**
+	 * Runs the postfix program.
+	 * @param slices a batch of worlds or null for the batch of worlds first,...,first+63
+	 * @param first the first world of the batch if no slices are given
+	 * @return the mask of worlds satisfying this formula.
+	 */
+	private long run(long[] slices, long first) {
+		long[] stack = new long[this.maxStack];
+		int sp = 0;
+		for(int pc = 0; pc < this.ops.length; pc++) {
+			int arg = this.args[pc];
+			switch(this.ops[pc]) {
+				case ATOM:
+					stack[sp++] = slices != null ? slices[arg] : CompiledPlFormula.slice(arg, first);
+					break;
+				case NEG_ATOM:
+					stack[sp++] = ~(slices != null ? slices[arg] : CompiledPlFormula.slice(arg, first));
+					break;
+				case CONST:
+					stack[sp++] = arg == 0 ? 0L : -1L;
+					break;
+				case NOT:
+					stack[sp - 1] = ~stack[sp - 1];
+					break;
+				case AND: {
+					long r = -1L;
+					for(int k = 0; k < arg; k++)
+						r &= stack[--sp];
+					stack[sp++] = r;
+					break;
+				}
+				case OR: {
+					long r = 0L;
+					for(int k = 0; k < arg; k++)
+						r |= stack[--sp];
+					stack[sp++] = r;
+					break;
+				}
+				default: {
+					long r = 0L;
+					for(int k = 0; k < arg; k++)
+						r ^= stack[--sp];
+					stack[sp++] = r;
+				}
+			}
+		}
+		return stack[0];
+	}
+
+	/**
+	 * Returns the slice of the given atom in the batch of worlds first,...,first+63.
+	 * @param atom the index of an atom
+	 * @param first a multiple of 64
+	 * @return the slice of the atom.
+	 */
+	private static long slice(int atom, long first) {
+		if(atom < 6)
+			return CompiledPlFormula.SLICES[atom];
+		return ((first >>> atom) & 1) != 0 ? -1L : 0L;
+	}
+
+	/**
+	 * Encodes the given worlds bit-sliced in batches of 64 worlds, see {@link #satisfiesBatch(long[])}.
+	 * @param worlds a list of possible worlds
+	 * @param atoms the numbering of atoms (propositions of worlds that are not in the list are ignored)
+	 * @return the batches, the j-th world of the b-th batch is the (64*b+j)-th world of the list.
+	 */
+	public static long[][] toBatches(List<PossibleWorld> worlds, List<Proposition> atoms) {
+		Map<Proposition,Integer> index = CompiledPlFormula.index(atoms);
+		long[][] batches = new long[(worlds.size() + 63) / 64][atoms.size()];
+		for(int w = 0; w < worlds.size(); w++)
+			for(Proposition p: worlds.get(w)) {
+				Integer i = index.get(p);
+				if(i != null)
+					batches[w / 64][i] |= 1L << (w % 64);
+			}
+		return batches;
+	}
+
+	/**
+	 * Returns the possible world corresponding to the given encoded world.
+	 * @param world a world, the i-th bit is the truth value of the i-th atom
+	 * @param atoms the numbering of atoms
+	 * @return the corresponding possible world.
+	 */
+	public static PossibleWorld toPossibleWorld(long world, List<Proposition> atoms) {
+		Set<Proposition> props = new HashSet<Proposition>();
+		for(int i = 0; i < atoms.size(); i++)
+			if((world & (1L << i)) != 0)
+				props.add(atoms.get(i));
+		return new PossibleWorld(props);
+	}
+
+	/**
+	 * Maps every atom to its index.
+	 * @param atoms a list of propositions
+	 * @return the index of every proposition.
+	 */
+	private static Map<Proposition,Integer> index(List<Proposition> atoms) {
+		if(atoms.size() > CompiledPlFormula.MAX_ATOMS)
+			throw new IllegalArgumentException("At most " + CompiledPlFormula.MAX_ATOMS + " atoms are supported.");
+		Map<Proposition,Integer> index = new HashMap<Proposition,Integer>();
+		for(int i = 0; i < atoms.size(); i++)
+			index.put(atoms.get(i), i);
+		return index;
+	}
+
+	/**
+	 * Compiles the given formula.
+	 * @param formula some formula
+	 * @param index the index of every atom
+	 * @return the root of the evaluation tree.
+	 */
+	private static Node compile(PlFormula formula, Map<Proposition,Integer> index) {
+		if(formula instanceof Contradiction)
+			return new Constant(false);
+		if(formula instanceof Tautology)
+			return new Constant(true);
+		if(formula instanceof Proposition)
+			return new Literals(true, CompiledPlFormula.mask((Proposition) formula, index), 0, new Node[0]);
+		if(formula instanceof Negation) {
+			PlFormula inner = ((Negation) formula).getFormula();
+			if(inner instanceof Proposition)
+				return new Literals(true, 0, CompiledPlFormula.mask((Proposition) inner, index), new Node[0]);
+			return new Not(CompiledPlFormula.compile(inner, index));
+		}
+		if(formula instanceof Conjunction || formula instanceof Disjunction) {
+			boolean conjunctive = formula instanceof Conjunction;
+			long pos = 0, neg = 0;
+			List<Node> others = new ArrayList<Node>();
+			for(PlFormula f: (AssociativePlFormula) formula) {
+				if(f instanceof Proposition)
+					pos |= CompiledPlFormula.mask((Proposition) f, index);
+				else if(f instanceof Negation && ((Negation) f).getFormula() instanceof Proposition)
+					neg |= CompiledPlFormula.mask((Proposition) ((Negation) f).getFormula(), index);
+				else others.add(CompiledPlFormula.compile(f, index));
+			}
+			return new Literals(conjunctive, pos, neg, others.toArray(new Node[others.size()]));
+		}
+		if(formula instanceof ExclusiveDisjunction) {
+			ExclusiveDisjunction x = (ExclusiveDisjunction) formula;
+			// the empty exclusive disjunction is satisfied by every world, see ExclusiveDisjunction#toCnf()
+			if(x.isEmpty())
+				return new Constant(true);
+			Node[] children = new Node[x.size()];
+			for(int i = 0; i < x.size(); i++)
+				children[i] = CompiledPlFormula.compile(x.get(i), index);
+			return new Parity(children);
+		}
+		if(formula instanceof Implication) {
+			Implication i = (Implication) formula;
+			return new Literals(false, 0, 0, new Node[] {
+					new Not(CompiledPlFormula.compile(i.getFormulas().getFirst(), index)),
+					CompiledPlFormula.compile(i.getFormulas().getSecond(), index)});
+		}
+		if(formula instanceof Equivalence) {
+			Equivalence e = (Equivalence) formula;
+			return new Not(new Parity(new Node[] {
+					CompiledPlFormula.compile(e.getFormulas().getFirst(), index),
+					CompiledPlFormula.compile(e.getFormulas().getSecond(), index)}));
+		}
+		throw new IllegalArgumentException("Propositional formula " + formula + " is of unknown type.");
+	}
+
+	/**
+	 * Returns the bit mask of the given atom.
+	 * @param p some proposition
+	 * @param index the index of every atom
+	 * @return the bit mask of the atom.
+	 */
+	private static long mask(Proposition p, Map<Proposition,Integer> index) {
+		Integer i = index.get(p);
+		if(i == null)
+			throw new IllegalArgumentException("Proposition " + p + " is not part of the signature.");
+		return 1L << i;
+	}
+
+	/**
+	 * A node of the evaluation tree.
+	 */
+	private static abstract class Node {
+		abstract boolean satisfies(long world);
+
+		/**
+		 * Appends the postfix program of this node.
+		 * @param program some program
+		 */
+		abstract void emit(Program program);
+	}
+
+	/**
+	 * A postfix program under construction.
+	 */
+	private static final class Program {
+		/** The instructions, an operation in the lowest byte and its argument above. */
+		private int[] code = new int[16];
+		/** The number of instructions. */
+		private int size = 0;
+		/** The current and the maximal stack size. */
+		private int stack = 0, maxStack = 1;
+
+		/**
+		 * Appends an instruction.
+		 * @param op some operation
+		 * @param arg its argument
+		 * @param pops the number of elements it removes from the stack
+		 * @param pushes the number of elements it pushes onto the stack
+		 */
+		private void add(byte op, int arg, int pops, int pushes) {
+			if(this.size == this.code.length)
+				this.code = Arrays.copyOf(this.code, 2 * this.size);
+			this.code[this.size++] = op | (arg << 8);
+			this.stack += pushes - pops;
+			this.maxStack = Math.max(this.maxStack, this.stack);
+		}
+
+		/**
+		 * Appends an instruction pushing the (negated) slice of every atom of the given mask.
+		 * @param op ATOM or NEG_ATOM
+		 * @param mask a set of atoms
+		 */
+		private void addAtoms(byte op, long mask) {
+			for(long m = mask; m != 0; m &= m - 1)
+				this.add(op, Long.numberOfTrailingZeros(m), 0, 1);
+		}
+	}
+
+	/**
+	 * A constant truth value.
+	 */
+	private static final class Constant extends Node {
+		private final boolean value;
+
+		private Constant(boolean value) {
+			this.value = value;
+		}
+
+		@Override
+		boolean satisfies(long world) {
+			return this.value;
+		}
+
+		@Override
+		void emit(Program program) {
+			program.add(CONST, this.value ? 1 : 0, 0, 1);
+		}
+	}
+
+	/**
+	 * The negation of a sub formula.
+	 */
+	private static final class Not extends Node {
+		private final Node inner;
+
+		private Not(Node inner) {
+			this.inner = inner;
+		}
+
+		@Override
+		boolean satisfies(long world) {
+			return !this.inner.satisfies(world);
+		}
+
+		@Override
+		void emit(Program program) {
+			this.inner.emit(program);
+			program.add(NOT, 0, 1, 1);
+		}
+	}
+
+	/**
+	 * A conjunction or disjunction of positive literals, negative literals, and further
+	 * sub formulas. The literals are checked with bit masks first.
+	 */
+	private static final class Literals extends Node {
+		private final boolean conjunctive;
+		private final long pos, neg;
+		private final Node[] others;
+
+		private Literals(boolean conjunctive, long pos, long neg, Node[] others) {
+			this.conjunctive = conjunctive;
+			this.pos = pos;
+			this.neg = neg;
+			this.others = others;
+		}
+
+		@Override
+		boolean satisfies(long world) {
+			if(this.conjunctive) {
+				if((world & this.pos) != this.pos || (world & this.neg) != 0)
+					return false;
+				for(Node n: this.others)
+					if(!n.satisfies(world))
+						return false;
+				return true;
+			}
+			if((world & this.pos) != 0 || (~world & this.neg) != 0)
+				return true;
+			for(Node n: this.others)
+				if(n.satisfies(world))
+					return true;
+			return false;
+		}
+
+		@Override
+		void emit(Program program) {
+			int n = Long.bitCount(this.pos) + Long.bitCount(this.neg) + this.others.length;
+			if(n == 0) {
+				program.add(CONST, this.conjunctive ? 1 : 0, 0, 1);
+				return;
+			}
+			program.addAtoms(ATOM, this.pos);
+			program.addAtoms(NEG_ATOM, this.neg);
+			for(Node node: this.others)
+				node.emit(program);
+			if(n > 1)
+				program.add(this.conjunctive ? AND : OR, n, n, 1);
+		}
+	}
+
+	/**
+	 * The parity (exclusive disjunction) of sub formulas.
+	 */
+	private static final class Parity extends Node {
+		private final Node[] children;
+
+		private Parity(Node[] children) {
+			this.children = children;
+		}
+
+		@Override
+		boolean satisfies(long world) {
+			boolean result = false;
+			for(Node n: this.children)
+				result ^= n.satisfies(world);
+			return result;
+		}
+
+		@Override
+		void emit(Program program) {
+			for(Node n: this.children)
+				n.emit(program);
+			if(this.children.length > 1)
+				program.add(XOR, this.children.length, this.children.length, 1);
+		}
+	}
+}
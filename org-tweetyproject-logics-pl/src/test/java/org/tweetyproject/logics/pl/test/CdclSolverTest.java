@@ -0,0 +1,108 @@
+/*
+ *  This file is part of "TweetyProject", a collection of Java libraries for
+ *  logical aspects of artificial intelligence and knowledge representation.
+ *
+ *  TweetyProject is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  Copyright 2024 The TweetyProject Team <http://tweetyproject.org/contact/>
+ */
+package org.tweetyproject.logics.pl.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+
+import org.junit.Test;
+
+import org.tweetyproject.commons.ParserException;
+import org.tweetyproject.logics.pl.parser.DimacsParser;
+import org.tweetyproject.logics.pl.parser.PlParser;
+import org.tweetyproject.logics.pl.sat.CdclSolver;
+import org.tweetyproject.logics.pl.sat.SatSolverState;
+import org.tweetyproject.logics.pl.sat.SimpleDpllSolver;
+import org.tweetyproject.logics.pl.semantics.PossibleWorld;
+import org.tweetyproject.logics.pl.syntax.PlBeliefSet;
+import org.tweetyproject.logics.pl.syntax.PlSignature;
+import org.tweetyproject.logics.pl.syntax.Proposition;
+import org.tweetyproject.logics.pl.util.RandomSatSampler;
+
+public class CdclSolverTest {
+
+	private String[] files = {
+			"src/main/resources/dimacs_ex1.cnf",
+			"src/main/resources/dimacs_ex2.cnf",
+			"src/main/resources/dimacs_ex3.cnf",
+			"src/main/resources/dimacs_ex4.cnf",
+			"src/main/resources/dimacs_ex5.cnf"
+	};
+
+	private boolean[] sat = {
+			true,
+			false,
+			true,
+			false,
+			true
+	};
+
+	@Test
+	public void SolverTest() throws FileNotFoundException, ParserException, IOException {
+		DimacsParser parser = new DimacsParser();
+		CdclSolver solver = new CdclSolver();
+		for(int i = 0; i < this.files.length; i++) {
+			PlBeliefSet bs = parser.parseBeliefBaseFromFile(this.files[i]);
+			assertEquals(this.sat[i], solver.isConsistent(bs));
+			if(this.sat[i])
+				assertTrue(((PossibleWorld) solver.getWitness(bs)).satisfies(bs));
+		}
+	}
+
+	@Test
+	public void RandomTest() {
+		CdclSolver solver = new CdclSolver();
+		SimpleDpllSolver dpll = new SimpleDpllSolver();
+		RandomSatSampler sampler = new RandomSatSampler(new PlSignature(12), 3, 51, 51);
+		for(int i = 0; i < 50; i++) {
+			PlBeliefSet bs = sampler.next();
+			boolean expected = dpll.isConsistent(bs);
+			assertEquals(expected, solver.isConsistent(bs));
+			if(expected)
+				assertTrue(((PossibleWorld) solver.getWitness(bs)).satisfies(bs));
+		}
+	}
+
+	@Test
+	public void StateTest() throws ParserException, IOException {
+		PlParser parser = new PlParser();
+		SatSolverState state = new CdclSolver().createState();
+		assertTrue(state.add(parser.parseFormula("a || b")));
+		assertTrue(state.add(parser.parseFormula("!a || c")));
+		state.assume(new Proposition("b"), false);
+		PossibleWorld w = state.witness();
+		assertNotNull(w);
+		assertTrue(w.contains(new Proposition("a")) && w.contains(new Proposition("c")));
+		state.assume(new Proposition("b"), false);
+		state.assume(new Proposition("c"), false);
+		assertFalse(state.satisfiable());
+		// assumptions do not persist
+		assertTrue(state.satisfiable());
+		state.add(parser.parseFormula("!b"));
+		assertTrue(state.satisfiable());
+		assertFalse(state.add(parser.parseFormula("!c")));
+		assertFalse(state.satisfiable());
+		state.close();
+	}
+}
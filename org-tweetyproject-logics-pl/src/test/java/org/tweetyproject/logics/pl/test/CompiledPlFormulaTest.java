@@ -0,0 +1,171 @@
+/*
+ *  This file is part of "TweetyProject", a collection of Java libraries for
+ *  logical aspects of artificial intelligence and knowledge representation.
+ *
+ *  TweetyProject is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  Copyright 2024 The TweetyProject Team <http://tweetyproject.org/contact/>
+ */
+package org.tweetyproject.logics.pl.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import org.tweetyproject.logics.pl.semantics.CompiledPlFormula;
+import org.tweetyproject.logics.pl.semantics.PossibleWorld;
+import org.tweetyproject.logics.pl.syntax.Conjunction;
+import org.tweetyproject.logics.pl.syntax.Contradiction;
+import org.tweetyproject.logics.pl.syntax.Disjunction;
+import org.tweetyproject.logics.pl.syntax.Equivalence;
+import org.tweetyproject.logics.pl.syntax.ExclusiveDisjunction;
+import org.tweetyproject.logics.pl.syntax.Implication;
+import org.tweetyproject.logics.pl.syntax.Negation;
+import org.tweetyproject.logics.pl.syntax.PlFormula;
+import org.tweetyproject.logics.pl.syntax.Proposition;
+import org.tweetyproject.logics.pl.syntax.Tautology;
+
+/**
+ * Compares the evaluation of compiled formulas on single worlds, ranges and batches of
+ * worlds with {@link PossibleWorld#satisfies(PlFormula)} on random formulas.
+ *
+ * @author agent
+ */
+public class CompiledPlFormulaTest {
+
+	/** The signature sizes to test, with less than, exactly and more than 64 worlds. */
+	private static final int[] SIZES = {1, 3, 5, 6, 7, 9};
+
+	@Test
+	public void SatisfiesTest() {
+		Random random = new Random(1);
+		for(int n: CompiledPlFormulaTest.SIZES) {
+			List<Proposition> atoms = CompiledPlFormulaTest.atoms(n);
+			for(int k = 0; k < 30; k++) {
+				PlFormula formula = CompiledPlFormulaTest.randomFormula(random, atoms, 4);
+				CompiledPlFormula compiled = new CompiledPlFormula(formula, atoms);
+				for(long w = 0; w < (1L << n); w++)
+					assertEquals(formula + " " + w, CompiledPlFormula.toPossibleWorld(w, atoms).satisfies(formula), compiled.satisfies(w));
+			}
+		}
+	}
+
+	@Test
+	public void RangeTest() {
+		Random random = new Random(2);
+		for(int n: CompiledPlFormulaTest.SIZES) {
+			List<Proposition> atoms = CompiledPlFormulaTest.atoms(n);
+			for(int k = 0; k < 30; k++) {
+				PlFormula formula = CompiledPlFormulaTest.randomFormula(random, atoms, 4);
+				CompiledPlFormula compiled = new CompiledPlFormula(formula, atoms);
+				for(long first = 0; first < (1L << n); first += 64) {
+					long mask = compiled.satisfiesRange(first);
+					// only the first 2^n bits are meaningful for less than six atoms
+					for(int j = 0; j < 64 && first + j < (1L << n); j++)
+						assertEquals(formula + " " + (first + j), CompiledPlFormula.toPossibleWorld(first + j, atoms).satisfies(formula), (mask & (1L << j)) != 0);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void BatchTest() {
+		Random random = new Random(3);
+		for(int n: CompiledPlFormulaTest.SIZES) {
+			List<Proposition> atoms = CompiledPlFormulaTest.atoms(n);
+			// worlds in random order, with duplicates and possibly more than 64 worlds
+			List<PossibleWorld> worlds = new ArrayList<PossibleWorld>();
+			for(long w = 0; w < (1L << n); w++)
+				worlds.add(CompiledPlFormula.toPossibleWorld(w, atoms));
+			for(int i = 0; i < 11; i++)
+				worlds.add(worlds.get(random.nextInt(worlds.size())));
+			Collections.shuffle(worlds, random);
+			long[][] batches = CompiledPlFormula.toBatches(worlds, atoms);
+			assertEquals((worlds.size() + 63) / 64, batches.length);
+			for(int k = 0; k < 30; k++) {
+				PlFormula formula = CompiledPlFormulaTest.randomFormula(random, atoms, 4);
+				CompiledPlFormula compiled = new CompiledPlFormula(formula, atoms);
+				BitSet expected = new BitSet();
+				List<PossibleWorld> expectedWorlds = new ArrayList<PossibleWorld>();
+				for(int i = 0; i < worlds.size(); i++)
+					if(worlds.get(i).satisfies(formula)) {
+						expected.set(i);
+						expectedWorlds.add(worlds.get(i));
+					}
+				for(int b = 0; b < batches.length; b++) {
+					long mask = compiled.satisfiesBatch(batches[b]);
+					for(int j = 0; j < 64 && 64 * b + j < worlds.size(); j++)
+						assertEquals(expected.get(64 * b + j), (mask & (1L << j)) != 0);
+				}
+				// no models beyond the end of the list
+				assertEquals(expected, compiled.getModels(batches, worlds.size()));
+				assertEquals(expectedWorlds, compiled.getModels(worlds, batches));
+			}
+		}
+	}
+
+	/**
+	 * Returns the given number of atoms.
+	 * @param n some number
+	 * @return the atoms a0,...,a(n-1).
+	 */
+	private static List<Proposition> atoms(int n) {
+		List<Proposition> atoms = new ArrayList<Proposition>();
+		for(int i = 0; i < n; i++)
+			atoms.add(new Proposition("a" + i));
+		return atoms;
+	}
+
+	/**
+	 * Returns a random formula over the given atoms.
+	 * @param random some random number generator
+	 * @param atoms some atoms
+	 * @param depth the maximal depth of the formula
+	 * @return a random formula.
+	 */
+	private static PlFormula randomFormula(Random random, List<Proposition> atoms, int depth) {
+		int kind = depth == 0 ? random.nextInt(10) / 9 : random.nextInt(9);
+		switch(kind) {
+			case 0:
+				return atoms.get(random.nextInt(atoms.size()));
+			case 1:
+				return random.nextBoolean() ? new Tautology() : new Contradiction();
+			case 2:
+				return new Negation(CompiledPlFormulaTest.randomFormula(random, atoms, depth - 1));
+			case 3:
+				return new Conjunction(CompiledPlFormulaTest.randomFormula(random, atoms, depth - 1), CompiledPlFormulaTest.randomFormula(random, atoms, depth - 1));
+			case 4:
+				return new Disjunction(CompiledPlFormulaTest.randomFormula(random, atoms, depth - 1), CompiledPlFormulaTest.randomFormula(random, atoms, depth - 1));
+			case 5:
+				return new Implication(CompiledPlFormulaTest.randomFormula(random, atoms, depth - 1), CompiledPlFormulaTest.randomFormula(random, atoms, depth - 1));
+			case 6:
+				return new Equivalence(CompiledPlFormulaTest.randomFormula(random, atoms, depth - 1), CompiledPlFormulaTest.randomFormula(random, atoms, depth - 1));
+			case 7:
+				return new ExclusiveDisjunction(CompiledPlFormulaTest.randomFormula(random, atoms, depth - 1), CompiledPlFormulaTest.randomFormula(random, atoms, depth - 1));
+			default:
+				// a clause of literals
+				List<PlFormula> literals = new ArrayList<PlFormula>();
+				for(int i = 0; i < 3; i++) {
+					Proposition p = atoms.get(random.nextInt(atoms.size()));
+					literals.add(random.nextBoolean() ? p : new Negation(p));
+				}
+				return random.nextBoolean() ? new Conjunction(literals) : new Disjunction(literals);
+		}
+	}
+}
@@ -0,0 +1,209 @@
+/*
+ *  This file is part of "TweetyProject", a collection of Java libraries for
+ *  logical aspects of artificial intelligence and knowledge representation.
+ *
+ *  TweetyProject is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  Copyright 2024 The TweetyProject Team <http://tweetyproject.org/contact/>
+ */
+package org.tweetyproject.logics.pl.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import org.tweetyproject.logics.pl.sat.DimacsSatSolver;
+import org.tweetyproject.logics.pl.syntax.Conjunction;
+import org.tweetyproject.logics.pl.syntax.Disjunction;
+import org.tweetyproject.logics.pl.syntax.Equivalence;
+import org.tweetyproject.logics.pl.syntax.Implication;
+import org.tweetyproject.logics.pl.syntax.Negation;
+import org.tweetyproject.logics.pl.syntax.PlFormula;
+import org.tweetyproject.logics.pl.syntax.Proposition;
+import org.tweetyproject.logics.pl.syntax.Tautology;
+
+/**
+ * Compares the streamed Dimacs encoding, both as a string and as a file, with
+ * the encoding by string concatenation it replaced, on random formulas.
+ *
+ * @author agent
+ */
+public class DimacsSatSolverTest {
+
+	/**
+	 * Gives access to the Dimacs files written for command line solvers.
+	 */
+	private static abstract class DimacsFiles extends DimacsSatSolver {
+		/**
+		 * Writes the given formulas to a temporary Dimacs file and returns its content.
+		 * @param formulas a collection of formulas
+		 * @param prop_index the indices of the propositions
+		 * @param additional_clauses additional clauses
+		 * @param num_additional_clauses the number of additional clauses
+		 * @return the content of the file.
+		 * @throws IOException if writing or reading the file failed.
+		 */
+		private static String write(Collection<PlFormula> formulas, Map<Proposition,Integer> prop_index, String additional_clauses, int num_additional_clauses) throws IOException {
+			File f = DimacsSatSolver.createTmpDimacsFile(formulas, prop_index, additional_clauses, num_additional_clauses);
+			try {
+				return Files.readString(f.toPath());
+			} finally {
+				f.delete();
+			}
+		}
+	}
+
+	@Test
+	public void StringTest() {
+		Random random = new Random(1);
+		for(int k = 0; k < 200; k++) {
+			List<PlFormula> formulas = DimacsSatSolverTest.randomFormulas(random);
+			Map<Proposition,Integer> prop_index = DimacsSatSolverTest.indices(formulas);
+			assertEquals(DimacsSatSolverTest.concatenate(formulas, prop_index, "", 0), DimacsSatSolver.convertToDimacs(formulas, prop_index, "", 0));
+			assertEquals(DimacsSatSolverTest.concatenate(formulas, prop_index, "1 -2 0\n-1 0\n", 2), DimacsSatSolver.convertToDimacs(formulas, prop_index, "1 -2 0\n-1 0\n", 2));
+		}
+	}
+
+	@Test
+	public void FileTest() throws IOException {
+		Random random = new Random(2);
+		for(int k = 0; k < 50; k++) {
+			List<PlFormula> formulas = DimacsSatSolverTest.randomFormulas(random);
+			Map<Proposition,Integer> prop_index = DimacsSatSolverTest.indices(formulas);
+			String file = DimacsFiles.write(formulas, prop_index, "1 -2 0\n", 1);
+			// a comment line pads the header to the reserved 64 bytes, the rest is the string encoding
+			int comment = file.indexOf('\n') + 1;
+			assertEquals('c', file.charAt(0));
+			assertEquals(64, file.indexOf('\n', comment) + 1);
+			assertEquals(DimacsSatSolverTest.concatenate(formulas, prop_index, "1 -2 0\n", 1), file.substring(comment));
+		}
+	}
+
+	/**
+	 * The encoding by string concatenation that was replaced by the streamed encoding. It
+	 * differs for contradictory clauses and for sets of tautological clauses only, which
+	 * {@link #randomFormulas(Random)} does not generate.
+	 * @param formulas a collection of formulas
+	 * @param prop_index the indices of the propositions
+	 * @param additional_clauses additional clauses
+	 * @param num_additional_clauses the number of additional clauses
+	 * @return a string in Dimacs CNF.
+	 */
+	private static String concatenate(Collection<PlFormula> formulas, Map<Proposition,Integer> prop_index, String additional_clauses, int num_additional_clauses) {
+		String s = "";
+		int num_clauses = 0;
+		for (PlFormula p : formulas) {
+			Conjunction conj;
+			if (p.isClause()) {
+				conj = new Conjunction();
+				conj.add(p);
+			} else
+				conj = p.toCnf();
+			for (PlFormula p1 : conj) {
+				Disjunction disj = (Disjunction) p1;
+				if (disj.isEmpty())
+					continue;
+				num_clauses++;
+				String stemp = "";
+				for (PlFormula p2 : disj) {
+					if (p2 instanceof Proposition) {
+						stemp += prop_index.get(p2) + " ";
+					} else if (p2.isLiteral())
+						stemp += "-" + prop_index.get((Proposition) ((Negation) p2).getFormula()) + " ";
+					else if (p2 instanceof Tautology) {
+						stemp = "";
+						break;
+					}
+				}
+				if (!stemp.isEmpty())
+					s += stemp + "0\n";
+				else
+					num_clauses--;
+			}
+		}
+		return "p cnf " + prop_index.keySet().size() + " " + (num_clauses+num_additional_clauses) + "\n" + s + additional_clauses;
+	}
+
+	/**
+	 * Returns some random clauses, some of them tautological, and random formulas that
+	 * have to be converted to CNF. The first clause is never tautological.
+	 * @param random some random number generator
+	 * @return some formulas.
+	 */
+	private static List<PlFormula> randomFormulas(Random random) {
+		List<Proposition> atoms = new ArrayList<Proposition>();
+		for(int i = 0; i < 6; i++)
+			atoms.add(new Proposition("a" + i));
+		List<PlFormula> formulas = new ArrayList<PlFormula>();
+		for(int i = random.nextInt(10); i >= 0; i--) {
+			Disjunction clause = new Disjunction();
+			for(int j = random.nextInt(3); j >= 0; j--)
+				clause.add(DimacsSatSolverTest.randomLiteral(random, atoms));
+			if(i > 0 && random.nextInt(5) == 0)
+				clause.add(new Tautology());
+			formulas.add(0, clause);
+		}
+		for(int i = random.nextInt(4); i > 0; i--) {
+			PlFormula a = DimacsSatSolverTest.randomLiteral(random, atoms), b = DimacsSatSolverTest.randomLiteral(random, atoms), c = DimacsSatSolverTest.randomLiteral(random, atoms);
+			switch(random.nextInt(3)) {
+				case 0:
+					formulas.add(new Implication(new Conjunction(a, b), c));
+					break;
+				case 1:
+					formulas.add(new Equivalence(a, new Disjunction(b, c)));
+					break;
+				default:
+					formulas.add(new Negation(new Conjunction(a, new Disjunction(b, c))));
+			}
+		}
+		return formulas;
+	}
+
+	/**
+	 * Returns a random literal over the given atoms.
+	 * @param random some random number generator
+	 * @param atoms some atoms
+	 * @return a random literal.
+	 */
+	private static PlFormula randomLiteral(Random random, List<Proposition> atoms) {
+		Proposition p = atoms.get(random.nextInt(atoms.size()));
+		return random.nextBoolean() ? p : new Negation(p);
+	}
+
+	/**
+	 * Returns the indices of all propositions of the given formulas, and of two further propositions
+	 * used by the additional clauses.
+	 * @param formulas some formulas
+	 * @return the indices of the propositions.
+	 */
+	private static Map<Proposition,Integer> indices(List<PlFormula> formulas) {
+		Map<Proposition,Integer> prop_index = new HashMap<Proposition,Integer>();
+		prop_index.put(new Proposition("x1"), 1);
+		prop_index.put(new Proposition("x2"), 2);
+		for(PlFormula f: formulas)
+			for(Proposition p: f.getAtoms())
+				if(!prop_index.containsKey(p))
+					prop_index.put(p, prop_index.size() + 1);
+		return prop_index;
+	}
+}
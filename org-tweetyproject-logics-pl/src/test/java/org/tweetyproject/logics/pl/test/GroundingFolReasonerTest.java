@@ -0,0 +1,143 @@
+/*
+ *  This file is part of "TweetyProject", a collection of Java libraries for
+ *  logical aspects of artificial intelligence and knowledge representation.
+ *
+ *  TweetyProject is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  Copyright 2024 The TweetyProject Team <http://tweetyproject.org/contact/>
+ */
+package org.tweetyproject.logics.pl.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+
+import org.junit.Test;
+
+import org.tweetyproject.commons.ParserException;
+import org.tweetyproject.logics.fol.parser.FolParser;
+import org.tweetyproject.logics.fol.reasoner.SimpleFolReasoner;
+import org.tweetyproject.logics.fol.syntax.FolBeliefSet;
+import org.tweetyproject.logics.fol.syntax.FolFormula;
+import org.tweetyproject.logics.fol.syntax.FolSignature;
+import org.tweetyproject.logics.pl.reasoner.GroundingFolReasoner;
+
+/**
+ * Compares the answers of the grounding reasoner with those of the
+ * reasoner enumerating all Herbrand interpretations.
+ *
+ * @author agent
+ */
+public class GroundingFolReasonerTest {
+
+	/**
+	 * The signature, with a tautology mentioning all constants (the simple reasoner only considers
+	 * the constants occurring in the belief set or the query).
+	 */
+	private static final String SIGNATURE = "Animal = {penguin, kiwi}\nCol = {red, blue}\n"
+			+ "type(Flies(Animal))\ntype(Bird(Animal))\ntype(Has(Animal,Col))\ntype(Rich)\n"
+			+ "(Has(penguin,red) || !Has(penguin,red)) && (Has(kiwi,blue) || !Has(kiwi,blue))\n";
+
+	/** Belief sets, queries and the expected answers. */
+	private static final String[][] CASES = {
+			{"forall X:(Bird(X) => Flies(X))\nBird(penguin)\n", "Flies(penguin)", "true"},
+			{"forall X:(Bird(X) => Flies(X))\nBird(penguin)\n", "Flies(kiwi)", "false"},
+			{"exists X:(Flies(X))\n", "Flies(kiwi)", "false"},
+			{"forall X:(exists Y:(Has(X,Y)))\n!Has(kiwi,red)\n", "Has(kiwi,blue)", "true"},
+			{"forall X:(exists Y:(Has(X,Y)))\n", "exists X:(forall Y:(Has(X,Y)))", "false"},
+			{"forall X:(forall Y:(Has(X,Y) => Bird(X)))\nexists X:(exists Y:(Has(X,Y)))\n", "exists X:(Bird(X))", "true"},
+			{"Rich ^^ Bird(kiwi)\nBird(kiwi)\n", "!Rich", "true"},
+			{"Rich ^^ Bird(kiwi)\n", "Rich || Bird(kiwi)", "true"},
+			{"(Rich <=> Bird(kiwi))\n!Rich\n", "!Bird(kiwi)", "true"},
+			{"forall X:(Bird(X) || Flies(X))\n!(exists X:(Flies(X) && Bird(X)))\n", "forall X:(Bird(X) ^^ Flies(X))", "true"},
+			{"forall X:(Bird(X) ^^ Flies(X))\n", "forall X:(Bird(X) || Flies(X))", "true"},
+			{"exists X:(Bird(X) && !Flies(X))\n", "!(forall X:(Bird(X) => Flies(X)))", "true"},
+			{"Rich\n!Rich\n", "Bird(kiwi)", "true"},
+			{"+\n", "-", "false"}
+	};
+
+	/** A smaller signature for formulas with equality (the simple reasoner also enumerates the equality atoms). */
+	private static final String EQUALITY_SIGNATURE = "Animal = {penguin, kiwi}\n"
+			+ "type(Flies(Animal))\ntype(Bird(Animal))\n"
+			+ "Bird(penguin) || !Bird(penguin) || Flies(kiwi)\n";
+
+	/** Belief sets with equality, queries and the expected answers. */
+	private static final String[][] EQUALITY_CASES = {
+			{"exists X:(Bird(X))\nforall X:(!Bird(X) || X==penguin)\n", "Bird(penguin)", "true"},
+			{"forall X:(forall Y:(!Bird(X) || !Bird(Y) || X==Y))\nBird(kiwi)\n", "!Bird(penguin)", "true"},
+			{"forall X:(forall Y:((Bird(X) && Flies(Y)) => X/==Y))\nFlies(penguin)\n", "!Bird(penguin)", "true"},
+			{"+\n", "forall X:(!Bird(X) || X==X)", "true"},
+			{"+\n", "exists X:(exists Y:(Bird(X) && Bird(Y) && X/==Y))", "false"},
+			{"Bird(penguin)\nBird(kiwi)\n", "exists X:(exists Y:(Bird(X) && Bird(Y) && X/==Y))", "true"}
+	};
+
+	@Test
+	public void QueryTest() throws ParserException, IOException {
+		this.compare(SIGNATURE, CASES);
+	}
+
+	@Test
+	public void EqualityQueryTest() throws ParserException, IOException {
+		this.compare(EQUALITY_SIGNATURE, EQUALITY_CASES);
+	}
+
+	/**
+	 * Checks the answers of both reasoners for the given cases.
+	 * @param signature the declarations preceding every belief set
+	 * @param cases belief sets, queries and the expected answers
+	 * @throws ParserException if some case cannot be parsed
+	 * @throws IOException if some case cannot be parsed
+	 */
+	private void compare(String signature, String[][] cases) throws ParserException, IOException {
+		SimpleFolReasoner simple = new SimpleFolReasoner();
+		GroundingFolReasoner grounding = new GroundingFolReasoner();
+		for(String[] c: cases) {
+			FolParser parser = new FolParser();
+			parser.setSignature(new FolSignature(true));
+			FolBeliefSet kb = parser.parseBeliefBase(signature + c[0]);
+			FolFormula query = (FolFormula) parser.parseFormula(c[1]);
+			boolean expected = Boolean.parseBoolean(c[2]);
+			assertEquals(c[1], expected, simple.query(kb, query));
+			assertEquals(c[1], expected, grounding.query(kb, query));
+		}
+	}
+
+	@Test
+	public void ConsistencyTest() throws ParserException, IOException {
+		GroundingFolReasoner grounding = new GroundingFolReasoner();
+		FolParser parser = new FolParser();
+		parser.setSignature(new FolSignature(true));
+		assertTrue(grounding.isConsistent(parser.parseBeliefBase(SIGNATURE + "forall X:(exists Y:(Has(X,Y)))\n")));
+		parser = new FolParser();
+		parser.setSignature(new FolSignature(true));
+		assertFalse(grounding.isConsistent(parser.parseBeliefBase(SIGNATURE + "forall X:(Bird(X))\n!Bird(kiwi)\n")));
+	}
+
+	@Test
+	public void EquivalenceTest() throws ParserException, IOException {
+		SimpleFolReasoner simple = new SimpleFolReasoner();
+		GroundingFolReasoner grounding = new GroundingFolReasoner();
+		FolParser parser = new FolParser();
+		parser.setSignature(new FolSignature(true));
+		FolBeliefSet kb = parser.parseBeliefBase(SIGNATURE + "forall X:(Bird(X) <=> Flies(X))\n");
+		FolFormula f1 = (FolFormula) parser.parseFormula("Bird(penguin) && Bird(kiwi)");
+		FolFormula f2 = (FolFormula) parser.parseFormula("forall X:(Flies(X))");
+		FolFormula f3 = (FolFormula) parser.parseFormula("exists X:(Flies(X))");
+		assertTrue(simple.equivalent(kb, f1, f2));
+		assertTrue(grounding.equivalent(kb, f1, f2));
+		assertFalse(simple.equivalent(kb, f1, f3));
+		assertFalse(grounding.equivalent(kb, f1, f3));
+	}
+}
@@ -0,0 +1,142 @@
+/*
+ *  This file is part of "TweetyProject", a collection of Java libraries for
+ *  logical aspects of artificial intelligence and knowledge representation.
+ *
+ *  TweetyProject is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  Copyright 2024 The TweetyProject Team <http://tweetyproject.org/contact/>
+ */
+package org.tweetyproject.logics.pl.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+import org.tweetyproject.commons.ParserException;
+import org.tweetyproject.logics.commons.analysis.MiInconsistencyMeasure;
+import org.tweetyproject.logics.commons.analysis.MicInconsistencyMeasure;
+import org.tweetyproject.logics.commons.analysis.MusEnumerator;
+import org.tweetyproject.logics.commons.analysis.NaiveMusEnumerator;
+import org.tweetyproject.logics.pl.parser.PlParser;
+import org.tweetyproject.logics.pl.sat.CdclSolver;
+import org.tweetyproject.logics.pl.sat.SatMusEnumerator;
+import org.tweetyproject.logics.pl.syntax.Conjunction;
+import org.tweetyproject.logics.pl.syntax.Disjunction;
+import org.tweetyproject.logics.pl.syntax.Negation;
+import org.tweetyproject.logics.pl.syntax.PlBeliefSet;
+import org.tweetyproject.logics.pl.syntax.PlFormula;
+import org.tweetyproject.logics.pl.syntax.Proposition;
+
+/**
+ * Compares the minimal inconsistent subsets (also as a stream) and maximal consistent subsets
+ * of the SAT-based MUS enumerator with those of the naive one.
+ *
+ * @author agent
+ */
+public class MusEnumeratorTest {
+
+	@Test
+	public void ExampleTest() throws ParserException, IOException {
+		PlBeliefSet bs = new PlParser().parseBeliefBase("a\n !a\n b\n !b || !a\n c\n d || !c\n !d\n");
+		SatMusEnumerator sat = new SatMusEnumerator(new CdclSolver());
+		NaiveMusEnumerator<PlFormula> naive = new NaiveMusEnumerator<PlFormula>(new CdclSolver());
+		assertEquals(3, sat.minimalInconsistentSubsets(bs).size());
+		this.compare(bs, sat, naive);
+	}
+
+	@Test
+	public void RandomTest() {
+		Random random = new Random(1);
+		SatMusEnumerator sat = new SatMusEnumerator(new CdclSolver());
+		NaiveMusEnumerator<PlFormula> naive = new NaiveMusEnumerator<PlFormula>(new CdclSolver());
+		Proposition[] atoms = { new Proposition("a"), new Proposition("b"), new Proposition("c"), new Proposition("d"), new Proposition("e") };
+		for(int i = 0; i < 200; i++) {
+			PlBeliefSet bs = new PlBeliefSet();
+			int size = 1 + random.nextInt(8);
+			while(bs.size() < size)
+				bs.add(MusEnumeratorTest.randomFormula(random, atoms, 2));
+			this.compare(bs, sat, naive);
+		}
+	}
+
+	/**
+	 * Compares the given enumerators on the given belief set.
+	 * @param bs some belief set
+	 * @param sat the SAT-based enumerator
+	 * @param naive the naive enumerator
+	 */
+	private void compare(PlBeliefSet bs, SatMusEnumerator sat, NaiveMusEnumerator<PlFormula> naive) {
+		Set<Set<PlFormula>> expected = MusEnumeratorTest.sets(naive.minimalInconsistentSubsets(bs));
+		assertEquals(expected, MusEnumeratorTest.sets(sat.minimalInconsistentSubsets(bs)));
+		assertEquals(expected, MusEnumeratorTest.sets(MusEnumeratorTest.collect(sat, bs)));
+		// the default stream of the naive enumerator
+		assertEquals(expected, MusEnumeratorTest.sets(MusEnumeratorTest.collect(naive, bs)));
+		// (the naive enumerator returns no maximal consistent subsets for consistent sets)
+		if(!expected.isEmpty())
+			assertEquals(MusEnumeratorTest.sets(naive.maximalConsistentSubsets(bs)), MusEnumeratorTest.sets(sat.maximalConsistentSubsets(bs)));
+		// the measures consuming the stream
+		assertEquals(new MiInconsistencyMeasure<PlFormula>(naive).inconsistencyMeasure(bs), new MiInconsistencyMeasure<PlFormula>(sat).inconsistencyMeasure(bs), 0.0001);
+		assertEquals(new MicInconsistencyMeasure<PlFormula>(naive).inconsistencyMeasure(bs), new MicInconsistencyMeasure<PlFormula>(sat).inconsistencyMeasure(bs), 0.0001);
+	}
+
+	/**
+	 * Collects the stream of minimal inconsistent subsets of the given enumerator.
+	 * @param enumerator some MUS enumerator
+	 * @param bs some belief set
+	 * @return the minimal inconsistent subsets.
+	 */
+	private static List<Collection<PlFormula>> collect(MusEnumerator<PlFormula> enumerator, PlBeliefSet bs) {
+		try(Stream<Collection<PlFormula>> mis = enumerator.streamMinimalInconsistentSubsets(bs)){
+			return mis.collect(Collectors.toList());
+		}
+	}
+
+	/**
+	 * Returns the given subsets as a set of sets.
+	 * @param subsets some subsets
+	 * @return the subsets as a set of sets.
+	 */
+	private static Set<Set<PlFormula>> sets(Collection<Collection<PlFormula>> subsets) {
+		Set<Set<PlFormula>> result = new HashSet<Set<PlFormula>>();
+		for(Collection<PlFormula> subset: subsets)
+			result.add(new HashSet<PlFormula>(subset));
+		return result;
+	}
+
+	/**
+	 * Returns a random formula over the given atoms.
+	 * @param random some random number generator
+	 * @param atoms some atoms
+	 * @param depth the maximal depth of the formula
+	 * @return a random formula.
+	 */
+	private static PlFormula randomFormula(Random random, Proposition[] atoms, int depth) {
+		int kind = depth == 0 ? 0 : random.nextInt(4);
+		if(kind == 0)
+			return atoms[random.nextInt(atoms.length)];
+		if(kind == 1)
+			return new Negation(MusEnumeratorTest.randomFormula(random, atoms, depth - 1));
+		if(kind == 2)
+			return new Conjunction(MusEnumeratorTest.randomFormula(random, atoms, depth - 1), MusEnumeratorTest.randomFormula(random, atoms, depth - 1));
+		return new Disjunction(MusEnumeratorTest.randomFormula(random, atoms, depth - 1), MusEnumeratorTest.randomFormula(random, atoms, depth - 1));
+	}
+}
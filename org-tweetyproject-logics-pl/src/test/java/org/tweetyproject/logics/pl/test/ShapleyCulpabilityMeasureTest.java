@@ -0,0 +1,197 @@
+/*
+ *  This file is part of "TweetyProject", a collection of Java libraries for
+ *  logical aspects of artificial intelligence and knowledge representation.
+ *
+ *  TweetyProject is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  Copyright 2024 The TweetyProject Team <http://tweetyproject.org/contact/>
+ */
+package org.tweetyproject.logics.pl.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import org.tweetyproject.commons.util.Pair;
+import org.tweetyproject.logics.commons.analysis.BeliefSetInconsistencyMeasure;
+import org.tweetyproject.logics.commons.analysis.MiInconsistencyMeasure;
+import org.tweetyproject.logics.commons.analysis.MicInconsistencyMeasure;
+import org.tweetyproject.logics.commons.analysis.NaiveMusEnumerator;
+import org.tweetyproject.logics.commons.analysis.ShapleyCulpabilityMeasure;
+import org.tweetyproject.logics.pl.sat.CdclSolver;
+import org.tweetyproject.logics.pl.syntax.Conjunction;
+import org.tweetyproject.logics.pl.syntax.Disjunction;
+import org.tweetyproject.logics.pl.syntax.Negation;
+import org.tweetyproject.logics.pl.syntax.PlBeliefSet;
+import org.tweetyproject.logics.pl.syntax.PlFormula;
+import org.tweetyproject.logics.pl.syntax.Proposition;
+
+/**
+ * Compares the Shapley culpability values computed from minimal inconsistent subsets, by
+ * enumerating subsets and by sampling with the definition as the average marginal contribution
+ * over all orders of the belief set.
+ *
+ * @author agent
+ */
+public class ShapleyCulpabilityMeasureTest {
+
+	@Test
+	public void MusTest() {
+		NaiveMusEnumerator<PlFormula> enumerator = new NaiveMusEnumerator<PlFormula>(new CdclSolver());
+		for(BeliefSetInconsistencyMeasure<PlFormula> measure: List.of(new MiInconsistencyMeasure<PlFormula>(enumerator), new MicInconsistencyMeasure<PlFormula>(enumerator))) {
+			// the closed form for MI and MI^C
+			ShapleyCulpabilityMeasure<PlFormula,PlBeliefSet> closed = new ShapleyCulpabilityMeasure<PlFormula,PlBeliefSet>(measure);
+			// a wrapped measure is evaluated by enumerating subsets
+			ShapleyCulpabilityMeasure<PlFormula,PlBeliefSet> enumerated = new ShapleyCulpabilityMeasure<PlFormula,PlBeliefSet>(ShapleyCulpabilityMeasureTest.wrap(measure));
+			for(PlBeliefSet bs: ShapleyCulpabilityMeasureTest.beliefSets(5)) {
+				double sum = 0;
+				for(PlFormula f: bs) {
+					double expected = ShapleyCulpabilityMeasureTest.shapley(measure, bs, f);
+					assertEquals(expected, closed.culpabilityMeasure(bs, f), 0.000001);
+					assertEquals(expected, enumerated.culpabilityMeasure(bs, f), 0.000001);
+					sum += expected;
+				}
+				// efficiency
+				assertEquals(measure.inconsistencyMeasure(bs), sum, 0.000001);
+			}
+		}
+	}
+
+	@Test
+	public void SamplingTest() {
+		BeliefSetInconsistencyMeasure<PlFormula> measure = ShapleyCulpabilityMeasureTest.wrap(new MiInconsistencyMeasure<PlFormula>(new NaiveMusEnumerator<PlFormula>(new CdclSolver())));
+		for(int parallelism: new int[] {1, 4}) {
+			ShapleyCulpabilityMeasure<PlFormula,PlBeliefSet> sampled = new ShapleyCulpabilityMeasure<PlFormula,PlBeliefSet>(measure, 2000, parallelism, 1);
+			for(PlBeliefSet bs: ShapleyCulpabilityMeasureTest.beliefSets(6))
+				for(PlFormula f: bs) {
+					double expected = ShapleyCulpabilityMeasureTest.shapley(measure, bs, f);
+					double value = sampled.culpabilityMeasure(bs, f);
+					Pair<Double,Double> interval = sampled.getConfidenceInterval(bs, f);
+					assertTrue(interval.getFirst() <= value && value <= interval.getSecond());
+					// within 4 standard errors
+					double error = (interval.getSecond() - interval.getFirst()) / (2 * 1.959964);
+					assertEquals(expected, value, 4 * error + 0.000001);
+				}
+		}
+	}
+
+	@Test
+	public void SeedTest() {
+		BeliefSetInconsistencyMeasure<PlFormula> measure = ShapleyCulpabilityMeasureTest.wrap(new MiInconsistencyMeasure<PlFormula>(new NaiveMusEnumerator<PlFormula>(new CdclSolver())));
+		// the estimates only depend on the seed, not on the parallelism
+		ShapleyCulpabilityMeasure<PlFormula,PlBeliefSet> sequential = new ShapleyCulpabilityMeasure<PlFormula,PlBeliefSet>(measure, 500, 1, 7);
+		ShapleyCulpabilityMeasure<PlFormula,PlBeliefSet> parallel = new ShapleyCulpabilityMeasure<PlFormula,PlBeliefSet>(measure, 500, 4, 7);
+		for(PlBeliefSet bs: ShapleyCulpabilityMeasureTest.beliefSets(6))
+			for(PlFormula f: bs)
+				assertEquals(sequential.culpabilityMeasure(bs, f), parallel.culpabilityMeasure(bs, f), 0);
+	}
+
+	/**
+	 * Computes the Shapley value of the given formula by its definition, i.e., the average marginal
+	 * contribution of the formula to the formulas preceding it over all orders of the belief set.
+	 * @param measure some inconsistency measure
+	 * @param bs some belief set
+	 * @param f some formula of the belief set
+	 * @return the Shapley value of f.
+	 */
+	private static double shapley(BeliefSetInconsistencyMeasure<PlFormula> measure, PlBeliefSet bs, PlFormula f) {
+		List<List<PlFormula>> orders = new ArrayList<List<PlFormula>>();
+		ShapleyCulpabilityMeasureTest.permutations(new ArrayList<PlFormula>(bs), new ArrayList<PlFormula>(), orders);
+		double sum = 0;
+		for(List<PlFormula> order: orders) {
+			Set<PlFormula> preceding = new HashSet<PlFormula>(order.subList(0, order.indexOf(f)));
+			double without = measure.inconsistencyMeasure(preceding);
+			preceding.add(f);
+			sum += measure.inconsistencyMeasure(preceding) - without;
+		}
+		return sum / orders.size();
+	}
+
+	/**
+	 * Adds all orders of the remaining formulas, appended to the given prefix, to the given list.
+	 * @param remaining some formulas
+	 * @param prefix the formulas ordered so far
+	 * @param result the list of orders
+	 */
+	private static void permutations(List<PlFormula> remaining, List<PlFormula> prefix, List<List<PlFormula>> result) {
+		if(remaining.isEmpty()) {
+			result.add(new ArrayList<PlFormula>(prefix));
+			return;
+		}
+		for(int i = 0; i < remaining.size(); i++) {
+			List<PlFormula> rest = new ArrayList<PlFormula>(remaining);
+			prefix.add(rest.remove(i));
+			ShapleyCulpabilityMeasureTest.permutations(rest, prefix, result);
+			prefix.remove(prefix.size() - 1);
+		}
+	}
+
+	/**
+	 * Wraps the given measure so that its Shapley values are not computed from minimal inconsistent subsets.
+	 * @param measure some inconsistency measure
+	 * @return a measure with the same values.
+	 */
+	private static BeliefSetInconsistencyMeasure<PlFormula> wrap(BeliefSetInconsistencyMeasure<PlFormula> measure) {
+		return new BeliefSetInconsistencyMeasure<PlFormula>() {
+			@Override
+			public Double inconsistencyMeasure(Collection<PlFormula> formulas) {
+				return measure.inconsistencyMeasure(formulas);
+			}
+		};
+	}
+
+	/**
+	 * Returns random belief sets with up to the given number of formulas.
+	 * @param maxSize the maximal number of formulas
+	 * @return some belief sets.
+	 */
+	private static List<PlBeliefSet> beliefSets(int maxSize) {
+		Random random = new Random(1);
+		Proposition[] atoms = { new Proposition("a"), new Proposition("b"), new Proposition("c") };
+		List<PlBeliefSet> result = new ArrayList<PlBeliefSet>();
+		for(int i = 0; i < 15; i++) {
+			PlBeliefSet bs = new PlBeliefSet();
+			int size = 1 + random.nextInt(maxSize);
+			while(bs.size() < size)
+				bs.add(ShapleyCulpabilityMeasureTest.randomFormula(random, atoms, 2));
+			result.add(bs);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns a random formula over the given atoms.
+	 * @param random some random number generator
+	 * @param atoms some atoms
+	 * @param depth the maximal depth of the formula
+	 * @return a random formula.
+	 */
+	private static PlFormula randomFormula(Random random, Proposition[] atoms, int depth) {
+		int kind = depth == 0 ? 0 : random.nextInt(4);
+		if(kind == 0)
+			return atoms[random.nextInt(atoms.length)];
+		if(kind == 1)
+			return new Negation(ShapleyCulpabilityMeasureTest.randomFormula(random, atoms, depth - 1));
+		if(kind == 2)
+			return new Conjunction(ShapleyCulpabilityMeasureTest.randomFormula(random, atoms, depth - 1), ShapleyCulpabilityMeasureTest.randomFormula(random, atoms, depth - 1));
+		return new Disjunction(ShapleyCulpabilityMeasureTest.randomFormula(random, atoms, depth - 1), ShapleyCulpabilityMeasureTest.randomFormula(random, atoms, depth - 1));
+	}
+}
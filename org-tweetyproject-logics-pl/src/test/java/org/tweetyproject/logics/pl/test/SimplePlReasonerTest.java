@@ -0,0 +1,130 @@
+/*
+ *  This file is part of "TweetyProject", a collection of Java libraries for
+ *  logical aspects of artificial intelligence and knowledge representation.
+ *
+ *  TweetyProject is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  Copyright 2024 The TweetyProject Team <http://tweetyproject.org/contact/>
+ */
+package org.tweetyproject.logics.pl.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import org.tweetyproject.logics.pl.reasoner.SimplePlReasoner;
+import org.tweetyproject.logics.pl.syntax.Conjunction;
+import org.tweetyproject.logics.pl.syntax.Disjunction;
+import org.tweetyproject.logics.pl.syntax.Negation;
+import org.tweetyproject.logics.pl.syntax.PlBeliefSet;
+import org.tweetyproject.logics.pl.syntax.PlFormula;
+import org.tweetyproject.logics.pl.syntax.Proposition;
+
+/**
+ * Compares the parallel check of {@link SimplePlReasoner} with the sequential one, on signatures
+ * large enough to be split among the threads.
+ *
+ * @author agent
+ */
+public class SimplePlReasonerTest {
+
+	/** The number of atoms, 2^17 interpretations are checked in parallel. */
+	private static final int ATOMS = 17;
+
+	/** Numbers of threads, including ones that do not divide the number of interpretations. */
+	private static final int[] PARALLELISM = {2, 3, 7};
+
+	@Test
+	public void RandomTest() {
+		Random random = new Random(1);
+		List<Proposition> atoms = SimplePlReasonerTest.atoms();
+		SimplePlReasoner sequential = new SimplePlReasoner();
+		for(int k = 0; k < 20; k++) {
+			PlBeliefSet kb = new PlBeliefSet();
+			for(int i = random.nextInt(12); i >= 0; i--)
+				kb.add(SimplePlReasonerTest.randomClause(random, atoms));
+			// some query that is entailed and some query that is most likely not
+			List<PlFormula> queries = new ArrayList<PlFormula>();
+			queries.add(new Disjunction(kb.iterator().next(), SimplePlReasonerTest.randomClause(random, atoms)));
+			queries.add(SimplePlReasonerTest.randomClause(random, atoms));
+			queries.add(atoms.get(random.nextInt(SimplePlReasonerTest.ATOMS)));
+			for(PlFormula query: queries) {
+				boolean expected = sequential.query(kb, query);
+				for(int p: SimplePlReasonerTest.PARALLELISM)
+					assertEquals(kb + " " + query, expected, new SimplePlReasoner(p).query(kb, query));
+			}
+		}
+	}
+
+	@Test
+	public void SingleCounterModelTest() {
+		List<Proposition> atoms = SimplePlReasonerTest.atoms();
+		// the only model of the belief base is the first or the last interpretation, so
+		// the counter-model is found in the first or the last range only
+		PlBeliefSet all = new PlBeliefSet();
+		PlBeliefSet none = new PlBeliefSet();
+		all.add(new Conjunction(new ArrayList<PlFormula>(atoms)));
+		for(Proposition a: atoms)
+			none.add(new Negation(a));
+		for(int p: SimplePlReasonerTest.PARALLELISM) {
+			SimplePlReasoner reasoner = new SimplePlReasoner(p);
+			for(Proposition a: atoms) {
+				assertFalse(reasoner.query(all, new Negation(a)));
+				assertTrue(reasoner.query(all, a));
+				assertFalse(reasoner.query(none, a));
+				assertTrue(reasoner.query(none, new Negation(a)));
+			}
+			// an inconsistent belief base entails everything
+			PlBeliefSet inconsistent = new PlBeliefSet(all);
+			inconsistent.add(new Negation(atoms.get(0)));
+			assertTrue(reasoner.query(inconsistent, new Negation(atoms.get(1))));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void ParallelismTest() {
+		new SimplePlReasoner(0);
+	}
+
+	/**
+	 * Returns the atoms a0,...,a16.
+	 * @return some atoms.
+	 */
+	private static List<Proposition> atoms() {
+		List<Proposition> atoms = new ArrayList<Proposition>();
+		for(int i = 0; i < SimplePlReasonerTest.ATOMS; i++)
+			atoms.add(new Proposition("a" + i));
+		return atoms;
+	}
+
+	/**
+	 * Returns a random clause of three literals over the given atoms.
+	 * @param random some random number generator
+	 * @param atoms some atoms
+	 * @return a random clause.
+	 */
+	private static PlFormula randomClause(Random random, List<Proposition> atoms) {
+		Disjunction clause = new Disjunction();
+		for(int i = 0; i < 3; i++) {
+			Proposition p = atoms.get(random.nextInt(atoms.size()));
+			clause.add(random.nextBoolean() ? p : new Negation(p));
+		}
+		return clause;
+	}
+}
@@ -20,6 +20,7 @@ package org.tweetyproject.lp.asp.reasoner;
 
 import java.io.File;
 import java.util.Collection;
+import java.util.stream.Stream;
 
 import org.tweetyproject.commons.ModelProvider;
 import org.tweetyproject.commons.QualitativeReasoner;
@@ -151,6 +152,37 @@ public abstract class ASPSolver implements QualitativeReasoner<Program,ASPLitera
 	 */
 	public abstract Collection<AnswerSet> getModels(File f);
 	
+	/**
+	 * Returns all answer sets of the given program as a stream. Solvers that support it
+	 * parse the answer sets while the solver is still running, so the first answer sets are available
+	 * before all have been computed, the number of answer sets is not bounded by
+	 * {@link #getMaxNumOfModels()}, and closing the stream early terminates the solver. The stream
+	 * should therefore always be closed after use (e.g. by a try-with-resources statement).
+	 * <br>
+	 * The default implementation returns the answer sets of {@link #getModels(Program)}.
+	 * 
+	 * @param p a program
+	 * @return a stream of the answer sets of the program. Solver errors during the enumeration are
+	 * 	thrown as {@link IllegalStateException} with a {@link SolverException} as cause.
+	 * @throws SolverException if the solver could not be started.
+	 */
+	public Stream<AnswerSet> streamModels(Program p) throws SolverException {
+		return this.getModels(p).stream();
+	}
+	
+	/**
+	 * Returns all answer sets of the given program as a stream, see {@link #streamModels(Program)}.
+	 * <br>
+	 * The default implementation returns the answer sets of {@link #getModels(String)}.
+	 * 
+	 * @param p a program in the input format of the solver
+	 * @return a stream of the answer sets of the program.
+	 * @throws SolverException if the solver could not be started.
+	 */
+	public Stream<AnswerSet> streamModels(String p) throws SolverException {
+		return this.getModels(p).stream();
+	}
+	
 	@Override
 	public abstract Boolean query(Program beliefbase, ASPLiteral formula);
 
@@ -0,0 +1,103 @@
+/*
+ *  This file is part of "TweetyProject", a collection of Java libraries for
+ *  logical aspects of artificial intelligence and knowledge representation.
+ *
+ *  TweetyProject is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  Copyright 2024 The TweetyProject Team <http://tweetyproject.org/contact/>
+ */
+package org.tweetyproject.lp.asp.reasoner;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.tweetyproject.lp.asp.parser.ParseException;
+import org.tweetyproject.lp.asp.semantics.AnswerSet;
+
+/**
+ * Parses answer sets from the output of a solver line by line while the solver is still running.
+ * Lines are only read when the next answer set is requested, so a slow consumer slows down the
+ * solver instead of buffering its output. Errors of the solver or unparsable output are thrown as
+ * {@link IllegalStateException} whose cause is a {@link SolverException} (or {@link ParseException}).
+ *
+ * @author agent
+ */
+abstract class AnswerSetIterator implements Iterator<AnswerSet> {
+
+	/** The lines of the solver output. */
+	protected final Iterator<String> lines;
+	/** The next answer set (null if not yet computed). */
+	private AnswerSet next = null;
+	/** Whether the output is exhausted. */
+	private boolean done = false;
+
+	/**
+	 * Creates a new iterator over the answer sets in the given output.
+	 * @param lines the lines of the solver output
+	 */
+	protected AnswerSetIterator(Iterator<String> lines) {
+		this.lines = lines;
+	}
+
+	/**
+	 * Reads lines until the next answer set has been parsed.
+	 * @return the next answer set or null if there is none.
+	 * @throws SolverException if the solver reported an error.
+	 * @throws ParseException if an answer set could not be parsed.
+	 */
+	protected abstract AnswerSet computeNext() throws SolverException, ParseException;
+
+	/* (non-Javadoc)
+	 * @see java.util.Iterator#hasNext()
+	 */
+	@Override
+	public boolean hasNext() {
+		if(this.next == null && !this.done) {
+			try {
+				this.next = this.computeNext();
+			} catch (SolverException | ParseException e) {
+				this.done = true;
+				throw new IllegalStateException(e.getMessage(), e);
+			}
+			this.done = this.next == null;
+		}
+		return this.next != null;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.util.Iterator#next()
+	 */
+	@Override
+	public AnswerSet next() {
+		if(!this.hasNext())
+			throw new NoSuchElementException();
+		AnswerSet as = this.next;
+		this.next = null;
+		return as;
+	}
+
+	/**
+	 * Returns the answer sets of this iterator as a stream that closes the given
+	 * output (and thereby terminates the solver) when it is closed.
+	 * @param output the output of the solver this iterator reads from
+	 * @return a stream of answer sets.
+	 */
+	Stream<AnswerSet> toStream(Stream<String> output) {
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false)
+				.onClose(output::close);
+	}
+}
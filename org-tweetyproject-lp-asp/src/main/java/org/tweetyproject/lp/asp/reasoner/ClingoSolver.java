@@ -19,10 +19,14 @@
 package org.tweetyproject.lp.asp.reasoner;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.PrintWriter;
+import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 import org.tweetyproject.commons.InferenceMode;
 import org.tweetyproject.commons.util.Shell;
@@ -224,6 +228,79 @@ public class ClingoSolver extends ASPSolver {
 		return result;
 	}
 	
+	/**
+	 * Returns all answer sets of the given program as a stream. The program is passed to Clingo via
+	 * the standard input and the answer sets are parsed while Clingo is still running, see
+	 * {@link ASPSolver#streamModels(Program)}. For programs with optimization statements, the answer sets
+	 * are returned in the order Clingo finds them, i.e., the last one is optimal (if Clingo found the optimum).
+	 * The optimum is available via {@link #getOptimumString()} after the stream has been consumed. 
+	 */
+	@Override
+	public Stream<AnswerSet> streamModels(Program p) throws SolverException {
+		StringWriter program = new StringWriter();
+		try {
+			ClingoWriter writer = new ClingoWriter(program, usePredicateWhitelist);
+			writer.printProgram(p);
+			writer.close();
+		} catch (IOException e) {
+			throw new SolverException(e.getMessage(), SolverException.SE_IO_FAILED);
+		}
+		return this.streamModels(program.toString());
+	}
+
+	@Override
+	public Stream<AnswerSet> streamModels(String p) throws SolverException {
+		String cmd = pathToSolver + "/clingo -n 0 " + options;
+		Stream<String> output;
+		try {
+			output = bash.stream(cmd, p, -1);
+		} catch (IOException e) {
+			throw new SolverException(e.getMessage(), SolverException.SE_IO_FAILED);
+		}
+		this.optimum = null;
+		return new ClingoAnswerSetIterator(output.iterator()).toStream(output);
+	}
+
+	/**
+	 * Parses answer sets from the output of Clingo while Clingo is running.
+	 */
+	private class ClingoAnswerSetIterator extends AnswerSetIterator {
+		/** The maximal length of the output kept for error messages. */
+		private static final int MAX_MESSAGE_LENGTH = 1 << 16;
+		/** Whether Clingo reported the result of the search. */
+		private boolean finished = false;
+		/** The output that is neither an answer set nor a result. */
+		private final StringBuilder messages = new StringBuilder();
+
+		private ClingoAnswerSetIterator(Iterator<String> lines) {
+			super(lines);
+		}
+
+		@Override
+		protected AnswerSet computeNext() throws SolverException, ParseException {
+			while (lines.hasNext()) {
+				String line = lines.next();
+				if (line.startsWith("Answer:"))
+					return ASPParser.parseAnswerSet(lines.hasNext() ? lines.next() : "");
+				if (line.startsWith("Optimization:"))
+					optimum = line.substring(line.indexOf(":") + 2);
+				else if (line.equals("SATISFIABLE") || line.equals("UNSATISFIABLE") || line.equals("OPTIMUM FOUND") || line.equals("UNKNOWN"))
+					finished = true;
+				else if (!finished && messages.length() < MAX_MESSAGE_LENGTH)
+					messages.append(line).append("\n");
+			}
+			if (!finished) {
+				String output = messages.toString();
+				int error_index = output.indexOf("error");
+				if (error_index != -1)
+					throw new SolverException("Clingo error: " + output.substring(error_index), 1);
+				else
+					throw new SolverException("Clingo returned no output that can be interpreted: " + output, 1);
+			}
+			return null;
+		}
+	}
+	
 	/**
 	 * Parses output from Clingo solver to AnswerSetList.
 	 * 
@@ -0,0 +1,446 @@
+/*
+ *  This file is part of "TweetyProject", a collection of Java libraries for
+ *  logical aspects of artificial intelligence and knowledge representation.
+ *
+ *  TweetyProject is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  Copyright 2024 The TweetyProject Team <http://tweetyproject.org/contact/>
+ */
+package org.tweetyproject.lp.asp.reasoner;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.tweetyproject.commons.util.ProcessExecution;
+import org.tweetyproject.lp.asp.parser.ASPParser;
+import org.tweetyproject.lp.asp.parser.ParseException;
+import org.tweetyproject.lp.asp.semantics.AnswerSet;
+import org.tweetyproject.lp.asp.syntax.ASPLiteral;
+
+/**
+ * A bounded pool of long-lived clingo processes. Every worker runs a small Python helper
+ * (using the clingo Python module, see <a href="https://potassco.org/clingo/">potassco.org/clingo</a>)
+ * that keeps a grounded program in memory and answers solve requests under varying assumptions
+ * (clingo's multi-shot solving), see {@link #solve(String, Map, int)}. A program is grounded only
+ * when a worker is assigned a program different from its current one, and idle workers are preferably
+ * assigned requests for the program they have already grounded. So sequences of related queries
+ * on the same program, e.g. with different values for its <code>#external</code> atoms, pay neither the
+ * process start-up nor the grounding again.
+ * <br>
+ * At most a given number of workers run at the same time, further requests wait until a
+ * worker becomes idle. The pool is thread-safe and should be closed after use, which terminates all workers.
+ *
+ * @author agent
+ */
+public class ClingoWorkerPool implements AutoCloseable {
+
+	/** The name of the helper script resource. */
+	private static final String HELPER = "clingo_worker.py";
+	/** The helper script extracted from the resources (shared by all pools). */
+	private static File extractedHelper = null;
+
+	/** The command for running the helper. */
+	private final String[] command;
+	/** Additional clingo options. */
+	private final String[] options;
+	/** The maximal number of workers. */
+	private final int maxWorkers;
+	/** The idle workers, the most recently used one first. */
+	private final LinkedList<Worker> idle = new LinkedList<Worker>();
+	/** The number of running workers. */
+	private int workers = 0;
+	/** Whether the pool has been closed. */
+	private boolean closed = false;
+
+	/** The number of started processes. */
+	private final AtomicLong starts = new AtomicLong();
+	/** The number of groundings. */
+	private final AtomicLong groundings = new AtomicLong();
+	/** The number of solve requests. */
+	private final AtomicLong requests = new AtomicLong();
+	/** The total time requests waited for a worker (in nanoseconds). */
+	private final AtomicLong waitingTime = new AtomicLong();
+	/** The number of workers that failed. */
+	private final AtomicLong failures = new AtomicLong();
+
+	/**
+	 * Creates a new pool that runs the bundled helper script with the given Python interpreter.
+	 * @param pathToPython the Python interpreter, e.g. "python3"; the clingo module has to be installed
+	 * @param maxWorkers the maximal number of clingo processes
+	 * @throws IOException if the helper script could not be extracted.
+	 */
+	public ClingoWorkerPool(String pathToPython, int maxWorkers) throws IOException {
+		this(pathToPython, ClingoWorkerPool.getHelper().getAbsolutePath(), maxWorkers, new String[0]);
+	}
+
+	/**
+	 * Creates a new pool.
+	 * @param pathToPython the Python interpreter, e.g. "python3"; the clingo module has to be installed
+	 * @param pathToHelper the location of the helper script "clingo_worker.py"
+	 * @param maxWorkers the maximal number of clingo processes
+	 * @param options additional command line options for clingo
+	 */
+	public ClingoWorkerPool(String pathToPython, String pathToHelper, int maxWorkers, String... options) {
+		if(maxWorkers < 1)
+			throw new IllegalArgumentException("The number of workers must be positive.");
+		this.command = new String[] {pathToPython, pathToHelper};
+		this.options = options;
+		this.maxWorkers = maxWorkers;
+	}
+
+	/**
+	 * Extracts the bundled helper script to a temporary file (once).
+	 * @return the helper script.
+	 * @throws IOException if the script could not be extracted.
+	 */
+	private static synchronized File getHelper() throws IOException {
+		if(ClingoWorkerPool.extractedHelper == null || !ClingoWorkerPool.extractedHelper.exists()) {
+			File helper = File.createTempFile("clingo_worker", ".py");
+			helper.deleteOnExit();
+			try(InputStream in = ClingoWorkerPool.class.getResourceAsStream(ClingoWorkerPool.HELPER)) {
+				if(in == null)
+					throw new IOException("Resource " + ClingoWorkerPool.HELPER + " not found.");
+				Files.copy(in, helper.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+			ClingoWorkerPool.extractedHelper = helper;
+		}
+		return ClingoWorkerPool.extractedHelper;
+	}
+
+	/**
+	 * Computes the answer sets of the given program under the given assumptions. An assumption
+	 * (a,true) requires the atom a to be true in every answer set, (a,false) requires a to be false.
+	 * Assumptions on <code>#external</code> atoms assign their truth value for this request only.
+	 * @param program a program in the clingo input format
+	 * @param assumptions some assumptions (atoms must not contain whitespace)
+	 * @param maxModels the maximal number of answer sets, "0" for all answer sets
+	 * @return the answer sets of the program under the assumptions.
+	 * @throws SolverException if the program could not be grounded or the worker failed.
+	 * @throws InterruptedException if the thread was interrupted while waiting for a worker.
+	 */
+	public List<AnswerSet> solve(String program, Map<ASPLiteral,Boolean> assumptions, int maxModels) throws SolverException, InterruptedException {
+		this.requests.incrementAndGet();
+		Worker worker = this.acquire(program);
+		boolean healthy = false;
+		try {
+			if(!program.equals(worker.program)) {
+				worker.load(program);
+				this.groundings.incrementAndGet();
+			}
+			List<AnswerSet> result = worker.solve(assumptions, maxModels);
+			healthy = true;
+			return result;
+		} catch (IOException e) {
+			this.failures.incrementAndGet();
+			throw new SolverException("Clingo worker failed: " + e.getMessage(), SolverException.SE_IO_FAILED);
+		} catch (SolverException e) {
+			// the worker reported an error but is still usable
+			healthy = worker.process.isAlive();
+			throw e;
+		} finally {
+			this.release(worker, healthy);
+		}
+	}
+
+	/**
+	 * Returns the version of clingo used by the workers. This starts a worker if there is none
+	 * but does not ground any program, so it can be used to check whether the pool is usable.
+	 * @return the version of clingo.
+	 * @throws SolverException if the worker could not be started or failed, e.g., as the clingo
+	 * 	module is not installed.
+	 * @throws InterruptedException if the thread was interrupted while waiting for a worker.
+	 */
+	public String getVersion() throws SolverException, InterruptedException {
+		Worker worker = this.acquire(null);
+		boolean healthy = false;
+		try {
+			String version = worker.getVersion();
+			healthy = true;
+			return version;
+		} catch (IOException e) {
+			throw new SolverException("Clingo worker failed: " + e.getMessage(), SolverException.SE_CANNOT_FIND_SOLVER);
+		} finally {
+			this.release(worker, healthy);
+		}
+	}
+
+	/**
+	 * Waits for a worker, preferring an idle worker that has already grounded the given program
+	 * and then an idle worker that has not grounded any program yet.
+	 * @param program some program, or null if any worker can be used
+	 * @return a worker that is exclusively used by the caller until it is released.
+	 * @throws SolverException if a new worker could not be started.
+	 * @throws InterruptedException if the thread was interrupted while waiting.
+	 */
+	private Worker acquire(String program) throws SolverException, InterruptedException {
+		long start = System.nanoTime();
+		synchronized(this) {
+			while(true) {
+				if(this.closed)
+					throw new IllegalStateException("The pool has been closed.");
+				Worker fresh = null;
+				for(Iterator<Worker> it = this.idle.iterator(); it.hasNext();) {
+					Worker w = it.next();
+					if(program == null || program.equals(w.program)) {
+						it.remove();
+						this.waitingTime.addAndGet(System.nanoTime() - start);
+						return w;
+					}
+					if(w.program == null)
+						fresh = w;
+				}
+				if(fresh != null) {
+					this.idle.remove(fresh);
+					this.waitingTime.addAndGet(System.nanoTime() - start);
+					return fresh;
+				}
+				if(this.workers < this.maxWorkers) {
+					this.workers++;
+					break;
+				}
+				if(!this.idle.isEmpty()) {
+					// reuse the least recently used worker for another program
+					this.waitingTime.addAndGet(System.nanoTime() - start);
+					return this.idle.removeLast();
+				}
+				this.wait();
+			}
+		}
+		this.waitingTime.addAndGet(System.nanoTime() - start);
+		try {
+			Worker w = new Worker(ProcessExecution.start(this.command, null, -1, line -> {}));
+			this.starts.incrementAndGet();
+			return w;
+		} catch (IOException e) {
+			synchronized(this) {
+				this.workers--;
+				this.notifyAll();
+			}
+			throw new SolverException("Clingo worker could not be started: " + e.getMessage(), SolverException.SE_CANNOT_FIND_SOLVER);
+		}
+	}
+
+	/**
+	 * Returns the given worker to the pool.
+	 * @param worker some worker
+	 * @param healthy whether the worker can be used for further requests
+	 */
+	private void release(Worker worker, boolean healthy) {
+		synchronized(this) {
+			if(healthy && !this.closed)
+				this.idle.addFirst(worker);
+			else {
+				this.workers--;
+				worker.close();
+			}
+			this.notifyAll();
+		}
+	}
+
+	/**
+	 * Returns the number of currently running workers.
+	 * @return the number of workers.
+	 */
+	public synchronized int getNumberOfWorkers() {
+		return this.workers;
+	}
+
+	/**
+	 * Returns the number of currently idle workers.
+	 * @return the number of idle workers.
+	 */
+	public synchronized int getNumberOfIdleWorkers() {
+		return this.idle.size();
+	}
+
+	/**
+	 * Returns the number of clingo processes started so far.
+	 * @return the number of process starts.
+	 */
+	public long getNumberOfStarts() {
+		return this.starts.get();
+	}
+
+	/**
+	 * Returns the number of programs grounded so far.
+	 * @return the number of groundings.
+	 */
+	public long getNumberOfGroundings() {
+		return this.groundings.get();
+	}
+
+	/**
+	 * Returns the number of solve requests so far.
+	 * @return the number of requests.
+	 */
+	public long getNumberOfRequests() {
+		return this.requests.get();
+	}
+
+	/**
+	 * Returns the number of workers that failed (and have been replaced) so far.
+	 * @return the number of failures.
+	 */
+	public long getNumberOfFailures() {
+		return this.failures.get();
+	}
+
+	/**
+	 * Returns the total time requests waited for a worker.
+	 * @return the waiting time in milliseconds.
+	 */
+	public long getWaitingTime() {
+		return this.waitingTime.get() / 1000000;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.AutoCloseable#close()
+	 */
+	@Override
+	public void close() {
+		List<Worker> toClose;
+		synchronized(this) {
+			this.closed = true;
+			toClose = new ArrayList<Worker>(this.idle);
+			this.workers -= this.idle.size();
+			this.idle.clear();
+			this.notifyAll();
+		}
+		for(Worker w: toClose)
+			w.close();
+	}
+
+	/**
+	 * A single clingo process.
+	 */
+	private class Worker {
+		/** The process. */
+		private final ProcessExecution process;
+		/** The standard input of the process. */
+		private final Writer in;
+		/** The program currently grounded by this worker (null if there is none). */
+		private String program = null;
+
+		private Worker(ProcessExecution process) {
+			this.process = process;
+			this.in = process.getInputWriter();
+		}
+
+		/**
+		 * Replaces the program of this worker and grounds it.
+		 * @param program some program
+		 * @throws IOException if the worker failed.
+		 * @throws SolverException if clingo reported an error.
+		 */
+		private void load(String program) throws IOException, SolverException {
+			this.program = null;
+			String[] lines = program.split("\n", -1);
+			this.in.write("BASE " + lines.length);
+			for(String o: ClingoWorkerPool.this.options)
+				this.in.write(" " + o);
+			this.in.write("\n");
+			for(String line: lines)
+				this.in.write(line + "\n");
+			this.in.flush();
+			String response = this.readResponse();
+			if(!response.equals("OK"))
+				throw new IOException("Unexpected response " + response);
+			this.program = program;
+		}
+
+		/**
+		 * Computes the answer sets of the current program.
+		 * @param assumptions some assumptions
+		 * @param maxModels the maximal number of answer sets, "0" for all answer sets
+		 * @return the answer sets.
+		 * @throws IOException if the worker failed.
+		 * @throws SolverException if clingo reported an error.
+		 */
+		private List<AnswerSet> solve(Map<ASPLiteral,Boolean> assumptions, int maxModels) throws IOException, SolverException {
+			StringBuilder cmd = new StringBuilder("SOLVE " + maxModels);
+			for(Map.Entry<ASPLiteral,Boolean> a: assumptions.entrySet())
+				cmd.append(a.getValue() ? " +" : " -").append(a.getKey().toString().replaceAll("\\s", ""));
+			this.in.write(cmd.append("\n").toString());
+			this.in.flush();
+			List<String> answers = new ArrayList<String>();
+			String response;
+			while(!(response = this.readResponse()).startsWith("END")) {
+				if(!response.startsWith("ANSWER"))
+					throw new IOException("Unexpected response " + response);
+				answers.add(response.substring("ANSWER".length()));
+			}
+			// the parser is shared by all threads
+			List<AnswerSet> result = new ArrayList<AnswerSet>();
+			synchronized(ASPParser.class) {
+				for(String as: answers) {
+					try {
+						result.add(ASPParser.parseAnswerSet(as));
+					} catch (ParseException e) {
+						throw new SolverException("Clingo returned no output that can be interpreted: " + as, 1);
+					}
+				}
+			}
+			return result;
+		}
+
+		/**
+		 * Asks the worker for the version of clingo.
+		 * @return the version of clingo.
+		 * @throws IOException if the worker failed.
+		 * @throws SolverException if clingo reported an error.
+		 */
+		private String getVersion() throws IOException, SolverException {
+			this.in.write("VERSION\n");
+			this.in.flush();
+			String response = this.readResponse();
+			if(!response.startsWith("VERSION "))
+				throw new IOException("Unexpected response " + response);
+			return response.substring("VERSION ".length());
+		}
+
+		/**
+		 * Reads the next response of the worker.
+		 * @return the next response.
+		 * @throws IOException if the worker failed.
+		 * @throws SolverException if clingo reported an error.
+		 */
+		private String readResponse() throws IOException, SolverException {
+			String line = this.process.readLine();
+			if(line == null)
+				throw new IOException("The worker terminated unexpectedly.");
+			if(line.startsWith("ERROR"))
+				throw new SolverException("Clingo error: " + line.substring("ERROR".length()).strip(), 1);
+			return line;
+		}
+
+		private void close() {
+			try {
+				this.in.write("QUIT\n");
+				this.in.flush();
+			} catch (IOException e) {
+				// the worker already terminated
+			}
+			this.process.close();
+		}
+	}
+}
@@ -19,10 +19,14 @@
 package org.tweetyproject.lp.asp.reasoner;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.PrintWriter;
+import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 import org.tweetyproject.commons.InferenceMode;
 import org.tweetyproject.commons.util.Shell;
@@ -129,17 +133,7 @@ public class DLVSolver extends ASPSolver {
 			DLVWriter writer = new DLVWriter(new PrintWriter(file));
 			writer.printProgram(p);
 			writer.close();
-
-			for (String o : p.getAdditionalOptions()) {
-				if (o.startsWith("#maxint")) {
-					try {
-						String integerMaximum = o.substring(o.indexOf("=") + 1).strip();
-						this.integerMaximum = Integer.parseInt(integerMaximum);
-					} catch (NumberFormatException e) {
-						System.err.println("Warning: Failed to parse #maxint statement in program. Using default integer maximum " + this.integerMaximum);
-					}
-				}
-			}
+			this.readIntegerMaximum(p);
 
 			String cmd = pathToSolver + "/dlv -silent" + " -n=" + this.maxNumOfModels + " -N=" + Integer.toString(this.integerMaximum) + " " + options + " " + file.getAbsolutePath();
 			this.outputData = (bash.run(cmd));
@@ -159,17 +153,7 @@ public class DLVSolver extends ASPSolver {
 			PrintWriter writer = new PrintWriter(file);
 			writer.write(p);
 			writer.close();
-
-			if (p.contains("#maxint")) {
-				String o = p.substring(p.indexOf("#maxint"));
-				o = p.substring(0, p.indexOf("."));
-				try {
-					String integerMaximum = o.substring(o.indexOf("=") + 1).strip();
-					this.integerMaximum = Integer.parseInt(integerMaximum);
-				} catch (NumberFormatException e) {
-					System.err.println("Warning: Failed to parse #maxint statement in program. Using default integer maximum " + this.integerMaximum);
-				}
-			}
+			this.readIntegerMaximum(p);
 
 			String cmd = pathToSolver + "/dlv -silent" + " -n=" + this.maxNumOfModels + " -N=" + Integer.toString(this.integerMaximum) + " " + options + " " + file.getAbsolutePath();
 			this.outputData = (bash.run(cmd));
@@ -196,6 +180,118 @@ public class DLVSolver extends ASPSolver {
 		return result;
 	}
 
+	/**
+	 * Sets the integer maximum to the value of the #maxint statement of the given program, if there is one.
+	 * 
+	 * @param p a program
+	 */
+	private void readIntegerMaximum(Program p) {
+		for (String o : p.getAdditionalOptions())
+			if (o.startsWith("#maxint"))
+				this.parseIntegerMaximum(o);
+	}
+
+	/**
+	 * Sets the integer maximum to the value of the #maxint statement of the given program in
+	 * DLV syntax, if there is one.
+	 * 
+	 * @param p a program in DLV syntax
+	 */
+	private void readIntegerMaximum(String p) {
+		int start = p.indexOf("#maxint");
+		if (start == -1)
+			return;
+		int end = p.indexOf(".", start);
+		this.parseIntegerMaximum(end == -1 ? p.substring(start) : p.substring(start, end));
+	}
+
+	/**
+	 * Sets the integer maximum to the value of the given #maxint statement.
+	 * 
+	 * @param statement a statement of the form "#maxint=N" (possibly followed by a dot)
+	 */
+	private void parseIntegerMaximum(String statement) {
+		try {
+			String integerMaximum = statement.substring(statement.indexOf("=") + 1).strip();
+			if (integerMaximum.endsWith("."))
+				integerMaximum = integerMaximum.substring(0, integerMaximum.length() - 1).strip();
+			this.integerMaximum = Integer.parseInt(integerMaximum);
+		} catch (NumberFormatException e) {
+			System.err.println("Warning: Failed to parse #maxint statement in program. Using default integer maximum " + this.integerMaximum);
+		}
+	}
+
+	/**
+	 * Returns all answer sets of the given program as a stream. The program is passed to DLV via
+	 * the standard input and the answer sets are parsed while DLV is still running, see
+	 * {@link ASPSolver#streamModels(Program)}.
+	 */
+	@Override
+	public Stream<AnswerSet> streamModels(Program p) throws SolverException {
+		StringWriter program = new StringWriter();
+		try {
+			DLVWriter writer = new DLVWriter(program);
+			writer.printProgram(p);
+			writer.close();
+		} catch (IOException e) {
+			throw new SolverException(e.getMessage(), SolverException.SE_IO_FAILED);
+		}
+		this.readIntegerMaximum(p);
+		return this.streamModels(program.toString());
+	}
+
+	@Override
+	public Stream<AnswerSet> streamModels(String p) throws SolverException {
+		this.readIntegerMaximum(p);
+		// "--" makes DLV read the program from the standard input
+		String cmd = pathToSolver + "/dlv -silent" + " -N=" + Integer.toString(this.integerMaximum) + " " + options + " --";
+		Stream<String> output;
+		try {
+			output = bash.stream(cmd, p, -1);
+		} catch (IOException e) {
+			throw new SolverException(e.getMessage(), SolverException.SE_IO_FAILED);
+		}
+		return new DLVAnswerSetIterator(output.iterator()).toStream(output);
+	}
+
+	/**
+	 * Parses answer sets from the output of DLV while DLV is running. DLV prints
+	 * every answer set on a line of its own.
+	 */
+	private static class DLVAnswerSetIterator extends AnswerSetIterator {
+
+		private DLVAnswerSetIterator(Iterator<String> lines) {
+			super(lines);
+		}
+
+		@Override
+		protected AnswerSet computeNext() throws SolverException {
+			while (lines.hasNext()) {
+				String line = lines.next();
+				if (line.contains("errors")) {
+					StringBuilder error = new StringBuilder(line);
+					while (lines.hasNext())
+						error.append("\n").append(lines.next());
+					throw new SolverException("DLV error: " + error, 1);
+				}
+				int start = line.indexOf("{");
+				int end = line.lastIndexOf("}");
+				if (start == -1 || end < start)
+					continue;
+				//DLV answer sets consist of literals separated by commas
+				//Remove commas that are not inside parentheses to achieve the format
+				//expected by ASPParser (literals separated by spaces)
+				String toParse = line.substring(start + 1, end).replaceAll(",(?![^()]*\\))", "");
+				try {
+					return ASPParser.parseAnswerSet(toParse);
+				} catch (Exception e) {
+					throw new SolverException("DLV returned no output that can be interpreted: " + line, 1);
+				}
+			}
+			return null;
+		}
+	}
+
 	@Override
 	public AnswerSet getModel(Program p) {
 		return this.getModels(p).iterator().next();
@@ -0,0 +1,218 @@
+/*
+ *  This file is part of "TweetyProject", a collection of Java libraries for
+ *  logical aspects of artificial intelligence and knowledge representation.
+ *
+ *  TweetyProject is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  Copyright 2024 The TweetyProject Team <http://tweetyproject.org/contact/>
+ */
+package org.tweetyproject.lp.asp.reasoner;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.tweetyproject.commons.InferenceMode;
+import org.tweetyproject.lp.asp.semantics.AnswerSet;
+import org.tweetyproject.lp.asp.syntax.ASPLiteral;
+import org.tweetyproject.lp.asp.syntax.Program;
+import org.tweetyproject.lp.asp.writer.ClingoWriter;
+
+/**
+ * Solves programs with the long-lived clingo processes of a {@link ClingoWorkerPool} instead
+ * of starting a new clingo process for every call as {@link ClingoSolver} does. Queries are answered
+ * by a single solve call under an assumption on the queried literal, and the grounding of a program is
+ * reused by all queries on the same program. Several solvers may share the same pool.
+ *
+ * @author agent
+ */
+public class PooledClingoSolver extends ASPSolver {
+
+	/** The pool of clingo processes. */
+	private final ClingoWorkerPool pool;
+
+	/**
+	 * If activated ({@link #toggleOutputWhitelist(boolean)}), output answer sets
+	 * will only contain atoms over predicates in the program's predicate whitelist.
+	 */
+	private boolean usePredicateWhitelist = false;
+
+	/**
+	 * Creates a new solver using the given pool.
+	 *
+	 * @param pool a pool of clingo processes
+	 */
+	public PooledClingoSolver(ClingoWorkerPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * Returns the pool of clingo processes used by this solver.
+	 *
+	 * @return the pool.
+	 */
+	public ClingoWorkerPool getPool() {
+		return this.pool;
+	}
+
+	/**
+	 * Computes the answer sets of the given program under the given assumptions, see
+	 * {@link ClingoWorkerPool#solve(String, Map, int)}.
+	 *
+	 * @param p a program
+	 * @param assumptions some assumptions
+	 * @return the answer sets (at most {@link #getMaxNumOfModels()} many).
+	 * @throws SolverException if clingo reported an error.
+	 * @throws InterruptedException if the thread was interrupted while waiting for a clingo process.
+	 */
+	public List<AnswerSet> getModels(Program p, Map<ASPLiteral, Boolean> assumptions) throws SolverException, InterruptedException {
+		return this.pool.solve(this.toClingo(p), assumptions, this.maxNumOfModels);
+	}
+
+	/**
+	 * Writes the given program in the clingo input format.
+	 *
+	 * @param p a program
+	 * @return the program as string.
+	 * @throws SolverException if the program could not be written.
+	 */
+	private String toClingo(Program p) throws SolverException {
+		StringWriter program = new StringWriter();
+		try {
+			ClingoWriter writer = new ClingoWriter(program, usePredicateWhitelist);
+			writer.printProgram(p);
+			writer.close();
+		} catch (IOException e) {
+			throw new SolverException(e.getMessage(), SolverException.SE_IO_FAILED);
+		}
+		return program.toString();
+	}
+
+	/**
+	 * Computes the answer sets of the given program in the clingo input format.
+	 *
+	 * @param p a program
+	 * @param assumptions some assumptions
+	 * @param maxModels the maximal number of answer sets, "0" for all
+	 * @return the answer sets or an empty list if an error occurred.
+	 */
+	private List<AnswerSet> solve(String p, Map<ASPLiteral, Boolean> assumptions, int maxModels) {
+		try {
+			return this.pool.solve(p, assumptions, maxModels);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (Exception e) {
+			e.printStackTrace();
+		}
+		return new ArrayList<AnswerSet>();
+	}
+
+	@Override
+	public AnswerSet getModel(Program p) {
+		try {
+			List<AnswerSet> models = this.solve(this.toClingo(p), Collections.emptyMap(), 1);
+			if (!models.isEmpty())
+				return models.get(0);
+		} catch (SolverException e) {
+			e.printStackTrace();
+		}
+		return null;
+	}
+
+	@Override
+	public List<AnswerSet> getModels(Program p) {
+		try {
+			return this.solve(this.toClingo(p), Collections.emptyMap(), this.maxNumOfModels);
+		} catch (SolverException e) {
+			e.printStackTrace();
+		}
+		return new ArrayList<AnswerSet>();
+	}
+
+	@Override
+	public List<AnswerSet> getModels(String p) {
+		return this.solve(p, Collections.emptyMap(), this.maxNumOfModels);
+	}
+
+	@Override
+	public List<AnswerSet> getModels(File f) {
+		try {
+			return this.solve(Files.readString(f.toPath()), Collections.emptyMap(), this.maxNumOfModels);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		return new ArrayList<AnswerSet>();
+	}
+
+	@Override
+	public Boolean query(Program beliefbase, ASPLiteral formula) {
+		return this.query(beliefbase, formula, InferenceMode.SKEPTICAL);
+	}
+
+	/**
+	 * Checks whether the given literal is contained in all (skeptical) or some (credulous)
+	 * answer sets of the given program with a single solve call: skeptical queries look for an answer set
+	 * without the literal, credulous queries for an answer set with the literal.
+	 *
+	 * @param beliefbase a program
+	 * @param formula a literal
+	 * @param inferenceMode the inference mode
+	 * @return the answer to the query.
+	 */
+	public Boolean query(Program beliefbase, ASPLiteral formula, InferenceMode inferenceMode) {
+		boolean skeptical = inferenceMode.equals(InferenceMode.SKEPTICAL);
+		try {
+			List<AnswerSet> witness = this.pool.solve(this.toClingo(beliefbase), Collections.singletonMap(formula, !skeptical), 1);
+			return skeptical ? witness.isEmpty() : !witness.isEmpty();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (SolverException e) {
+			e.printStackTrace();
+		}
+		return null;
+	}
+
+	/**
+	 * Activates or deactivates the option to use a whitelist of predicates. If
+	 * activated, answer sets will only contain atoms over predicates that are part
+	 * of the whitelist. This corresponds to the #show statement of the clingo input
+	 * language.
+	 *
+	 * @param b whether to use a whitelist of predicate
+	 */
+	public void toggleOutputWhitelist(boolean b) {
+		usePredicateWhitelist = b;
+	}
+
+	/**
+	 * Checks whether the workers of the pool can be started and answer a handshake,
+	 * see {@link ClingoWorkerPool#getVersion()}. No program is grounded.
+	 */
+	@Override
+	public boolean isInstalled() {
+		try {
+			this.pool.getVersion();
+			return true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		} catch (Exception e) {
+			return false;
+		}
+	}
+}
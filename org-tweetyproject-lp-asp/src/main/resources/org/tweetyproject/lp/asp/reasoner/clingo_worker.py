@@ -0,0 +1,106 @@
+#
+#  This file is part of "TweetyProject", a collection of Java libraries for
+#  logical aspects of artificial intelligence and knowledge representation.
+#
+#  TweetyProject is free software: you can redistribute it and/or modify
+#  it under the terms of the GNU Lesser General Public License version 3 as
+#  published by the Free Software Foundation.
+#
+#  This program is distributed in the hope that it will be useful,
+#  but WITHOUT ANY WARRANTY; without even the implied warranty of
+#  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+#  GNU Lesser General Public License for more details.
+#
+#  You should have received a copy of the GNU Lesser General Public License
+#  along with this program. If not, see <http://www.gnu.org/licenses/>.
+#
+#  Copyright 2024 The TweetyProject Team <http://tweetyproject.org/contact/>
+#
+# Long-lived clingo worker used by org.tweetyproject.lp.asp.reasoner.ClingoWorkerPool.
+# Requires the clingo Python module (e.g. "pip install clingo"). Commands are read
+# line by line from the standard input:
+#
+#   BASE <n> [<option> ...]   the next <n> lines are a program, which is grounded once
+#                             and replaces the previous program
+#   SOLVE <k> [<lit> ...]     enumerates at most <k> answer sets (all for k = 0) under the
+#                             assumptions "+atom" (atom is true) and "-atom" (atom is false);
+#                             assumptions on external atoms assign their value for this call
+#   VERSION                   reports the version of clingo
+#   QUIT                      terminates the worker
+#
+# Every answer set is reported as "ANSWER <atoms>", every command is finished
+# with "OK", "END SAT", "END UNSAT", "END UNKNOWN", "VERSION <version>", or
+# "ERROR <message>".
+
+import sys
+
+import clingo
+
+
+def read_block(n):
+    return "".join(sys.stdin.readline() for _ in range(n))
+
+
+def main():
+    ctl = None
+    out = sys.stdout
+    while True:
+        line = sys.stdin.readline()
+        if not line:
+            break
+        cmd = line.split()
+        if not cmd:
+            continue
+        try:
+            if cmd[0] == "BASE":
+                program = read_block(int(cmd[1]))
+                ctl = clingo.Control(["--models=0"] + cmd[2:])
+                ctl.add("base", [], program)
+                ctl.ground([("base", [])])
+                out.write("OK\n")
+            elif cmd[0] == "SOLVE":
+                if ctl is None:
+                    raise RuntimeError("no program loaded")
+                limit = int(cmd[1])
+                assumptions = []
+                externals = []
+                for a in cmd[2:]:
+                    symbol = clingo.parse_term(a[1:])
+                    atom = ctl.symbolic_atoms[symbol]
+                    if atom is not None and atom.is_external:
+                        ctl.assign_external(symbol, a[0] == "+")
+                        externals.append(symbol)
+                    else:
+                        assumptions.append((symbol, a[0] == "+"))
+                count = 0
+                try:
+                    with ctl.solve(assumptions=assumptions, yield_=True) as handle:
+                        for model in handle:
+                            out.write("ANSWER " + " ".join(str(s) for s in model.symbols(shown=True)) + "\n")
+                            count += 1
+                            if 0 < limit <= count:
+                                break
+                        result = handle.get() if count == 0 else None
+                finally:
+                    # externals are false by default
+                    for symbol in externals:
+                        ctl.assign_external(symbol, False)
+                if result is None or result.satisfiable:
+                    out.write("END SAT\n")
+                elif result.unsatisfiable:
+                    out.write("END UNSAT\n")
+                else:
+                    out.write("END UNKNOWN\n")
+            elif cmd[0] == "VERSION":
+                out.write("VERSION " + clingo.__version__ + "\n")
+            elif cmd[0] == "QUIT":
+                break
+            else:
+                raise RuntimeError("unknown command " + cmd[0])
+        except Exception as e:
+            out.write("ERROR " + " ".join(str(e).split()) + "\n")
+        out.flush()
+
+
+if __name__ == "__main__":
+    main()
@@ -0,0 +1,166 @@
+/*
+ *  This file is part of "TweetyProject", a collection of Java libraries for
+ *  logical aspects of artificial intelligence and knowledge representation.
+ *
+ *  TweetyProject is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  Copyright 2024 The TweetyProject Team <http://tweetyproject.org/contact/>
+ */
+package org.tweetyproject.lp.asp.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.tweetyproject.commons.InferenceMode;
+import org.tweetyproject.lp.asp.parser.ASPParser;
+import org.tweetyproject.lp.asp.reasoner.ClingoWorkerPool;
+import org.tweetyproject.lp.asp.reasoner.PooledClingoSolver;
+import org.tweetyproject.lp.asp.reasoner.SolverException;
+import org.tweetyproject.lp.asp.semantics.AnswerSet;
+import org.tweetyproject.lp.asp.syntax.ASPAtom;
+import org.tweetyproject.lp.asp.syntax.ASPLiteral;
+import org.tweetyproject.lp.asp.syntax.Program;
+
+/**
+ * Tests the line protocol of the clingo workers and the reuse of workers and groundings
+ * by the pool. The tests that need clingo are skipped if the clingo Python module is not installed.
+ *
+ * @author agent
+ */
+public class ClingoWorkerPoolTest {
+
+	/** A program with two answer sets. */
+	private static final String CHOICE = "a :- not b.\nb :- not a.";
+	/** A program with an external atom. */
+	private static final String EXTERNAL = "a.\n#external e.\nd :- e.\n\nc :- d, not b.";
+
+	/** The pool. */
+	private ClingoWorkerPool pool;
+
+	@Before
+	public void setUp() throws Exception {
+		this.pool = new ClingoWorkerPool("python3", 2);
+	}
+
+	@After
+	public void tearDown() {
+		this.pool.close();
+	}
+
+	@Test
+	public void InstalledTest() throws Exception {
+		try (ClingoWorkerPool missing = new ClingoWorkerPool("/no/such/python", "clingo_worker.py", 1)) {
+			assertFalse(new PooledClingoSolver(missing).isInstalled());
+			assertEquals(0, missing.getNumberOfWorkers());
+		}
+		Assume.assumeTrue(new PooledClingoSolver(this.pool).isInstalled());
+		// the handshake grounds no program
+		assertEquals(0, this.pool.getNumberOfGroundings());
+		assertEquals(0, this.pool.getNumberOfRequests());
+		assertEquals(1, this.pool.getNumberOfStarts());
+		assertEquals(1, this.pool.getNumberOfIdleWorkers());
+	}
+
+	@Test
+	public void ProtocolTest() throws Exception {
+		this.assumeInstalled();
+		Map<ASPLiteral,Boolean> none = Collections.emptyMap();
+		assertEquals(new HashSet<AnswerSet>(List.of(ASPParser.parseAnswerSet("a"), ASPParser.parseAnswerSet("b"))), new HashSet<AnswerSet>(this.pool.solve(ClingoWorkerPoolTest.CHOICE, none, 0)));
+		assertEquals(1, this.pool.solve(ClingoWorkerPoolTest.CHOICE, none, 1).size());
+		assertEquals(List.of(ASPParser.parseAnswerSet("b")), this.pool.solve(ClingoWorkerPoolTest.CHOICE, Collections.singletonMap(new ASPAtom("a"), false), 0));
+		assertTrue(this.pool.solve(ClingoWorkerPoolTest.CHOICE, Map.of(new ASPAtom("a"), true, new ASPAtom("b"), true), 0).isEmpty());
+		// a multi-line program with an empty line, the external atom is false unless assumed
+		assertEquals(List.of(ASPParser.parseAnswerSet("a")), this.pool.solve(ClingoWorkerPoolTest.EXTERNAL, none, 0));
+		assertEquals(List.of(ASPParser.parseAnswerSet("a c d e")), this.pool.solve(ClingoWorkerPoolTest.EXTERNAL, Collections.singletonMap(new ASPAtom("e"), true), 0));
+		// an error of clingo does not terminate the worker
+		long starts = this.pool.getNumberOfStarts();
+		try {
+			this.pool.solve("a :- .", none, 0);
+			fail();
+		} catch (SolverException e) {
+			// expected
+		}
+		assertEquals(List.of(ASPParser.parseAnswerSet("a")), this.pool.solve(ClingoWorkerPoolTest.EXTERNAL, none, 0));
+		assertEquals(starts, this.pool.getNumberOfStarts());
+		assertEquals(0, this.pool.getNumberOfFailures());
+	}
+
+	@Test
+	public void ReuseTest() throws Exception {
+		this.assumeInstalled();
+		// a program is grounded once for all queries
+		for(int i = 0; i < 5; i++)
+			this.pool.solve(ClingoWorkerPoolTest.EXTERNAL, Collections.singletonMap(new ASPAtom("e"), i % 2 == 0), 0);
+		assertEquals(1, this.pool.getNumberOfGroundings());
+		assertEquals(1, this.pool.getNumberOfStarts());
+		assertEquals(5, this.pool.getNumberOfRequests());
+	}
+
+	@Test
+	public void EvictionTest() throws Exception {
+		this.assumeInstalled();
+		Map<ASPLiteral,Boolean> none = Collections.emptyMap();
+		String p1 = "p1.", p2 = "p2.", p3 = "p3.";
+		this.pool.solve(p1, none, 0);
+		this.pool.solve(p2, none, 0);
+		assertEquals(2, this.pool.getNumberOfStarts());
+		// no further worker is started, the least recently used worker (with p1) grounds p3
+		assertEquals(List.of(ASPParser.parseAnswerSet("p3")), this.pool.solve(p3, none, 0));
+		assertEquals(2, this.pool.getNumberOfStarts());
+		assertEquals(3, this.pool.getNumberOfGroundings());
+		// p2 is still grounded
+		this.pool.solve(p2, none, 0);
+		assertEquals(3, this.pool.getNumberOfGroundings());
+		// p1 has been evicted
+		assertEquals(List.of(ASPParser.parseAnswerSet("p1")), this.pool.solve(p1, none, 0));
+		assertEquals(4, this.pool.getNumberOfGroundings());
+		assertEquals(2, this.pool.getNumberOfWorkers());
+		assertEquals(2, this.pool.getNumberOfIdleWorkers());
+	}
+
+	@Test
+	public void QueryTest() throws Exception {
+		this.assumeInstalled();
+		PooledClingoSolver solver = new PooledClingoSolver(this.pool);
+		Program p = new Program();
+		p.add(ASPParser.parseRule("a :- not b."));
+		p.add(ASPParser.parseRule("b :- not a."));
+		p.add(ASPParser.parseRule("c :- a."));
+		p.add(ASPParser.parseRule("c :- b."));
+		assertEquals(2, solver.getModels(p).size());
+		assertTrue(solver.query(p, new ASPAtom("c"), InferenceMode.SKEPTICAL));
+		assertFalse(solver.query(p, new ASPAtom("a"), InferenceMode.SKEPTICAL));
+		assertTrue(solver.query(p, new ASPAtom("a"), InferenceMode.CREDULOUS));
+		// all queries use the same grounding
+		assertEquals(1, this.pool.getNumberOfGroundings());
+	}
+
+	/**
+	 * Skips the calling test if the clingo Python module is not installed.
+	 */
+	private void assumeInstalled() {
+		Assume.assumeTrue(new PooledClingoSolver(this.pool).isInstalled());
+	}
+}
@@ -0,0 +1,152 @@
+/*
+ *  This file is part of "TweetyProject", a collection of Java libraries for
+ *  logical aspects of artificial intelligence and knowledge representation.
+ *
+ *  TweetyProject is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  Copyright 2024 The TweetyProject Team <http://tweetyproject.org/contact/>
+ */
+package org.tweetyproject.lp.asp.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+import org.tweetyproject.commons.util.Shell;
+import org.tweetyproject.lp.asp.parser.ASPParser;
+import org.tweetyproject.lp.asp.reasoner.ClingoSolver;
+import org.tweetyproject.lp.asp.reasoner.DLVSolver;
+import org.tweetyproject.lp.asp.reasoner.SolverException;
+import org.tweetyproject.lp.asp.semantics.AnswerSet;
+
+/**
+ * Tests the parsing of streamed answer sets on canned output of Clingo and DLV,
+ * so no solver has to be installed.
+ *
+ * @author agent
+ */
+public class StreamModelsTest {
+
+	/**
+	 * A shell that returns the given output for every command.
+	 */
+	private static class CannedShell extends Shell {
+		/** The output of every command. */
+		private final Stream<String> output;
+		/** The last command. */
+		private String command;
+		/** The input of the last command. */
+		private String input;
+		/** Whether the output has been closed. */
+		private final AtomicBoolean closed = new AtomicBoolean(false);
+
+		/**
+		 * Creates a new shell.
+		 * @param output the output of every command
+		 */
+		private CannedShell(Stream<String> output) {
+			this.output = output.onClose(() -> this.closed.set(true));
+		}
+
+		@Override
+		public String run(String cmd) throws InterruptedException, IOException {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Stream<String> stream(String cmd, String input, long timeout) throws IOException {
+			this.command = cmd;
+			this.input = input;
+			return this.output;
+		}
+	}
+
+	@Test
+	public void ClingoTest() throws Exception {
+		CannedShell shell = new CannedShell(Stream.of("clingo version 5.4.0", "Reading from stdin", "Solving...",
+				"Answer: 1", "a p(1,2)", "Optimization: 3", "Answer: 2", "b", "Optimization: 1",
+				"OPTIMUM FOUND", "", "Models       : 2", "  Optimum    : yes"));
+		ClingoSolver solver = new ClingoSolver("/clingo", shell);
+		try (Stream<AnswerSet> models = solver.streamModels("a :- not b. b :- not a.")) {
+			List<AnswerSet> result = models.collect(Collectors.toList());
+			assertEquals(List.of(ASPParser.parseAnswerSet("a p(1,2)"), ASPParser.parseAnswerSet("b")), result);
+		}
+		assertTrue(shell.closed.get());
+		assertEquals("a :- not b. b :- not a.", shell.input);
+		assertEquals("1", solver.getOptimumString());
+	}
+
+	@Test
+	public void ClingoErrorTest() throws Exception {
+		CannedShell shell = new CannedShell(Stream.of("<stdin>:1:3-4: error: syntax error, unexpected <IDENTIFIER>", "*** ERROR: (clingo): parsing failed"));
+		try (Stream<AnswerSet> models = new ClingoSolver("/clingo", shell).streamModels("a b.")) {
+			models.count();
+			fail();
+		} catch (IllegalStateException e) {
+			assertTrue(e.getCause() instanceof SolverException);
+			assertTrue(e.getMessage().contains("syntax error"));
+		}
+	}
+
+	@Test
+	public void DLVTest() throws Exception {
+		CannedShell shell = new CannedShell(Stream.of("{a, p(1,2), q(3)}", "{b}", "{}"));
+		DLVSolver solver = new DLVSolver("/dlv", shell);
+		try (Stream<AnswerSet> models = solver.streamModels("#maxint=7.\na :- not b.\nb :- not a.")) {
+			List<AnswerSet> result = models.collect(Collectors.toList());
+			assertEquals(List.of(ASPParser.parseAnswerSet("a p(1,2) q(3)"), ASPParser.parseAnswerSet("b"), new AnswerSet()), result);
+		}
+		assertTrue(shell.closed.get());
+		// the integer maximum of the program is passed to DLV
+		assertTrue(shell.command.contains(" -N=7 "));
+		assertTrue(shell.command.startsWith("/dlv/dlv -silent"));
+	}
+
+	@Test
+	public void DLVErrorTest() throws Exception {
+		CannedShell shell = new CannedShell(Stream.of("Parsing error: syntax errors in input", "line 1"));
+		try (Stream<AnswerSet> models = new DLVSolver("/dlv", shell).streamModels("a b.")) {
+			models.count();
+			fail();
+		} catch (IllegalStateException e) {
+			assertTrue(e.getCause() instanceof SolverException);
+			assertTrue(e.getMessage().contains("line 1"));
+		}
+	}
+
+	@Test
+	public void CloseTest() throws Exception {
+		// a solver that never stops, the lines are only read when answer sets are requested
+		AtomicInteger read = new AtomicInteger();
+		CannedShell shell = new CannedShell(Stream.generate(() -> "{a" + read.incrementAndGet() + "}"));
+		try (Stream<AnswerSet> models = new DLVSolver("/dlv", shell).streamModels("a.")) {
+			Iterator<AnswerSet> it = models.iterator();
+			assertEquals(ASPParser.parseAnswerSet("a1"), it.next());
+			assertEquals(ASPParser.parseAnswerSet("a2"), it.next());
+			assertFalse(shell.closed.get());
+		}
+		assertTrue(shell.closed.get());
+		assertTrue(read.get() <= 3);
+	}
+}
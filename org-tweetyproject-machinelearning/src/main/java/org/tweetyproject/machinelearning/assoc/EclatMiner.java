@@ -0,0 +1,357 @@
+/*
+ *  This file is part of "TweetyProject", a collection of Java libraries for
+ *  logical aspects of artificial intelligence and knowledge representation.
+ *
+ *  TweetyProject is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  Copyright 2024 The TweetyProject Team <http://tweetyproject.org/contact/>
+ */
+package org.tweetyproject.machinelearning.assoc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinTask;
+
+import org.tweetyproject.commons.util.ForkJoinTools;
+
+/**
+ * Implements the Eclat algorithm for frequent pattern and association rule mining, cf.
+ * [Mohammed J. Zaki. Scalable algorithms for association mining. IEEE Transactions on
+ * Knowledge and Data Engineering 12(3), 2000].
+ * <br>
+ * Items are encoded as integers and the database is represented vertically, i.e., by the
+ * set of transactions (as a bitset) containing an item. The support of an item set is then
+ * computed by intersecting the bitsets of its items. Item sets are mined depth-first per
+ * equivalence class (item sets with a common prefix), the classes of the single items are
+ * mined in parallel (see {@link ForkJoinTools}). The support counts of all frequent item sets
+ * are kept, so the confidence of a rule is computed without accessing the database again (all
+ * premises of rules from frequent sets are frequent as well).
+ *
+ * @author agent
+ *
+ * @param <T> the type of items
+ */
+public class EclatMiner<T> extends AbstractAssociationRuleMiner<T> {
+
+	/** the minimum support for mined sets. */
+	private double minsupport;
+	/** the minimum confidence for mined rules. */
+	private double minconf;
+	/** the maximal number of equivalence classes mined concurrently. */
+	private int parallelism;
+
+	/**
+	 * Creates a new Eclat miner with the given minimum support and
+	 * minimum confidence values.
+	 * @param minsupport the minimum support for mined sets.
+	 * @param minconf the minimum confidence for mined rules.
+	 */
+	public EclatMiner(double minsupport, double minconf){
+		this(minsupport, minconf, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Creates a new Eclat miner with the given minimum support and
+	 * minimum confidence values.
+	 * @param minsupport the minimum support for mined sets.
+	 * @param minconf the minimum confidence for mined rules.
+	 * @param parallelism the maximal number of equivalence classes mined concurrently.
+	 */
+	public EclatMiner(double minsupport, double minconf, int parallelism){
+		if(parallelism < 1)
+			throw new IllegalArgumentException("The parallelism must be positive.");
+		this.minsupport = minsupport;
+		this.minconf = minconf;
+		this.parallelism = parallelism;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.machinelearning.assoc.AssociationRuleMiner#mineRules(java.util.Collection, int, int)
+	 */
+	@Override
+	public Collection<AssociationRule<T>> mineRules(Collection<Collection<T>> database, int conclusion_limit, int total_limit) {
+		Collection<AssociationRule<T>> rules = new HashSet<AssociationRule<T>>();
+		if(conclusion_limit < 1)
+			return rules;
+		Mining mining = this.mine(database, total_limit);
+		for(Map.Entry<ItemSet,Integer> e: mining.counts.entrySet()){
+			int[] set = e.getKey().items;
+			double count = e.getValue();
+			// determine all rules with single conclusion
+			List<int[]> lastLevel = new ArrayList<int[]>();
+			for(int item: set)
+				lastLevel.add(new int[]{item});
+			int card = 1;
+			while(!lastLevel.isEmpty()){
+				List<int[]> passed = new ArrayList<int[]>();
+				for(int[] conclusion: lastLevel){
+					int[] premise = EclatMiner.difference(set, conclusion);
+					if(count / mining.count(premise) >= this.minconf){
+						rules.add(new AssociationRule<T>(mining.decode(premise), mining.decode(conclusion)));
+						passed.add(conclusion);
+					}
+				}
+				// iterate for conclusions with more elements
+				if(conclusion_limit <= card)
+					break;
+				lastLevel = EclatMiner.nextLevel(passed, card);
+				card++;
+			}
+		}
+		return rules;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.machinelearning.assoc.FrequentPatternMiner#mineFrequentSets(java.util.Collection)
+	 */
+	@Override
+	public Collection<Collection<T>> mineFrequentSets(Collection<Collection<T>> database) {
+		return this.mineFrequentSets(database, Integer.MAX_VALUE);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.machinelearning.assoc.FrequentPatternMiner#mineFrequentSets(java.util.Collection, int)
+	 */
+	@Override
+	public Collection<Collection<T>> mineFrequentSets(Collection<Collection<T>> database, int maxsize) {
+		Mining mining = this.mine(database, maxsize);
+		Collection<Collection<T>> sets = new HashSet<Collection<T>>();
+		for(ItemSet set: mining.counts.keySet())
+			sets.add(mining.decode(set.items));
+		return sets;
+	}
+
+	/**
+	 * Mines all frequent item sets with their support counts.
+	 * @param database some database
+	 * @param maxsize the maximal size of mined item sets
+	 * @return the frequent item sets.
+	 */
+	private Mining mine(Collection<Collection<T>> database, int maxsize){
+		// encode the database vertically
+		Map<T,Integer> codes = new HashMap<T,Integer>();
+		List<T> items = new ArrayList<T>();
+		List<BitSet> tidLists = new ArrayList<BitSet>();
+		int tid = 0;
+		for(Collection<T> transaction: database){
+			for(T item: transaction){
+				Integer code = codes.get(item);
+				if(code == null){
+					code = items.size();
+					codes.put(item, code);
+					items.add(item);
+					tidLists.add(new BitSet());
+				}
+				tidLists.get(code).set(tid);
+			}
+			tid++;
+		}
+		int n = tid;
+		Mining mining = new Mining(n);
+		// frequent items, ordered by increasing support (which keeps intersections small)
+		List<Integer> frequent = new ArrayList<Integer>();
+		for(int i = 0; i < items.size(); i++)
+			if(this.isFrequent(tidLists.get(i).cardinality(), n))
+				frequent.add(i);
+		frequent.sort((i,j) -> Integer.compare(tidLists.get(i).cardinality(), tidLists.get(j).cardinality()));
+		BitSet[] tids = new BitSet[frequent.size()];
+		for(int i = 0; i < tids.length; i++){
+			mining.items.add(items.get(frequent.get(i)));
+			tids[i] = tidLists.get(frequent.get(i));
+		}
+		if(maxsize < 1 || tids.length == 0)
+			return mining;
+		// mine the equivalence classes of the single items in parallel
+		int[] members = EclatMiner.identity(tids.length);
+		List<ForkJoinTask<Map<ItemSet,Integer>>> tasks = new ArrayList<ForkJoinTask<Map<ItemSet,Integer>>>();
+		for(int i = 0; i < tids.length; i++){
+			int first = i;
+			tasks.add(ForkJoinTask.adapt(() -> {
+				Map<ItemSet,Integer> result = new HashMap<ItemSet,Integer>();
+				this.mineClass(new int[0], first, members, tids, maxsize, n, result);
+				return result;
+			}));
+		}
+		ForkJoinTools.invokeAll(this.parallelism, tasks);
+		for(ForkJoinTask<Map<ItemSet,Integer>> task: tasks)
+			mining.counts.putAll(task.join());
+		return mining;
+	}
+
+	/**
+	 * Mines the equivalence class of the given prefix extended by the i-th member of the class.
+	 * @param prefix the common prefix of the item sets of the class
+	 * @param i the position of the next item of the prefix in the class
+	 * @param members the codes of the items of the class
+	 * @param tids the tid-lists of the prefix extended by each member of the class
+	 * @param maxsize the maximal size of mined item sets
+	 * @param n the number of transactions
+	 * @param result the frequent item sets are added here
+	 */
+	private void mineClass(int[] prefix, int i, int[] members, BitSet[] tids, int maxsize, int n, Map<ItemSet,Integer> result){
+		int[] set = Arrays.copyOf(prefix, prefix.length + 1);
+		set[prefix.length] = members[i];
+		result.put(new ItemSet(set), tids[i].cardinality());
+		if(set.length >= maxsize)
+			return;
+		// the class of the extended prefix
+		int size = 0;
+		int[] subMembers = new int[members.length - i - 1];
+		BitSet[] subTids = new BitSet[members.length - i - 1];
+		for(int j = i + 1; j < members.length; j++){
+			BitSet t = (BitSet) tids[i].clone();
+			t.and(tids[j]);
+			if(this.isFrequent(t.cardinality(), n)){
+				subMembers[size] = members[j];
+				subTids[size++] = t;
+			}
+		}
+		subMembers = Arrays.copyOf(subMembers, size);
+		for(int j = 0; j < size; j++)
+			this.mineClass(set, j, subMembers, subTids, maxsize, n, result);
+	}
+
+	/**
+	 * Checks whether the given support count is frequent.
+	 * @param count some support count
+	 * @param n the number of transactions
+	 * @return "true" iff the support is at least the minimum support.
+	 */
+	private boolean isFrequent(int count, int n){
+		return ((double) count) / n >= this.minsupport;
+	}
+
+	/**
+	 * Returns the array 0,...,n-1.
+	 * @param n some number
+	 * @return the array 0,...,n-1.
+	 */
+	private static int[] identity(int n){
+		int[] result = new int[n];
+		for(int i = 0; i < n; i++)
+			result[i] = i;
+		return result;
+	}
+
+	/**
+	 * Returns the items of the first sorted array that are not in the second one.
+	 * @param set some sorted array
+	 * @param sub some sorted sub-array
+	 * @return the difference, sorted.
+	 */
+	private static int[] difference(int[] set, int[] sub){
+		int[] result = new int[set.length - sub.length];
+		int k = 0, j = 0;
+		for(int item: set){
+			if(j < sub.length && sub[j] == item)
+				j++;
+			else result[k++] = item;
+		}
+		return result;
+	}
+
+	/**
+	 * Generates all sorted arrays of length <code>cardinality</code>+1 s.t. all sub-arrays of
+	 * length <code>cardinality</code> are contained in the given <code>lastLevel</code>.
+	 * @param lastLevel sorted arrays of the same length <code>cardinality</code>
+	 * @param cardinality the length of all arrays in <code>lastLevel</code>
+	 * @return the arrays of the next level.
+	 */
+	private static List<int[]> nextLevel(List<int[]> lastLevel, int cardinality){
+		Set<ItemSet> last = new HashSet<ItemSet>();
+		for(int[] set: lastLevel)
+			last.add(new ItemSet(set));
+		List<int[]> nextLevel = new ArrayList<int[]>();
+		for(int[] set1: lastLevel)
+			for(int[] set2: lastLevel){
+				// join sets agreeing on all but the last item
+				if(set1[cardinality - 1] >= set2[cardinality - 1] || !Arrays.equals(set1, 0, cardinality - 1, set2, 0, cardinality - 1))
+					continue;
+				int[] candidate = Arrays.copyOf(set1, cardinality + 1);
+				candidate[cardinality] = set2[cardinality - 1];
+				boolean valid = true;
+				for(int k = 0; k < cardinality - 1 && valid; k++)
+					valid = last.contains(new ItemSet(EclatMiner.difference(candidate, new int[]{candidate[k]})));
+				if(valid)
+					nextLevel.add(candidate);
+			}
+		return nextLevel;
+	}
+
+	/**
+	 * The frequent item sets of a database.
+	 */
+	private class Mining {
+		/** The number of transactions. */
+		private final int n;
+		/** The items, indexed by their codes. */
+		private final List<T> items = new ArrayList<T>();
+		/** The support counts of the frequent item sets. */
+		private final Map<ItemSet,Integer> counts = new HashMap<ItemSet,Integer>();
+
+		private Mining(int n){
+			this.n = n;
+		}
+
+		/**
+		 * Returns the support count of the given frequent item set.
+		 * @param set some frequent item set, sorted
+		 * @return its support count.
+		 */
+		private int count(int[] set){
+			return set.length == 0 ? this.n : this.counts.get(new ItemSet(set));
+		}
+
+		/**
+		 * Decodes the given item set.
+		 * @param set some item set
+		 * @return the set of items.
+		 */
+		private Collection<T> decode(int[] set){
+			Collection<T> result = new HashSet<T>();
+			for(int item: set)
+				result.add(this.items.get(item));
+			return result;
+		}
+	}
+
+	/**
+	 * A sorted array of item codes with value semantics.
+	 */
+	private static class ItemSet {
+		private final int[] items;
+		private final int hash;
+
+		private ItemSet(int[] items){
+			this.items = items;
+			this.hash = Arrays.hashCode(items);
+		}
+
+		@Override
+		public int hashCode(){
+			return this.hash;
+		}
+
+		@Override
+		public boolean equals(Object obj){
+			return obj instanceof ItemSet && Arrays.equals(this.items, ((ItemSet) obj).items);
+		}
+	}
+}
@@ -0,0 +1,108 @@
+/*
+ *  This file is part of "TweetyProject", a collection of Java libraries for
+ *  logical aspects of artificial intelligence and knowledge representation.
+ *
+ *  TweetyProject is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  Copyright 2024 The TweetyProject Team <http://tweetyproject.org/contact/>
+ */
+package org.tweetyproject.machinelearning.assoc;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Compares the Eclat miner with the Apriori and FP-Growth miners.
+ *
+ * @author agent
+ */
+public class EclatTest {
+	List<Collection<String>> db1;
+
+	@Before
+	public void setUp() {
+		db1 = new ArrayList<Collection<String>>();
+		db1.add(List.of("A", "B", "C"));
+		db1.add(List.of("A", "B", "D"));
+		db1.add(List.of("C", "D"));
+		db1.add(List.of("A", "B", "C", "D"));
+	}
+
+	@Test
+	public void test1(){
+		for(int parallelism = 1; parallelism <= 4; parallelism++){
+			EclatMiner<String> miner = new EclatMiner<String>(0.5, 0.9, parallelism);
+			assertEquals(6, miner.mineRules(db1).size());
+			assertEquals(EclatTest.rules(new AprioriMiner<String>(0.5, 0.9).mineRules(db1)), EclatTest.rules(miner.mineRules(db1)));
+		}
+	}
+
+	@Test
+	public void randomDatabasesTest(){
+		Random random = new Random(1);
+		for(int it = 0; it < 300; it++){
+			int n = 1 + random.nextInt(40), m = 2 + random.nextInt(8);
+			Collection<Collection<Integer>> db = new ArrayList<Collection<Integer>>();
+			for(int i = 0; i < n; i++){
+				Set<Integer> t = new HashSet<Integer>();
+				for(int j = 0; j < m; j++)
+					if(random.nextDouble() < 0.5)
+						t.add(j);
+				db.add(t);
+			}
+			double minsupport = random.nextDouble() * 0.6, minconf = random.nextDouble();
+			int conclusionLimit = 1 + random.nextInt(4), totalLimit = 1 + random.nextInt(6);
+			AprioriMiner<Integer> apriori = new AprioriMiner<Integer>(minsupport, minconf);
+			FpGrowthMiner<Integer> fpGrowth = new FpGrowthMiner<Integer>(minsupport);
+			EclatMiner<Integer> eclat = new EclatMiner<Integer>(minsupport, minconf, 1 + it % 4);
+			assertEquals(EclatTest.sets(apriori.mineFrequentSets(db)), EclatTest.sets(eclat.mineFrequentSets(db)));
+			assertEquals(EclatTest.sets(fpGrowth.mineFrequentSets(db)), EclatTest.sets(eclat.mineFrequentSets(db)));
+			assertEquals(EclatTest.sets(apriori.mineFrequentSets(db, totalLimit)), EclatTest.sets(eclat.mineFrequentSets(db, totalLimit)));
+			assertEquals(EclatTest.sets(fpGrowth.mineFrequentSets(db, totalLimit)), EclatTest.sets(eclat.mineFrequentSets(db, totalLimit)));
+			assertEquals(EclatTest.rules(apriori.mineRules(db, conclusionLimit, totalLimit)), EclatTest.rules(eclat.mineRules(db, conclusionLimit, totalLimit)));
+		}
+	}
+
+	/**
+	 * Returns the given item sets as a set of sets.
+	 * @param sets some item sets
+	 * @return the item sets as a set of sets.
+	 */
+	private static <T> Set<Set<T>> sets(Collection<Collection<T>> sets){
+		Set<Set<T>> result = new HashSet<Set<T>>();
+		for(Collection<T> set: sets)
+			result.add(new HashSet<T>(set));
+		return result;
+	}
+
+	/**
+	 * Returns the given rules as a set of pairs of premise and conclusion.
+	 * @param rules some association rules
+	 * @return the rules as a set of pairs of premise and conclusion.
+	 */
+	private static <T> Set<List<Set<T>>> rules(Collection<AssociationRule<T>> rules){
+		Set<List<Set<T>>> result = new HashSet<List<Set<T>>>();
+		for(AssociationRule<T> rule: rules)
+			result.add(List.of(new HashSet<T>(rule.getPremise()), new HashSet<T>(rule.getConclusion())));
+		return result;
+	}
+}
@@ -0,0 +1,356 @@
+/*
+ *  This file is part of "TweetyProject", a collection of Java libraries for
+ *  logical aspects of artificial intelligence and knowledge representation.
+ *
+ *  TweetyProject is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  Copyright 2024 The TweetyProject Team <http://tweetyproject.org/contact/>
+ */
+package org.tweetyproject.math.matrix;
+
+import java.util.stream.IntStream;
+
+import org.tweetyproject.math.term.FloatConstant;
+import org.tweetyproject.math.term.IntegerConstant;
+import org.tweetyproject.math.term.Term;
+
+/**
+ * A dense matrix of doubles. The entries are stored row by row in a single array, so
+ * in contrast to {@link Matrix} no term objects are created by arithmetic operations.
+ * Operations with other numerical matrices (dense, {@link SparseMatrix}, or matrices whose entries are
+ * all float or integer constants) are performed on doubles, operations with
+ * other matrices and scalars fall back to the term-based implementation of {@link Matrix}.
+ * <br>
+ * Entries are returned as {@link IntegerConstant} if they are integral and as {@link FloatConstant}
+ * otherwise. Setting an entry to a term with variables results in an {@link IllegalArgumentException}.
+ *
+ * @author agent
+ */
+public class DoubleMatrix extends Matrix {
+
+	/** The size of the blocks used for cache-blocked multiplication. */
+	static final int BLOCK_SIZE = 64;
+
+	/** The x dimension (number of columns). */
+	private final int xDim;
+	/** The y dimension (number of rows). */
+	private final int yDim;
+	/** The entries, entry (x,y) is at position y*xDim+x. */
+	final double[] values;
+
+	/**
+	 * Creates a new zero matrix of the given dimension.
+	 * @param n the x dimension of the matrix.
+	 * @param m the y dimension of the matrix.
+	 */
+	public DoubleMatrix(int n, int m){
+		this(n, m, new double[n*m]);
+	}
+
+	/**
+	 * Creates a new matrix with the given entries.
+	 * @param n the x dimension of the matrix.
+	 * @param m the y dimension of the matrix.
+	 * @param values the entries row by row, i.e. entry (x,y) is at position y*n+x.
+	 */
+	DoubleMatrix(int n, int m, double[] values){
+		super();
+		this.xDim = n;
+		this.yDim = m;
+		this.values = values;
+	}
+
+	/**
+	 * Returns a dense numerical version of the given matrix.
+	 * @param m some matrix
+	 * @return the given matrix if it is a dense numerical matrix, a dense copy of it if all its entries are
+	 * 	float or integer constants, and <code>null</code> otherwise.
+	 */
+	public static DoubleMatrix valueOf(Matrix m){
+		if(m instanceof DoubleMatrix)
+			return (DoubleMatrix) m;
+		DoubleMatrix result = new DoubleMatrix(m.getXDimension(), m.getYDimension());
+		if(m instanceof SparseMatrix){
+			SparseMatrix s = (SparseMatrix) m;
+			for(int y = 0; y < s.getYDimension(); y++)
+				for(int k = s.rowOffsets[y]; k < s.rowOffsets[y+1]; k++)
+					result.values[y*result.xDim + s.columns[k]] = s.values[k];
+			return result;
+		}
+		for(int x = 0; x < m.getXDimension(); x++)
+			for(int y = 0; y < m.getYDimension(); y++){
+				Term t = m.getEntry(x, y);
+				if(!(t instanceof FloatConstant || t instanceof IntegerConstant))
+					return null;
+				result.values[y*result.xDim + x] = t.doubleValue();
+			}
+		return result;
+	}
+
+	/**
+	 * Returns the term representing the given value.
+	 * @param value some value
+	 * @return an integer constant if the value is integral, a float constant otherwise.
+	 */
+	static Term toTerm(double value){
+		if(value == Math.rint(value) && Math.abs(value) <= Integer.MAX_VALUE)
+			return new IntegerConstant((int) value);
+		return new FloatConstant(value);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.math.matrix.Matrix#getEntry(int, int)
+	 */
+	@Override
+	public Term getEntry(int x, int y){
+		return DoubleMatrix.toTerm(this.getDoubleEntry(x, y));
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.math.matrix.Matrix#getDoubleEntry(int, int)
+	 */
+	@Override
+	public double getDoubleEntry(int x, int y){
+		this.checkCoordinates(x, y);
+		return this.values[y*this.xDim + x];
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.math.matrix.Matrix#setEntry(int, int, org.tweetyproject.math.term.Term)
+	 */
+	@Override
+	public void setEntry(int x, int y, Term entry){
+		this.setEntry(x, y, entry.doubleValue());
+	}
+
+	/**
+	 * Sets the entry at the given coordinates.
+	 * @param x the x coordinate of the entry.
+	 * @param y the y coordinate of the entry.
+	 * @param value the value to be set.
+	 */
+	public void setEntry(int x, int y, double value){
+		this.checkCoordinates(x, y);
+		this.values[y*this.xDim + x] = value;
+	}
+
+	/**
+	 * Checks whether the given coordinates are within the dimensions of this matrix.
+	 * @param x the x coordinate
+	 * @param y the y coordinate
+	 */
+	private void checkCoordinates(int x, int y){
+		if(x < 0 || x >= this.xDim || y < 0 || y >= this.yDim)
+			throw new IndexOutOfBoundsException("Coordinates (" + x + "," + y + ") out of bounds.");
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.math.matrix.Matrix#getXDimension()
+	 */
+	@Override
+	public int getXDimension(){
+		return this.xDim;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.math.matrix.Matrix#getYDimension()
+	 */
+	@Override
+	public int getYDimension(){
+		return this.yDim;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.math.matrix.Matrix#mult(org.tweetyproject.math.matrix.Matrix)
+	 */
+	@Override
+	public Matrix mult(Matrix other) throws IllegalArgumentException{
+		return this.mult(other, false);
+	}
+
+	/**
+	 * Multiply this matrix with the given one.
+	 * @param other a matrix
+	 * @param parallel whether blocks of rows of the product shall be computed in parallel
+	 * @return the product of the two matrices.
+	 * @throws IllegalArgumentException if the x dimension of this matrix
+	 * 	does not equal the y dimension of the other matrix
+	 */
+	public Matrix mult(Matrix other, boolean parallel) throws IllegalArgumentException{
+		if(this.getXDimension() != other.getYDimension())
+			throw new IllegalArgumentException("Wrong dimensions of matrices.");
+		int n = other.getXDimension();
+		if(other instanceof SparseMatrix){
+			SparseMatrix s = (SparseMatrix) other;
+			double[] c = new double[n*this.yDim];
+			DoubleMatrix.rowBlocks(this.yDim, parallel).forEach(yb -> {
+				for(int y = yb*BLOCK_SIZE; y < Math.min(this.yDim, (yb+1)*BLOCK_SIZE); y++)
+					for(int j = 0; j < this.xDim; j++){
+						double v = this.values[y*this.xDim + j];
+						if(v == 0)
+							continue;
+						for(int k = s.rowOffsets[j]; k < s.rowOffsets[j+1]; k++)
+							c[y*n + s.columns[k]] += v * s.values[k];
+					}
+			});
+			return new DoubleMatrix(n, this.yDim, c);
+		}
+		DoubleMatrix o = DoubleMatrix.valueOf(other);
+		if(o == null)
+			return super.mult(other);
+		return new DoubleMatrix(n, this.yDim, DoubleMatrix.multiply(this.values, o.values, this.yDim, this.xDim, n, parallel));
+	}
+
+	/**
+	 * Returns the blocks of rows of a matrix.
+	 * @param rows the number of rows
+	 * @param parallel whether the blocks shall be processed in parallel
+	 * @return a stream of block indices.
+	 */
+	static IntStream rowBlocks(int rows, boolean parallel){
+		IntStream blocks = IntStream.range(0, (rows + BLOCK_SIZE - 1) / BLOCK_SIZE);
+		return parallel ? blocks.parallel() : blocks;
+	}
+
+	/**
+	 * Computes the product of the dense (m x k)-matrix a and the dense (k x n)-matrix b
+	 * (both stored row by row) using blocks of size BLOCK_SIZE.
+	 * @param a the left matrix
+	 * @param b the right matrix
+	 * @param m the number of rows of a
+	 * @param k the number of columns of a and rows of b
+	 * @param n the number of columns of b
+	 * @param parallel whether blocks of rows shall be computed in parallel
+	 * @return the product (m x n) stored row by row.
+	 */
+	private static double[] multiply(double[] a, double[] b, int m, int k, int n, boolean parallel){
+		double[] c = new double[m*n];
+		DoubleMatrix.rowBlocks(m, parallel).forEach(yb -> {
+			int y0 = yb*BLOCK_SIZE, y1 = Math.min(m, y0 + BLOCK_SIZE);
+			for(int j0 = 0; j0 < k; j0 += BLOCK_SIZE){
+				int j1 = Math.min(k, j0 + BLOCK_SIZE);
+				for(int x0 = 0; x0 < n; x0 += BLOCK_SIZE){
+					int x1 = Math.min(n, x0 + BLOCK_SIZE);
+					for(int y = y0; y < y1; y++)
+						for(int j = j0; j < j1; j++){
+							double v = a[y*k + j];
+							if(v == 0)
+								continue;
+							for(int x = x0; x < x1; x++)
+								c[y*n + x] += v * b[j*n + x];
+						}
+				}
+			}
+		});
+		return c;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.math.matrix.Matrix#mult(org.tweetyproject.math.term.Term)
+	 */
+	@Override
+	public Matrix mult(Term scalar){
+		if(scalar instanceof FloatConstant || scalar instanceof IntegerConstant)
+			return this.mult(scalar.doubleValue());
+		return super.mult(scalar);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.math.matrix.Matrix#mult(double)
+	 */
+	@Override
+	public Matrix mult(double scalar){
+		double[] c = new double[this.values.length];
+		for(int i = 0; i < c.length; i++)
+			c[i] = this.values[i] * scalar;
+		return new DoubleMatrix(this.xDim, this.yDim, c);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.math.matrix.Matrix#transpose()
+	 */
+	@Override
+	public Matrix transpose(){
+		double[] c = new double[this.values.length];
+		for(int y = 0; y < this.yDim; y++)
+			for(int x = 0; x < this.xDim; x++)
+				c[x*this.yDim + y] = this.values[y*this.xDim + x];
+		return new DoubleMatrix(this.yDim, this.xDim, c);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.math.matrix.Matrix#add(org.tweetyproject.math.matrix.Matrix)
+	 */
+	@Override
+	public Matrix add(Matrix other) throws IllegalArgumentException{
+		if(this.getXDimension() != other.getXDimension() || this.getYDimension() != other.getYDimension())
+			throw new IllegalArgumentException("Wrong dimensions of matrices.");
+		double[] c = this.values.clone();
+		if(other instanceof SparseMatrix){
+			SparseMatrix s = (SparseMatrix) other;
+			for(int y = 0; y < this.yDim; y++)
+				for(int k = s.rowOffsets[y]; k < s.rowOffsets[y+1]; k++)
+					c[y*this.xDim + s.columns[k]] += s.values[k];
+			return new DoubleMatrix(this.xDim, this.yDim, c);
+		}
+		DoubleMatrix o = DoubleMatrix.valueOf(other);
+		if(o == null)
+			return super.add(other);
+		for(int i = 0; i < c.length; i++)
+			c[i] += o.values[i];
+		return new DoubleMatrix(this.xDim, this.yDim, c);
+	}
+
+	/**
+	 * Returns a copy of this matrix, as entries of numerical matrices are always simplified.
+	 * @see org.tweetyproject.math.matrix.Matrix#simplify()
+	 */
+	@Override
+	public Matrix simplify(){
+		return new DoubleMatrix(this.xDim, this.yDim, this.values.clone());
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.math.matrix.Matrix#getJamaMatrix()
+	 */
+	@Override
+	public Jama.Matrix getJamaMatrix(){
+		Jama.Matrix m = new Jama.Matrix(this.xDim, this.yDim);
+		for(int x = 0; x < this.xDim; x++)
+			for(int y = 0; y < this.yDim; y++)
+				m.set(x, y, this.values[y*this.xDim + x]);
+		return m;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.math.matrix.Matrix#distanceToZero()
+	 */
+	@Override
+	public double distanceToZero(){
+		double result = 0;
+		for(double v: this.values)
+			result += Math.abs(v);
+		return result;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.math.matrix.Matrix#isFinite()
+	 */
+	@Override
+	public boolean isFinite(){
+		for(double v: this.values)
+			if(Double.isInfinite(v) || Double.isNaN(v))
+				return false;
+		return true;
+	}
+}
@@ -23,7 +23,8 @@ import org.tweetyproject.math.term.*;
 import java.math.BigDecimal;
 
 /**
- * This class models a matrix of terms.
+ * This class models a matrix of terms. For matrices with numerical
+ * entries only, see {@link DoubleMatrix} and {@link SparseMatrix}.
  * 
  * @author Matthias Thimm
  */
@@ -42,6 +43,14 @@ public class Matrix {
 	public Matrix(int n, int m){
 		this.entries = new Term[n][m];
 	}
+
+	/**
+	 * Creates a matrix without term entries, used by subclasses that
+	 * store their entries differently (see {@link DoubleMatrix} and {@link SparseMatrix}).
+	 */
+	protected Matrix(){
+		this.entries = null;
+	}
 	
 	/**
 	 * Returns the entry with the given coordinates.
@@ -53,6 +62,16 @@ public class Matrix {
 		return this.entries[x][y];
 	}
 	
+	/**
+	 * Returns the numerical value of the entry with the given coordinates.
+	 * @param x the x coordinate of the entry.
+	 * @param y the y coordinate of the entry.
+	 * @return the value of the entry at the given coordinates.
+	 */
+	public double getDoubleEntry(int x, int y){
+		return this.getEntry(x, y).doubleValue();
+	}
+	
 	/**
 	 * Sets the entry at the given coordinates.
 	 * @param x the x coordinate of the entry.
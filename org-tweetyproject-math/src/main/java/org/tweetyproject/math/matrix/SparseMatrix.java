@@ -0,0 +1,441 @@
+/*
+ *  This file is part of "TweetyProject", a collection of Java libraries for
+ *  logical aspects of artificial intelligence and knowledge representation.
+ *
+ *  TweetyProject is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  Copyright 2024 The TweetyProject Team <http://tweetyproject.org/contact/>
+ */
+package org.tweetyproject.math.matrix;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import org.tweetyproject.math.term.FloatConstant;
+import org.tweetyproject.math.term.IntegerConstant;
+import org.tweetyproject.math.term.Term;
+
+/**
+ * A sparse matrix of doubles in compressed sparse row (CSR) format: for every row (y coordinate)
+ * the columns (x coordinates) and values of its non-zero entries are stored in two arrays,
+ * sorted by column. Multiplying a sparse matrix with a vector or a dense matrix takes time
+ * linear in the number of non-zero entries (times the number of columns of the other matrix),
+ * the product of two sparse matrices is sparse again.
+ * <br>
+ * As for {@link DoubleMatrix}, operations with other numerical matrices are performed on doubles
+ * and integral entries are returned as {@link IntegerConstant}. Setting entries is supported
+ * but takes time linear in the number of non-zero entries if a new non-zero entry is created,
+ * so sparse matrices should preferably be created from coordinate lists, see
+ * {@link #SparseMatrix(int, int, int[], int[], double[])}.
+ *
+ * @author agent
+ */
+public class SparseMatrix extends Matrix {
+
+	/** The x dimension (number of columns). */
+	private final int xDim;
+	/** The y dimension (number of rows). */
+	private final int yDim;
+	/** The non-zero entries of row y are at positions rowOffsets[y],...,rowOffsets[y+1]-1. */
+	final int[] rowOffsets;
+	/** The columns of the non-zero entries. */
+	int[] columns;
+	/** The values of the non-zero entries. */
+	double[] values;
+
+	/**
+	 * Creates a new zero matrix of the given dimension.
+	 * @param n the x dimension of the matrix.
+	 * @param m the y dimension of the matrix.
+	 */
+	public SparseMatrix(int n, int m){
+		this(new int[m+1], new int[0], new double[0], n, m);
+	}
+
+	/**
+	 * Creates a new matrix from the given coordinate lists, i.e. the matrix has
+	 * value values[i] at (xs[i],ys[i]) for every i and is zero everywhere else. Values
+	 * given for the same coordinates are added up.
+	 * @param n the x dimension of the matrix.
+	 * @param m the y dimension of the matrix.
+	 * @param xs the x coordinates of the entries
+	 * @param ys the y coordinates of the entries
+	 * @param values the values of the entries
+	 */
+	public SparseMatrix(int n, int m, int[] xs, int[] ys, double[] values){
+		super();
+		if(xs.length != ys.length || xs.length != values.length)
+			throw new IllegalArgumentException("The coordinate lists must have the same length.");
+		this.xDim = n;
+		this.yDim = m;
+		this.rowOffsets = new int[m+1];
+		for(int i = 0; i < ys.length; i++){
+			if(xs[i] < 0 || xs[i] >= n || ys[i] < 0 || ys[i] >= m)
+				throw new IndexOutOfBoundsException("Coordinates (" + xs[i] + "," + ys[i] + ") out of bounds.");
+			this.rowOffsets[ys[i]+1]++;
+		}
+		for(int y = 0; y < m; y++)
+			this.rowOffsets[y+1] += this.rowOffsets[y];
+		int[] next = Arrays.copyOf(this.rowOffsets, m);
+		long[] entries = new long[xs.length];
+		int[] order = new int[xs.length];
+		for(int i = 0; i < xs.length; i++)
+			order[next[ys[i]]++] = i;
+		// sort every row by column and add up duplicates
+		int[] cols = new int[xs.length];
+		double[] vals = new double[xs.length];
+		int size = 0;
+		for(int y = 0; y < m; y++){
+			int from = this.rowOffsets[y], to = this.rowOffsets[y+1];
+			for(int k = from; k < to; k++)
+				entries[k] = ((long) xs[order[k]] << 32) | order[k];
+			Arrays.sort(entries, from, to);
+			this.rowOffsets[y] = size;
+			for(int k = from; k < to; k++){
+				int x = (int) (entries[k] >>> 32);
+				double v = values[(int) entries[k]];
+				if(size > this.rowOffsets[y] && cols[size-1] == x)
+					vals[size-1] += v;
+				else{
+					cols[size] = x;
+					vals[size++] = v;
+				}
+			}
+		}
+		this.rowOffsets[m] = size;
+		this.columns = Arrays.copyOf(cols, size);
+		this.values = Arrays.copyOf(vals, size);
+	}
+
+	/**
+	 * Creates a new matrix from the given CSR arrays.
+	 * @param rowOffsets the row offsets
+	 * @param columns the columns of the non-zero entries
+	 * @param values the values of the non-zero entries
+	 * @param n the x dimension of the matrix.
+	 * @param m the y dimension of the matrix.
+	 */
+	SparseMatrix(int[] rowOffsets, int[] columns, double[] values, int n, int m){
+		super();
+		this.xDim = n;
+		this.yDim = m;
+		this.rowOffsets = rowOffsets;
+		this.columns = columns;
+		this.values = values;
+	}
+
+	/**
+	 * Returns the number of stored (non-zero) entries.
+	 * @return the number of stored entries.
+	 */
+	public int getNumberOfNonZeroEntries(){
+		return this.rowOffsets[this.yDim];
+	}
+
+	/**
+	 * Returns the position of the entry with the given coordinates in the arrays
+	 * of non-zero entries.
+	 * @param x the x coordinate
+	 * @param y the y coordinate
+	 * @return the position of the entry if it is stored, (-(insertion point) - 1) otherwise.
+	 */
+	private int find(int x, int y){
+		if(x < 0 || x >= this.xDim || y < 0 || y >= this.yDim)
+			throw new IndexOutOfBoundsException("Coordinates (" + x + "," + y + ") out of bounds.");
+		return Arrays.binarySearch(this.columns, this.rowOffsets[y], this.rowOffsets[y+1], x);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.math.matrix.Matrix#getEntry(int, int)
+	 */
+	@Override
+	public Term getEntry(int x, int y){
+		return DoubleMatrix.toTerm(this.getDoubleEntry(x, y));
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.math.matrix.Matrix#getDoubleEntry(int, int)
+	 */
+	@Override
+	public double getDoubleEntry(int x, int y){
+		int k = this.find(x, y);
+		return k < 0 ? 0 : this.values[k];
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.math.matrix.Matrix#setEntry(int, int, org.tweetyproject.math.term.Term)
+	 */
+	@Override
+	public void setEntry(int x, int y, Term entry){
+		this.setEntry(x, y, entry.doubleValue());
+	}
+
+	/**
+	 * Sets the entry at the given coordinates.
+	 * @param x the x coordinate of the entry.
+	 * @param y the y coordinate of the entry.
+	 * @param value the value to be set.
+	 */
+	public void setEntry(int x, int y, double value){
+		int k = this.find(x, y);
+		if(k >= 0){
+			this.values[k] = value;
+			return;
+		}
+		if(value == 0)
+			return;
+		k = -k - 1;
+		int size = this.getNumberOfNonZeroEntries();
+		int[] cols = new int[size+1];
+		double[] vals = new double[size+1];
+		System.arraycopy(this.columns, 0, cols, 0, k);
+		System.arraycopy(this.values, 0, vals, 0, k);
+		cols[k] = x;
+		vals[k] = value;
+		System.arraycopy(this.columns, k, cols, k+1, size-k);
+		System.arraycopy(this.values, k, vals, k+1, size-k);
+		this.columns = cols;
+		this.values = vals;
+		for(int r = y+1; r <= this.yDim; r++)
+			this.rowOffsets[r]++;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.math.matrix.Matrix#getXDimension()
+	 */
+	@Override
+	public int getXDimension(){
+		return this.xDim;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.math.matrix.Matrix#getYDimension()
+	 */
+	@Override
+	public int getYDimension(){
+		return this.yDim;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.math.matrix.Matrix#mult(org.tweetyproject.math.matrix.Matrix)
+	 */
+	@Override
+	public Matrix mult(Matrix other) throws IllegalArgumentException{
+		return this.mult(other, false);
+	}
+
+	/**
+	 * Multiply this matrix with the given one.
+	 * @param other a matrix
+	 * @param parallel whether blocks of rows of the product shall be computed in parallel
+	 * @return the product of the two matrices, a sparse matrix if the other matrix is sparse.
+	 * @throws IllegalArgumentException if the x dimension of this matrix
+	 * 	does not equal the y dimension of the other matrix
+	 */
+	public Matrix mult(Matrix other, boolean parallel) throws IllegalArgumentException{
+		if(this.getXDimension() != other.getYDimension())
+			throw new IllegalArgumentException("Wrong dimensions of matrices.");
+		int n = other.getXDimension();
+		if(other instanceof SparseMatrix)
+			return this.multSparse((SparseMatrix) other, parallel);
+		DoubleMatrix o = DoubleMatrix.valueOf(other);
+		if(o == null)
+			return super.mult(other);
+		double[] c = new double[n*this.yDim];
+		DoubleMatrix.rowBlocks(this.yDim, parallel).forEach(yb -> {
+			for(int y = yb*DoubleMatrix.BLOCK_SIZE; y < Math.min(this.yDim, (yb+1)*DoubleMatrix.BLOCK_SIZE); y++)
+				for(int k = this.rowOffsets[y]; k < this.rowOffsets[y+1]; k++){
+					double v = this.values[k];
+					int row = this.columns[k]*n;
+					for(int x = 0; x < n; x++)
+						c[y*n + x] += v * o.values[row + x];
+				}
+		});
+		return new DoubleMatrix(n, this.yDim, c);
+	}
+
+	/**
+	 * Multiplies this matrix with the given sparse matrix row by row, using a dense
+	 * accumulator for each part of the rows.
+	 * @param other a sparse matrix
+	 * @param parallel whether parts of the rows shall be computed in parallel
+	 * @return the sparse product.
+	 */
+	private SparseMatrix multSparse(SparseMatrix other, boolean parallel){
+		int n = other.xDim;
+		int parts = parallel ? Math.max(1, Math.min(this.yDim, 4*Runtime.getRuntime().availableProcessors())) : 1;
+		int partSize = (this.yDim + parts - 1) / parts;
+		int[][] rowCols = new int[this.yDim][];
+		double[][] rowVals = new double[this.yDim][];
+		IntStream s = IntStream.range(0, parts);
+		(parallel ? s.parallel() : s).forEach(p -> {
+			double[] acc = new double[n];
+			boolean[] used = new boolean[n];
+			int[] touched = new int[n];
+			for(int y = p*partSize; y < Math.min(this.yDim, (p+1)*partSize); y++){
+				int size = 0;
+				for(int k = this.rowOffsets[y]; k < this.rowOffsets[y+1]; k++){
+					int j = this.columns[k];
+					double v = this.values[k];
+					for(int l = other.rowOffsets[j]; l < other.rowOffsets[j+1]; l++){
+						int x = other.columns[l];
+						if(!used[x]){
+							used[x] = true;
+							touched[size++] = x;
+						}
+						acc[x] += v * other.values[l];
+					}
+				}
+				Arrays.sort(touched, 0, size);
+				rowCols[y] = Arrays.copyOf(touched, size);
+				rowVals[y] = new double[size];
+				for(int i = 0; i < size; i++){
+					rowVals[y][i] = acc[touched[i]];
+					acc[touched[i]] = 0;
+					used[touched[i]] = false;
+				}
+			}
+		});
+		int[] offsets = new int[this.yDim+1];
+		for(int y = 0; y < this.yDim; y++)
+			offsets[y+1] = offsets[y] + rowCols[y].length;
+		int[] cols = new int[offsets[this.yDim]];
+		double[] vals = new double[offsets[this.yDim]];
+		for(int y = 0; y < this.yDim; y++){
+			System.arraycopy(rowCols[y], 0, cols, offsets[y], rowCols[y].length);
+			System.arraycopy(rowVals[y], 0, vals, offsets[y], rowVals[y].length);
+		}
+		return new SparseMatrix(offsets, cols, vals, n, this.yDim);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.math.matrix.Matrix#mult(org.tweetyproject.math.term.Term)
+	 */
+	@Override
+	public Matrix mult(Term scalar){
+		if(scalar instanceof FloatConstant || scalar instanceof IntegerConstant)
+			return this.mult(scalar.doubleValue());
+		return super.mult(scalar);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.math.matrix.Matrix#mult(double)
+	 */
+	@Override
+	public Matrix mult(double scalar){
+		double[] vals = new double[this.values.length];
+		for(int k = 0; k < vals.length; k++)
+			vals[k] = this.values[k] * scalar;
+		return new SparseMatrix(this.rowOffsets.clone(), this.columns.clone(), vals, this.xDim, this.yDim);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.math.matrix.Matrix#transpose()
+	 */
+	@Override
+	public Matrix transpose(){
+		int size = this.getNumberOfNonZeroEntries();
+		int[] offsets = new int[this.xDim+1];
+		for(int k = 0; k < size; k++)
+			offsets[this.columns[k]+1]++;
+		for(int x = 0; x < this.xDim; x++)
+			offsets[x+1] += offsets[x];
+		int[] next = Arrays.copyOf(offsets, this.xDim);
+		int[] cols = new int[size];
+		double[] vals = new double[size];
+		// rows are processed in increasing order, so the new rows are sorted as well
+		for(int y = 0; y < this.yDim; y++)
+			for(int k = this.rowOffsets[y]; k < this.rowOffsets[y+1]; k++){
+				int pos = next[this.columns[k]]++;
+				cols[pos] = y;
+				vals[pos] = this.values[k];
+			}
+		return new SparseMatrix(offsets, cols, vals, this.yDim, this.xDim);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.math.matrix.Matrix#add(org.tweetyproject.math.matrix.Matrix)
+	 */
+	@Override
+	public Matrix add(Matrix other) throws IllegalArgumentException{
+		if(this.getXDimension() != other.getXDimension() || this.getYDimension() != other.getYDimension())
+			throw new IllegalArgumentException("Wrong dimensions of matrices.");
+		if(other instanceof SparseMatrix){
+			SparseMatrix s = (SparseMatrix) other;
+			int[] offsets = new int[this.yDim+1];
+			int[] cols = new int[this.getNumberOfNonZeroEntries() + s.getNumberOfNonZeroEntries()];
+			double[] vals = new double[cols.length];
+			int size = 0;
+			for(int y = 0; y < this.yDim; y++){
+				int k = this.rowOffsets[y], l = s.rowOffsets[y];
+				while(k < this.rowOffsets[y+1] || l < s.rowOffsets[y+1]){
+					if(l == s.rowOffsets[y+1] || (k < this.rowOffsets[y+1] && this.columns[k] < s.columns[l])){
+						cols[size] = this.columns[k];
+						vals[size++] = this.values[k++];
+					}else if(k == this.rowOffsets[y+1] || s.columns[l] < this.columns[k]){
+						cols[size] = s.columns[l];
+						vals[size++] = s.values[l++];
+					}else{
+						cols[size] = this.columns[k];
+						vals[size++] = this.values[k++] + s.values[l++];
+					}
+				}
+				offsets[y+1] = size;
+			}
+			return new SparseMatrix(offsets, Arrays.copyOf(cols, size), Arrays.copyOf(vals, size), this.xDim, this.yDim);
+		}
+		DoubleMatrix o = DoubleMatrix.valueOf(other);
+		if(o == null)
+			return super.add(other);
+		return o.add(this);
+	}
+
+	/**
+	 * Returns a copy of this matrix, as entries of numerical matrices are always simplified.
+	 * @see org.tweetyproject.math.matrix.Matrix#simplify()
+	 */
+	@Override
+	public Matrix simplify(){
+		return new SparseMatrix(this.rowOffsets.clone(), this.columns.clone(), this.values.clone(), this.xDim, this.yDim);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.math.matrix.Matrix#getJamaMatrix()
+	 */
+	@Override
+	public Jama.Matrix getJamaMatrix(){
+		return DoubleMatrix.valueOf(this).getJamaMatrix();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.math.matrix.Matrix#distanceToZero()
+	 */
+	@Override
+	public double distanceToZero(){
+		double result = 0;
+		for(int k = 0; k < this.getNumberOfNonZeroEntries(); k++)
+			result += Math.abs(this.values[k]);
+		return result;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.tweetyproject.math.matrix.Matrix#isFinite()
+	 */
+	@Override
+	public boolean isFinite(){
+		for(int k = 0; k < this.getNumberOfNonZeroEntries(); k++)
+			if(Double.isInfinite(this.values[k]) || Double.isNaN(this.values[k]))
+				return false;
+		return true;
+	}
+}
@@ -0,0 +1,258 @@
+/*
+ *  This file is part of "TweetyProject", a collection of Java libraries for
+ *  logical aspects of artificial intelligence and knowledge representation.
+ *
+ *  TweetyProject is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  Copyright 2024 The TweetyProject Team <http://tweetyproject.org/contact/>
+ */
+package org.tweetyproject.math.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import org.tweetyproject.math.matrix.DoubleMatrix;
+import org.tweetyproject.math.matrix.Matrix;
+import org.tweetyproject.math.matrix.SparseMatrix;
+import org.tweetyproject.math.term.FloatConstant;
+import org.tweetyproject.math.term.FloatVariable;
+import org.tweetyproject.math.term.IntegerConstant;
+import org.tweetyproject.math.term.Term;
+
+/**
+ * Tests the numerical matrices {@link DoubleMatrix} and {@link SparseMatrix}
+ * against the generic {@link Matrix} of terms.
+ *
+ * @author agent
+ */
+public class MatrixTest {
+
+	private static final double ACCURACY = 0.000001;
+
+	@Test
+	public void MultOrientationTest() {
+		// this is 2x3 (x times y), other is 3x2
+		double[][] a = {{1, 2, 3}, {4, 5, 6}};
+		double[][] b = {{7, 8}, {9, 10}, {11, 12}};
+		for(Matrix m1: MatrixTest.versions(a))
+			for(Matrix m2: MatrixTest.versions(b)) {
+				Matrix result = m1.mult(m2);
+				assertEquals(3, result.getXDimension());
+				assertEquals(3, result.getYDimension());
+				// result(i,j) = sum_k this(k,j) * other(i,k)
+				for(int i = 0; i < 3; i++)
+					for(int j = 0; j < 3; j++)
+						assertEquals(a[0][j] * b[i][0] + a[1][j] * b[i][1], result.getDoubleEntry(i, j), ACCURACY);
+			}
+	}
+
+	@Test
+	public void RandomMultTest() {
+		Random random = new Random(1);
+		for(int it = 0; it < 20; it++) {
+			// dimensions beyond the block size of the dense multiplication
+			int n = 1 + random.nextInt(100), k = 1 + random.nextInt(100), m = 1 + random.nextInt(100);
+			double[][] a = MatrixTest.random(random, k, m);
+			double[][] b = MatrixTest.random(random, n, k);
+			Matrix expected = MatrixTest.product(a, b);
+			Matrix[] as = { MatrixTest.dense(a), MatrixTest.sparse(a) };
+			Matrix[] bs = { MatrixTest.dense(b), MatrixTest.sparse(b) };
+			for(Matrix m1: as)
+				for(Matrix m2: bs) {
+					MatrixTest.assertMatrixEquals(expected, m1.mult(m2));
+					if(m1 instanceof DoubleMatrix)
+						MatrixTest.assertMatrixEquals(expected, ((DoubleMatrix) m1).mult(m2, true));
+					if(m1 instanceof SparseMatrix)
+						MatrixTest.assertMatrixEquals(expected, ((SparseMatrix) m1).mult(m2, true));
+				}
+			for(Matrix m1: MatrixTest.versions(a)) {
+				MatrixTest.assertMatrixEquals(MatrixTest.generic(a).transpose(), m1.transpose());
+				MatrixTest.assertMatrixEquals(MatrixTest.generic(a).mult(2.5), m1.mult(2.5));
+				MatrixTest.assertMatrixEquals(MatrixTest.generic(a).mult(new IntegerConstant(3)), m1.mult(new IntegerConstant(3)));
+				for(Matrix m2: MatrixTest.versions(a))
+					MatrixTest.assertMatrixEquals(MatrixTest.generic(a).add(MatrixTest.generic(a)), m1.add(m2));
+			}
+		}
+	}
+
+	@Test
+	public void JamaTest() {
+		Random random = new Random(2);
+		double[][] a = MatrixTest.random(random, 5, 7);
+		double[][] b = MatrixTest.random(random, 4, 5);
+		for(Matrix m1: MatrixTest.versions(a)) {
+			Jama.Matrix jama = m1.getJamaMatrix();
+			assertEquals(5, jama.getRowDimension());
+			assertEquals(7, jama.getColumnDimension());
+			for(int x = 0; x < 5; x++)
+				for(int y = 0; y < 7; y++)
+					assertEquals(a[x][y], jama.get(x, y), ACCURACY);
+			// back from Jama
+			MatrixTest.assertMatrixEquals(m1, MatrixTest.dense(jama.getArray()));
+			MatrixTest.assertMatrixEquals(m1, MatrixTest.sparse(jama.getArray()));
+			// the product corresponds to the product of the Jama matrices in reverse order
+			for(Matrix m2: MatrixTest.versions(b)) {
+				Jama.Matrix product = m2.getJamaMatrix().times(jama);
+				Matrix result = m1.mult(m2);
+				for(int x = 0; x < 4; x++)
+					for(int y = 0; y < 7; y++)
+						assertEquals(product.get(x, y), result.getDoubleEntry(x, y), ACCURACY);
+			}
+		}
+	}
+
+	@Test
+	public void NonNumericFallbackTest() {
+		double[][] a = {{1, 2}, {3, 4}};
+		FloatVariable v = new FloatVariable("v");
+		Matrix terms = new Matrix(2, 2);
+		terms.setEntry(0, 0, v);
+		terms.setEntry(0, 1, new IntegerConstant(1));
+		terms.setEntry(1, 0, new FloatConstant(0.5));
+		terms.setEntry(1, 1, v.mult(new IntegerConstant(2)));
+		// numerical entries of generic matrices are converted
+		assertEquals(0.5, terms.getDoubleEntry(1, 0), ACCURACY);
+		assertEquals(null, DoubleMatrix.valueOf(terms));
+		for(Matrix m: MatrixTest.versions(a)) {
+			Matrix result = m.mult(terms);
+			assertFalse(result instanceof DoubleMatrix || result instanceof SparseMatrix);
+			Matrix expected = MatrixTest.generic(a).mult(terms);
+			for(int x = 0; x < 2; x++)
+				for(int y = 0; y < 2; y++) {
+					Term t = result.getEntry(x, y);
+					assertEquals(expected.getEntry(x, y).replaceTerm(v, new FloatConstant(3)).doubleValue(),
+							t.replaceTerm(v, new FloatConstant(3)).doubleValue(), ACCURACY);
+				}
+			assertFalse(m.add(terms) instanceof DoubleMatrix);
+			assertEquals(4 + 2 * 3, m.add(terms).getEntry(1, 1).replaceTerm(v, new FloatConstant(3)).doubleValue(), ACCURACY);
+			Matrix scaled = m.mult(v);
+			assertFalse(scaled instanceof DoubleMatrix || scaled instanceof SparseMatrix);
+			assertEquals(6, scaled.getEntry(0, 1).replaceTerm(v, new FloatConstant(3)).doubleValue(), ACCURACY);
+		}
+		// integral entries of numerical matrices are integer constants
+		assertTrue(MatrixTest.dense(a).getEntry(0, 0) instanceof IntegerConstant);
+		assertTrue(MatrixTest.sparse(a).mult(0.5).getEntry(0, 0) instanceof FloatConstant);
+	}
+
+	@Test
+	public void SparseEntriesTest() {
+		SparseMatrix m = new SparseMatrix(3, 2, new int[] {2, 0, 2}, new int[] {1, 1, 1}, new double[] {1, 2, 3});
+		assertEquals(2, m.getNumberOfNonZeroEntries());
+		assertEquals(4, m.getDoubleEntry(2, 1), ACCURACY);
+		assertEquals(2, m.getDoubleEntry(0, 1), ACCURACY);
+		assertEquals(0, m.getDoubleEntry(1, 0), ACCURACY);
+		m.setEntry(1, 0, 5);
+		m.setEntry(1, 1, 0);
+		assertEquals(3, m.getNumberOfNonZeroEntries());
+		assertEquals(5, m.getDoubleEntry(1, 0), ACCURACY);
+		assertEquals(4, m.getDoubleEntry(2, 1), ACCURACY);
+	}
+
+	/**
+	 * Asserts that the given matrices have the same dimensions and entries.
+	 * @param expected the expected matrix
+	 * @param actual the actual matrix
+	 */
+	private static void assertMatrixEquals(Matrix expected, Matrix actual) {
+		assertEquals(expected.getXDimension(), actual.getXDimension());
+		assertEquals(expected.getYDimension(), actual.getYDimension());
+		for(int x = 0; x < expected.getXDimension(); x++)
+			for(int y = 0; y < expected.getYDimension(); y++)
+				assertEquals(expected.getDoubleEntry(x, y), actual.getDoubleEntry(x, y), ACCURACY);
+	}
+
+	/**
+	 * Computes the product of the matrices with the given entries.
+	 * @param a the entries of the left matrix, entry (x,y) is a[x][y]
+	 * @param b the entries of the right matrix
+	 * @return the generic matrix with entries sum_k a[k][y] * b[x][k].
+	 */
+	private static Matrix product(double[][] a, double[][] b) {
+		double[][] entries = new double[b.length][a[0].length];
+		for(int x = 0; x < b.length; x++)
+			for(int y = 0; y < a[0].length; y++)
+				for(int k = 0; k < a.length; k++)
+					entries[x][y] += a[k][y] * b[x][k];
+		return MatrixTest.generic(entries);
+	}
+
+	/**
+	 * Returns the generic, dense and sparse matrices with the given entries.
+	 * @param entries the entries, entry (x,y) is entries[x][y]
+	 * @return the three matrices.
+	 */
+	private static Matrix[] versions(double[][] entries) {
+		return new Matrix[] { MatrixTest.generic(entries), MatrixTest.dense(entries), MatrixTest.sparse(entries) };
+	}
+
+	/**
+	 * Returns the generic matrix of terms with the given entries.
+	 * @param entries the entries, entry (x,y) is entries[x][y]
+	 * @return the matrix.
+	 */
+	private static Matrix generic(double[][] entries) {
+		Matrix m = new Matrix(entries.length, entries[0].length);
+		for(int x = 0; x < entries.length; x++)
+			for(int y = 0; y < entries[x].length; y++)
+				m.setEntry(x, y, entries[x][y] == Math.rint(entries[x][y]) ? new IntegerConstant((int) entries[x][y]) : new FloatConstant(entries[x][y]));
+		return m;
+	}
+
+	/**
+	 * Returns the dense matrix with the given entries.
+	 * @param entries the entries, entry (x,y) is entries[x][y]
+	 * @return the matrix.
+	 */
+	private static DoubleMatrix dense(double[][] entries) {
+		DoubleMatrix m = new DoubleMatrix(entries.length, entries[0].length);
+		for(int x = 0; x < entries.length; x++)
+			for(int y = 0; y < entries[x].length; y++)
+				m.setEntry(x, y, entries[x][y]);
+		return m;
+	}
+
+	/**
+	 * Returns the sparse matrix with the given entries.
+	 * @param entries the entries, entry (x,y) is entries[x][y]
+	 * @return the matrix.
+	 */
+	private static SparseMatrix sparse(double[][] entries) {
+		SparseMatrix m = new SparseMatrix(entries.length, entries[0].length);
+		for(int x = 0; x < entries.length; x++)
+			for(int y = 0; y < entries[x].length; y++)
+				m.setEntry(x, y, entries[x][y]);
+		return m;
+	}
+
+	/**
+	 * Returns random entries, about half of them zero. The entries are multiples of 1/4
+	 * so that their products and sums are exact in single precision (as used by {@link FloatConstant}).
+	 * @param random some random number generator
+	 * @param n the x dimension
+	 * @param m the y dimension
+	 * @return the entries.
+	 */
+	private static double[][] random(Random random, int n, int m) {
+		double[][] entries = new double[n][m];
+		for(int x = 0; x < n; x++)
+			for(int y = 0; y < m; y++)
+				if(random.nextBoolean())
+					entries[x][y] = (random.nextInt(41) - 20) / 4d;
+		return entries;
+	}
+}
@@ -0,0 +1,410 @@
+/*
+ *  This file is part of "TweetyProject", a collection of Java libraries for
+ *  logical aspects of artificial intelligence and knowledge representation.
+ *
+ *  TweetyProject is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  Copyright 2024 The TweetyProject Team <http://tweetyproject.org/contact/>
+ */
+package org.tweetyproject.web;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A server-wide pool for the computations of the TweetyProject services.
+ * <ul>
+ * <li>At most a given number of computations run at the same time and at most a given number of
+ * further computations wait for execution; requests beyond that are rejected (admission control).</li>
+ * <li>Concurrent requests for the same computation (identified by a key, e.g. the service, the normalized
+ * knowledge base and the query) are coalesced, i.e., the computation runs only once and all requests
+ * receive its result.</li>
+ * <li>Results of successful computations are kept in an LRU cache of bounded size.</li>
+ * </ul>
+ * Computations run on daemon threads or, if requested and supported by the Java runtime (Java 21 or later), on
+ * virtual threads.
+ *
+ * @author agent
+ */
+public class ServicePool {
+
+	/** The executor running the computations. */
+	private final ExecutorService executor;
+	/** Limits the number of concurrently running computations. */
+	private final Semaphore running;
+	/** The maximal number of concurrently running computations. */
+	private final int maxRunning;
+	/** The maximal number of admitted (running or waiting) computations. */
+	private final int maxAdmitted;
+	/** The number of admitted computations. */
+	private final AtomicInteger admitted = new AtomicInteger();
+	/** The computations currently admitted, by their keys. */
+	private final Map<String,Computation> inFlight = new ConcurrentHashMap<String,Computation>();
+	/** The results of recent computations. */
+	private final Map<String,Object> cache;
+
+	/** The number of requests. */
+	private final AtomicLong requests = new AtomicLong();
+	/** The number of requests answered from the cache. */
+	private final AtomicLong cacheHits = new AtomicLong();
+	/** The number of requests joining an admitted computation. */
+	private final AtomicLong coalesced = new AtomicLong();
+	/** The number of rejected requests. */
+	private final AtomicLong rejected = new AtomicLong();
+
+	/**
+	 * Creates a new pool.
+	 * @param maxRunning the maximal number of concurrently running computations
+	 * @param maxWaiting the maximal number of computations waiting for execution
+	 * @param cacheSize the maximal number of cached results, "0" for no caching
+	 * @param virtualThreads whether to use virtual threads (if supported by the Java runtime)
+	 */
+	public ServicePool(int maxRunning, int maxWaiting, int cacheSize, boolean virtualThreads) {
+		if(maxRunning < 1 || maxWaiting < 0 || cacheSize < 0)
+			throw new IllegalArgumentException("Invalid pool size.");
+		this.maxRunning = maxRunning;
+		this.maxAdmitted = maxRunning + maxWaiting;
+		this.running = new Semaphore(maxRunning, true);
+		ExecutorService executor = virtualThreads ? ServicePool.newVirtualThreadExecutor() : null;
+		if(executor == null)
+			executor = Executors.newCachedThreadPool(r -> {
+				Thread t = new Thread(r, "ServicePool-worker");
+				t.setDaemon(true);
+				return t;
+			});
+		this.executor = executor;
+		this.cache = Collections.synchronizedMap(new LinkedHashMap<String,Object>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String,Object> eldest) {
+				return this.size() > cacheSize;
+			}
+		});
+	}
+
+	/**
+	 * Creates an executor that starts a new virtual thread for each task.
+	 * @return the executor or null if the Java runtime does not support virtual threads.
+	 */
+	private static ExecutorService newVirtualThreadExecutor() {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the result of the given computation. If the result for the given key is cached, it is
+	 * returned immediately; if a computation with the same key is already admitted, its result is awaited;
+	 * otherwise the computation is admitted (if the pool is not full) and executed.
+	 * <br>
+	 * If the timeout passes, the computation is interrupted unless other requests still wait for it.
+	 * @param <V> the type of the result
+	 * @param key identifies the computation; equal keys must denote computations with equal results
+	 * @param computation some computation
+	 * @param timeout the maximal time to wait for the result
+	 * @param unit the unit of the timeout
+	 * @return the result of the computation.
+	 * @throws RejectedExecutionException if the pool is full.
+	 * @throws TimeoutException if the timeout passed.
+	 * @throws ExecutionException if the computation failed.
+	 * @throws InterruptedException if the current thread was interrupted while waiting.
+	 */
+	public <V> V compute(String key, Callable<V> computation, long timeout, TimeUnit unit) throws TimeoutException, ExecutionException, InterruptedException {
+		if(timeout < 0 || unit == null)
+			throw new IllegalArgumentException("Invalid timeout.");
+		return this.compute(key, computation, unit.toNanos(timeout));
+	}
+
+	/**
+	 * Returns the result of the given computation without a timeout, see {@link #compute(String, Callable, long, TimeUnit)}.
+	 * @param <V> the type of the result
+	 * @param key identifies the computation; equal keys must denote computations with equal results
+	 * @param computation some computation
+	 * @return the result of the computation.
+	 * @throws RejectedExecutionException if the pool is full.
+	 * @throws ExecutionException if the computation failed.
+	 * @throws InterruptedException if the current thread was interrupted while waiting.
+	 */
+	public <V> V compute(String key, Callable<V> computation) throws ExecutionException, InterruptedException {
+		try {
+			return this.compute(key, computation, -1);
+		} catch (TimeoutException e) {
+			// this should not happen
+			throw new ExecutionException(e);
+		}
+	}
+
+	/**
+	 * Returns the result of the given computation.
+	 * @param <V> the type of the result
+	 * @param key identifies the computation
+	 * @param computation some computation
+	 * @param nanos the maximal time to wait for the result in nanoseconds, "-1" for no timeout
+	 * @return the result of the computation.
+	 * @throws TimeoutException if the timeout passed.
+	 * @throws ExecutionException if the computation failed.
+	 * @throws InterruptedException if the current thread was interrupted while waiting.
+	 */
+	@SuppressWarnings("unchecked")
+	private <V> V compute(String key, Callable<V> computation, long nanos) throws TimeoutException, ExecutionException, InterruptedException {
+		this.requests.incrementAndGet();
+		Object cached = this.cache.get(key);
+		if(cached != null) {
+			this.cacheHits.incrementAndGet();
+			return (V) cached;
+		}
+		Computation c;
+		// register as waiter of an admitted computation or admit a new one
+		while(true) {
+			c = this.inFlight.get(key);
+			if(c != null) {
+				if(c.join()) {
+					this.coalesced.incrementAndGet();
+					break;
+				}
+				// the computation has just been abandoned
+				this.inFlight.remove(key, c);
+				continue;
+			}
+			// admission and registration are atomic per key
+			Computation created = new Computation(key);
+			c = this.inFlight.computeIfAbsent(key, k -> {
+				if(this.admitted.incrementAndGet() > this.maxAdmitted) {
+					this.admitted.decrementAndGet();
+					return null;
+				}
+				return created;
+			});
+			if(c == null) {
+				this.rejected.incrementAndGet();
+				throw new RejectedExecutionException("Too many requests, please try again later.");
+			}
+			if(c == created) {
+				this.start(c, computation);
+				break;
+			}
+		}
+		try {
+			return (V) (nanos < 0 ? c.result.get() : c.result.get(nanos, TimeUnit.NANOSECONDS));
+		} catch (TimeoutException | InterruptedException e) {
+			c.leave();
+			throw e;
+		} catch (CancellationException e) {
+			throw new ExecutionException("The computation has been cancelled.", e);
+		}
+	}
+
+	/**
+	 * Submits the given computation for asynchronous execution. Unlike {@link #compute(String, Callable, long, TimeUnit)},
+	 * computations are neither coalesced nor cached, e.g. for jobs that publish partial results while running.
+	 * @param <V> the type of the result
+	 * @param computation some computation
+	 * @return a future for the result; cancelling it interrupts the computation, which keeps its admission slot until it ends.
+	 * @throws RejectedExecutionException if the pool is full.
+	 */
+	public <V> Future<V> submit(Callable<V> computation) {
+		this.requests.incrementAndGet();
+		if(this.admitted.incrementAndGet() > this.maxAdmitted) {
+			this.admitted.decrementAndGet();
+			this.rejected.incrementAndGet();
+			throw new RejectedExecutionException("Too many requests, please try again later.");
+		}
+		// the admission slot is released when the computation ends, or when the task is cancelled before it started
+		AtomicBoolean started = new AtomicBoolean();
+		FutureTask<V> task = new FutureTask<V>(() -> {
+			if(!started.compareAndSet(false, true))
+				return null;
+			try {
+				this.running.acquire();
+				try {
+					return computation.call();
+				} finally {
+					this.running.release();
+				}
+			} finally {
+				this.admitted.decrementAndGet();
+			}
+		}) {
+			@Override
+			protected void done() {
+				if(started.compareAndSet(false, true))
+					ServicePool.this.admitted.decrementAndGet();
+			}
+		};
+		this.executor.execute(task);
+		return task;
+	}
+
+	/**
+	 * Starts the given computation.
+	 * @param c the state of the computation
+	 * @param computation the computation
+	 */
+	private void start(Computation c, Callable<?> computation) {
+		c.task = this.executor.submit(() -> {
+			if(!c.started.compareAndSet(false, true))
+				return;
+			Object value = null;
+			Throwable error = null;
+			try {
+				this.running.acquire();
+				try {
+					value = computation.call();
+					if(value != null)
+						this.cache.put(c.key, value);
+				} finally {
+					this.running.release();
+				}
+			} catch (Throwable t) {
+				error = t;
+			} finally {
+				// later requests must not join the finished computation
+				this.finish(c);
+			}
+			if(error == null)
+				c.result.complete(value);
+			else c.result.completeExceptionally(error);
+		});
+	}
+
+	/**
+	 * Removes the given computation from the admitted computations.
+	 * @param c some computation that is finished or has been abandoned before it started
+	 */
+	private void finish(Computation c) {
+		this.inFlight.remove(c.key, c);
+		this.admitted.decrementAndGet();
+	}
+
+	/**
+	 * Returns the number of computations currently running.
+	 * @return the number of running computations.
+	 */
+	public int getNumberOfRunning() {
+		return this.maxRunning - this.running.availablePermits();
+	}
+
+	/**
+	 * Returns the number of admitted computations currently waiting for execution.
+	 * @return the queue depth.
+	 */
+	public int getQueueDepth() {
+		return Math.max(0, this.admitted.get() - this.getNumberOfRunning());
+	}
+
+	/**
+	 * Returns the number of requests so far.
+	 * @return the number of requests.
+	 */
+	public long getNumberOfRequests() {
+		return this.requests.get();
+	}
+
+	/**
+	 * Returns the number of requests answered from the cache so far.
+	 * @return the number of cache hits.
+	 */
+	public long getNumberOfCacheHits() {
+		return this.cacheHits.get();
+	}
+
+	/**
+	 * Returns the number of requests that joined an already admitted computation so far.
+	 * @return the number of coalesced requests.
+	 */
+	public long getNumberOfCoalescedRequests() {
+		return this.coalesced.get();
+	}
+
+	/**
+	 * Returns the number of requests rejected because the pool was full so far.
+	 * @return the number of rejected requests.
+	 */
+	public long getNumberOfRejectedRequests() {
+		return this.rejected.get();
+	}
+
+	/**
+	 * Returns a short summary of the metrics of this pool, e.g. for logging.
+	 * @return a summary of the metrics.
+	 */
+	public String getStatus() {
+		return "running=" + this.getNumberOfRunning() + ", queued=" + this.getQueueDepth() + ", requests=" + this.getNumberOfRequests()
+			+ ", cacheHits=" + this.getNumberOfCacheHits() + ", coalesced=" + this.getNumberOfCoalescedRequests() + ", rejected=" + this.getNumberOfRejectedRequests();
+	}
+
+	/**
+	 * An admitted computation and the number of requests waiting for it.
+	 */
+	private class Computation {
+		/** The key of the computation. */
+		private final String key;
+		/** Whether the computation has been started (or abandoned before). */
+		private final AtomicBoolean started = new AtomicBoolean();
+		/** The result of the computation. */
+		private final CompletableFuture<Object> result = new CompletableFuture<Object>();
+		/** The task executing the computation. */
+		private volatile Future<?> task;
+		/** The number of waiting requests, "-1" if the computation has been abandoned. */
+		private int waiting = 1;
+
+		private Computation(String key) {
+			this.key = key;
+		}
+
+		/**
+		 * Registers another waiting request.
+		 * @return "false" if the computation has already been abandoned.
+		 */
+		private synchronized boolean join() {
+			if(this.waiting < 0)
+				return false;
+			this.waiting++;
+			return true;
+		}
+
+		/**
+		 * Unregisters a waiting request and interrupts the computation if no requests are left.
+		 */
+		private synchronized void leave() {
+			if(--this.waiting == 0) {
+				this.waiting = -1;
+				this.result.cancel(false);
+				if(this.started.compareAndSet(false, true))
+					ServicePool.this.finish(this);
+				else if(this.task != null)
+					this.task.cancel(true);
+			}
+		}
+	}
+}
@@ -37,6 +37,13 @@ public class TweetyServer {
     public static final String BASE_URI = "http://132.176.10.102:6080/tweety/";//"http://127.0.0.1:8080/tweety/";//"http://192.168.0.2:8080/tweety/";//"http://141.26.208.49:8080/tweety/"; 
     // Log file of this server
     private static final String LOG = "tweetyserver.log";
+    
+    /**
+     * The pool for the computations of all services: as many concurrent computations as processors,
+     * up to 64 waiting computations and up to 1000 cached results. Virtual threads are used if the
+     * system property "tweety.server.virtualThreads" is "true" (and the Java runtime supports them).
+     */
+    public static ServicePool pool = new ServicePool(Runtime.getRuntime().availableProcessors(), 64, 1000, Boolean.getBoolean("tweety.server.virtualThreads"));
      
     /**
      * Main server method.
@@ -19,6 +19,8 @@
 package org.tweetyproject.web.services;
 
 import java.io.IOException;
+import java.util.TreeSet;
+import java.util.concurrent.RejectedExecutionException;
 
 import javax.ws.rs.Consumes;
 import javax.ws.rs.POST;
@@ -34,6 +36,7 @@ import org.tweetyproject.arg.delp.semantics.DelpAnswer;
 import org.tweetyproject.arg.delp.semantics.EmptyCriterion;
 import org.tweetyproject.arg.delp.semantics.GeneralizedSpecificity;
 import org.tweetyproject.arg.delp.syntax.DefeasibleLogicProgram;
+import org.tweetyproject.arg.delp.syntax.DelpRule;
 import org.tweetyproject.commons.Formula;
 import org.tweetyproject.commons.ParserException;
 import org.tweetyproject.logics.fol.parser.FolParser;
@@ -102,7 +105,7 @@ public class DelpService{
 				throw new JSONException("Malformed JSON: no valid value for \"cmd\" attribute.");
 			jsonReply.put(DelpService.JSON_ATTR_REPLY, jsonQuery.getString(DelpService.JSON_ATTR_CMD));
 			jsonReply.put(DelpService.JSON_ATTR_EMAIL, jsonQuery.getString(DelpService.JSON_ATTR_EMAIL));
-			TweetyServer.log(DelpService.ID, "Finished handling request " + jsonQuery + ", reply is " + jsonReply);
+			TweetyServer.log(DelpService.ID, "Finished handling request " + jsonQuery + ", reply is " + jsonReply + " (" + TweetyServer.pool.getStatus() + ")");
 			return jsonReply.toString();
 		} catch (Exception e) {
 			JSONObject jsonError = new JSONObject();
@@ -144,7 +147,14 @@ public class DelpService{
 			if(qString.startsWith("~"))
 				f = new Negation((FolFormula)folParser.parseFormula(qString.substring(1)));
 			else f = folParser.parseFormula(qString);
-			DelpAnswer.Type ans = reasoner.query(delp,(FolFormula) f);
+			// equal requests (same criterion, same rules in any order, same query) are computed only once
+			StringBuilder key = new StringBuilder(DelpService.ID + "\n" + query.getString(DelpService.JSON_ATTR_COMP) + "\n" + f);
+			TreeSet<String> rules = new TreeSet<String>();
+			for(DelpRule r: delp)
+				rules.add(r.toString());
+			for(String r: rules)
+				key.append("\n").append(r);
+			DelpAnswer.Type ans = TweetyServer.pool.compute(key.toString(), () -> reasoner.query(delp,(FolFormula) f));
 			jsonReply.put(DelpService.JSON_ATTR_KB, query.getString(DelpService.JSON_ATTR_KB));
 			jsonReply.put(DelpService.JSON_ATTR_QUERY, query.getString(DelpService.JSON_ATTR_QUERY));
 			jsonReply.put(DelpService.JSON_ATTR_COMP, query.getString(DelpService.JSON_ATTR_COMP));
@@ -154,6 +164,9 @@ public class DelpService{
 			throw new JSONException("Malformed JSON: syntax of knowledge base and/or query does not conform to the given format.");
 		} catch (IOException e) {			
 			throw new JSONException("Malformed JSON: syntax of knowledge base and/or query does not conform to the given format.");
+		} catch (RejectedExecutionException e) {
+			TweetyServer.log(DelpService.ID, "Rejected request (" + TweetyServer.pool.getStatus() + ")");
+			throw new JSONException(e.getMessage());
 		} catch(Exception e){
 			e.printStackTrace();
 			throw new JSONException("An unexpected error occured. Please contact an administrator.");
@@ -0,0 +1,633 @@
+/*
+ *  This file is part of "TweetyProject", a collection of Java libraries for
+ *  logical aspects of artificial intelligence and knowledge representation.
+ *
+ *  TweetyProject is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  Copyright 2024 The TweetyProject Team <http://tweetyproject.org/contact/>
+ */
+package org.tweetyproject.web.services;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import org.tweetyproject.arg.dung.parser.AbstractDungParser;
+import org.tweetyproject.arg.dung.parser.FileFormat;
+import org.tweetyproject.arg.dung.reasoner.AbstractExtensionReasoner;
+import org.tweetyproject.arg.dung.reasoner.AbstractSatExtensionReasoner;
+import org.tweetyproject.arg.dung.reasoner.SatCompleteReasoner;
+import org.tweetyproject.arg.dung.reasoner.SatPreferredReasoner;
+import org.tweetyproject.arg.dung.reasoner.SatStableReasoner;
+import org.tweetyproject.arg.dung.semantics.Extension;
+import org.tweetyproject.arg.dung.semantics.Semantics;
+import org.tweetyproject.arg.dung.syntax.Argument;
+import org.tweetyproject.arg.dung.syntax.Attack;
+import org.tweetyproject.arg.dung.syntax.DungTheory;
+import org.tweetyproject.commons.InferenceMode;
+import org.tweetyproject.logics.pl.sat.CdclSolver;
+import org.tweetyproject.logics.pl.sat.SatSolver;
+import org.tweetyproject.web.TweetyServer;
+
+/**
+ * Web service for reasoning with abstract argumentation frameworks. Besides the synchronous
+ * "query" command, long-running computations can be submitted as jobs ("submit") whose results
+ * are retrieved in chunks while they are computed ("poll") and which can be cancelled ("cancel").
+ * Jobs and queries are stopped after a timeout.
+ *
+ * @author agent
+ */
+@Path("dung")
+public class DungReasonerService {
+
+	/** The identifier of this service. */
+	public static final String ID = "dung";
+
+	/** The SAT solver used for complete, preferred, and stable semantics (it stops when its thread is interrupted). */
+	public static SatSolver satSolver = new CdclSolver();
+
+	/** Default time out for queries and jobs (in seconds). */
+	public static long timeout = 60*5;
+	/** Maximal time out for queries and jobs (in seconds). */
+	public static long maxTimeout = 60*30;
+	/** Time (in seconds) results of jobs are kept after the job has terminated. */
+	public static long retention = 60*60;
+	/** Maximal number of extensions per reply to a "poll" command. */
+	public static int maxChunkSize = 1000;
+
+	/** Attribute "cmd" of queries referring to the requested command. */
+	public static final String JSON_ATTR_CMD = "cmd";
+	/** Attribute "reply" of replies referring to the reply type (same values as "cmd"). */
+	public static final String JSON_ATTR_REPLY = "reply";
+	/** "query" command (synchronous). */
+	public static final String JSON_VAL_QUERY = "query";
+	/** "submit job" command. */
+	public static final String JSON_VAL_SUBMIT = "submit";
+	/** "poll job" command. */
+	public static final String JSON_VAL_POLL = "poll";
+	/** "cancel job" command. */
+	public static final String JSON_VAL_CANCEL = "cancel";
+	/** "list semantics, formats, and tasks" command. */
+	public static final String JSON_VAL_SEMANTICS = "semantics";
+	/** Attribute "email" of queries/replies, used for identification and logging purposes. */
+	public static final String JSON_ATTR_EMAIL = "email";
+	/** Attribute "error" of replies giving some explanation of an error. */
+	public static final String JSON_ATTR_ERROR = "error";
+	/** Attribute "kb" of queries. */
+	public static final String JSON_ATTR_KB = "kb";
+	/** Attribute "format" of queries (see {@link FileFormat}). */
+	public static final String JSON_ATTR_FORMAT = "format";
+	/** Attribute "semantics" of queries (abbreviation of a {@link Semantics}). */
+	public static final String JSON_ATTR_SEMANTICS = "semantics";
+	/** Attribute "task" of queries. */
+	public static final String JSON_ATTR_TASK = "task";
+	/** Value "extensions" of attribute "task": enumerate all extensions. */
+	public static final String JSON_VAL_TASK_EXTENSIONS = "extensions";
+	/** Value "some" of attribute "task": compute some extension. */
+	public static final String JSON_VAL_TASK_SOME = "some";
+	/** Value "credulous" of attribute "task": decide credulous acceptance of an argument. */
+	public static final String JSON_VAL_TASK_CREDULOUS = "credulous";
+	/** Value "skeptical" of attribute "task": decide skeptical acceptance of an argument. */
+	public static final String JSON_VAL_TASK_SKEPTICAL = "skeptical";
+	/** Attribute "argument" of queries for acceptance. */
+	public static final String JSON_ATTR_ARGUMENT = "argument";
+	/** Attribute "timeout" of queries (in seconds). */
+	public static final String JSON_ATTR_TIMEOUT = "timeout";
+	/** Attribute "job" of queries/replies identifying a job. */
+	public static final String JSON_ATTR_JOB = "job";
+	/** Attribute "offset" of "poll" queries/replies: the index of the first extension in the reply. */
+	public static final String JSON_ATTR_OFFSET = "offset";
+	/** Attribute "limit" of "poll" queries: the maximal number of extensions in the reply. */
+	public static final String JSON_ATTR_LIMIT = "limit";
+	/** Attribute "next" of "poll" replies: the offset for the next "poll" command. */
+	public static final String JSON_ATTR_NEXT = "next";
+	/** Attribute "status" of replies. */
+	public static final String JSON_ATTR_STATUS = "status";
+	/** Attribute "extensions" of replies. */
+	public static final String JSON_ATTR_EXTENSIONS = "extensions";
+	/** Attribute "answer" of replies to acceptance queries. */
+	public static final String JSON_ATTR_ANSWER = "answer";
+	/** Attribute "time" of replies (in milliseconds): for queries the time needed to solve the problem, excluding the time
+	 * waiting for execution (for cached results, the time of the original computation); for jobs the time since their submission. */
+	public static final String JSON_ATTR_TIME = "time";
+	/** Attribute "formats" of replies to "semantics" commands. */
+	public static final String JSON_ATTR_FORMATS = "formats";
+	/** Attribute "tasks" of replies to "semantics" commands. */
+	public static final String JSON_ATTR_TASKS = "tasks";
+	/** Attribute "id" of replies to "semantics" commands. */
+	public static final String JSON_ATTR_ID = "id";
+	/** Attribute "label" of replies to "semantics" commands. */
+	public static final String JSON_ATTR_LABEL = "label";
+
+	/** Status of a job waiting for execution. */
+	public static final String STATUS_QUEUED = "queued";
+	/** Status of a running job. */
+	public static final String STATUS_RUNNING = "running";
+	/** Status of a successfully terminated job or query. */
+	public static final String STATUS_FINISHED = "finished";
+	/** Status of a job that failed. */
+	public static final String STATUS_FAILED = "failed";
+	/** Status of a cancelled job. */
+	public static final String STATUS_CANCELLED = "cancelled";
+	/** Status of a job or query that has been stopped after its time out. */
+	public static final String STATUS_TIMEOUT = "timeout";
+
+	/** The jobs, by their identifiers. */
+	private static final Map<String,Job> jobs = new ConcurrentHashMap<String,Job>();
+	/** Stops jobs after their time out. */
+	private static final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+		Thread t = new Thread(r, "DungReasonerService-timer");
+		t.setDaemon(true);
+		return t;
+	});
+
+	/**
+	 * The state and the results of a job.
+	 */
+	private static class Job {
+		/** The identifier of the job. */
+		private final String id = UUID.randomUUID().toString();
+		/** The extensions computed so far. */
+		private final List<Extension<DungTheory>> extensions = Collections.synchronizedList(new ArrayList<Extension<DungTheory>>());
+		/** The status of the job. */
+		private volatile String status = DungReasonerService.STATUS_QUEUED;
+		/** The answer of acceptance queries. */
+		private volatile Boolean answer;
+		/** The error message of failed jobs. */
+		private volatile String error;
+		/** The computation of the job. */
+		private volatile Future<?> computation;
+		/** The time out of the job. */
+		private volatile Future<?> expiry;
+		/** The time of submission. */
+		private final long submitted = System.currentTimeMillis();
+		/** The time of termination. */
+		private volatile long terminated = -1;
+
+		/**
+		 * Sets the status of this job if it has not yet terminated.
+		 * @param status the new status
+		 * @return "true" if the status has been set.
+		 */
+		private synchronized boolean setStatus(String status) {
+			if(this.terminated >= 0)
+				return false;
+			this.status = status;
+			if(!status.equals(DungReasonerService.STATUS_QUEUED) && !status.equals(DungReasonerService.STATUS_RUNNING)) {
+				this.terminated = System.currentTimeMillis();
+				if(this.expiry != null)
+					this.expiry.cancel(false);
+			}
+			return true;
+		}
+
+		/**
+		 * Stops this job with the given status (if it has not yet terminated).
+		 * @param status the new status
+		 */
+		private void stop(String status) {
+			if(this.setStatus(status) && this.computation != null)
+				this.computation.cancel(true);
+		}
+	}
+
+	/**
+	 * Handles all requests for the abstract argumentation service.
+	 * @param query the query
+	 * @return String A serialized JSON containing the reply.
+	 * @throws JSONException thrown if something is completely going wrong.
+	 */
+	@POST
+	@Produces(MediaType.APPLICATION_JSON)
+	@Consumes(MediaType.APPLICATION_JSON)
+	public String handleRequest(final String query) throws JSONException {
+		try {
+			JSONObject jsonQuery = new JSONObject(query);
+			if(!jsonQuery.has(DungReasonerService.JSON_ATTR_CMD))
+				throw new JSONException("Malformed JSON: no \"cmd\" attribute given");
+			if(!jsonQuery.has(DungReasonerService.JSON_ATTR_EMAIL))
+				throw new JSONException("Malformed JSON: no \"email\" attribute given");
+			TweetyServer.log(DungReasonerService.ID, "Received request " + jsonQuery);
+			JSONObject jsonReply;
+			String cmd = jsonQuery.getString(DungReasonerService.JSON_ATTR_CMD);
+			if(cmd.equals(DungReasonerService.JSON_VAL_QUERY))
+				jsonReply = this.handleQuery(jsonQuery);
+			else if(cmd.equals(DungReasonerService.JSON_VAL_SUBMIT))
+				jsonReply = this.handleSubmit(jsonQuery);
+			else if(cmd.equals(DungReasonerService.JSON_VAL_POLL))
+				jsonReply = this.handlePoll(jsonQuery);
+			else if(cmd.equals(DungReasonerService.JSON_VAL_CANCEL))
+				jsonReply = this.handleCancel(jsonQuery);
+			else if(cmd.equals(DungReasonerService.JSON_VAL_SEMANTICS))
+				jsonReply = this.handleGetSemantics(jsonQuery);
+			else
+				throw new JSONException("Malformed JSON: no valid value for \"cmd\" attribute.");
+			jsonReply.put(DungReasonerService.JSON_ATTR_REPLY, cmd);
+			jsonReply.put(DungReasonerService.JSON_ATTR_EMAIL, jsonQuery.getString(DungReasonerService.JSON_ATTR_EMAIL));
+			// replies to "poll" may be large, do not log the extensions
+			TweetyServer.log(DungReasonerService.ID, "Finished handling request " + jsonQuery + ", status is " + jsonReply.optString(DungReasonerService.JSON_ATTR_STATUS) + " (" + TweetyServer.pool.getStatus() + ")");
+			return jsonReply.toString();
+		} catch (Exception e) {
+			JSONObject jsonError = new JSONObject();
+			jsonError.put(DungReasonerService.JSON_ATTR_ERROR, e.getMessage());
+			TweetyServer.log(DungReasonerService.ID, "ERROR in handling request: " + e.getMessage());
+			return jsonError.toString();
+		}
+	}
+
+	/**
+	 * A parsed query.
+	 */
+	private static class Problem {
+		/** The argumentation framework. */
+		private DungTheory aaf;
+		/** The semantics. */
+		private Semantics semantics;
+		/** The task. */
+		private String task;
+		/** The queried argument (for acceptance tasks). */
+		private Argument argument;
+		/** The time out in seconds. */
+		private long timeout;
+
+		/**
+		 * Returns a key identifying this problem independently of the order of arguments and attacks.
+		 * @return a key for this problem.
+		 */
+		private String getKey() {
+			StringBuilder key = new StringBuilder(DungReasonerService.ID + "\n" + this.semantics.abbreviation() + "\n" + this.task + "\n" + this.argument);
+			TreeSet<String> elements = new TreeSet<String>();
+			for(Argument a: this.aaf)
+				elements.add(a.getName());
+			for(Attack att: this.aaf.getAttacks())
+				elements.add(att.toString());
+			for(String e: elements)
+				key.append("\n").append(e);
+			return key.toString();
+		}
+	}
+
+	/**
+	 * Parses the framework, semantics, task, argument, and time out of the given query.
+	 * @param query some query
+	 * @return the problem described by the query.
+	 * @throws JSONException if the query is malformed.
+	 */
+	private Problem parseProblem(JSONObject query) throws JSONException {
+		if(!query.has(DungReasonerService.JSON_ATTR_KB))
+			throw new JSONException("Malformed JSON: no \"kb\" attribute given");
+		if(!query.has(DungReasonerService.JSON_ATTR_FORMAT))
+			throw new JSONException("Malformed JSON: no \"format\" attribute given");
+		if(!query.has(DungReasonerService.JSON_ATTR_SEMANTICS))
+			throw new JSONException("Malformed JSON: no \"semantics\" attribute given");
+		if(!query.has(DungReasonerService.JSON_ATTR_TASK))
+			throw new JSONException("Malformed JSON: no \"task\" attribute given");
+		Problem p = new Problem();
+		FileFormat format = FileFormat.getFileFormat(query.getString(DungReasonerService.JSON_ATTR_FORMAT));
+		AbstractDungParser parser = format == null ? null : AbstractDungParser.getParser(format);
+		if(parser == null)
+			throw new JSONException("Malformed JSON: unknown value for attribute \"format\"");
+		try {
+			p.aaf = parser.parseBeliefBase(query.getString(DungReasonerService.JSON_ATTR_KB));
+		} catch (IOException | RuntimeException e) {
+			// besides ParserException, the parsers signal syntax errors by other runtime exceptions
+			throw new JSONException("Malformed JSON: syntax of knowledge base does not conform to the given format.");
+		}
+		p.semantics = DungReasonerService.getSemantics(query.getString(DungReasonerService.JSON_ATTR_SEMANTICS));
+		if(p.semantics == null)
+			throw new JSONException("Malformed JSON: unknown value for attribute \"semantics\"");
+		p.task = query.getString(DungReasonerService.JSON_ATTR_TASK);
+		if(p.task.equals(DungReasonerService.JSON_VAL_TASK_CREDULOUS) || p.task.equals(DungReasonerService.JSON_VAL_TASK_SKEPTICAL)) {
+			if(!query.has(DungReasonerService.JSON_ATTR_ARGUMENT))
+				throw new JSONException("Malformed JSON: no \"argument\" attribute given");
+			p.argument = new Argument(query.getString(DungReasonerService.JSON_ATTR_ARGUMENT).trim());
+			if(!p.aaf.contains(p.argument))
+				throw new JSONException("Malformed JSON: the argument is not contained in the knowledge base");
+		} else if(!p.task.equals(DungReasonerService.JSON_VAL_TASK_EXTENSIONS) && !p.task.equals(DungReasonerService.JSON_VAL_TASK_SOME))
+			throw new JSONException("Malformed JSON: unknown value for attribute \"task\"");
+		p.timeout = Math.min(query.optLong(DungReasonerService.JSON_ATTR_TIMEOUT, DungReasonerService.timeout), DungReasonerService.maxTimeout);
+		if(p.timeout <= 0)
+			throw new JSONException("Malformed JSON: invalid value for attribute \"timeout\"");
+		return p;
+	}
+
+	/**
+	 * Returns the semantics with the given abbreviation (if supported by this service).
+	 * @param s some abbreviation
+	 * @return the semantics or null if it is unknown.
+	 */
+	private static Semantics getSemantics(String s) {
+		for(Semantics sem: DungReasonerService.getSupportedSemantics())
+			if(sem.abbreviation().equalsIgnoreCase(s.trim()))
+				return sem;
+		return null;
+	}
+
+	/**
+	 * Returns the semantics supported by this service.
+	 * @return the supported semantics.
+	 */
+	private static List<Semantics> getSupportedSemantics() {
+		List<Semantics> result = new LinkedList<Semantics>();
+		for(Semantics sem: Semantics.values())
+			if(!sem.equals(Semantics.diverse))
+				result.add(sem);
+		return result;
+	}
+
+	/**
+	 * Returns a reasoner for the given semantics; the SAT-based reasoners enumerate extensions lazily and
+	 * are preferred where available.
+	 * @param semantics some semantics
+	 * @return a reasoner for the semantics.
+	 */
+	private static AbstractExtensionReasoner getReasoner(Semantics semantics) {
+		switch(semantics) {
+			case CO: return new SatCompleteReasoner(DungReasonerService.satSolver);
+			case PR: return new SatPreferredReasoner(DungReasonerService.satSolver);
+			case ST: return new SatStableReasoner(DungReasonerService.satSolver);
+			default: return AbstractExtensionReasoner.getSimpleReasonerForSemantics(semantics);
+		}
+	}
+
+	/**
+	 * Solves the given problem and passes every extension to the given consumer as soon as it
+	 * has been computed.
+	 * @param p some problem
+	 * @param extensions consumes the extensions
+	 * @return the answer of acceptance tasks, null for other tasks.
+	 * @throws InterruptedException if the computation has been interrupted.
+	 */
+	private static Boolean solve(Problem p, Consumer<Extension<DungTheory>> extensions) throws InterruptedException {
+		AbstractExtensionReasoner reasoner = DungReasonerService.getReasoner(p.semantics);
+		if(p.task.equals(DungReasonerService.JSON_VAL_TASK_CREDULOUS))
+			return reasoner.query(p.aaf, p.argument, InferenceMode.CREDULOUS);
+		if(p.task.equals(DungReasonerService.JSON_VAL_TASK_SKEPTICAL))
+			return reasoner.query(p.aaf, p.argument, InferenceMode.SKEPTICAL);
+		if(p.task.equals(DungReasonerService.JSON_VAL_TASK_SOME)) {
+			Extension<DungTheory> e = reasoner.getModel(p.aaf);
+			if(e != null)
+				extensions.accept(e);
+			return null;
+		}
+		Iterator<Extension<DungTheory>> it = reasoner instanceof AbstractSatExtensionReasoner
+				? ((AbstractSatExtensionReasoner) reasoner).modelIterator(p.aaf)
+				: reasoner.getModels(p.aaf).iterator();
+		while(it.hasNext()) {
+			if(Thread.interrupted())
+				throw new InterruptedException();
+			extensions.accept(it.next());
+		}
+		return null;
+	}
+
+	/**
+	 * Converts the given extensions to JSON, arguments are sorted by name.
+	 * @param extensions some extensions
+	 * @return a JSON array of JSON arrays of argument names.
+	 */
+	private static JSONArray toJson(List<Extension<DungTheory>> extensions) {
+		JSONArray result = new JSONArray();
+		for(Extension<DungTheory> e: extensions) {
+			TreeSet<String> names = new TreeSet<String>();
+			for(Argument a: e)
+				names.add(a.getName());
+			result.put(new JSONArray(names));
+		}
+		return result;
+	}
+
+	/**
+	 * The result of a synchronous query.
+	 */
+	private static class Result {
+		/** The extensions. */
+		private final List<Extension<DungTheory>> extensions = new ArrayList<Extension<DungTheory>>();
+		/** The answer of acceptance queries. */
+		private Boolean answer;
+		/** The time needed to solve the problem (in milliseconds). */
+		private long millis;
+	}
+
+	/**
+	 * Handles the "query" command
+	 * @param query some query
+	 * @return the reply
+	 * @throws JSONException if some JSON issue occurs.
+	 */
+	private JSONObject handleQuery(JSONObject query) throws JSONException {
+		Problem p = this.parseProblem(query);
+		JSONObject jsonReply = new JSONObject();
+		// if the problem is not solved, the time until the timeout is reported
+		long millis = -1, start = System.currentTimeMillis();
+		try {
+			Result result = TweetyServer.pool.compute(p.getKey(), () -> {
+				Result r = new Result();
+				long solving = System.currentTimeMillis();
+				r.answer = DungReasonerService.solve(p, r.extensions::add);
+				r.millis = System.currentTimeMillis() - solving;
+				return r;
+			}, p.timeout, TimeUnit.SECONDS);
+			millis = result.millis;
+			jsonReply.put(DungReasonerService.JSON_ATTR_STATUS, DungReasonerService.STATUS_FINISHED);
+			if(result.answer != null)
+				jsonReply.put(DungReasonerService.JSON_ATTR_ANSWER, result.answer);
+			else jsonReply.put(DungReasonerService.JSON_ATTR_EXTENSIONS, DungReasonerService.toJson(result.extensions));
+		} catch (TimeoutException e) {
+			jsonReply.put(DungReasonerService.JSON_ATTR_STATUS, DungReasonerService.STATUS_TIMEOUT);
+		} catch (RejectedExecutionException e) {
+			TweetyServer.log(DungReasonerService.ID, "Rejected request (" + TweetyServer.pool.getStatus() + ")");
+			throw new JSONException(e.getMessage());
+		} catch (InterruptedException | ExecutionException e) {
+			TweetyServer.log(DungReasonerService.ID, "Unhandled exception: " + e.getMessage());
+			throw new JSONException("An unexpected error occured. Please contact an administrator.");
+		}
+		if(millis < 0)
+			millis = System.currentTimeMillis() - start;
+		jsonReply.put(DungReasonerService.JSON_ATTR_TIME, millis);
+		return jsonReply;
+	}
+
+	/**
+	 * Handles the "submit job" command
+	 * @param query some query
+	 * @return the reply
+	 * @throws JSONException if some JSON issue occurs.
+	 */
+	private JSONObject handleSubmit(JSONObject query) throws JSONException {
+		Problem p = this.parseProblem(query);
+		DungReasonerService.removeExpiredJobs();
+		Job job = new Job();
+		try {
+			// the job cannot change its status before its time out is set
+			synchronized(job) {
+				job.computation = TweetyServer.pool.submit(() -> {
+					if(!job.setStatus(DungReasonerService.STATUS_RUNNING))
+						return null;
+					try {
+						job.answer = DungReasonerService.solve(p, job.extensions::add);
+						job.setStatus(DungReasonerService.STATUS_FINISHED);
+					} catch (InterruptedException | CancellationException e) {
+						// the status has usually been set already when the job was stopped
+						job.setStatus(DungReasonerService.STATUS_CANCELLED);
+					} catch (Throwable t) {
+						job.error = t.getMessage();
+						job.setStatus(DungReasonerService.STATUS_FAILED);
+					}
+					return null;
+				});
+				job.expiry = DungReasonerService.timer.schedule(() -> job.stop(DungReasonerService.STATUS_TIMEOUT), p.timeout, TimeUnit.SECONDS);
+			}
+		} catch (RejectedExecutionException e) {
+			TweetyServer.log(DungReasonerService.ID, "Rejected request (" + TweetyServer.pool.getStatus() + ")");
+			throw new JSONException(e.getMessage());
+		}
+		DungReasonerService.jobs.put(job.id, job);
+		JSONObject jsonReply = new JSONObject();
+		jsonReply.put(DungReasonerService.JSON_ATTR_JOB, job.id);
+		jsonReply.put(DungReasonerService.JSON_ATTR_STATUS, job.status);
+		return jsonReply;
+	}
+
+	/**
+	 * Removes all jobs that terminated more than {@link #retention} seconds ago.
+	 */
+	private static void removeExpiredJobs() {
+		long limit = System.currentTimeMillis() - DungReasonerService.retention * 1000;
+		DungReasonerService.jobs.values().removeIf(job -> job.terminated >= 0 && job.terminated < limit);
+	}
+
+	/**
+	 * Returns the job identified in the given query.
+	 * @param query some query
+	 * @return the job.
+	 * @throws JSONException if the query does not identify a job.
+	 */
+	private Job getJob(JSONObject query) throws JSONException {
+		if(!query.has(DungReasonerService.JSON_ATTR_JOB))
+			throw new JSONException("Malformed JSON: no \"job\" attribute given");
+		Job job = DungReasonerService.jobs.get(query.getString(DungReasonerService.JSON_ATTR_JOB));
+		if(job == null)
+			throw new JSONException("Unknown or expired job");
+		return job;
+	}
+
+	/**
+	 * Handles the "poll job" command: returns the status of the job and the extensions from the given
+	 * offset on that have been computed so far.
+	 * @param query some query
+	 * @return the reply
+	 * @throws JSONException if some JSON issue occurs.
+	 */
+	private JSONObject handlePoll(JSONObject query) throws JSONException {
+		Job job = this.getJob(query);
+		int offset = query.optInt(DungReasonerService.JSON_ATTR_OFFSET, 0);
+		int limit = Math.min(query.optInt(DungReasonerService.JSON_ATTR_LIMIT, DungReasonerService.maxChunkSize), DungReasonerService.maxChunkSize);
+		if(offset < 0 || limit <= 0)
+			throw new JSONException("Malformed JSON: invalid value for attribute \"offset\" or \"limit\"");
+		// read the status before the extensions such that no extensions are missed for terminated jobs
+		String status = job.status;
+		List<Extension<DungTheory>> chunk;
+		synchronized(job.extensions) {
+			int from = Math.min(offset, job.extensions.size());
+			chunk = new ArrayList<Extension<DungTheory>>(job.extensions.subList(from, Math.min(from + limit, job.extensions.size())));
+		}
+		JSONObject jsonReply = new JSONObject();
+		jsonReply.put(DungReasonerService.JSON_ATTR_JOB, job.id);
+		jsonReply.put(DungReasonerService.JSON_ATTR_STATUS, status);
+		jsonReply.put(DungReasonerService.JSON_ATTR_OFFSET, offset);
+		jsonReply.put(DungReasonerService.JSON_ATTR_NEXT, offset + chunk.size());
+		jsonReply.put(DungReasonerService.JSON_ATTR_EXTENSIONS, DungReasonerService.toJson(chunk));
+		if(status.equals(DungReasonerService.STATUS_FINISHED) && job.answer != null)
+			jsonReply.put(DungReasonerService.JSON_ATTR_ANSWER, job.answer);
+		if(status.equals(DungReasonerService.STATUS_FAILED))
+			jsonReply.put(DungReasonerService.JSON_ATTR_ERROR, job.error);
+		jsonReply.put(DungReasonerService.JSON_ATTR_TIME, (job.terminated >= 0 ? job.terminated : System.currentTimeMillis()) - job.submitted);
+		return jsonReply;
+	}
+
+	/**
+	 * Handles the "cancel job" command; the extensions computed so far remain available.
+	 * @param query some query
+	 * @return the reply
+	 * @throws JSONException if some JSON issue occurs.
+	 */
+	private JSONObject handleCancel(JSONObject query) throws JSONException {
+		Job job = this.getJob(query);
+		job.stop(DungReasonerService.STATUS_CANCELLED);
+		JSONObject jsonReply = new JSONObject();
+		jsonReply.put(DungReasonerService.JSON_ATTR_JOB, job.id);
+		jsonReply.put(DungReasonerService.JSON_ATTR_STATUS, job.status);
+		return jsonReply;
+	}
+
+	/**
+	 * Handles the "list semantics, formats, and tasks" command
+	 * @param query some query
+	 * @return the reply
+	 * @throws JSONException if some JSON issue occurs.
+	 */
+	private JSONObject handleGetSemantics(JSONObject query) throws JSONException {
+		JSONObject jsonReply = new JSONObject();
+		List<JSONObject> value = new LinkedList<JSONObject>();
+		JSONObject jsonSem;
+		for(Semantics sem: DungReasonerService.getSupportedSemantics()) {
+			jsonSem = new JSONObject();
+			jsonSem.put(DungReasonerService.JSON_ATTR_ID, sem.abbreviation());
+			jsonSem.put(DungReasonerService.JSON_ATTR_LABEL, sem.description());
+			value.add(jsonSem);
+		}
+		jsonReply.put(DungReasonerService.JSON_ATTR_SEMANTICS, value);
+		value = new LinkedList<JSONObject>();
+		for(FileFormat f: FileFormat.values()) {
+			jsonSem = new JSONObject();
+			jsonSem.put(DungReasonerService.JSON_ATTR_ID, f.extension());
+			jsonSem.put(DungReasonerService.JSON_ATTR_LABEL, f.description());
+			value.add(jsonSem);
+		}
+		jsonReply.put(DungReasonerService.JSON_ATTR_FORMATS, value);
+		List<String> tasks = new LinkedList<String>();
+		tasks.add(DungReasonerService.JSON_VAL_TASK_EXTENSIONS);
+		tasks.add(DungReasonerService.JSON_VAL_TASK_SOME);
+		tasks.add(DungReasonerService.JSON_VAL_TASK_CREDULOUS);
+		tasks.add(DungReasonerService.JSON_VAL_TASK_SKEPTICAL);
+		jsonReply.put(DungReasonerService.JSON_ATTR_TASKS, tasks);
+		return jsonReply;
+	}
+}
@@ -21,12 +21,12 @@ package org.tweetyproject.web.services;
 import java.io.IOException;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.TreeSet;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
 
 import javax.ws.rs.*;
 import javax.ws.rs.core.MediaType;
@@ -93,7 +93,8 @@ public class InconsistencyMeasurementService{
 	public static final String JSON_ATTR_KB = "kb";
 	/** Attribute "value" of replies containing the requested inconsistency value. */
 	public static final String JSON_ATTR_VALUE = "value";
-	/** Attribute "time" of replies containing the time needed to compute the value. */
+	/** Attribute "time" of replies containing the time needed to compute the value (in milliseconds), excluding
+	 * the time waiting for execution. For results taken from the cache, this is the time of the original computation. */
 	public static final String JSON_ATTR_TIME = "time";
 	/** Attribute "error" of replies giving some explanation of an error. */
 	public static final String JSON_ATTR_ERROR = "error";
@@ -124,7 +125,7 @@ public class InconsistencyMeasurementService{
 	/**
 	 * For handling timeouts.
 	 */
-	private class MeasurementCallee implements Callable<Double>{
+	private class MeasurementCallee implements Callable<Measurement>{
 		InconsistencyMeasure<BeliefSet<PlFormula,?>> measure;
 		BeliefSet<PlFormula,PlSignature> beliefSet;
 		public MeasurementCallee(InconsistencyMeasure<BeliefSet<PlFormula,?>> measure, BeliefSet<PlFormula,PlSignature> beliefSet){
@@ -132,10 +133,26 @@ public class InconsistencyMeasurementService{
 			this.beliefSet = beliefSet;
 		}
 		@Override
-		public Double call() throws Exception {
-			return this.measure.inconsistencyMeasure(this.beliefSet);
+		public Measurement call() throws Exception {
+			long millis = System.currentTimeMillis();
+			double value = this.measure.inconsistencyMeasure(this.beliefSet);
+			return new Measurement(value, System.currentTimeMillis() - millis);
 		}		
 	}
+
+	/**
+	 * An inconsistency value and the time needed to compute it.
+	 */
+	private static class Measurement {
+		/** The inconsistency value. */
+		private final double value;
+		/** The time needed to compute the value (in milliseconds). */
+		private final long millis;
+		private Measurement(double value, long millis){
+			this.value = value;
+			this.millis = millis;
+		}
+	}
 	
     /**
      * Handles all requests for the inconsistency measurement
@@ -164,7 +181,7 @@ public class InconsistencyMeasurementService{
 				throw new JSONException("Malformed JSON: no valid value for \"cmd\" attribute.");
 			jsonReply.put(InconsistencyMeasurementService.JSON_ATTR_REPLY, jsonQuery.getString(InconsistencyMeasurementService.JSON_ATTR_CMD));
 			jsonReply.put(InconsistencyMeasurementService.JSON_ATTR_EMAIL, jsonQuery.getString(InconsistencyMeasurementService.JSON_ATTR_EMAIL));
-			TweetyServer.log(InconsistencyMeasurementService.ID, "Finished handling request " + jsonQuery + ", reply is " + jsonReply);
+			TweetyServer.log(InconsistencyMeasurementService.ID, "Finished handling request " + jsonQuery + ", reply is " + jsonReply + " (" + TweetyServer.pool.getStatus() + ")");
 			return jsonReply.toString();
 		} catch (Exception e) {
 			JSONObject jsonError = new JSONObject();
@@ -183,9 +200,8 @@ public class InconsistencyMeasurementService{
 	private JSONObject handleGetValue(JSONObject query) throws JSONException{
 		if(!query.has(InconsistencyMeasurementService.JSON_ATTR_MEASURE))
 			throw new JSONException("Malformed JSON: no \"measure\" attribute given");		
-		InconsistencyMeasure<BeliefSet<PlFormula,?>> measure =
-				InconsistencyMeasureFactory.getInconsistencyMeasure(
-						Measure.getMeasure(query.getString(InconsistencyMeasurementService.JSON_ATTR_MEASURE)));
+		Measure m = Measure.getMeasure(query.getString(InconsistencyMeasurementService.JSON_ATTR_MEASURE));
+		InconsistencyMeasure<BeliefSet<PlFormula,?>> measure = InconsistencyMeasureFactory.getInconsistencyMeasure(m);
 		if(measure == null)
 			throw new JSONException("Malformed JSON: unknown value for attribute \"measure\"");
 		if(!query.has(InconsistencyMeasurementService.JSON_ATTR_FORMAT))
@@ -196,28 +212,33 @@ public class InconsistencyMeasurementService{
 			throw new JSONException("Malformed JSON: unknown value for attribute \"format\"");
 		try {
 			PlBeliefSet beliefSet = parser.parseBeliefBase(query.getString(InconsistencyMeasurementService.JSON_ATTR_KB));			
-			ExecutorService executor = Executors.newSingleThreadExecutor();
+			// equal requests (same measure, same formulas in any order) are computed only once
+			StringBuilder key = new StringBuilder(InconsistencyMeasurementService.ID + "\n" + m.id);
+			for(String f: beliefSet.stream().map(PlFormula::toString).collect(Collectors.toCollection(TreeSet::new)))
+				key.append("\n").append(f);
 			double val;
-			long millis = System.currentTimeMillis();
+			// if no value is computed, the time until the timeout or the error is reported
+			long millis = -1, start = System.currentTimeMillis();
 			try{
 				// handle timeout				
-				Future<Double> future = executor.submit(new MeasurementCallee(measure, beliefSet));
-			    val = future.get(InconsistencyMeasurementService.timeout, TimeUnit.SECONDS);
-			    executor.shutdownNow();
+			    Measurement measurement = TweetyServer.pool.compute(key.toString(), new MeasurementCallee(measure, beliefSet), InconsistencyMeasurementService.timeout, TimeUnit.SECONDS);
+			    val = measurement.value;
+			    millis = measurement.millis;
 			} catch (TimeoutException e) {
 				//inconsistency value of -1 indicates that a timeout has occurred
-				executor.shutdownNow();
 				val = -1;
+			} catch (RejectedExecutionException e) {
+				throw e;
 			} catch (Exception e){
 				//inconsistency value of -2 indicates some general error
 				TweetyServer.log(InconsistencyMeasurementService.ID, "Unhandled exception: " + e.getMessage());
-				executor.shutdownNow();
 				val = -2;
 			}
 			//inconsistency value of -3 indicates infinity
 			if(val == Double.POSITIVE_INFINITY)
 				val = -3;
-			millis = System.currentTimeMillis() - millis;
+			if(millis < 0)
+				millis = System.currentTimeMillis() - start;
 			JSONObject jsonReply = new JSONObject();
 			jsonReply.put(InconsistencyMeasurementService.JSON_ATTR_MEASURE, query.getString(InconsistencyMeasurementService.JSON_ATTR_MEASURE));
 			jsonReply.put(InconsistencyMeasurementService.JSON_ATTR_FORMAT, query.getString(InconsistencyMeasurementService.JSON_ATTR_FORMAT));
@@ -229,6 +250,9 @@ public class InconsistencyMeasurementService{
 			throw new JSONException("Malformed JSON: syntax of knowledge base does not conform to the given format.");
 		} catch (IOException e) {			
 			throw new JSONException("Malformed JSON: syntax of knowledge base does not conform to the given format.");
+		} catch (RejectedExecutionException e) {
+			TweetyServer.log(InconsistencyMeasurementService.ID, "Rejected request (" + TweetyServer.pool.getStatus() + ")");
+			throw new JSONException(e.getMessage());
 		} catch(Exception e){
 			TweetyServer.log(InconsistencyMeasurementService.ID, "Unhandled exception: " + e.getMessage());
 			throw new JSONException("An unexpected error occured. Please contact an administrator.");
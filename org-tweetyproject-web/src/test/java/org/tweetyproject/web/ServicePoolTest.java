@@ -0,0 +1,239 @@
+/*
+ *  This file is part of "TweetyProject", a collection of Java libraries for
+ *  logical aspects of artificial intelligence and knowledge representation.
+ *
+ *  TweetyProject is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ *  Copyright 2024 The TweetyProject Team <http://tweetyproject.org/contact/>
+ */
+package org.tweetyproject.web;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * Tests the coalescing, caching and admission control of the service pool.
+ *
+ * @author agent
+ */
+public class ServicePoolTest {
+
+	@Test(timeout = 10000)
+	public void CoalesceTest() throws Exception {
+		ServicePool pool = new ServicePool(2, 2, 10, false);
+		AtomicInteger calls = new AtomicInteger();
+		CountDownLatch started = new CountDownLatch(1), release = new CountDownLatch(1);
+		CompletableFuture<Integer> first = CompletableFuture.supplyAsync(() -> ServicePoolTest.compute(pool, "k", () -> {
+			calls.incrementAndGet();
+			started.countDown();
+			release.await();
+			return 42;
+		}));
+		started.await();
+		CompletableFuture<Integer> second = CompletableFuture.supplyAsync(() -> ServicePoolTest.compute(pool, "k", () -> {
+			calls.incrementAndGet();
+			return 43;
+		}));
+		while(pool.getNumberOfCoalescedRequests() == 0)
+			Thread.sleep(1);
+		release.countDown();
+		assertEquals(42, (int) first.get());
+		assertEquals(42, (int) second.get());
+		assertEquals(1, calls.get());
+		assertEquals(2, pool.getNumberOfRequests());
+	}
+
+	@Test(timeout = 10000)
+	public void CacheTest() throws Exception {
+		ServicePool pool = new ServicePool(2, 2, 1, false);
+		AtomicInteger calls = new AtomicInteger();
+		assertEquals(1, (int) pool.compute("a", () -> calls.incrementAndGet()));
+		assertEquals(1, (int) pool.compute("a", () -> calls.incrementAndGet()));
+		assertEquals(1, pool.getNumberOfCacheHits());
+		// the cache holds one result
+		assertEquals(2, (int) pool.compute("b", () -> calls.incrementAndGet(), 1, TimeUnit.SECONDS));
+		assertEquals(3, (int) pool.compute("a", () -> calls.incrementAndGet()));
+		assertEquals(1, pool.getNumberOfCacheHits());
+		// failed computations are not cached
+		try {
+			pool.compute("c", () -> { throw new IllegalStateException(); });
+			fail();
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof IllegalStateException);
+		}
+		assertEquals(4, (int) pool.compute("c", () -> calls.incrementAndGet()));
+		// no caching
+		pool = new ServicePool(2, 2, 0, false);
+		assertEquals(5, (int) pool.compute("a", () -> calls.incrementAndGet()));
+		assertEquals(6, (int) pool.compute("a", () -> calls.incrementAndGet()));
+	}
+
+	@Test(timeout = 10000)
+	public void RejectTest() throws Exception {
+		ServicePool pool = new ServicePool(1, 0, 10, false);
+		CountDownLatch started = new CountDownLatch(1), release = new CountDownLatch(1);
+		CompletableFuture<Integer> first = CompletableFuture.supplyAsync(() -> ServicePoolTest.compute(pool, "a", () -> {
+			started.countDown();
+			release.await();
+			return 1;
+		}));
+		started.await();
+		try {
+			pool.compute("b", () -> 2);
+			fail();
+		} catch (RejectedExecutionException e) {
+			assertEquals(1, pool.getNumberOfRejectedRequests());
+		}
+		// requests for an admitted computation are not rejected
+		CompletableFuture<Integer> second = CompletableFuture.supplyAsync(() -> ServicePoolTest.compute(pool, "a", () -> 3));
+		while(pool.getNumberOfCoalescedRequests() == 0)
+			Thread.sleep(1);
+		release.countDown();
+		assertEquals(1, (int) first.get());
+		assertEquals(1, (int) second.get());
+		assertEquals(2, (int) pool.compute("b", () -> 2));
+	}
+
+	@Test(timeout = 10000)
+	public void TimeoutTest() throws Exception {
+		ServicePool pool = new ServicePool(1, 0, 10, false);
+		CountDownLatch interrupted = new CountDownLatch(1);
+		try {
+			pool.compute("a", () -> {
+				try {
+					Thread.sleep(10000);
+				} catch (InterruptedException e) {
+					interrupted.countDown();
+				}
+				return 1;
+			}, 50, TimeUnit.MILLISECONDS);
+			fail();
+		} catch (TimeoutException e) {
+			// expected
+		}
+		// the abandoned computation is interrupted and frees its slot
+		interrupted.await();
+		while(pool.getQueueDepth() + pool.getNumberOfRunning() > 0)
+			Thread.sleep(1);
+		assertEquals(2, (int) pool.compute("b", () -> 2));
+	}
+
+	@Test(timeout = 10000)
+	public void SubmitTest() throws Exception {
+		ServicePool pool = new ServicePool(1, 1, 10, false);
+		CountDownLatch started = new CountDownLatch(1), release = new CountDownLatch(1);
+		Future<Integer> running = pool.submit(() -> {
+			started.countDown();
+			ServicePoolTest.awaitUninterruptibly(release);
+			return 1;
+		});
+		started.await();
+		Future<Integer> waiting = pool.submit(() -> 2);
+		ServicePoolTest.assertRejected(pool);
+		assertEquals(1, pool.getQueueDepth());
+		// cancelling a waiting computation releases its slot
+		waiting.cancel(true);
+		ServicePoolTest.awaitQueueDepth(pool, 0);
+		waiting = pool.submit(() -> 3);
+		ServicePoolTest.assertRejected(pool);
+		waiting.cancel(true);
+		ServicePoolTest.awaitQueueDepth(pool, 0);
+		// a cancelled computation that ignores the interrupt keeps its slot until it ends
+		running.cancel(true);
+		try {
+			running.get();
+			fail();
+		} catch (CancellationException e) {
+			// expected
+		}
+		assertEquals(1, pool.getNumberOfRunning());
+		waiting = pool.submit(() -> 4);
+		ServicePoolTest.assertRejected(pool);
+		release.countDown();
+		assertEquals(4, (int) waiting.get());
+		// all slots are free again
+		assertEquals(5, (int) pool.submit(() -> 5).get());
+		assertEquals(6, (int) pool.submit(() -> 6).get());
+		assertEquals(0, pool.getQueueDepth());
+		assertEquals(0, pool.getNumberOfRunning());
+	}
+
+	/**
+	 * Returns the result of the given computation of the given pool, for use in asynchronous requests.
+	 * @param pool some pool
+	 * @param key identifies the computation
+	 * @param computation some computation
+	 * @return the result of the computation.
+	 */
+	private static Integer compute(ServicePool pool, String key, Callable<Integer> computation) {
+		try {
+			return pool.compute(key, computation);
+		} catch (ExecutionException | InterruptedException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Checks that the given pool rejects further computations.
+	 * @param pool some pool
+	 */
+	private static void assertRejected(ServicePool pool) {
+		long rejected = pool.getNumberOfRejectedRequests();
+		try {
+			pool.submit(() -> 0);
+			fail();
+		} catch (RejectedExecutionException e) {
+			assertEquals(rejected + 1, pool.getNumberOfRejectedRequests());
+		}
+	}
+
+	/**
+	 * Waits until the queue depth of the given pool reaches the given value.
+	 * @param pool some pool
+	 * @param depth some queue depth
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	private static void awaitQueueDepth(ServicePool pool, int depth) throws InterruptedException {
+		while(pool.getQueueDepth() != depth)
+			Thread.sleep(1);
+	}
+
+	/**
+	 * Waits for the given latch, ignoring interrupts.
+	 * @param latch some latch
+	 */
+	private static void awaitUninterruptibly(CountDownLatch latch) {
+		while(true) {
+			try {
+				if(latch.await(10, TimeUnit.MILLISECONDS))
+					return;
+			} catch (InterruptedException e) {
+				// ignored
+			}
+		}
+	}
+}